@@ -74,6 +74,8 @@ public abstract class AbstractService<C extends EdmEnabledODataClient> {
 
   private final Context context;
 
+  private final ThreadLocal<Context> boundContext = new ThreadLocal<Context>();
+
   private final boolean transactional;
 
   private PersistenceManager persistenceManager;
@@ -128,8 +130,34 @@ public abstract class AbstractService<C extends EdmEnabledODataClient> {
     return (C) client;
   }
 
+  /**
+   * Gets the context bound to the current thread, if any, or the context shared by all threads otherwise.
+   *
+   * @return current context.
+   */
   public Context getContext() {
-    return context;
+    final Context bound = boundContext.get();
+    return bound == null ? context : bound;
+  }
+
+  /**
+   * Binds the given context to the current thread: entities loaded, changed and flushed by this thread are
+   * tracked in it instead of the shared context, until {@link #unbindContext()} is called.
+   *
+   * @param context context to bind.
+   */
+  public void bindContext(final Context context) {
+    if (context == null) {
+      throw new IllegalArgumentException("Null context");
+    }
+    boundContext.set(context);
+  }
+
+  /**
+   * Removes any context bound to the current thread.
+   */
+  public void unbindContext() {
+    boundContext.remove();
   }
 
   public boolean isTransactional() {
@@ -18,6 +18,8 @@
  */
 package org.apache.olingo.ext.proxy.api;
 
+import java.lang.reflect.InvocationHandler;
+
 import org.apache.olingo.client.api.communication.request.ODataRequest;
 import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 
@@ -29,10 +31,19 @@ public class ODataResponseError {
 
   private final ODataRequest request;
 
+  private final InvocationHandler handler;
+
   public ODataResponseError(final ODataRuntimeException exception, final int index, final ODataRequest request) {
+    this(exception, index, request, null);
+  }
+
+  public ODataResponseError(final ODataRuntimeException exception, final int index, final ODataRequest request,
+      final InvocationHandler handler) {
+
     this.exception = exception;
     this.index = index;
     this.request = request;
+    this.handler = handler;
   }
 
   public ODataRuntimeException getException() {
@@ -47,4 +58,13 @@ public class ODataResponseError {
     return request;
   }
 
+  /**
+   * Gets the invocation handler of the entity the failed request was sent for.
+   *
+   * @return entity invocation handler; <tt>null</tt> if the request was not issued on behalf of a specific entity.
+   */
+  public InvocationHandler getHandler() {
+    return handler;
+  }
+
 }
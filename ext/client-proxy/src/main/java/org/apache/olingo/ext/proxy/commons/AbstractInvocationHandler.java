@@ -25,7 +25,8 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.net.URI;
-import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
@@ -56,6 +57,25 @@ abstract class AbstractInvocationHandler implements InvocationHandler {
    */
   protected static final Logger LOG = LoggerFactory.getLogger(AbstractInvocationHandler.class);
 
+  /**
+   * Marker for proxied methods not implemented by the handler class.
+   */
+  private static final Method NOT_SELF_METHOD;
+
+  static {
+    try {
+      NOT_SELF_METHOD = Object.class.getMethod("toString");
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Handler methods by handler class and proxied method.
+   */
+  private static final ConcurrentMap<Class<?>, ConcurrentMap<Method, Method>> SELF_METHODS =
+      new ConcurrentHashMap<Class<?>, ConcurrentMap<Method, Method>>();
+
   protected AbstractService<?> service;
 
   protected AbstractInvocationHandler(final AbstractService<?> service) {
@@ -71,23 +91,18 @@ abstract class AbstractInvocationHandler implements InvocationHandler {
   }
 
   protected boolean isSelfMethod(final Method method) {
-    final Method[] selfMethods = getClass().getMethods();
-
-    boolean result = false;
-
-    for (int i = 0; i < selfMethods.length && !result; i++) {
-      result = method.getName().equals(selfMethods[i].getName())
-          && Arrays.equals(method.getParameterTypes(), selfMethods[i].getParameterTypes());
-    }
-
-    return result;
+    return getSelfMethod(method) != null;
   }
 
   protected Object invokeSelfMethod(final Method method, final Object[] args)
       throws Throwable {
+    final Method selfMethod = getSelfMethod(method);
+    if (selfMethod == null) {
+      throw new NoSuchMethodException(method.getName());
+    }
     //Try as per https://amitstechblog.wordpress.com/2011/07/24/java-proxies-and-undeclaredthrowableexception/
     try {
-      return getClass().getMethod(method.getName(), method.getParameterTypes()).invoke(this, args);
+      return selfMethod.invoke(this, args);
     } catch (UndeclaredThrowableException e) {
       throw e.getCause();
     } catch(InvocationTargetException e) {
@@ -95,6 +110,36 @@ abstract class AbstractInvocationHandler implements InvocationHandler {
     }
   }
 
+  /**
+   * Gets the public method of this handler having same name and parameter types as the given (proxied) method.
+   * Lookups are resolved once per handler class and cached.
+   *
+   * @param method proxied method.
+   * @return handler method; null if not found.
+   */
+  private Method getSelfMethod(final Method method) {
+    ConcurrentMap<Method, Method> selfMethods = SELF_METHODS.get(getClass());
+    if (selfMethods == null) {
+      selfMethods = new ConcurrentHashMap<Method, Method>();
+      final ConcurrentMap<Method, Method> previous = SELF_METHODS.putIfAbsent(getClass(), selfMethods);
+      if (previous != null) {
+        selfMethods = previous;
+      }
+    }
+
+    Method selfMethod = selfMethods.get(method);
+    if (selfMethod == null) {
+      try {
+        selfMethod = getClass().getMethod(method.getName(), method.getParameterTypes());
+      } catch (NoSuchMethodException e) {
+        selfMethod = NOT_SELF_METHOD;
+      }
+      selfMethods.putIfAbsent(method, selfMethod);
+    }
+
+    return selfMethod == NOT_SELF_METHOD ? null : selfMethod;
+  }
+
   protected ComplexType<?> getComplex(
       final String name,
       final ClientValue value,
@@ -213,6 +213,7 @@ abstract class AbstractPersistenceManager implements PersistenceManager {
             // create the link for the current object
             LOG.debug("'{}' from '{}' to (${}) '{}'", type.name(), handler, targetPos, target);
 
+            changeset.addReference(handler, targetPos);
             entity.addLink(buildNavigationLink(property.getKey().name(), URI.create("$" + targetPos), type));
           }
         }
@@ -251,6 +252,7 @@ abstract class AbstractPersistenceManager implements PersistenceManager {
 
     if (processedStatus != AttachedEntityStatus.DELETED) {
       int startingPos = posNumber;
+      final boolean referencesStartingPos = currentStatus == AttachedEntityStatus.NEW;
 
       if (handler.getEntity().isMediaEntity() && handler.isChanged()) {
         // update media properties
@@ -259,6 +261,9 @@ abstract class AbstractPersistenceManager implements PersistenceManager {
               ? URI.create("$" + startingPos)
               : URIUtils.getURI(
                   service.getClient().getServiceRoot(), handler.getEntity().getEditLink().toASCIIString());
+          if (referencesStartingPos) {
+            changeset.addReference(handler, startingPos);
+          }
           queueUpdate(handler, targetURI, entity, changeset);
           posNumber++;
           items.put(handler, posNumber);
@@ -273,6 +278,9 @@ abstract class AbstractPersistenceManager implements PersistenceManager {
                   service.getClient().getServiceRoot(),
                   handler.getEntity().getEditLink().toASCIIString() + "/$value");
 
+          if (referencesStartingPos) {
+            changeset.addReference(handler, startingPos);
+          }
           queueUpdateMediaEntity(handler, targetURI, handler.getStreamChanges(), changeset);
 
           // update media info (use null key)
@@ -288,6 +296,9 @@ abstract class AbstractPersistenceManager implements PersistenceManager {
                 service.getClient().getServiceRoot(),
                 CoreUtils.getMediaEditLink(streamedChanges.getKey(), entity).toASCIIString());
 
+        if (referencesStartingPos) {
+          changeset.addReference(handler, startingPos);
+        }
         queueUpdateMediaResource(handler, targetURI, streamedChanges.getValue(), changeset);
 
         // update media info (use null key)
@@ -325,6 +336,7 @@ abstract class AbstractPersistenceManager implements PersistenceManager {
         } else {
           int sourcePos = items.get(delayedUpdate.getSource());
           sourceURI = URI.create("$" + sourcePos);
+          changeset.addReference(delayedUpdate.getSource(), sourcePos);
         }
 
         for (EntityInvocationHandler target : delayedUpdate.getTargets()) {
@@ -337,6 +349,7 @@ abstract class AbstractPersistenceManager implements PersistenceManager {
           } else {
             int targetPos = items.get(target);
             targetURI = URI.create("$" + targetPos);
+            changeset.addReference(delayedUpdate.getSource(), targetPos);
           }
 
           changes.addLink(delayedUpdate.getType() == ClientLinkType.ENTITY_NAVIGATION
@@ -19,7 +19,6 @@
 package org.apache.olingo.ext.proxy.commons;
 
 import java.io.InputStream;
-import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
@@ -65,6 +64,7 @@ import org.apache.olingo.ext.proxy.context.EntityContext;
 import org.apache.olingo.ext.proxy.context.EntityUUID;
 import org.apache.olingo.ext.proxy.utils.ClassUtils;
 import org.apache.olingo.ext.proxy.utils.CoreUtils;
+import org.apache.olingo.ext.proxy.utils.ProxyTypeDescriptor;
 import org.apache.olingo.ext.proxy.utils.ProxyUtils;
 
 public abstract class AbstractStructuredInvocationHandler extends AbstractInvocationHandler {
@@ -153,51 +153,40 @@ public abstract class AbstractStructuredInvocationHandler extends AbstractInvoca
 
   @Override
   public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
-  	if (method.getName().startsWith("get")) {  
-  		// Here need check "get"/"set" first for better get-/set- performance because
-  		// the below if-statements are really time-consuming, even twice slower than "get" body.
-
-  		// Assumption: for each getter will always exist a setter and viceversa.
-      // get method annotation and check if it exists as expected
-
-      final Object res;
-      final Method getter = typeRef.getMethod(method.getName());
+    final ProxyTypeDescriptor.PropertyAccessor accessor =
+        ProxyTypeDescriptor.getInstance(typeRef).getAccessor(method.getName());
+
+    if (method.getName().startsWith("get")) {
+      // Assumption: for each getter will always exist a setter and viceversa.
+      if (accessor == null) {
+        // fails with NoSuchMethodException if the getter does not exist at all
+        typeRef.getMethod(method.getName());
+        throw new UnsupportedOperationException("Unsupported method " + method.getName());
+      }
 
-      final Property property = ClassUtils.getAnnotation(Property.class, getter);
-      if (property == null) {
-        final NavigationProperty navProp = ClassUtils.getAnnotation(NavigationProperty.class, getter);
-        if (navProp == null) {
-          throw new UnsupportedOperationException("Unsupported method " + method.getName());
-        } else {
-          // if the getter refers to a navigation property ... navigate and follow link if necessary
-          res = getNavigationPropertyValue(navProp, getter);
-        }
+      if (accessor.getProperty() == null) {
+        // if the getter refers to a navigation property ... navigate and follow link if necessary
+        return getNavigationPropertyValue(accessor.getNavigationProperty(), accessor.getGetter());
       } else {
         // if the getter refers to a property .... get property from wrapped entity
-        res = getPropertyValue(property.name(), getter.getGenericReturnType());
+        return getPropertyValue(accessor.getProperty().name(), accessor.getGenericReturnType());
       }
-
-      return res;
     } else if (method.getName().startsWith("set")) {
-      // get the corresponding getter method (see assumption above)
-      final String getterName = method.getName().replaceFirst("set", "get");
-      final Method getter = typeRef.getMethod(getterName);
-
-      final Property property = ClassUtils.getAnnotation(Property.class, getter);
-      if (property == null) {
-        final NavigationProperty navProp = ClassUtils.getAnnotation(NavigationProperty.class, getter);
-        if (navProp == null) {
-          throw new UnsupportedOperationException("Unsupported method " + method.getName());
-        } else {
-          // if the getter refers to a navigation property ... 
-          if (ArrayUtils.isEmpty(args) || args.length != 1) {
-            throw new IllegalArgumentException("Invalid argument");
-          }
+      // the accessor refers to the corresponding getter method (see assumption above)
+      if (accessor == null) {
+        typeRef.getMethod(method.getName().replaceFirst("set", "get"));
+        throw new UnsupportedOperationException("Unsupported method " + method.getName());
+      }
 
-          setNavigationPropertyValue(navProp, args[0]);
+      if (accessor.getProperty() == null) {
+        // if the getter refers to a navigation property ... 
+        if (ArrayUtils.isEmpty(args) || args.length != 1) {
+          throw new IllegalArgumentException("Invalid argument");
         }
+
+        setNavigationPropertyValue(accessor.getNavigationProperty(), args[0]);
       } else {
-        setPropertyValue(property, args[0]);
+        setPropertyValue(accessor.getProperty(), args[0]);
       }
 
       return ClassUtils.returnVoid();
@@ -266,12 +255,10 @@ public abstract class AbstractStructuredInvocationHandler extends AbstractInvoca
   }
 
   protected void attach(final AttachedEntityStatus status, final boolean override) {
-    if (getContext().entityContext().isAttached(getEntityHandler())) {
-      if (override) {
-        getContext().entityContext().setStatus(getEntityHandler(), status);
-      }
-    } else {
-      getContext().entityContext().attach(getEntityHandler(), status);
+    final EntityContext entityContext = getContext().entityContext();
+    if (!entityContext.attachIfAbsent(getEntityHandler(), status)
+        && override && entityContext.isAttached(getEntityHandler())) {
+      entityContext.setStatus(getEntityHandler(), status);
     }
   }
 
@@ -604,17 +591,9 @@ public abstract class AbstractStructuredInvocationHandler extends AbstractInvoca
 
   public Collection<String> readAdditionalPropertyNames() {
     final Set<String> res = new HashSet<String>(propertyChanges.keySet());
-    final Set<String> propertyNames = new HashSet<String>();
-    for (Method method : typeRef.getMethods()) {
-      final Annotation ann = method.getAnnotation(Property.class);
-      if (ann != null) {
-        final String property = ((Property) ann).name();
-        propertyNames.add(property);
-
-        // maybe someone could add a normal attribute to the additional set
-        res.remove(property);
-      }
-    }
+    final Set<String> propertyNames = ProxyTypeDescriptor.getInstance(typeRef).getPropertyNames();
+    // maybe someone could add a normal attribute to the additional set
+    res.removeAll(propertyNames);
 
     for (ClientProperty property : getInternalProperties()) {
       if (!propertyNames.contains(property.getName())) {
@@ -658,9 +637,7 @@ public abstract class AbstractStructuredInvocationHandler extends AbstractInvoca
 
   private void setNavigationPropertyValue(final NavigationProperty property, final Object value) {
     // 1) attach source entity
-    if (!getContext().entityContext().isAttached(getEntityHandler())) {
-      getContext().entityContext().attach(getEntityHandler(), AttachedEntityStatus.CHANGED);
-    }
+    getContext().entityContext().attachIfAbsent(getEntityHandler(), AttachedEntityStatus.CHANGED);
 
     // 2) add links
     addLinkChanges(property, value);
@@ -20,7 +20,10 @@ package org.apache.olingo.ext.proxy.commons;
 
 import org.apache.olingo.client.api.communication.request.ODataBatchableRequest;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class PersistenceChanges {
@@ -28,11 +31,85 @@ public class PersistenceChanges {
   private final Map<ODataBatchableRequest, EntityInvocationHandler> requests =
           new LinkedHashMap<ODataBatchableRequest, EntityInvocationHandler>();
 
+  /**
+   * Lowest content-ID referenced by each change (in insertion order), <tt>null</tt> if none.
+   */
+  private final List<Integer> references = new ArrayList<Integer>();
+
+  /**
+   * Lowest content-ID referenced by the next change to be added for a given handler.
+   */
+  private final Map<EntityInvocationHandler, Integer> pendingReferences =
+          new HashMap<EntityInvocationHandler, Integer>();
+
   public void addChange(final ODataBatchableRequest request, final EntityInvocationHandler handler) {
     this.requests.put(request, handler);
+    this.references.add(handler == null ? null : pendingReferences.remove(handler));
+  }
+
+  /**
+   * Records that the next change added for the given handler refers (via <tt>$contentId</tt>) to the result of a
+   * previous change.
+   *
+   * @param handler handler the next change is added for.
+   * @param contentId referenced content-ID (1-based position of the referenced change).
+   */
+  public void addReference(final EntityInvocationHandler handler, final int contentId) {
+    final Integer current = pendingReferences.get(handler);
+    if (current == null || contentId < current) {
+      pendingReferences.put(handler, contentId);
+    }
   }
 
   public Map<ODataBatchableRequest, EntityInvocationHandler> getChanges() {
     return requests;
   }
+
+  /**
+   * Splits changes into batches of changesets, never separating a change from the changes it refers to.
+   * <br/>
+   * Content-IDs are numbered per batch request: a new batch can then only be started when none of the following
+   * changes refers to any other change.
+   *
+   * @param maxChangesetSize maximum number of changes per changeset; it can be exceeded by changes referring to each
+   * other.
+   * @param maxChangesetsPerBatch maximum number of changesets per batch request.
+   * @return for each batch request, the <tt>[from, to)</tt> index ranges of its changesets.
+   */
+  public List<List<int[]>> split(final int maxChangesetSize, final int maxChangesetsPerBatch) {
+    final int size = references.size();
+
+    // splittable[k]: no change at index >= k refers to a change at index < k
+    final boolean[] splittable = new boolean[size + 1];
+    int lowestReferenced = Integer.MAX_VALUE;
+    int lastReferencing = -1;
+    for (int k = size - 1; k >= 0; k--) {
+      final Integer reference = references.get(k);
+      if (reference != null) {
+        lowestReferenced = Math.min(lowestReferenced, reference - 1);
+        lastReferencing = Math.max(lastReferencing, k);
+      }
+      splittable[k] = lowestReferenced >= k;
+    }
+
+    final List<List<int[]>> batches = new ArrayList<List<int[]>>();
+    List<int[]> batch = new ArrayList<int[]>();
+    int from = 0;
+    for (int k = 1; k <= size; k++) {
+      if (k == size || (k - from >= maxChangesetSize && splittable[k])) {
+        batch.add(new int[] { from, k });
+        from = k;
+
+        if (k < size && batch.size() >= maxChangesetsPerBatch && k > lastReferencing) {
+          batches.add(batch);
+          batch = new ArrayList<int[]>();
+        }
+      }
+    }
+    if (!batch.isEmpty()) {
+      batches.add(batch);
+    }
+
+    return batches;
+  }
 }
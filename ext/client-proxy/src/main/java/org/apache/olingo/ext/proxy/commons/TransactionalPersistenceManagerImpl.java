@@ -19,9 +19,22 @@
 package org.apache.olingo.ext.proxy.commons;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.olingo.client.api.communication.ODataServerErrorException;
 import org.apache.olingo.client.api.communication.request.ODataBatchableRequest;
@@ -37,28 +50,188 @@ import org.apache.olingo.client.api.communication.response.ODataEntityUpdateResp
 import org.apache.olingo.client.api.communication.response.ODataResponse;
 import org.apache.olingo.client.core.communication.header.ODataErrorResponseChecker;
 import org.apache.olingo.client.core.communication.request.batch.ODataChangesetResponseItem;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.ext.proxy.AbstractService;
 import org.apache.olingo.ext.proxy.api.ODataFlushException;
 import org.apache.olingo.ext.proxy.api.ODataResponseError;
+import org.apache.olingo.ext.proxy.context.EntityContext;
 
 /**
  * {@link org.apache.olingo.ext.proxy.api.PersistenceManager} implementation using OData batch requests to implement
  * high-level user transactions: all read-write operations will be packed in a batch request to the OData service when
  * calling <tt>flush()</tt>.
+ * <br/>
+ * By default all changes are sent as a single changeset; large flushes can be split into several changesets and
+ * batch requests, the latter optionally sent concurrently. Changes referring to each other via content-ID are always
+ * kept in the same changeset, and a batch request changing an entity is only sent once the batch requests with
+ * earlier changes of that entity have completed. Entities are detached as soon as all of their changes have been committed, so that a
+ * flush failing in a later changeset does not send them again.
  */
 public class TransactionalPersistenceManagerImpl extends AbstractPersistenceManager {
 
   private static final long serialVersionUID = -3320312269235907501L;
 
+  private int maxChangesetSize = Integer.MAX_VALUE;
+
+  private int maxChangesetsPerBatch = Integer.MAX_VALUE;
+
+  private int maxConcurrentBatches = 1;
+
   public TransactionalPersistenceManagerImpl(final AbstractService<?> factory) {
     super(factory);
   }
 
+  public int getMaxChangesetSize() {
+    return maxChangesetSize;
+  }
+
+  /**
+   * Sets the maximum number of operations per changeset.
+   *
+   * @param maxChangesetSize maximum number of operations per changeset.
+   */
+  public void setMaxChangesetSize(final int maxChangesetSize) {
+    this.maxChangesetSize = checkPositive(maxChangesetSize);
+  }
+
+  public int getMaxChangesetsPerBatch() {
+    return maxChangesetsPerBatch;
+  }
+
+  /**
+   * Sets the maximum number of changesets per batch request.
+   *
+   * @param maxChangesetsPerBatch maximum number of changesets per batch request.
+   */
+  public void setMaxChangesetsPerBatch(final int maxChangesetsPerBatch) {
+    this.maxChangesetsPerBatch = checkPositive(maxChangesetsPerBatch);
+  }
+
+  public int getMaxConcurrentBatches() {
+    return maxConcurrentBatches;
+  }
+
+  /**
+   * Sets the maximum number of batch requests sent concurrently during a single flush; additional batch requests are
+   * sent through the executor configured for the client.
+   *
+   * @param maxConcurrentBatches maximum number of concurrent batch requests.
+   */
+  public void setMaxConcurrentBatches(final int maxConcurrentBatches) {
+    this.maxConcurrentBatches = checkPositive(maxConcurrentBatches);
+  }
+
+  private static int checkPositive(final int value) {
+    if (value <= 0) {
+      throw new IllegalArgumentException("Invalid value: " + value);
+    }
+    return value;
+  }
+
   /**
    * Transactional changes commit.
    */
   @Override
   protected void doFlush(final PersistenceChanges changes, final TransactionItems items) {
+    final List<ODataBatchableRequest> requests =
+            new ArrayList<ODataBatchableRequest>(changes.getChanges().keySet());
+    final List<List<int[]>> batches = changes.split(maxChangesetSize, maxChangesetsPerBatch);
+    LOG.debug("Flushing {} changes in {} batch request(s)", requests.size(), batches.size());
+
+    // the context is bound to the calling thread, whereas batches may be sent by executor threads
+    final FlushState state = new FlushState(requests, changes.getChanges().values(), items,
+        service.getContext().entityContext());
+
+    final Queue<FutureTask<Void>> tasks = new ConcurrentLinkedQueue<FutureTask<Void>>();
+    final List<FutureTask<Void>> allTasks = new ArrayList<FutureTask<Void>>(batches.size());
+    // batch request sending the last change seen so far for each entity (or further delete URI)
+    final Map<Object, FutureTask<Void>> lastBatch = new HashMap<Object, FutureTask<Void>>();
+    for (final List<int[]> batch : batches) {
+      final Set<FutureTask<Void>> predecessors = new LinkedHashSet<FutureTask<Void>>();
+      for (int[] range : batch) {
+        for (int index = range[0]; index < range[1]; index++) {
+          final FutureTask<Void> predecessor = lastBatch.get(state.entityKey(index));
+          if (predecessor != null) {
+            predecessors.add(predecessor);
+          }
+        }
+      }
+
+      final FutureTask<Void> task = new FutureTask<Void>(new Callable<Void>() {
+
+        @Override
+        public Void call() throws InterruptedException {
+          // changes of the same entity are applied in order, so wait for the batches sending earlier ones;
+          // they have been started before, as tasks are taken from the queue in order
+          for (FutureTask<Void> predecessor : predecessors) {
+            try {
+              predecessor.get();
+            } catch (ExecutionException e) {
+              state.aborted.set(true);
+            }
+          }
+          if (!state.aborted.get()) {
+            try {
+              sendBatch(batch, state);
+            } catch (RuntimeException e) {
+              state.aborted.set(true);
+              throw e;
+            }
+          }
+          return null;
+        }
+      });
+      tasks.add(task);
+      allTasks.add(task);
+      for (int[] range : batch) {
+        for (int index = range[0]; index < range[1]; index++) {
+          lastBatch.put(state.entityKey(index), task);
+        }
+      }
+    }
+
+    // the calling thread takes part in sending, so that flushing never waits for an idle executor thread
+    final Runnable worker = new Runnable() {
+
+      @Override
+      public void run() {
+        FutureTask<Void> task;
+        while ((task = tasks.poll()) != null) {
+          task.run();
+        }
+      }
+    };
+    for (int i = 1; i < Math.min(maxConcurrentBatches, batches.size()); i++) {
+      service.getClient().getConfiguration().getExecutor().execute(worker);
+    }
+    worker.run();
+
+    RuntimeException failure = null;
+    for (FutureTask<Void> task : allTasks) {
+      try {
+        task.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ODataRuntimeException(e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof Error) {
+          throw (Error) e.getCause();
+        }
+        if (failure == null && !(e.getCause() instanceof ODataFlushException)) {
+          failure = (RuntimeException) e.getCause();
+        }
+      }
+    }
+
+    if (failure != null) {
+      throw failure;
+    }
+    if (!state.errors.isEmpty()) {
+      throw new ODataFlushException(state.statusCode, new ArrayList<ODataResponseError>(state.errors));
+    }
+  }
+
+  private void sendBatch(final List<int[]> changesets, final FlushState state) {
     final ODataBatchRequest request =
             service.getClient().getBatchRequestFactory().getBatchRequest(service.getClient().getServiceRoot());
     ((ODataRequest) request).setAccept(
@@ -66,80 +239,170 @@ public class TransactionalPersistenceManagerImpl extends AbstractPersistenceMana
 
     final BatchManager batchManager = (BatchManager) ((ODataStreamedRequest<?,?>) request).payloadManager();
 
-    final List<ODataRequest> requests = new ArrayList<ODataRequest>(changes.getChanges().size());
-    final ODataChangeset changeset = batchManager.addChangeset();
-    for (Map.Entry<ODataBatchableRequest, EntityInvocationHandler> entry : changes.getChanges().entrySet()) {
-      changeset.addRequest(entry.getKey());
-      requests.add(entry.getKey());
+    for (int[] range : changesets) {
+      final ODataChangeset changeset = batchManager.addChangeset();
+      for (int index = range[0]; index < range[1]; index++) {
+        changeset.addRequest(state.requests.get(index));
+      }
     }
 
     final ODataBatchResponse response = batchManager.getResponse();
+    try {
+      // This should be 202 for service version <= 3.0 and 200 for service version >= 4.0 but it seems that
+      // many service implementations are not fully compliant in this respect.
+      if (response.getStatusCode() != 202 && response.getStatusCode() != 200) {
+        throw new ODataServerErrorException(new ResponseStatusLine(response));
+      }
 
-    // This should be 202 for service version <= 3.0 and 200 for service version >= 4.0 but it seems that
-    // many service implementations are not fully compliant in this respect.
-    if (response.getStatusCode() != 202 && response.getStatusCode() != 200) {
-      throw new ODataServerErrorException(new ResponseStatusLine(response));
-    }
+      boolean failed = false;
+      final Iterator<ODataBatchResponseItem> batchResItor = response.getBody();
+      for (int[] range : changesets) {
+        boolean changesetFailed = false;
+        if (!batchResItor.hasNext()) {
+          if (failed) {
+            // the service stopped processing after a failed changeset
+            break;
+          }
+          throw new IllegalStateException("Unexpected operation result");
+        }
 
-    if (!items.isEmpty()) {
-      final List<ODataResponseError> errors = new ArrayList<ODataResponseError>();
+        final ODataBatchResponseItem item = batchResItor.next();
+        if (!(item instanceof ODataChangesetResponseItem)) {
+          throw new IllegalStateException("Unexpected batch response item " + item.getClass().getSimpleName());
+        }
 
-      final Iterator<ODataBatchResponseItem> batchResItor = response.getBody();
-      if (!batchResItor.hasNext()) {
-        throw new IllegalStateException("Unexpected operation result");
-      }
+        final ODataChangesetResponseItem chgres = (ODataChangesetResponseItem) item;
 
-      final ODataBatchResponseItem item = batchResItor.next();
-      if (!(item instanceof ODataChangesetResponseItem)) {
-        throw new IllegalStateException("Unexpected batch response item " + item.getClass().getSimpleName());
-      }
+        for (int index = range[0]; index < range[1]; index++) {
+          final Integer changesetItemId = index < state.itemIds.size() ? state.itemIds.get(index) : null;
+          LOG.debug("Expected changeset item {}", changesetItemId);
+
+          final EntityInvocationHandler handler = state.items.get(changesetItemId);
+
+          final ODataResponse res = chgres.next();
+          if (res.getStatusCode() >= 400) {
+            failed = true;
+            changesetFailed = true;
+            state.statusCode = response.getStatusCode();
+            state.errors.add(new ODataResponseError(ODataErrorResponseChecker.checkResponse(
+                    service.getClient(),
+                    new ResponseStatusLine(res),
+                    res.getRawResponse(),
+                    ((ODataRequest) request).getAccept()), index, state.requests.get(index), handler));
+            if (!service.getClient().getConfiguration().isContinueOnError()) {
+              throw new ODataFlushException(response.getStatusCode(), state.errors);
+            }
+          }
 
-      final ODataChangesetResponseItem chgres = (ODataChangesetResponseItem) item;
-
-      int index = 0;
-      for (final Iterator<Integer> itor = items.sortedValues().iterator(); itor.hasNext(); index++) {
-        final Integer changesetItemId = itor.next();
-        LOG.debug("Expected changeset item {}", changesetItemId);
-
-        final ODataResponse res = chgres.next();
-        if (res.getStatusCode() >= 400) {
-          errors.add(new ODataResponseError(ODataErrorResponseChecker.checkResponse(
-                  service.getClient(),
-                  new ResponseStatusLine(res),
-                  res.getRawResponse(),
-                  ((ODataRequest) request).getAccept()), index, requests.get(index)));
-          if (!service.getClient().getConfiguration().isContinueOnError()) {
-            throw new ODataFlushException(response.getStatusCode(), errors);
+          if (handler != null) {
+            if (res instanceof ODataEntityCreateResponse && (res.getStatusCode() == 201 || res
+                .getStatusCode() == 204)) {
+              if (res.getStatusCode() == 201) {
+                handler.setEntity(((ODataEntityCreateResponse<?>) res).getBody());
+                LOG.debug("Upgrade created object '{}'", handler);
+              } else {
+                handler.applyChanges();
+              }
+            } else if (res instanceof ODataEntityUpdateResponse && (res.getStatusCode() == 200 || res
+                .getStatusCode() == 204)) {
+              if (res.getStatusCode() == 201) {
+                handler.setEntity(((ODataEntityUpdateResponse<?>) res).getBody());
+                LOG.debug("Upgrade updated object '{}'", handler);
+              } else {
+                handler.applyChanges();
+              }
+            }
           }
         }
 
-        final EntityInvocationHandler handler = items.get(changesetItemId);
+        if (!changesetFailed) {
+          committed(range, state);
+        }
+      }
+    } finally {
+      response.close();
+    }
+  }
+
+  /**
+   * Detaches the entities whose changes have all been committed with the given changeset, and forgets the committed
+   * further deletes.
+   *
+   * @param range <tt>[from, to)</tt> index range of the changeset.
+   * @param state flush state.
+   */
+  private void committed(final int[] range, final FlushState state) {
+    final EntityContext entityContext = state.entityContext;
+    for (int index = range[0]; index < range[1]; index++) {
+      final EntityInvocationHandler handler = state.handlers.get(index);
+      if (handler == null) {
+        entityContext.getFurtherDeletes().remove(state.requests.get(index).getURI());
+      } else if (state.pendingChanges.get(handler).decrementAndGet() == 0) {
+        entityContext.detach(handler);
+      }
+    }
+  }
+
+  /**
+   * State shared by the batch requests sent during a single flush.
+   */
+  private static final class FlushState {
+
+    private final List<ODataBatchableRequest> requests;
+
+    /**
+     * Entity each request has been queued for, <tt>null</tt> for further deletes.
+     */
+    private final List<EntityInvocationHandler> handlers;
 
+    /**
+     * Number of changes not yet committed, per entity.
+     */
+    private final Map<EntityInvocationHandler, AtomicInteger> pendingChanges =
+            new IdentityHashMap<EntityInvocationHandler, AtomicInteger>();
+
+    private final TransactionItems items;
+
+    private final List<Integer> itemIds;
+
+    private final List<ODataResponseError> errors =
+            Collections.synchronizedList(new ArrayList<ODataResponseError>());
+
+    private final AtomicBoolean aborted = new AtomicBoolean(false);
+
+    /**
+     * Entity context of the flushing thread.
+     */
+    private final EntityContext entityContext;
+
+    private volatile int statusCode;
+
+    FlushState(final List<ODataBatchableRequest> requests, final Collection<EntityInvocationHandler> handlers,
+        final TransactionItems items, final EntityContext entityContext) {
+
+      this.requests = requests;
+      this.entityContext = entityContext;
+      this.handlers = new ArrayList<EntityInvocationHandler>(handlers);
+      for (EntityInvocationHandler handler : handlers) {
         if (handler != null) {
-          if (res instanceof ODataEntityCreateResponse && (res.getStatusCode() == 201 || res
-              .getStatusCode() == 204)) {
-            if (res.getStatusCode() == 201) {
-              handler.setEntity(((ODataEntityCreateResponse<?>) res).getBody());
-              LOG.debug("Upgrade created object '{}'", handler);
-            } else {
-              handler.applyChanges();
-            }
-          } else if (res instanceof ODataEntityUpdateResponse && (res.getStatusCode() == 200 || res
-              .getStatusCode() == 204)) {
-            if (res.getStatusCode() == 201) {
-              handler.setEntity(((ODataEntityUpdateResponse<?>) res).getBody());
-              LOG.debug("Upgrade updated object '{}'", handler);
-            } else {
-              handler.applyChanges();
-            }
+          AtomicInteger pending = pendingChanges.get(handler);
+          if (pending == null) {
+            pending = new AtomicInteger();
+            pendingChanges.put(handler, pending);
           }
+          pending.incrementAndGet();
         }
       }
+      this.items = items;
+      this.itemIds = items.sortedValues();
+    }
 
-      if (!errors.isEmpty()) {
-        throw new ODataFlushException(response.getStatusCode(), errors);
-      }
+    /**
+     * Identifies the entity changed by a request: its handler or, for further deletes, the URI.
+     */
+    Object entityKey(final int index) {
+      final EntityInvocationHandler handler = handlers.get(index);
+      return handler == null ? requests.get(index).getURI() : handler;
     }
-    response.close();
   }
 }
@@ -22,14 +22,25 @@ import java.net.URI;
 import org.apache.olingo.ext.proxy.commons.EntityInvocationHandler;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Entity context.
+ * <br/>
+ * All methods are thread-safe and do not block: entities are kept in concurrent maps, and status changes are applied
+ * with compare-and-set operations. The number of entities attached with status <tt>ATTACHED</tt> can be bounded: once
+ * the bound is exceeded, entities are detached in attachment order, skipping once those that have been looked up
+ * since (second chance); entities with any other status stay attached until detached explicitly (e.g. after flush).
  */
 public class EntityContext implements Iterable<AttachedEntity> {
 
@@ -38,23 +49,79 @@ public class EntityContext implements Iterable<AttachedEntity> {
    * <br/>
    * This map have to be used to search for entities by key.
    */
-  private final Map<EntityUUID, EntityInvocationHandler> searchableEntities =
-          new HashMap<EntityUUID, EntityInvocationHandler>();
+  private final ConcurrentMap<EntityUUID, EntityInvocationHandler> searchableEntities =
+          new ConcurrentHashMap<EntityUUID, EntityInvocationHandler>();
 
   /**
    * All attached entities (new entities included).
    * <br/>
-   * Attachment order will be maintained.
+   * Entities are identified by instance, as their key changes when the service assigns it on creation. Attachment
+   * order is recorded in each attachment and restored when iterating.
    */
-  private final Map<EntityInvocationHandler, AttachedEntityStatus> allAttachedEntities =
-          new LinkedHashMap<EntityInvocationHandler, AttachedEntityStatus>();
+  private final ConcurrentMap<EntityKey, Attachment> allAttachedEntities =
+          new ConcurrentHashMap<EntityKey, Attachment>();
 
   /**
    * Deletes to be performed excluding entities.
    * <br/>
    * Attachment order will be maintained.
    */
-  private final List<URI> furtherDeletes = new ArrayList<URI>();
+  private final List<URI> furtherDeletes = new CopyOnWriteArrayList<URI>();
+
+  /**
+   * Source of attachment order numbers.
+   */
+  private final AtomicLong attachments = new AtomicLong();
+
+  /**
+   * Entities attached with status <tt>ATTACHED</tt>, in eviction order; only maintained while bounded. Entries whose
+   * attachment has since been changed or detached are skipped and purged lazily.
+   */
+  private final Queue<Attachment> unchangedEntities = new ConcurrentLinkedQueue<Attachment>();
+
+  /**
+   * Approximate number of entries in {@link #unchangedEntities}, used to trigger purging stale entries.
+   */
+  private final AtomicInteger queuedEntities = new AtomicInteger();
+
+  /**
+   * Number of entities attached with status <tt>ATTACHED</tt>.
+   */
+  private final AtomicInteger unchangedCount = new AtomicInteger();
+
+  /**
+   * Maximum number of entities attached with status <tt>ATTACHED</tt>.
+   */
+  private volatile int maxUnchangedEntities = Integer.MAX_VALUE;
+
+  /**
+   * Sets the maximum number of entities kept attached with status <tt>ATTACHED</tt>; entities exceeding this number
+   * are detached, starting from the least recently attached ones that have not been looked up since.
+   *
+   * @param maxUnchangedEntities maximum number of unchanged entities.
+   */
+  public void setMaxUnchangedEntities(final int maxUnchangedEntities) {
+    if (maxUnchangedEntities < 0) {
+      throw new IllegalArgumentException("Invalid maximum number of unchanged entities: " + maxUnchangedEntities);
+    }
+    final boolean wasBounded = this.maxUnchangedEntities != Integer.MAX_VALUE;
+    this.maxUnchangedEntities = maxUnchangedEntities;
+    if (maxUnchangedEntities == Integer.MAX_VALUE) {
+      unchangedEntities.clear();
+      queuedEntities.set(0);
+    } else if (!wasBounded) {
+      for (Attachment attachment : attachmentsInOrder()) {
+        if (attachment.status == AttachedEntityStatus.ATTACHED) {
+          track(attachment);
+        }
+      }
+    }
+    evictUnchanged();
+  }
+
+  public int getMaxUnchangedEntities() {
+    return maxUnchangedEntities;
+  }
 
   /**
    * Attaches an entity with status <tt>NEW</tt>.
@@ -65,10 +132,10 @@ public class EntityContext implements Iterable<AttachedEntity> {
    * @param entity entity to be attached.
    */
   public void attachNew(final EntityInvocationHandler entity) {
-    if (allAttachedEntities.containsKey(entity)) {
+    if (allAttachedEntities.putIfAbsent(new EntityKey(entity),
+        new Attachment(entity, AttachedEntityStatus.NEW, attachments.incrementAndGet())) != null) {
       throw new IllegalStateException("An entity with the same key has already been attached");
     }
-    allAttachedEntities.put(entity, AttachedEntityStatus.NEW);
   }
 
   /**
@@ -105,18 +172,54 @@ public class EntityContext implements Iterable<AttachedEntity> {
    * @param status status.
    * @param force force attach.
    */
-  public void attach(final EntityInvocationHandler entity, final AttachedEntityStatus status, final boolean force) {
-    if (isAttached(entity)) {
+  public void attach(final EntityInvocationHandler entity, final AttachedEntityStatus status,
+      final boolean force) {
+
+    if (!attachIfAbsent(entity, status, force) && isAttached(entity)) {
       throw new IllegalStateException("An entity with the same profile has already been attached");
     }
+  }
 
-    if (force || entity.getUUID().getEntitySetURI() != null) {
-      allAttachedEntities.put(entity, status);
+  /**
+   * Attaches an entity with specified status, unless it is already attached. Checking and attaching happen
+   * atomically, so concurrent callers attach the entity at most once.
+   *
+   * @param entity entity to be attached.
+   * @param status status.
+   * @return <tt>true</tt> if the entity has been attached by this call; <tt>false</tt> if it was already attached or
+   * cannot be attached because its entity set is not known.
+   */
+  public boolean attachIfAbsent(final EntityInvocationHandler entity, final AttachedEntityStatus status) {
+    return attachIfAbsent(entity, status, false);
+  }
 
-      if (entity.getUUID().getKey() != null) {
-        searchableEntities.put(entity.getUUID(), entity);
+  private boolean attachIfAbsent(final EntityInvocationHandler entity, final AttachedEntityStatus status,
+      final boolean force) {
+
+    if (entity == null || !(force || entity.getUUID().getEntitySetURI() != null)) {
+      return false;
+    }
+
+    final EntityUUID uuid = entity.getUUID();
+    final boolean searchable = uuid.getKey() != null;
+    if (searchable && searchableEntities.putIfAbsent(uuid, entity) != null) {
+      return false;
+    }
+
+    final Attachment attachment = new Attachment(entity, status, attachments.incrementAndGet());
+    if (allAttachedEntities.putIfAbsent(attachment.key, attachment) != null) {
+      if (searchable) {
+        searchableEntities.remove(uuid, entity);
       }
+      return false;
+    }
+
+    if (status == AttachedEntityStatus.ATTACHED) {
+      unchangedCount.incrementAndGet();
+      track(attachment);
+      evictUnchanged();
     }
+    return true;
   }
 
   /**
@@ -126,7 +229,14 @@ public class EntityContext implements Iterable<AttachedEntity> {
    */
   public void detach(final EntityInvocationHandler entity) {
     searchableEntities.remove(entity.getUUID());
-    allAttachedEntities.remove(entity);
+    final Attachment removed = allAttachedEntities.remove(new EntityKey(entity));
+    if (removed != null) {
+      // the key of the entity may have changed since it was attached
+      searchableEntities.remove(removed.uuid, entity);
+      if (removed.status == AttachedEntityStatus.ATTACHED) {
+        unchangedCount.decrementAndGet();
+      }
+    }
   }
 
   /**
@@ -135,9 +245,15 @@ public class EntityContext implements Iterable<AttachedEntity> {
    * Use this method to clears the entity context.
    */
   public void detachAll() {
-    allAttachedEntities.clear();
+    for (EntityKey key : allAttachedEntities.keySet()) {
+      final Attachment removed = allAttachedEntities.remove(key);
+      if (removed != null && removed.status == AttachedEntityStatus.ATTACHED) {
+        unchangedCount.decrementAndGet();
+      }
+    }
     searchableEntities.clear();
     furtherDeletes.clear();
+    purgeUnchanged();
   }
 
   /**
@@ -147,7 +263,15 @@ public class EntityContext implements Iterable<AttachedEntity> {
    * @return retrieved entity.
    */
   public EntityInvocationHandler getEntity(final EntityUUID uuid) {
-    return searchableEntities.get(uuid);
+    final EntityInvocationHandler entity = searchableEntities.get(uuid);
+    if (entity != null) {
+      final Attachment attachment = allAttachedEntities.get(new EntityKey(entity));
+      if (attachment != null && !attachment.referenced) {
+        // mark as recently used
+        attachment.referenced = true;
+      }
+    }
+    return entity;
   }
 
   /**
@@ -161,7 +285,8 @@ public class EntityContext implements Iterable<AttachedEntity> {
       throw new IllegalStateException("Entity is not in the context");
     }
 
-    return allAttachedEntities.get(entity);
+    final Attachment attachment = entity == null ? null : allAttachedEntities.get(new EntityKey(entity));
+    return attachment == null ? null : attachment.status;
   }
 
   /**
@@ -174,23 +299,43 @@ public class EntityContext implements Iterable<AttachedEntity> {
     if (!isAttached(entity)) {
       throw new IllegalStateException("Entity is not in the context");
     }
+    if (entity == null) {
+      return;
+    }
 
-    final AttachedEntityStatus current = allAttachedEntities.get(entity);
+    final EntityKey key = new EntityKey(entity);
+    while (true) {
+      final Attachment current = allAttachedEntities.get(key);
+      final AttachedEntityStatus currentStatus = current == null ? null : current.status;
 
-    // Previously deleted object cannot be modified anymore.
-    if (current == AttachedEntityStatus.DELETED) {
-      throw new IllegalStateException("Entity has been previously deleted");
-    }
+      // Previously deleted object cannot be modified anymore.
+      if (currentStatus == AttachedEntityStatus.DELETED) {
+        throw new IllegalStateException("Entity has been previously deleted");
+      }
 
-    if (status == AttachedEntityStatus.NEW || status == AttachedEntityStatus.ATTACHED) {
-      throw new IllegalStateException("Entity status has already been initialized");
-    }
+      if (status == AttachedEntityStatus.NEW || status == AttachedEntityStatus.ATTACHED) {
+        throw new IllegalStateException("Entity status has already been initialized");
+      }
+
+      if (!((status == AttachedEntityStatus.LINKED && currentStatus == AttachedEntityStatus.ATTACHED)
+              || (status == AttachedEntityStatus.CHANGED && currentStatus == AttachedEntityStatus.ATTACHED)
+              || (status == AttachedEntityStatus.CHANGED && currentStatus == AttachedEntityStatus.LINKED)
+              || (status == AttachedEntityStatus.DELETED))) {
+        return;
+      }
 
-    if ((status == AttachedEntityStatus.LINKED && current == AttachedEntityStatus.ATTACHED)
-            || (status == AttachedEntityStatus.CHANGED && current == AttachedEntityStatus.ATTACHED)
-            || (status == AttachedEntityStatus.CHANGED && current == AttachedEntityStatus.LINKED)
-            || (status == AttachedEntityStatus.DELETED)) {
-      allAttachedEntities.put(entity, status);
+      // changed entities are kept until detached explicitly: replacing the attachment drops it from eviction
+      if (current == null) {
+        if (allAttachedEntities.putIfAbsent(key,
+            new Attachment(entity, status, attachments.incrementAndGet())) == null) {
+          return;
+        }
+      } else if (allAttachedEntities.replace(key, current, new Attachment(current, status))) {
+        if (currentStatus == AttachedEntityStatus.ATTACHED) {
+          unchangedCount.decrementAndGet();
+        }
+        return;
+      }
     }
   }
 
@@ -202,24 +347,89 @@ public class EntityContext implements Iterable<AttachedEntity> {
    */
   public boolean isAttached(final EntityInvocationHandler entity) {
     return entity == null // avoid attach for null entities (coming from complexes created from container ...)
-            || allAttachedEntities.containsKey(entity)
+            || allAttachedEntities.containsKey(new EntityKey(entity))
             || (entity.getUUID().getKey() != null && searchableEntities.containsKey(entity.getUUID()));
   }
 
   /**
    * Iterator.
    *
-   * @return attached entities iterator.
+   * @return iterator over a snapshot of the attached entities, in attachment order.
    */
   @Override
   public Iterator<AttachedEntity> iterator() {
     final List<AttachedEntity> res = new ArrayList<AttachedEntity>();
-    for (Map.Entry<EntityInvocationHandler, AttachedEntityStatus> entity : allAttachedEntities.entrySet()) {
-      res.add(new AttachedEntity(entity.getKey(), entity.getValue()));
+    for (Attachment attachment : attachmentsInOrder()) {
+      res.add(new AttachedEntity(attachment.entity, attachment.status));
     }
     return res.iterator();
   }
 
+  private List<Attachment> attachmentsInOrder() {
+    final List<Attachment> res = new ArrayList<Attachment>(allAttachedEntities.values());
+    Collections.sort(res, new Comparator<Attachment>() {
+      @Override
+      public int compare(final Attachment o1, final Attachment o2) {
+        return o1.order < o2.order ? -1 : o1.order == o2.order ? 0 : 1;
+      }
+    });
+    return res;
+  }
+
+  /**
+   * Queues an attachment with status <tt>ATTACHED</tt> for eviction, if the context is bounded.
+   */
+  private void track(final Attachment attachment) {
+    if (maxUnchangedEntities != Integer.MAX_VALUE) {
+      unchangedEntities.add(attachment);
+      if (queuedEntities.incrementAndGet() > 2 * unchangedCount.get() + 64) {
+        purgeUnchanged();
+      }
+    }
+  }
+
+  /**
+   * Checks whether the given attachment is still the current one of its entity.
+   */
+  private boolean isCurrent(final Attachment attachment) {
+    return allAttachedEntities.get(attachment.key) == attachment;
+  }
+
+  /**
+   * Removes queued attachments which have been changed or detached in the meantime.
+   */
+  private void purgeUnchanged() {
+    for (Iterator<Attachment> itor = unchangedEntities.iterator(); itor.hasNext();) {
+      if (!isCurrent(itor.next())) {
+        itor.remove();
+        queuedEntities.decrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Detaches unchanged entities exceeding the configured maximum: attachments are taken in queue order; those looked
+   * up since they were queued get a second chance and are queued again.
+   */
+  private void evictUnchanged() {
+    Attachment candidate;
+    while (unchangedCount.get() > maxUnchangedEntities && (candidate = unchangedEntities.poll()) != null) {
+      queuedEntities.decrementAndGet();
+      if (!isCurrent(candidate)) {
+        continue;
+      }
+      if (candidate.referenced) {
+        candidate.referenced = false;
+        unchangedEntities.add(candidate);
+        queuedEntities.incrementAndGet();
+      } else if (allAttachedEntities.remove(candidate.key, candidate)) {
+        unchangedCount.decrementAndGet();
+        searchableEntities.remove(candidate.uuid, candidate.entity);
+        searchableEntities.remove(candidate.entity.getUUID(), candidate.entity);
+      }
+    }
+  }
+
   public List<URI> getFurtherDeletes() {
     return furtherDeletes;
   }
@@ -227,4 +437,64 @@ public class EntityContext implements Iterable<AttachedEntity> {
   public void addFurtherDeletes(final URI uri) {
     furtherDeletes.add(uri);
   }
+
+  /**
+   * Status of an attached entity. A status change replaces the attachment, so that queued references to the previous
+   * one can be recognized as stale.
+   */
+  private static final class Attachment {
+
+    private final EntityKey key;
+
+    private final EntityInvocationHandler entity;
+
+    /**
+     * Identifier of the entity when it was attached.
+     */
+    private final EntityUUID uuid;
+
+    private final AttachedEntityStatus status;
+
+    private final long order;
+
+    private volatile boolean referenced;
+
+    Attachment(final EntityInvocationHandler entity, final AttachedEntityStatus status, final long order) {
+      this.key = new EntityKey(entity);
+      this.entity = entity;
+      this.uuid = entity.getUUID();
+      this.status = status;
+      this.order = order;
+    }
+
+    Attachment(final Attachment previous, final AttachedEntityStatus status) {
+      this.key = previous.key;
+      this.entity = previous.entity;
+      this.uuid = previous.uuid;
+      this.status = status;
+      this.order = previous.order;
+    }
+  }
+
+  /**
+   * Identifies an entity by instance.
+   */
+  private static final class EntityKey {
+
+    private final EntityInvocationHandler entity;
+
+    EntityKey(final EntityInvocationHandler entity) {
+      this.entity = entity;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(entity);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      return obj instanceof EntityKey && ((EntityKey) obj).entity == entity;
+    }
+  }
 }
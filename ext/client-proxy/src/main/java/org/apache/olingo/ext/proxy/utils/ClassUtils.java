@@ -23,6 +23,8 @@ import org.apache.olingo.ext.proxy.api.annotations.EntityType;
 import org.apache.olingo.ext.proxy.api.annotations.Key;
 import org.apache.olingo.ext.proxy.api.annotations.KeyRef;
 import org.apache.olingo.ext.proxy.api.annotations.Namespace;
+import org.apache.olingo.ext.proxy.api.annotations.NavigationProperty;
+import org.apache.olingo.ext.proxy.api.annotations.Property;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -78,6 +80,12 @@ public final class ClassUtils {
 
   public static Method findGetterByAnnotatedName(
           final Class<?> clazz, final Class<? extends Annotation> ann, final String name) {
+    if (Property.class.equals(ann)) {
+      return ProxyTypeDescriptor.getInstance(clazz).getPropertyGetter(name);
+    } else if (NavigationProperty.class.equals(ann)) {
+      return ProxyTypeDescriptor.getInstance(clazz).getNavigationPropertyGetter(name);
+    }
+
     final Method[] methods = clazz.getMethods();
 
     Method result = null;
@@ -137,21 +145,21 @@ public final class ClassUtils {
   }
 
   public static String getEntityTypeName(final Class<?> ref) {
-    final Annotation annotation = ref.getAnnotation(EntityType.class);
-    if (!(annotation instanceof EntityType)) {
+    final EntityType annotation = ProxyTypeDescriptor.getInstance(ref).getEntityType();
+    if (annotation == null) {
       throw new IllegalArgumentException(ref.getPackage().getName()
               + " is not annotated as @" + EntityType.class.getSimpleName());
     }
-    return ((EntityType) annotation).name();
+    return annotation.name();
   }
 
   public static String getNamespace(final Class<?> ref) {
-    final Annotation annotation = ref.getAnnotation(Namespace.class);
-    if (!(annotation instanceof Namespace)) {
+    final String namespace = ProxyTypeDescriptor.getInstance(ref).getNamespace();
+    if (namespace == null) {
       throw new IllegalArgumentException(ref.getName()
               + " is not annotated as @" + Namespace.class.getSimpleName());
     }
-    return ((Namespace) annotation).value();
+    return namespace;
   }
 
   public static Void returnVoid()
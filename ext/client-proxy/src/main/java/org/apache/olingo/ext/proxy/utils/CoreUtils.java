@@ -62,7 +62,6 @@ import org.apache.olingo.ext.proxy.AbstractService;
 import org.apache.olingo.ext.proxy.api.AbstractTerm;
 import org.apache.olingo.ext.proxy.api.ComplexCollection;
 import org.apache.olingo.ext.proxy.api.EntityCollection;
-import org.apache.olingo.ext.proxy.api.annotations.ComplexType;
 import org.apache.olingo.ext.proxy.api.annotations.CompoundKey;
 import org.apache.olingo.ext.proxy.api.annotations.CompoundKeyElement;
 import org.apache.olingo.ext.proxy.api.annotations.EnumType;
@@ -248,9 +247,9 @@ public final class CoreUtils {
           EntityCollection.class, ComplexCollection.class, Collection.class));
       return edmTypeInfo.setTypeExpression("Collection(" + type.getFullQualifiedName() + ")").build();
     } else if (obj instanceof Proxy) {
-      final Class<?> typeRef = obj.getClass().getInterfaces()[0];
-      final String ns = typeRef.getAnnotation(Namespace.class).value();
-      final String name = typeRef.getAnnotation(ComplexType.class).name();
+      final ProxyTypeDescriptor descriptor = ProxyTypeDescriptor.getInstance(obj.getClass().getInterfaces()[0]);
+      final String ns = descriptor.getNamespace();
+      final String name = descriptor.getComplexType().name();
       return edmTypeInfo.setTypeExpression(new FullQualifiedName(ns, name).toString()).build();
     } else if (obj.getClass().getAnnotation(EnumType.class) != null) {
       final Class<?> typeRef = obj.getClass();
@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.ext.proxy.utils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.olingo.ext.proxy.api.annotations.ComplexType;
+import org.apache.olingo.ext.proxy.api.annotations.EntityType;
+import org.apache.olingo.ext.proxy.api.annotations.Namespace;
+import org.apache.olingo.ext.proxy.api.annotations.NavigationProperty;
+import org.apache.olingo.ext.proxy.api.annotations.Property;
+
+/**
+ * Reflection metadata of a proxied interface, resolved once per type and shared by all its proxies.
+ */
+public final class ProxyTypeDescriptor {
+
+  private static final ConcurrentMap<Class<?>, ProxyTypeDescriptor> DESCRIPTORS =
+      new ConcurrentHashMap<Class<?>, ProxyTypeDescriptor>();
+
+  /**
+   * Gets the descriptor of the given proxied interface, building it on first access.
+   *
+   * @param typeRef proxied interface.
+   * @return descriptor of the given type.
+   */
+  public static ProxyTypeDescriptor getInstance(final Class<?> typeRef) {
+    ProxyTypeDescriptor descriptor = DESCRIPTORS.get(typeRef);
+    if (descriptor == null) {
+      descriptor = new ProxyTypeDescriptor(typeRef);
+      final ProxyTypeDescriptor previous = DESCRIPTORS.putIfAbsent(typeRef, descriptor);
+      if (previous != null) {
+        descriptor = previous;
+      }
+    }
+    return descriptor;
+  }
+
+  private final String namespace;
+
+  private final EntityType entityType;
+
+  private final ComplexType complexType;
+
+  private final Map<String, PropertyAccessor> accessors = new HashMap<String, PropertyAccessor>();
+
+  private final Map<String, Method> propertyGetters = new HashMap<String, Method>();
+
+  private final Map<String, Method> navigationPropertyGetters = new HashMap<String, Method>();
+
+  private final Set<String> propertyNames;
+
+  private ProxyTypeDescriptor(final Class<?> typeRef) {
+    final Namespace namespaceAnn = typeRef.getAnnotation(Namespace.class);
+    this.namespace = namespaceAnn == null ? null : namespaceAnn.value();
+    this.entityType = typeRef.getAnnotation(EntityType.class);
+    this.complexType = typeRef.getAnnotation(ComplexType.class);
+
+    final Set<String> names = new LinkedHashSet<String>();
+    for (Method method : typeRef.getMethods()) {
+      final Property property = method.getAnnotation(Property.class);
+      if (property != null) {
+        names.add(property.name());
+      }
+
+      // Assumption: getter is always prefixed by 'get' word and for each getter will always exist a setter
+      if (method.getName().startsWith("get") && method.getParameterTypes().length == 0) {
+        final NavigationProperty navProp = method.getAnnotation(NavigationProperty.class);
+        if (property != null || navProp != null) {
+          final PropertyAccessor accessor = new PropertyAccessor(method, property, navProp);
+          accessors.put(method.getName(), accessor);
+          accessors.put(method.getName().replaceFirst("get", "set"), accessor);
+        }
+        if (property != null && !propertyGetters.containsKey(property.name())) {
+          propertyGetters.put(property.name(), method);
+        }
+        if (navProp != null && !navigationPropertyGetters.containsKey(navProp.name())) {
+          navigationPropertyGetters.put(navProp.name(), method);
+        }
+      }
+    }
+    this.propertyNames = Collections.unmodifiableSet(names);
+  }
+
+  /**
+   * Gets the value of the <tt>@Namespace</tt> annotation.
+   *
+   * @return namespace; null if the type is not annotated.
+   */
+  public String getNamespace() {
+    return namespace;
+  }
+
+  /**
+   * Gets the <tt>@EntityType</tt> annotation.
+   *
+   * @return entity type annotation; null if the type is not an entity type.
+   */
+  public EntityType getEntityType() {
+    return entityType;
+  }
+
+  /**
+   * Gets the <tt>@ComplexType</tt> annotation.
+   *
+   * @return complex type annotation; null if the type is not a complex type.
+   */
+  public ComplexType getComplexType() {
+    return complexType;
+  }
+
+  /**
+   * Gets the accessor of the (navigation) property read or written by the given method.
+   *
+   * @param methodName name of a getter or setter method.
+   * @return property accessor; null if the given method does not refer to any (navigation) property.
+   */
+  public PropertyAccessor getAccessor(final String methodName) {
+    return accessors.get(methodName);
+  }
+
+  /**
+   * Gets the getter of the property with the given name.
+   *
+   * @param name property name, as in <tt>@Property</tt>.
+   * @return getter method; null if not found.
+   */
+  public Method getPropertyGetter(final String name) {
+    return propertyGetters.get(name);
+  }
+
+  /**
+   * Gets the getter of the navigation property with the given name.
+   *
+   * @param name navigation property name, as in <tt>@NavigationProperty</tt>.
+   * @return getter method; null if not found.
+   */
+  public Method getNavigationPropertyGetter(final String name) {
+    return navigationPropertyGetters.get(name);
+  }
+
+  /**
+   * Gets the names of all declared properties.
+   *
+   * @return property names.
+   */
+  public Set<String> getPropertyNames() {
+    return propertyNames;
+  }
+
+  /**
+   * Pre-resolved getter and annotations of a (navigation) property.
+   */
+  public static final class PropertyAccessor {
+
+    private final Method getter;
+
+    private final Type genericReturnType;
+
+    private final Property property;
+
+    private final NavigationProperty navigationProperty;
+
+    private PropertyAccessor(final Method getter, final Property property,
+        final NavigationProperty navigationProperty) {
+
+      this.getter = getter;
+      this.genericReturnType = getter.getGenericReturnType();
+      this.property = property;
+      this.navigationProperty = navigationProperty;
+    }
+
+    public Method getGetter() {
+      return getter;
+    }
+
+    public Type getGenericReturnType() {
+      return genericReturnType;
+    }
+
+    /**
+     * Gets the <tt>@Property</tt> annotation.
+     *
+     * @return property annotation; null in case of navigation property.
+     */
+    public Property getProperty() {
+      return property;
+    }
+
+    /**
+     * Gets the <tt>@NavigationProperty</tt> annotation.
+     *
+     * @return navigation property annotation; null in case of property.
+     */
+    public NavigationProperty getNavigationProperty() {
+      return navigationProperty;
+    }
+  }
+}
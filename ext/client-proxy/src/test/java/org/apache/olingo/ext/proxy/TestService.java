@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.ext.proxy;
+
+import java.io.Serializable;
+import java.net.URI;
+
+import org.apache.olingo.client.api.domain.ClientEntity;
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.edm.constants.ODataServiceVersion;
+import org.apache.olingo.ext.proxy.api.AbstractTerm;
+import org.apache.olingo.ext.proxy.api.annotations.EntityType;
+import org.apache.olingo.ext.proxy.api.annotations.Namespace;
+import org.apache.olingo.ext.proxy.commons.EntityInvocationHandler;
+
+/**
+ * Service without metadata, creating handlers of a single entity type <tt>Person</tt> keyed by integer.
+ */
+@SuppressWarnings("rawtypes")
+public class TestService extends AbstractService {
+
+  public static final String SERVICE_ROOT = "http://localhost/service";
+
+  public static final URI ENTITY_SET = URI.create(SERVICE_ROOT + "/People");
+
+  public TestService(final boolean transactional) {
+    super("", null, ODataServiceVersion.V40, SERVICE_ROOT, transactional);
+  }
+
+  /**
+   * Creates a handler for the person with the given key; handlers for the same key are equal.
+   *
+   * @param key key of the person.
+   * @return entity handler.
+   */
+  public EntityInvocationHandler newEntity(final int key) {
+    final ClientEntity entity = getClient().getObjectFactory().newEntity(new FullQualifiedName("Test", "Person"));
+    entity.setEditLink(URI.create(ENTITY_SET + "(" + key + ")"));
+    final EntityInvocationHandler handler = EntityInvocationHandler.getInstance(entity, ENTITY_SET, Person.class, this);
+    handler.updateUUID(ENTITY_SET, Person.class, key);
+    return handler;
+  }
+
+  @Override
+  public Class<?> getEntityTypeClass(final String name) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Class<?> getComplexTypeClass(final String name) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Class<?> getEnumTypeClass(final String name) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Class<? extends AbstractTerm> getTermClass(final String name) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Namespace("Test")
+  @EntityType(name = "Person")
+  public interface Person extends org.apache.olingo.ext.proxy.api.EntityType<Person>, Serializable {
+  }
+}
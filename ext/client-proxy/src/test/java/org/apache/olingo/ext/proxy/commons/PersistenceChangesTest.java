@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.ext.proxy.commons;
+
+import static org.junit.Assert.assertEquals;
+
+import java.net.URI;
+import java.util.List;
+
+import org.apache.olingo.ext.proxy.TestService;
+import org.junit.Test;
+
+public class PersistenceChangesTest {
+
+  private final TestService service = new TestService(true);
+
+  @Test
+  public void singleChangeset() {
+    assertEquals("[[0-5]]", toString(changes(5).split(Integer.MAX_VALUE, Integer.MAX_VALUE)));
+    assertEquals("[]", toString(changes(0).split(1, 1)));
+  }
+
+  @Test
+  public void changesetBoundaries() {
+    assertEquals("[[0-3, 3-6, 6-7]]", toString(changes(7).split(3, Integer.MAX_VALUE)));
+    assertEquals("[[0-3, 3-6]]", toString(changes(6).split(3, Integer.MAX_VALUE)));
+    assertEquals("[[0-1, 1-2, 2-3]]", toString(changes(3).split(1, Integer.MAX_VALUE)));
+  }
+
+  @Test
+  public void changesetsPerBatch() {
+    assertEquals("[[0-3, 3-6], [6-7]]", toString(changes(7).split(3, 2)));
+    assertEquals("[[0-2], [2-4], [4-5]]", toString(changes(5).split(2, 1)));
+    assertEquals("[[0-2, 2-4]]", toString(changes(4).split(2, 2)));
+  }
+
+  @Test
+  public void referencesKeepChangesTogether() {
+    // the fourth change refers to the second one ($2)
+    final PersistenceChanges changes = changes(3);
+    final EntityInvocationHandler referring = service.newEntity(3);
+    changes.addReference(referring, 2);
+    changes.addReference(referring, 3);
+    addChange(changes, referring);
+    addChange(changes, service.newEntity(4));
+
+    assertEquals("[[0-1, 1-4, 4-5]]", toString(changes.split(1, Integer.MAX_VALUE)));
+    // content-IDs are numbered per batch request: no batch may start within a referenced range
+    assertEquals("[[0-1, 1-4], [4-5]]", toString(changes.split(1, 1)));
+    assertEquals("[[0-4], [4-5]]", toString(changes.split(2, 1)));
+  }
+
+  @Test
+  public void referenceToFirstChange() {
+    final PersistenceChanges changes = changes(1);
+    final EntityInvocationHandler referring = service.newEntity(1);
+    changes.addReference(referring, 1);
+    addChange(changes, referring);
+    addChange(changes, service.newEntity(2));
+    addChange(changes, service.newEntity(3));
+
+    assertEquals("[[0-2, 2-3], [3-4]]", toString(changes.split(1, 2)));
+    assertEquals("[[0-2], [2-3], [3-4]]", toString(changes.split(1, 1)));
+  }
+
+  private PersistenceChanges changes(final int count) {
+    final PersistenceChanges changes = new PersistenceChanges();
+    for (int i = 0; i < count; i++) {
+      addChange(changes, service.newEntity(i));
+    }
+    return changes;
+  }
+
+  private void addChange(final PersistenceChanges changes, final EntityInvocationHandler handler) {
+    changes.addChange(service.getClient().getCUDRequestFactory().getDeleteRequest(
+        URI.create(TestService.ENTITY_SET + "(" + handler.getUUID().getKey() + ")")), handler);
+  }
+
+  private static String toString(final List<List<int[]>> batches) {
+    final StringBuilder result = new StringBuilder("[");
+    for (List<int[]> batch : batches) {
+      result.append(result.length() == 1 ? "[" : ", [");
+      for (int[] range : batch) {
+        result.append(range == batch.get(0) ? "" : ", ").append(range[0]).append('-').append(range[1]);
+      }
+      result.append(']');
+    }
+    return result.append(']').toString();
+  }
+}
@@ -0,0 +1,353 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.ext.proxy.commons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.olingo.client.api.http.HttpClientFactory;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.ext.proxy.TestService;
+import org.apache.olingo.ext.proxy.api.ODataFlushException;
+import org.apache.olingo.ext.proxy.context.AttachedEntityStatus;
+import org.apache.olingo.ext.proxy.context.Context;
+import org.apache.olingo.ext.proxy.context.EntityContext;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class TransactionalPersistenceManagerImplTest {
+
+  private static final String CRLF = "\r\n";
+
+  private final TestService service = new TestService(true);
+
+  private final BatchResponder responder = new BatchResponder();
+
+  private TransactionalPersistenceManagerImpl manager;
+
+  @Before
+  public void setUp() {
+    service.getClient().getConfiguration().setHttpClientFactory(responder);
+    manager = new TransactionalPersistenceManagerImpl(service);
+  }
+
+  @Test
+  public void singleBatch() {
+    delete(0, 1, 2, 3, 4);
+    manager.flush();
+
+    assertEquals(1, responder.batches.get());
+    assertEquals(1, responder.changesets.get());
+    assertEquals(5, responder.deleted.size());
+    assertFalse(service.getContext().entityContext().iterator().hasNext());
+  }
+
+  @Test
+  public void splitIntoBatches() {
+    manager.setMaxChangesetSize(2);
+    manager.setMaxChangesetsPerBatch(2);
+    manager.setMaxConcurrentBatches(2);
+    delete(0, 1, 2, 3, 4, 5, 6, 7, 8);
+    manager.flush();
+
+    assertEquals(3, responder.batches.get());
+    assertEquals(5, responder.changesets.get());
+    assertEquals(9, responder.deleted.size());
+    assertFalse(service.getContext().entityContext().iterator().hasNext());
+  }
+
+  @Test
+  public void furtherDeletes() {
+    manager.setMaxChangesetSize(1);
+    manager.setMaxChangesetsPerBatch(1);
+    service.getContext().entityContext().addFurtherDeletes(URI.create(TestService.ENTITY_SET + "(1)"));
+    service.getContext().entityContext().addFurtherDeletes(URI.create(TestService.ENTITY_SET + "(2)"));
+    responder.failing.add("2");
+
+    flushAndFail();
+    assertEquals(Collections.singletonList(URI.create(TestService.ENTITY_SET + "(2)")),
+        service.getContext().entityContext().getFurtherDeletes());
+
+    responder.failing.clear();
+    manager.flush();
+    assertEquals(3, responder.batches.get());
+    assertTrue(service.getContext().entityContext().getFurtherDeletes().isEmpty());
+  }
+
+  @Test
+  public void partialFailure() {
+    manager.setMaxChangesetSize(2);
+    manager.setMaxChangesetsPerBatch(1);
+    final List<EntityInvocationHandler> handlers = delete(0, 1, 2, 3, 4, 5);
+    responder.failing.add("3");
+
+    flushAndFail();
+    // the first changeset has been committed, the second failed and the third has not been sent
+    assertEquals(2, responder.batches.get());
+    final EntityContext entityContext = service.getContext().entityContext();
+    assertFalse(entityContext.isAttached(handlers.get(0)));
+    assertFalse(entityContext.isAttached(handlers.get(1)));
+    for (EntityInvocationHandler handler : handlers.subList(2, 6)) {
+      assertEquals(AttachedEntityStatus.DELETED, entityContext.getStatus(handler));
+    }
+
+    // flushing again only sends the changes not committed before
+    responder.failing.clear();
+    responder.deleted.clear();
+    manager.flush();
+    assertEquals(4, responder.batches.get());
+    assertEquals(4, responder.deleted.size());
+    assertFalse(responder.deleted.contains("0"));
+    assertFalse(entityContext.iterator().hasNext());
+  }
+
+  @Test
+  public void partialFailureContinueOnError() {
+    service.getClient().getConfiguration().setContinueOnError(true);
+    manager.setMaxChangesetSize(1);
+    manager.setMaxChangesetsPerBatch(2);
+    final List<EntityInvocationHandler> handlers = delete(0, 1, 2, 3);
+    responder.failing.add("1");
+
+    flushAndFail();
+    assertEquals(2, responder.batches.get());
+    final EntityContext entityContext = service.getContext().entityContext();
+    assertFalse(entityContext.isAttached(handlers.get(0)));
+    assertTrue(entityContext.isAttached(handlers.get(1)));
+    assertFalse(entityContext.isAttached(handlers.get(2)));
+    assertFalse(entityContext.isAttached(handlers.get(3)));
+  }
+
+  @Test
+  public void boundContext() {
+    service.getClient().getConfiguration().setContinueOnError(true);
+    manager.setMaxChangesetSize(1);
+    manager.setMaxChangesetsPerBatch(1);
+    manager.setMaxConcurrentBatches(3);
+    responder.delay = 50;
+    responder.failing.add("3");
+    final Context context = new Context();
+    service.bindContext(context);
+    final List<EntityInvocationHandler> handlers;
+    try {
+      handlers = delete(0, 1, 2, 3);
+      flushAndFail();
+    } finally {
+      service.unbindContext();
+    }
+
+    // entities are detached from the context of the flushing thread, whichever thread sent their batch request
+    assertEquals(3, responder.deleted.size());
+    for (EntityInvocationHandler handler : handlers.subList(0, 3)) {
+      assertFalse(context.entityContext().isAttached(handler));
+    }
+    assertTrue(context.entityContext().isAttached(handlers.get(3)));
+  }
+
+  @Test
+  public void sameEntityInSequentialBatches() {
+    manager.setMaxChangesetSize(1);
+    manager.setMaxChangesetsPerBatch(1);
+    manager.setMaxConcurrentBatches(3);
+    responder.delay = 50;
+    final URI uri = URI.create(TestService.ENTITY_SET + "(1)");
+    service.getContext().entityContext().addFurtherDeletes(uri);
+    service.getContext().entityContext().addFurtherDeletes(URI.create(TestService.ENTITY_SET + "(2)"));
+    service.getContext().entityContext().addFurtherDeletes(uri);
+    manager.flush();
+
+    assertEquals(3, responder.batches.get());
+    assertFalse(responder.overlapping.get());
+    assertTrue(service.getContext().entityContext().getFurtherDeletes().isEmpty());
+  }
+
+  private List<EntityInvocationHandler> delete(final int... keys) {
+    final List<EntityInvocationHandler> handlers = new ArrayList<EntityInvocationHandler>();
+    for (int key : keys) {
+      final EntityInvocationHandler handler = service.newEntity(key);
+      service.getContext().entityContext().attach(handler, AttachedEntityStatus.DELETED);
+      handlers.add(handler);
+    }
+    return handlers;
+  }
+
+  private void flushAndFail() {
+    try {
+      manager.flush();
+      fail("Expected flush to fail");
+    } catch (final ODataFlushException e) {
+      assertEquals(1, e.getErrors().size());
+    }
+  }
+
+  /**
+   * Answers batch requests with one changeset per requested changeset; deleting a key in {@link #failing} fails the
+   * whole changeset.
+   */
+  private static class BatchResponder implements HttpClientFactory {
+
+    private final AtomicInteger batches = new AtomicInteger();
+
+    private final AtomicInteger changesets = new AtomicInteger();
+
+    private final Set<String> deleted = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private final Set<String> failing = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /** Keys deleted by the batch requests currently answered. */
+    private final Set<String> inFlight = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private final AtomicBoolean overlapping = new AtomicBoolean();
+
+    /** Milliseconds to wait before answering a batch request. */
+    private volatile long delay;
+
+    @Override
+    public HttpClient create(final HttpMethod method, final URI uri) {
+      final HttpClient httpClient = mock(HttpClient.class);
+      try {
+        when(httpClient.execute(any(HttpUriRequest.class))).thenAnswer(new Answer<HttpResponse>() {
+          @Override
+          public HttpResponse answer(final InvocationOnMock invocation) throws IOException {
+            return respond((HttpUriRequest) invocation.getArguments()[0]);
+          }
+        });
+      } catch (final IOException e) {
+        throw new IllegalStateException(e);
+      }
+      return httpClient;
+    }
+
+    private HttpResponse respond(final HttpUriRequest request) throws IOException {
+      batches.incrementAndGet();
+      final String payload = IOUtils.toString(
+          ((HttpEntityEnclosingRequest) request).getEntity().getContent(), "UTF-8");
+
+      // content-ID and key of each deleted entity, per changeset
+      final List<List<String[]>> requested = new ArrayList<List<String[]>>();
+      String contentId = null;
+      for (String line : payload.split(CRLF)) {
+        if (line.startsWith("Content-Type: multipart/mixed")) {
+          requested.add(new ArrayList<String[]>());
+        } else if (line.startsWith("Content-ID:")) {
+          contentId = line.substring(11).trim();
+        } else if (line.startsWith("DELETE ")) {
+          final String key = line.substring(line.indexOf('(') + 1, line.indexOf(')'));
+          requested.get(requested.size() - 1).add(new String[] { contentId, key });
+        }
+      }
+
+      final List<String> keys = new ArrayList<String>();
+      for (List<String[]> changeset : requested) {
+        for (String[] change : changeset) {
+          if (inFlight.add(change[1])) {
+            keys.add(change[1]);
+          } else {
+            overlapping.set(true);
+          }
+        }
+      }
+      try {
+        Thread.sleep(delay);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      inFlight.removeAll(keys);
+
+      final StringBuilder body = new StringBuilder();
+      for (List<String[]> changeset : requested) {
+        changesets.incrementAndGet();
+        boolean failed = false;
+        for (String[] change : changeset) {
+          failed |= failing.contains(change[1]);
+        }
+
+        body.append("--batch_resp").append(CRLF);
+        if (failed) {
+          body.append("Content-Type: application/http").append(CRLF)
+              .append("Content-Transfer-Encoding: binary").append(CRLF).append(CRLF)
+              .append("HTTP/1.1 500 Internal Server Error").append(CRLF)
+              .append("Content-Type: application/json").append(CRLF).append(CRLF)
+              .append("{\"error\":{\"code\":null,\"message\":\"Failed\"}}").append(CRLF);
+          continue;
+        }
+        body.append("Content-Type: multipart/mixed;boundary=changeset_resp").append(CRLF).append(CRLF);
+        for (String[] change : changeset) {
+          deleted.add(change[1]);
+          body.append("--changeset_resp").append(CRLF)
+              .append("Content-Type: application/http").append(CRLF)
+              .append("Content-Transfer-Encoding: binary").append(CRLF)
+              .append("Content-ID: ").append(change[0]).append(CRLF).append(CRLF)
+              .append("HTTP/1.1 204 No Content").append(CRLF).append(CRLF);
+        }
+        body.append("--changeset_resp--").append(CRLF);
+      }
+      body.append("--batch_resp--").append(CRLF);
+
+      final TestResponse response = new TestResponse();
+      response.setHeader("Content-Type", "multipart/mixed;boundary=batch_resp");
+      response.setEntity(new StringEntity(body.toString(), ContentType.create("multipart/mixed", "UTF-8")));
+      return response;
+    }
+
+    @Override
+    public void close(final HttpClient httpClient) {
+      // nothing to release
+    }
+  }
+
+  private static class TestResponse extends BasicHttpResponse implements CloseableHttpResponse {
+
+    TestResponse() {
+      super(HttpVersion.HTTP_1_1, 200, "OK");
+    }
+
+    @Override
+    public void close() {
+      // nothing to release
+    }
+  }
+}
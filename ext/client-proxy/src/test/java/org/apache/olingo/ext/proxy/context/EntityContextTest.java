@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.ext.proxy.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.ext.proxy.TestService;
+import org.apache.olingo.ext.proxy.TestService.Person;
+import org.apache.olingo.ext.proxy.commons.EntityInvocationHandler;
+import org.junit.After;
+import org.junit.Test;
+
+public class EntityContextTest {
+
+  private static final URI ENTITY_SET = TestService.ENTITY_SET;
+
+  private static final int THREADS = 8;
+
+  private final TestService service = new TestService(false);
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void attachIfAbsent() {
+    final EntityContext context = new EntityContext();
+    final EntityInvocationHandler entity = newEntity(1);
+
+    assertTrue(context.attachIfAbsent(entity, AttachedEntityStatus.CHANGED));
+    assertFalse(context.attachIfAbsent(entity, AttachedEntityStatus.ATTACHED));
+    assertFalse(context.attachIfAbsent(newEntity(1), AttachedEntityStatus.ATTACHED));
+    assertEquals(AttachedEntityStatus.CHANGED, context.getStatus(entity));
+    assertSame(entity, context.getEntity(entity.getUUID()));
+
+    // entities without entity set are not attached
+    final EntityInvocationHandler unbound = newEntity(2);
+    unbound.updateUUID(null, Person.class, 2);
+    assertFalse(context.attachIfAbsent(unbound, AttachedEntityStatus.ATTACHED));
+    assertFalse(context.isAttached(unbound));
+  }
+
+  @Test
+  public void detachAfterKeyChange() {
+    final EntityContext context = new EntityContext();
+    final EntityInvocationHandler entity = newEntity(1);
+    context.attach(entity, AttachedEntityStatus.NEW);
+
+    // as when the service returns the created entity
+    entity.updateUUID(ENTITY_SET, Person.class, 2);
+    assertTrue(context.isAttached(entity));
+    assertEquals(AttachedEntityStatus.NEW, context.getStatus(entity));
+
+    context.detach(entity);
+    assertFalse(context.isAttached(entity));
+    assertFalse(context.isAttached(newEntity(1)));
+    assertEquals(0, count(context));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void attachTwice() {
+    final EntityContext context = new EntityContext();
+    context.attach(newEntity(1));
+    context.attach(newEntity(1));
+  }
+
+  @Test
+  public void iterateInAttachmentOrder() {
+    final EntityContext context = new EntityContext();
+    final List<EntityInvocationHandler> entities = new ArrayList<EntityInvocationHandler>();
+    for (int i = 20; i > 0; i--) {
+      final EntityInvocationHandler entity = newEntity(i);
+      entities.add(entity);
+      context.attach(entity, i % 2 == 0 ? AttachedEntityStatus.ATTACHED : AttachedEntityStatus.CHANGED);
+    }
+    context.setStatus(entities.get(0), AttachedEntityStatus.DELETED);
+
+    final Iterator<AttachedEntity> iterator = context.iterator();
+    for (EntityInvocationHandler entity : entities) {
+      assertSame(entity, iterator.next().getEntity());
+    }
+    assertFalse(iterator.hasNext());
+    assertEquals(AttachedEntityStatus.DELETED, context.getStatus(entities.get(0)));
+  }
+
+  @Test
+  public void evictUnchanged() {
+    final EntityContext context = new EntityContext();
+    final EntityInvocationHandler changed = newEntity(0);
+    context.attach(changed, AttachedEntityStatus.CHANGED);
+    final EntityInvocationHandler first = newEntity(1);
+    context.attach(first);
+    final EntityInvocationHandler second = newEntity(2);
+    context.attach(second);
+    final EntityInvocationHandler third = newEntity(3);
+    context.attach(third);
+
+    context.setMaxUnchangedEntities(2);
+    assertFalse(context.isAttached(first));
+    assertNull(context.getEntity(first.getUUID()));
+
+    // looked up entities get a second chance
+    assertSame(second, context.getEntity(second.getUUID()));
+    context.attach(newEntity(4));
+    assertTrue(context.isAttached(second));
+    assertFalse(context.isAttached(third));
+
+    // changed entities are never evicted
+    context.setStatus(second, AttachedEntityStatus.CHANGED);
+    for (int i = 5; i < 100; i++) {
+      context.attach(newEntity(i));
+    }
+    assertTrue(context.isAttached(changed));
+    assertTrue(context.isAttached(second));
+    assertEquals(4, count(context));
+  }
+
+  @Test
+  public void concurrentAttachIfAbsent() throws Exception {
+    final EntityContext context = new EntityContext();
+
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+    for (int t = 0; t < THREADS; t++) {
+      results.add(executor.submit(new Callable<Integer>() {
+        @Override
+        public Integer call() throws Exception {
+          start.await();
+          int attached = 0;
+          for (int i = 0; i < 500; i++) {
+            // distinct but equal handler instances, as created for the same entity by different threads
+            if (context.attachIfAbsent(newEntity(i), AttachedEntityStatus.ATTACHED)) {
+              attached++;
+            }
+          }
+          return attached;
+        }
+      }));
+    }
+    start.countDown();
+
+    int attached = 0;
+    for (Future<Integer> result : results) {
+      attached += result.get(30, TimeUnit.SECONDS);
+    }
+    assertEquals(500, attached);
+    assertEquals(500, count(context));
+  }
+
+  @Test
+  public void concurrentAttachAndDetach() throws Exception {
+    final EntityContext context = new EntityContext();
+    context.setMaxUnchangedEntities(50);
+
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Future<?>> results = new ArrayList<Future<?>>();
+    for (int t = 0; t < THREADS; t++) {
+      final int offset = t * 1000;
+      results.add(executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          start.await();
+          for (int i = 0; i < 1000; i++) {
+            final EntityInvocationHandler entity = newEntity(offset + i);
+            assertTrue(context.attachIfAbsent(entity,
+                i % 3 == 0 ? AttachedEntityStatus.CHANGED : AttachedEntityStatus.ATTACHED));
+            context.getEntity(newEntity(offset + i / 2).getUUID());
+            if (i % 3 == 1) {
+              context.detach(entity);
+            }
+          }
+          return null;
+        }
+      }));
+    }
+    start.countDown();
+    for (Future<?> result : results) {
+      result.get(30, TimeUnit.SECONDS);
+    }
+
+    int changed = 0;
+    int unchanged = 0;
+    for (AttachedEntity attached : context) {
+      if (attached.getStatus() == AttachedEntityStatus.CHANGED) {
+        changed++;
+      } else {
+        unchanged++;
+      }
+      assertSame(attached.getEntity(), context.getEntity(attached.getEntity().getUUID()));
+    }
+    assertEquals(THREADS * 334, changed);
+    assertTrue(unchanged <= 50);
+
+    context.detachAll();
+    assertEquals(0, count(context));
+  }
+
+  private EntityInvocationHandler newEntity(final int key) {
+    return service.newEntity(key);
+  }
+
+  private static int count(final EntityContext context) {
+    int count = 0;
+    for (Iterator<AttachedEntity> iterator = context.iterator(); iterator.hasNext(); iterator.next()) {
+      count++;
+    }
+    return count;
+  }
+}
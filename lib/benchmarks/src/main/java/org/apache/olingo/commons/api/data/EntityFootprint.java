@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.data;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the retained heap of entities with five primitive properties, as plain {@link Entity}, as plain
+ * {@link Entity} after the list getters used by the serializers have been called, and as {@link SlotEntity}.
+ * Property values are shared, so only the entity and property structure is counted.
+ * <p>
+ * Run with a single-threaded collector for stable numbers, e.g.
+ * <code>java -XX:+UseSerialGC -cp lib/benchmarks/target/benchmarks.jar
+ * org.apache.olingo.commons.api.data.EntityFootprint</code>.
+ */
+public final class EntityFootprint {
+
+  private static final int COUNT = 100000;
+
+  private static final List<String> NAMES = Arrays.asList("ID", "Name", "Price", "Quantity", "Active");
+  private static final Object[] VALUES = { 1, "Name", 9.99, (short) 3, Boolean.TRUE };
+  private static final String[] TYPES = { "Edm.Int32", "Edm.String", "Edm.Double", "Edm.Int16", "Edm.Boolean" };
+
+  private static final PropertyLayout LAYOUT = new PropertyLayout(NAMES);
+
+  private enum Variant {
+    ENTITY, ENTITY_READ, SLOT_ENTITY
+  }
+
+  private EntityFootprint() {
+    // main class
+  }
+
+  public static void main(final String[] args) {
+    for (int round = 0; round < 3; round++) {
+      for (final Variant variant : Variant.values()) {
+        System.out.println(variant + ": " + bytesPerEntity(variant) + " bytes per entity");
+      }
+    }
+  }
+
+  private static long bytesPerEntity(final Variant variant) {
+    final Entity[] entities = new Entity[COUNT];
+    final long before = usedMemory();
+    for (int i = 0; i < COUNT; i++) {
+      entities[i] = create(variant);
+    }
+    final long after = usedMemory();
+    if (entities[COUNT - 1].getProperty("Name") == null) {
+      throw new IllegalStateException();
+    }
+    return (after - before) / COUNT;
+  }
+
+  private static Entity create(final Variant variant) {
+    final Entity entity = variant == Variant.SLOT_ENTITY ? new SlotEntity(LAYOUT) : new Entity();
+    for (int i = 0; i < NAMES.size(); i++) {
+      entity.addProperty(new Property(TYPES[i], NAMES.get(i), ValueType.PRIMITIVE, VALUES[i]));
+    }
+    if (variant == Variant.ENTITY_READ) {
+      entity.getAnnotations().isEmpty();
+      entity.getOperations().isEmpty();
+      entity.getNavigationLinks().isEmpty();
+      for (final Property property : entity.getProperties()) {
+        property.getAnnotations().isEmpty();
+        property.getOperations().isEmpty();
+      }
+    }
+    return entity;
+  }
+
+  private static long usedMemory() {
+    final Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 4; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.core.edm.primitivetype;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares formatting and parsing of DateTimeOffset and Date literals through {@link IsoDateTime}
+ * with the {@link DateTimeFormatter} based implementation it replaced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IsoDateTimeBenchmark {
+
+  private static final DateTimeFormatter DATE_TIME_OFFSET = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+
+  private final EdmDateTimeOffset dateTimeOffset = EdmDateTimeOffset.getInstance();
+  private final EdmDate date = EdmDate.getInstance();
+  private final char[] buffer = new char[IsoDateTime.MAX_LENGTH];
+
+  private final ZonedDateTime zonedDateTime =
+      ZonedDateTime.of(2012, 2, 29, 1, 2, 3, 456000000, ZoneOffset.ofHoursMinutes(-1, -30));
+  private final Instant instant = zonedDateTime.toInstant();
+  private final LocalDate localDate = zonedDateTime.toLocalDate();
+  private final String dateTimeOffsetLiteral = "2012-02-29T01:02:03.456-01:30";
+  private final String dateLiteral = "2012-02-29";
+
+  @Benchmark
+  public String formatDateTimeOffsetIso() {
+    return new String(buffer, 0, dateTimeOffset.valueToChars(zonedDateTime, buffer));
+  }
+
+  @Benchmark
+  public String formatDateTimeOffsetFormatter() {
+    return DATE_TIME_OFFSET.format(zonedDateTime);
+  }
+
+  @Benchmark
+  public String formatInstantIso() {
+    return new String(buffer, 0, dateTimeOffset.valueToChars(instant, buffer));
+  }
+
+  @Benchmark
+  public String formatInstantFormatter() {
+    return DATE_TIME_OFFSET.format(instant.atOffset(ZoneOffset.UTC));
+  }
+
+  @Benchmark
+  public Instant parseDateTimeOffsetIso() throws EdmPrimitiveTypeException {
+    return dateTimeOffset.valueOfString(dateTimeOffsetLiteral, null, null, 3, null, null, Instant.class);
+  }
+
+  @Benchmark
+  public Instant parseDateTimeOffsetFormatter() {
+    return ZonedDateTime.parse(dateTimeOffsetLiteral, DATE_TIME_OFFSET).toInstant();
+  }
+
+  @Benchmark
+  public String formatDateIso() {
+    return new String(buffer, 0, date.valueToChars(localDate, buffer));
+  }
+
+  @Benchmark
+  public String formatDateFormatter() {
+    return DateTimeFormatter.ISO_LOCAL_DATE.format(localDate);
+  }
+
+  @Benchmark
+  public LocalDate parseDateIso() throws EdmPrimitiveTypeException {
+    return date.valueOfString(dateLiteral, null, null, null, null, null, LocalDate.class);
+  }
+
+  @Benchmark
+  public LocalDate parseDateFormatter() {
+    return LocalDate.parse(dateLiteral, DateTimeFormatter.ISO_LOCAL_DATE);
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.ext.proxy.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.ext.proxy.api.annotations.Property;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares property access through a proxy resolving getters and annotations via {@link ProxyTypeDescriptor}
+ * with one doing the <tt>getMethod</tt> and <tt>getAnnotation</tt> calls on each invocation, as structured
+ * invocation handlers did before the descriptor was introduced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyTypeDescriptorBenchmark {
+
+  public interface Customer {
+
+    @Property(name = "Name", type = "Edm.String")
+    String getName();
+
+    void setName(String name);
+
+    @Property(name = "Age", type = "Edm.Int32")
+    Integer getAge();
+
+    void setAge(Integer age);
+  }
+
+  private final Customer cached = newProxy(new InvocationHandler() {
+
+    private final Map<String, Object> values = new HashMap<String, Object>();
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+      final ProxyTypeDescriptor.PropertyAccessor accessor =
+          ProxyTypeDescriptor.getInstance(Customer.class).getAccessor(method.getName());
+      if (method.getName().startsWith("get")) {
+        return values.get(accessor.getProperty().name());
+      } else {
+        values.put(accessor.getProperty().name(), args[0]);
+        return null;
+      }
+    }
+  });
+
+  private final Customer uncached = newProxy(new InvocationHandler() {
+
+    private final Map<String, Object> values = new HashMap<String, Object>();
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+      if (method.getName().startsWith("get")) {
+        final Method getter = Customer.class.getMethod(method.getName());
+        return values.get(ClassUtils.getAnnotation(Property.class, getter).name());
+      } else {
+        final Method getter = Customer.class.getMethod(method.getName().replaceFirst("set", "get"));
+        values.put(ClassUtils.getAnnotation(Property.class, getter).name(), args[0]);
+        return null;
+      }
+    }
+  });
+
+  private final String name = "Bob";
+
+  private static Customer newProxy(final InvocationHandler handler) {
+    return (Customer) Proxy.newProxyInstance(
+        Customer.class.getClassLoader(), new Class<?>[] { Customer.class }, handler);
+  }
+
+  @Benchmark
+  public String getSetCached() {
+    cached.setName(name);
+    return cached.getName();
+  }
+
+  @Benchmark
+  public String getSetUncached() {
+    uncached.setName(name);
+    return uncached.getName();
+  }
+
+  @Benchmark
+  public Integer getCached() {
+    return cached.getAge();
+  }
+
+  @Benchmark
+  public Integer getUncached() {
+    return uncached.getAge();
+  }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.olingo.client.api.communication.request.batch;
 
+import java.util.concurrent.TimeUnit;
 
 public interface BatchRequestFactory {
 
@@ -28,4 +29,18 @@ public interface BatchRequestFactory {
    * @return new ODataBatchRequest instance.
    */
   ODataBatchRequest getBatchRequest(String serviceRoot);
+
+  /**
+   * Gets a dispatcher automatically coalescing submitted requests into batch requests.
+   * <br/>
+   * Pending requests are sent as soon as <tt>maxRequests</tt> requests have been collected or <tt>window</tt>
+   * has elapsed since the first pending request was submitted, whichever comes first.
+   *
+   * @param serviceRoot service root.
+   * @param maxRequests maximum number of requests per batch request.
+   * @param window maximum time a submitted request waits for further requests.
+   * @param unit time unit of <tt>window</tt>.
+   * @return new ODataBatchDispatcher instance.
+   */
+  ODataBatchDispatcher getBatchDispatcher(String serviceRoot, int maxRequests, long window, TimeUnit unit);
 }
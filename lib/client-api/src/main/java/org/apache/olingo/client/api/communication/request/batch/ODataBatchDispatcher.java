@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.api.communication.request.batch;
+
+import java.io.Closeable;
+import java.util.concurrent.Future;
+
+import org.apache.olingo.client.api.communication.request.ODataBasicRequest;
+import org.apache.olingo.client.api.communication.request.ODataBatchableRequest;
+import org.apache.olingo.client.api.communication.response.ODataResponse;
+
+/**
+ * Coalesces requests issued in quick succession into a single batch request.
+ * <br/>
+ * Submitted requests are collected until either the configured maximum number of requests has been reached or
+ * the collection window has elapsed; they are then sent as one multipart batch request and every returned future
+ * is completed with the response part corresponding to its request.
+ */
+public interface ODataBatchDispatcher extends Closeable {
+
+  /**
+   * Queues the given request for the next batch request.
+   * <br/>
+   * If the batch response part reports an error, the returned future fails with the corresponding
+   * <tt>ODataClientErrorException</tt> (or <tt>ODataServerErrorException</tt>).
+   *
+   * @param request request to be batched.
+   * @param <T> OData response type.
+   * @param <R> OData request type.
+   * @return future completed with the response part corresponding to the given request.
+   */
+  <T extends ODataResponse, R extends ODataBasicRequest<T> & ODataBatchableRequest> Future<T> submit(R request);
+
+  /**
+   * Sends all pending requests immediately, without waiting for the collection window to elapse.
+   */
+  void flush();
+
+  /**
+   * Gets the number of submitted requests still waiting to be sent.
+   *
+   * @return number of pending requests.
+   */
+  int getPendingCount();
+
+  /**
+   * Sends all pending requests and stops accepting new ones.
+   */
+  @Override
+  void close();
+}
@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.api.domain;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.communication.response.ODataRetrieveResponse;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * OData entity set iterator following server-driven paging.
+ * <br/>
+ * Pages are retrieved in background through the configured executor, following the next link of each page; up to
+ * the given number of pages is fetched ahead while the current page is being consumed. No further page is requested
+ * as long as that many pages are waiting to be consumed.
+ * <br/>
+ * <b>Please don't forget to call the <tt>close()</tt> method when the iteration is abandoned before its end.</b>
+ *
+ * @param <E> concrete ODataEntity implementation
+ * @param <T> concrete ODataEntitySet implementation
+ */
+public class ClientEntitySetPrefetchingIterator<T extends ClientEntitySet, E extends ClientEntity>
+        implements Iterator<E>, Closeable {
+
+  /**
+   * Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(ClientEntitySetPrefetchingIterator.class);
+
+  private static final Page END = new Page(null, null);
+
+  private final ODataClient odataClient;
+
+  private final BlockingQueue<Page> pages;
+
+  private final Future<?> fetcher;
+
+  private volatile boolean closed = false;
+
+  private Iterator<E> current = Collections.<E> emptyIterator();
+
+  private T entitySet;
+
+  private boolean available = true;
+
+  /**
+   * Constructor.
+   *
+   * @param odataClient client instance getting the pages
+   * @param uri URI of the first page.
+   * @param prefetchPages maximum number of pages fetched ahead of the one being consumed.
+   */
+  public ClientEntitySetPrefetchingIterator(final ODataClient odataClient, final URI uri, final int prefetchPages) {
+    if (prefetchPages < 1) {
+      throw new IllegalArgumentException("At least one page has to be prefetched");
+    }
+    this.odataClient = odataClient;
+    this.pages = new ArrayBlockingQueue<>(prefetchPages);
+    this.fetcher = odataClient.getConfiguration().getExecutor().submit(new Runnable() {
+      @Override
+      public void run() {
+        fetch(uri);
+      }
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  private void fetch(final URI uri) {
+    URI next = uri;
+    try {
+      while (next != null && !closed) {
+        LOG.debug("Prefetching entity set page {}", next);
+        final ODataRetrieveResponse<ClientEntitySet> response =
+            odataClient.getRetrieveRequestFactory().getEntitySetRequest(next).execute();
+        final T page;
+        try {
+          page = (T) response.getBody();
+        } finally {
+          response.close();
+        }
+        pages.put(new Page(page, null));
+        next = page.getNext();
+      }
+      pages.put(END);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (final Throwable e) {
+      // also on errors, as otherwise the consumer would wait forever for the next page
+      LOG.error("Error prefetching entity set page {}", next, e);
+      try {
+        pages.put(new Page(null, e));
+      } catch (final InterruptedException ie) {
+        Thread.currentThread().interrupt();
+      }
+      if (e instanceof Error) {
+        throw (Error) e;
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public boolean hasNext() {
+    while (available && !current.hasNext()) {
+      if (closed) {
+        throw new IllegalStateException("Iterator has been closed");
+      }
+
+      final Page page;
+      try {
+        page = pages.take();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ODataRuntimeException(e);
+      }
+
+      if (page.error != null) {
+        available = false;
+        if (page.error instanceof Error) {
+          throw (Error) page.error;
+        }
+        throw page.error instanceof RuntimeException
+            ? (RuntimeException) page.error : new ODataRuntimeException((Exception) page.error);
+      } else if (page == END) {
+        available = false;
+      } else {
+        entitySet = (T) page.entitySet;
+        current = (Iterator<E>) entitySet.getEntities().iterator();
+      }
+    }
+
+    return available;
+  }
+
+  @Override
+  public E next() {
+    if (hasNext()) {
+      return current.next();
+    }
+
+    throw new NoSuchElementException("No entity found");
+  }
+
+  /**
+   * Unsupported operation.
+   */
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException("Operation not supported");
+  }
+
+  /**
+   * Stops prefetching and releases the pages fetched so far.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    fetcher.cancel(true);
+    pages.clear();
+  }
+
+  /**
+   * Gets the delta link if exists.
+   *
+   * @return delta link if exists; null otherwise.
+   */
+  public URI getDeltaLink() {
+    if (available) {
+      throw new IllegalStateException("Iteration must be completed in order to retrieve the delta link");
+    }
+    return entitySet == null ? null : entitySet.getDeltaLink();
+  }
+
+  private static final class Page {
+
+    private final ClientEntitySet entitySet;
+
+    private final Throwable error;
+
+    private Page(final ClientEntitySet entitySet, final Throwable error) {
+      this.entitySet = entitySet;
+      this.error = error;
+    }
+  }
+}
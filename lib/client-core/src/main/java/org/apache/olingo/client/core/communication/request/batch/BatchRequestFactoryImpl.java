@@ -18,8 +18,11 @@
  */
 package org.apache.olingo.client.core.communication.request.batch;
 
+import java.util.concurrent.TimeUnit;
+
 import org.apache.olingo.client.api.ODataClient;
 import org.apache.olingo.client.api.communication.request.batch.BatchRequestFactory;
+import org.apache.olingo.client.api.communication.request.batch.ODataBatchDispatcher;
 import org.apache.olingo.client.api.communication.request.batch.ODataBatchRequest;
 
 public class BatchRequestFactoryImpl implements BatchRequestFactory {
@@ -34,4 +37,11 @@ public class BatchRequestFactoryImpl implements BatchRequestFactory {
   public ODataBatchRequest getBatchRequest(final String serviceRoot) {
     return new ODataBatchRequestImpl(client, client.newURIBuilder(serviceRoot).appendBatchSegment().build());
   }
+
+  @Override
+  public ODataBatchDispatcher getBatchDispatcher(final String serviceRoot,
+      final int maxRequests, final long window, final TimeUnit unit) {
+
+    return new ODataBatchDispatcherImpl(client, serviceRoot, maxRequests, window, unit);
+  }
 }
@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.communication.request.batch;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.communication.request.ODataBasicRequest;
+import org.apache.olingo.client.api.communication.request.ODataBatchableRequest;
+import org.apache.olingo.client.api.communication.request.batch.BatchManager;
+import org.apache.olingo.client.api.communication.request.batch.ODataBatchDispatcher;
+import org.apache.olingo.client.api.communication.request.batch.ODataBatchResponseItem;
+import org.apache.olingo.client.api.communication.response.ODataBatchResponse;
+import org.apache.olingo.client.api.communication.response.ODataResponse;
+import org.apache.olingo.client.core.communication.header.ODataErrorResponseChecker;
+import org.apache.olingo.client.core.communication.response.AbstractODataResponse;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Batch dispatcher collecting submitted requests and sending them as a single batch request.
+ * <br/>
+ * Batch requests are sent by a dedicated daemon thread: the batch request itself streams its payload through the
+ * configured executor, so sending it from a task of that very executor could exhaust it.
+ */
+public class ODataBatchDispatcherImpl implements ODataBatchDispatcher {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ODataBatchDispatcherImpl.class);
+
+  private final ODataClient client;
+
+  private final String serviceRoot;
+
+  private final int maxRequests;
+
+  private final long window;
+
+  private final TimeUnit unit;
+
+  private final ScheduledExecutorService scheduler;
+
+  private final Object lock = new Object();
+
+  private List<PendingRequest> pending = new ArrayList<>();
+
+  private ScheduledFuture<?> scheduledFlush;
+
+  private boolean closed = false;
+
+  public ODataBatchDispatcherImpl(final ODataClient client, final String serviceRoot,
+      final int maxRequests, final long window, final TimeUnit unit) {
+
+    if (maxRequests < 1) {
+      throw new IllegalArgumentException("At least one request per batch is required");
+    }
+    this.client = client;
+    this.serviceRoot = serviceRoot;
+    this.maxRequests = maxRequests;
+    this.window = window;
+    this.unit = unit;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, "olingo-batch-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+  }
+
+  @Override
+  public <T extends ODataResponse, R extends ODataBasicRequest<T> & ODataBatchableRequest> Future<T> submit(
+      final R request) {
+
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    synchronized (lock) {
+      if (closed) {
+        throw new IllegalStateException("Batch dispatcher has been closed");
+      }
+      pending.add(new PendingRequest(request, future));
+
+      if (pending.size() >= maxRequests) {
+        scheduleFlush(0);
+      } else if (scheduledFlush == null) {
+        scheduleFlush(window);
+      }
+    }
+    return future;
+  }
+
+  @Override
+  public void flush() {
+    synchronized (lock) {
+      if (!pending.isEmpty()) {
+        scheduleFlush(0);
+      }
+    }
+  }
+
+  @Override
+  public int getPendingCount() {
+    synchronized (lock) {
+      return pending.size();
+    }
+  }
+
+  @Override
+  public void close() {
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (!pending.isEmpty()) {
+        scheduleFlush(0);
+      }
+    }
+    scheduler.shutdown();
+  }
+
+  /**
+   * Hands the currently pending requests over to the dispatcher thread. Must be called holding the lock.
+   *
+   * @param delay delay before sending, in the configured time unit.
+   */
+  private void scheduleFlush(final long delay) {
+    if (scheduledFlush != null) {
+      scheduledFlush.cancel(false);
+      scheduledFlush = null;
+    }
+
+    if (delay <= 0) {
+      final List<PendingRequest> toBeSent = pending;
+      pending = new ArrayList<>();
+      scheduler.execute(new Runnable() {
+        @Override
+        public void run() {
+          send(toBeSent);
+        }
+      });
+    } else {
+      scheduledFlush = scheduler.schedule(new Runnable() {
+        @Override
+        public void run() {
+          final List<PendingRequest> toBeSent;
+          synchronized (lock) {
+            toBeSent = pending;
+            pending = new ArrayList<>();
+            scheduledFlush = null;
+          }
+          send(toBeSent);
+        }
+      }, delay, unit);
+    }
+  }
+
+  private void send(final List<PendingRequest> requests) {
+    if (requests.isEmpty()) {
+      return;
+    }
+    LOG.debug("Sending {} coalesced requests as batch request", requests.size());
+
+    ODataBatchResponse response = null;
+    try {
+      final BatchManager payloadManager =
+          client.getBatchRequestFactory().getBatchRequest(serviceRoot).payloadManager();
+      for (PendingRequest request : requests) {
+        payloadManager.addRequest(request.request);
+      }
+      response = payloadManager.getResponse();
+
+      final Iterator<ODataBatchResponseItem> items = response.getBody();
+      final Iterator<PendingRequest> iterator = requests.iterator();
+      while (items.hasNext() && iterator.hasNext()) {
+        complete(iterator.next(), items.next());
+      }
+
+      while (iterator.hasNext()) {
+        iterator.next().fail(new ODataRuntimeException("No response part received for the batched request"));
+      }
+    } catch (final Throwable e) {
+      // also on errors, as otherwise callers would wait forever for the remaining futures
+      LOG.error("Error sending coalesced requests as batch request", e);
+      for (PendingRequest request : requests) {
+        request.fail(e);
+      }
+      if (e instanceof Error) {
+        throw (Error) e;
+      }
+    } finally {
+      if (response != null) {
+        response.close();
+      }
+    }
+  }
+
+  private void complete(final PendingRequest request, final ODataBatchResponseItem item) {
+    if (!item.hasNext()) {
+      request.fail(new ODataRuntimeException("No response part received for the batched request"));
+      return;
+    }
+
+    final ODataResponse part = item.next();
+    if (part instanceof AbstractODataResponse) {
+      ((AbstractODataResponse) part).detachFromBatch();
+    }
+
+    if (item.isBreaking() && part.getStatusCode() >= 400) {
+      final String contentType = part.getContentType();
+      request.fail(ODataErrorResponseChecker.checkResponse(client,
+          new BasicStatusLine(HttpVersion.HTTP_1_1, part.getStatusCode(), part.getStatusMessage()),
+          part.getRawResponse(),
+          contentType == null ? request.request.getAccept() : contentType));
+    } else if (item.isBreaking()) {
+      request.fail(new ODataRuntimeException("Unexpected asynchronous response part for the batched request"));
+    } else {
+      request.complete(part);
+    }
+  }
+
+  private static class PendingRequest {
+
+    private final ODataBatchableRequest request;
+
+    private final CompletableFuture<? extends ODataResponse> future;
+
+    PendingRequest(final ODataBatchableRequest request, final CompletableFuture<? extends ODataResponse> future) {
+      this.request = request;
+      this.future = future;
+    }
+
+    @SuppressWarnings("unchecked")
+    void complete(final ODataResponse response) {
+      ((CompletableFuture<ODataResponse>) future).complete(response);
+    }
+
+    void fail(final Throwable cause) {
+      future.completeExceptionally(cause);
+    }
+  }
+}
@@ -243,6 +243,20 @@ public abstract class AbstractODataResponse implements ODataResponse {
     }
   }
 
+  /**
+   * Reads the payload of a batch response part into memory, so that the response can be consumed after the
+   * enclosing batch response has moved on to the next part (or has been closed).
+   */
+  public void detachFromBatch() {
+    if (batchInfo != null && batchInfo.isValidBatch() && payload == null) {
+      final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      ODataBatchUtilities.readBatchPart(batchInfo, bos, true);
+      inputContent = bos.toByteArray();
+      payload = new ByteArrayInputStream(inputContent);
+    }
+    batchInfo = null;
+  }
+
   @Override
   public void close() {
     closeHttpResponse();
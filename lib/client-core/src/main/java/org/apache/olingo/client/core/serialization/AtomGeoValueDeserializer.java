@@ -19,7 +19,6 @@
 package org.apache.olingo.client.core.serialization;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 import javax.xml.stream.XMLEventReader;
@@ -39,6 +38,7 @@ import org.apache.olingo.commons.api.edm.geo.LineString;
 import org.apache.olingo.commons.api.edm.geo.MultiLineString;
 import org.apache.olingo.commons.api.edm.geo.MultiPoint;
 import org.apache.olingo.commons.api.edm.geo.MultiPolygon;
+import org.apache.olingo.commons.api.edm.geo.PackedCoordinates;
 import org.apache.olingo.commons.api.edm.geo.Point;
 import org.apache.olingo.commons.api.edm.geo.Polygon;
 import org.apache.olingo.commons.api.edm.geo.SRID;
@@ -83,17 +83,53 @@ class AtomGeoValueDeserializer {
     return result;
   }
 
+  /** Reads positions directly into packed coordinates, without creating a point object for each of them. */
+  private PackedCoordinates coordinates(final XMLEventReader reader, final StartElement start)
+      throws XMLStreamException {
+
+    final PackedCoordinates.Builder builder = new PackedCoordinates.Builder();
+
+    boolean foundEndProperty = false;
+    while (reader.hasNext() && !foundEndProperty) {
+      final XMLEvent event = reader.nextEvent();
+
+      if (event.isCharacters() && !event.asCharacters().isWhiteSpace()) {
+        final String[] pointInfo = event.asCharacters().getData().split(" ");
+        try {
+          builder.add(
+              EdmDouble.getInstance().valueOfString(pointInfo[0], null, null,
+                  Constants.DEFAULT_PRECISION, Constants.DEFAULT_SCALE, null, Double.class),
+              EdmDouble.getInstance().valueOfString(pointInfo[1], null, null,
+                  Constants.DEFAULT_PRECISION, Constants.DEFAULT_SCALE, null, Double.class));
+        } catch (EdmPrimitiveTypeException e) {
+          throw new XMLStreamException("While deserializing point coordinates as double", e);
+        }
+      }
+
+      if (event.isEndElement() && start.getName().equals(event.asEndElement().getName())) {
+        foundEndProperty = true;
+      }
+    }
+
+    // handles bad input, e.g. things like <gml:pos/>
+    if (builder.size() == 0) {
+      builder.add(0, 0);
+    }
+
+    return builder.build();
+  }
+
   private MultiPoint multipoint(final XMLEventReader reader, final StartElement start,
       final EdmPrimitiveTypeKind type, final SRID srid) throws XMLStreamException {
 
-    List<Point> points = Collections.<Point> emptyList();
+    PackedCoordinates coordinates = new PackedCoordinates(new double[0], false);
 
     boolean foundEndProperty = false;
     while (reader.hasNext() && !foundEndProperty) {
       final XMLEvent event = reader.nextEvent();
 
       if (event.isStartElement() && event.asStartElement().getName().equals(Constants.QNAME_POINTMEMBERS)) {
-        points = points(reader, event.asStartElement(), type, null);
+        coordinates = coordinates(reader, event.asStartElement());
       }
 
       if (event.isEndElement() && start.getName().equals(event.asEndElement().getName())) {
@@ -101,13 +137,13 @@ class AtomGeoValueDeserializer {
       }
     }
 
-    return new MultiPoint(GeoUtils.getDimension(type), srid, points);
+    return new MultiPoint(GeoUtils.getDimension(type), srid, coordinates);
   }
 
   private LineString lineString(final XMLEventReader reader, final StartElement start,
       final EdmPrimitiveTypeKind type, final SRID srid) throws XMLStreamException {
 
-    return new LineString(GeoUtils.getDimension(type), srid, points(reader, start, type, null));
+    return new LineString(GeoUtils.getDimension(type), srid, coordinates(reader, start));
   }
 
   private Polygon polygon(final XMLEventReader reader, final StartElement start,
@@ -122,12 +158,12 @@ class AtomGeoValueDeserializer {
 
       if (event.isStartElement()) {
         if (event.asStartElement().getName().equals(Constants.QNAME_POLYGON_EXTERIOR)) {
-          List<Point> points = points(reader, event.asStartElement(), type, null);
-          extPoints = new LineString(GeoUtils.getDimension(type), srid, points);
+          extPoints = new LineString(GeoUtils.getDimension(type), srid,
+              coordinates(reader, event.asStartElement()));
         }
         if (event.asStartElement().getName().equals(Constants.QNAME_POLYGON_INTERIOR)) {
-          List<Point> points = points(reader, event.asStartElement(), type, null);
-          intRings.add(new LineString(GeoUtils.getDimension(type), srid, points));
+          intRings.add(new LineString(GeoUtils.getDimension(type), srid,
+              coordinates(reader, event.asStartElement())));
         }
       }
 
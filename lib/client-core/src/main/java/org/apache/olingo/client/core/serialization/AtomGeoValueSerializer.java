@@ -26,12 +26,14 @@ import javax.xml.stream.XMLStreamWriter;
 
 import org.apache.olingo.commons.api.Constants;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.api.edm.geo.ComposedGeospatial;
 import org.apache.olingo.commons.api.edm.geo.Geospatial;
 import org.apache.olingo.commons.api.edm.geo.GeospatialCollection;
 import org.apache.olingo.commons.api.edm.geo.LineString;
 import org.apache.olingo.commons.api.edm.geo.MultiLineString;
 import org.apache.olingo.commons.api.edm.geo.MultiPoint;
 import org.apache.olingo.commons.api.edm.geo.MultiPolygon;
+import org.apache.olingo.commons.api.edm.geo.PackedCoordinates;
 import org.apache.olingo.commons.api.edm.geo.Point;
 import org.apache.olingo.commons.api.edm.geo.Polygon;
 import org.apache.olingo.commons.core.edm.primitivetype.EdmDouble;
@@ -43,26 +45,44 @@ class AtomGeoValueSerializer {
 
     while (itor.hasNext()) {
       final Point point = itor.next();
+      point(writer, point.getX(), point.getY(), wrap);
+    }
+  }
 
-      if (wrap) {
-        writer.writeStartElement(Constants.PREFIX_GML, Constants.ELEM_POINT, Constants.NS_GML);
-      }
+  private void points(final XMLStreamWriter writer, final ComposedGeospatial<Point> points, final boolean wrap)
+      throws XMLStreamException {
 
-      writer.writeStartElement(Constants.PREFIX_GML, Constants.ELEM_POS, Constants.NS_GML);
-      try {
-        writer.writeCharacters(EdmDouble.getInstance().valueToString(point.getX(), null, null,
-            Constants.DEFAULT_PRECISION, Constants.DEFAULT_SCALE, null)
-            + " "
-            + EdmDouble.getInstance().valueToString(point.getY(), null, null,
-                Constants.DEFAULT_PRECISION, Constants.DEFAULT_SCALE, null));
-      } catch (EdmPrimitiveTypeException e) {
-        throw new XMLStreamException("While serializing point coordinates as double", e);
+    final PackedCoordinates coordinates = points.getCoordinates();
+    if (coordinates == null) {
+      points(writer, points.iterator(), wrap);
+    } else {
+      for (int i = 0; i < coordinates.size(); i++) {
+        point(writer, coordinates.getX(i), coordinates.getY(i), wrap);
       }
-      writer.writeEndElement();
+    }
+  }
 
-      if (wrap) {
-        writer.writeEndElement();
-      }
+  private void point(final XMLStreamWriter writer, final double x, final double y, final boolean wrap)
+      throws XMLStreamException {
+
+    if (wrap) {
+      writer.writeStartElement(Constants.PREFIX_GML, Constants.ELEM_POINT, Constants.NS_GML);
+    }
+
+    writer.writeStartElement(Constants.PREFIX_GML, Constants.ELEM_POS, Constants.NS_GML);
+    try {
+      writer.writeCharacters(EdmDouble.getInstance().valueToString(x, null, null,
+          Constants.DEFAULT_PRECISION, Constants.DEFAULT_SCALE, null));
+      writer.writeCharacters(" ");
+      writer.writeCharacters(EdmDouble.getInstance().valueToString(y, null, null,
+          Constants.DEFAULT_PRECISION, Constants.DEFAULT_SCALE, null));
+    } catch (EdmPrimitiveTypeException e) {
+      throw new XMLStreamException("While serializing point coordinates as double", e);
+    }
+    writer.writeEndElement();
+
+    if (wrap) {
+      writer.writeEndElement();
     }
   }
 
@@ -76,7 +96,7 @@ class AtomGeoValueSerializer {
         writer.writeStartElement(Constants.PREFIX_GML, Constants.ELEM_LINESTRING, Constants.NS_GML);
       }
 
-      points(writer, lineString.iterator(), false);
+      points(writer, lineString, false);
 
       if (wrap) {
         writer.writeEndElement();
@@ -98,7 +118,7 @@ class AtomGeoValueSerializer {
         writer.writeStartElement(Constants.PREFIX_GML, Constants.ELEM_POLYGON_EXTERIOR, Constants.NS_GML);
         writer.writeStartElement(Constants.PREFIX_GML, Constants.ELEM_POLYGON_LINEARRING, Constants.NS_GML);
 
-        points(writer, polygon.getExterior().iterator(), false);
+        points(writer, polygon.getExterior(), false);
 
         writer.writeEndElement();
         writer.writeEndElement();
@@ -107,7 +127,7 @@ class AtomGeoValueSerializer {
         writer.writeStartElement(Constants.PREFIX_GML, Constants.ELEM_POLYGON_INTERIOR, Constants.NS_GML);
         writer.writeStartElement(Constants.PREFIX_GML, Constants.ELEM_POLYGON_LINEARRING, Constants.NS_GML);
 
-        points(writer, polygon.getInterior(i).iterator(), false);
+        points(writer, polygon.getInterior(i), false);
 
         writer.writeEndElement();
         writer.writeEndElement();
@@ -145,7 +165,7 @@ class AtomGeoValueSerializer {
 
       if (!((MultiPoint) value).isEmpty()) {
         writer.writeStartElement(Constants.PREFIX_GML, Constants.ELEM_POINTMEMBERS, Constants.NS_GML);
-        points(writer, ((MultiPoint) value).iterator(), true);
+        points(writer, (MultiPoint) value, true);
         writer.writeEndElement();
       }
 
@@ -33,6 +33,7 @@ import org.apache.olingo.commons.api.edm.geo.LineString;
 import org.apache.olingo.commons.api.edm.geo.MultiLineString;
 import org.apache.olingo.commons.api.edm.geo.MultiPoint;
 import org.apache.olingo.commons.api.edm.geo.MultiPolygon;
+import org.apache.olingo.commons.api.edm.geo.PackedCoordinates;
 import org.apache.olingo.commons.api.edm.geo.Point;
 import org.apache.olingo.commons.api.edm.geo.Polygon;
 import org.apache.olingo.commons.api.edm.geo.SRID;
@@ -61,38 +62,32 @@ class JsonGeoValueDeserializer {
     return point;
   }
 
-  private MultiPoint multipoint(final Iterator<JsonNode> itor, final EdmPrimitiveTypeKind type, final SRID srid) {
-    final MultiPoint multiPoint;
-
-    if (itor.hasNext()) {
-      final List<Point> points = new ArrayList<>();
-      while (itor.hasNext()) {
-        final Iterator<JsonNode> mpItor = itor.next().elements();
-        points.add(point(mpItor, type, srid));
+  /** Reads positions directly into packed coordinates, without creating a point object for each of them. */
+  private PackedCoordinates coordinates(final Iterator<JsonNode> itor) {
+    final PackedCoordinates.Builder builder = new PackedCoordinates.Builder();
+    while (itor.hasNext()) {
+      final Iterator<JsonNode> mpItor = itor.next().elements();
+      if (mpItor.hasNext()) {
+        try {
+          builder.add(
+              EdmDouble.getInstance().valueOfString(mpItor.next().asText(), null, null,
+                  Constants.DEFAULT_PRECISION, Constants.DEFAULT_SCALE, null, Double.class),
+              EdmDouble.getInstance().valueOfString(mpItor.next().asText(), null, null,
+                  Constants.DEFAULT_PRECISION, Constants.DEFAULT_SCALE, null, Double.class));
+        } catch (EdmPrimitiveTypeException e) {
+          throw new IllegalArgumentException("While deserializing point coordinates as double", e);
+        }
       }
-      multiPoint = new MultiPoint(GeoUtils.getDimension(type), srid, points);
-    } else {
-      multiPoint = new MultiPoint(GeoUtils.getDimension(type), srid, Collections.<Point> emptyList());
     }
+    return builder.build();
+  }
 
-    return multiPoint;
+  private MultiPoint multipoint(final Iterator<JsonNode> itor, final EdmPrimitiveTypeKind type, final SRID srid) {
+    return new MultiPoint(GeoUtils.getDimension(type), srid, coordinates(itor));
   }
 
   private LineString lineString(final Iterator<JsonNode> itor, final EdmPrimitiveTypeKind type, final SRID srid) {
-    final LineString lineString;
-
-    if (itor.hasNext()) {
-      final List<Point> points = new ArrayList<>();
-      while (itor.hasNext()) {
-        final Iterator<JsonNode> mpItor = itor.next().elements();
-        points.add(point(mpItor, type, srid));
-      }
-      lineString = new LineString(GeoUtils.getDimension(type), srid, points);
-    } else {
-      lineString = new LineString(GeoUtils.getDimension(type), srid, Collections.<Point> emptyList());
-    }
-
-    return lineString;
+    return new LineString(GeoUtils.getDimension(type), srid, coordinates(itor));
   }
 
   private MultiLineString multiLineString(final Iterator<JsonNode> itor, final EdmPrimitiveTypeKind type,
@@ -115,32 +110,18 @@ class JsonGeoValueDeserializer {
   }
 
   private Polygon polygon(final Iterator<JsonNode> itor, final EdmPrimitiveTypeKind type, final SRID srid) {
-    List<Point> extPoints = null;
-    if (itor.hasNext()) {
-      final Iterator<JsonNode> extItor = itor.next().elements();
-      if (extItor.hasNext()) {
-        extPoints = new ArrayList<>();
-        while (extItor.hasNext()) {
-          final Iterator<JsonNode> mpItor = extItor.next().elements();
-          extPoints.add(point(mpItor, type, srid));
-        }
-      }
-    }
+    final LineString exterior = itor.hasNext()
+        ? lineString(itor.next().elements(), type, srid)
+        : new LineString(GeoUtils.getDimension(type), srid, Collections.<Point> emptyList());
 
     List<LineString> intRings = new ArrayList<LineString>();
     while (itor.hasNext()) {
       final Iterator<JsonNode> intItor = itor.next().elements();
       if (intItor.hasNext()) {
-        List<Point> intPoints = new ArrayList<>();
-        while (intItor.hasNext()) {
-          final Iterator<JsonNode> mpItor = intItor.next().elements();
-          intPoints.add(point(mpItor, type, srid));
-        }
-        intRings.add(new LineString(GeoUtils.getDimension(type), srid, intPoints));
+        intRings.add(lineString(intItor, type, srid));
       }
     }
 
-    LineString exterior = new LineString(GeoUtils.getDimension(type), srid, extPoints);
 	return new Polygon(GeoUtils.getDimension(type), srid, intRings, exterior);
   }
 
@@ -30,6 +30,7 @@ import org.apache.olingo.commons.api.edm.geo.LineString;
 import org.apache.olingo.commons.api.edm.geo.MultiLineString;
 import org.apache.olingo.commons.api.edm.geo.MultiPoint;
 import org.apache.olingo.commons.api.edm.geo.MultiPolygon;
+import org.apache.olingo.commons.api.edm.geo.PackedCoordinates;
 import org.apache.olingo.commons.api.edm.geo.Point;
 import org.apache.olingo.commons.api.edm.geo.Polygon;
 import org.apache.olingo.commons.api.edm.geo.SRID;
@@ -49,10 +50,14 @@ class JsonGeoValueSerializer {
   }
 
   private void point(final JsonGenerator jgen, final Point point) throws IOException {
+    point(jgen, point.getX(), point.getY());
+  }
+
+  private void point(final JsonGenerator jgen, final double x, final double y) throws IOException {
     try {
-      jgen.writeNumber(EdmDouble.getInstance().valueToString(point.getX(), null, null,
+      jgen.writeNumber(EdmDouble.getInstance().valueToString(x, null, null,
           Constants.DEFAULT_PRECISION, Constants.DEFAULT_SCALE, null));
-      jgen.writeNumber(EdmDouble.getInstance().valueToString(point.getY(), null, null,
+      jgen.writeNumber(EdmDouble.getInstance().valueToString(y, null, null,
           Constants.DEFAULT_PRECISION, Constants.DEFAULT_SCALE, null));
     } catch (EdmPrimitiveTypeException e) {
       throw new IllegalArgumentException("While serializing point coordinates as double", e);
@@ -60,14 +65,19 @@ class JsonGeoValueSerializer {
   }
 
   private void multipoint(final JsonGenerator jgen, final MultiPoint multiPoint) throws IOException {
-    for (Point point : multiPoint) {
-      jgen.writeStartArray();
-      point(jgen, point);
-      jgen.writeEndArray();
-    }
+    lineString(jgen, multiPoint);
   }
 
   private void lineString(final JsonGenerator jgen, final ComposedGeospatial<Point> lineString) throws IOException {
+    final PackedCoordinates coordinates = lineString.getCoordinates();
+    if (coordinates != null) {
+      for (int i = 0; i < coordinates.size(); i++) {
+        jgen.writeStartArray();
+        point(jgen, coordinates.getX(i), coordinates.getY(i));
+        jgen.writeEndArray();
+      }
+      return;
+    }
     for (Point point : lineString) {
       jgen.writeStartArray();
       point(jgen, point);
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.communication.request.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.communication.ODataClientErrorException;
+import org.apache.olingo.client.api.communication.request.batch.ODataBatchDispatcher;
+import org.apache.olingo.client.api.communication.response.ODataRetrieveResponse;
+import org.apache.olingo.client.api.domain.ClientEntity;
+import org.apache.olingo.client.api.http.HttpClientFactory;
+import org.apache.olingo.client.core.ODataClientFactory;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class ODataBatchDispatcherTest {
+
+  private static final String SERVICE_ROOT = "http://localhost/service";
+
+  private static final String CRLF = "\r\n";
+
+  @Test
+  public void coalesceRequests() throws Exception {
+    final AtomicInteger roundTrips = new AtomicInteger();
+    final ODataClient client = ODataClientFactory.getClient();
+    client.getConfiguration().setHttpClientFactory(new BatchResponder(roundTrips));
+
+    final ODataBatchDispatcher dispatcher =
+        client.getBatchRequestFactory().getBatchDispatcher(SERVICE_ROOT, 3, 1, TimeUnit.MINUTES);
+    final Future<ODataRetrieveResponse<ClientEntity>> first = dispatcher.submit(
+        client.getRetrieveRequestFactory().getEntityRequest(URI.create(SERVICE_ROOT + "/People('first')")));
+    final Future<ODataRetrieveResponse<ClientEntity>> second = dispatcher.submit(
+        client.getRetrieveRequestFactory().getEntityRequest(URI.create(SERVICE_ROOT + "/People('second')")));
+    final Future<ODataRetrieveResponse<ClientEntity>> missing = dispatcher.submit(
+        client.getRetrieveRequestFactory().getEntityRequest(URI.create(SERVICE_ROOT + "/People('missing')")));
+
+    assertEquals("first", first.get(10, TimeUnit.SECONDS).getBody()
+        .getProperty("UserName").getPrimitiveValue().toString());
+    assertEquals("second", second.get(10, TimeUnit.SECONDS).getBody()
+        .getProperty("UserName").getPrimitiveValue().toString());
+    try {
+      missing.get(10, TimeUnit.SECONDS);
+      fail("Expected error response");
+    } catch (final ExecutionException e) {
+      assertTrue(e.getCause() instanceof ODataClientErrorException);
+      assertEquals(404, ((ODataClientErrorException) e.getCause()).getStatusLine().getStatusCode());
+    }
+    assertEquals(1, roundTrips.get());
+    assertEquals(0, dispatcher.getPendingCount());
+    dispatcher.close();
+  }
+
+  @Test
+  public void flushOnWindow() throws Exception {
+    final AtomicInteger roundTrips = new AtomicInteger();
+    final ODataClient client = ODataClientFactory.getClient();
+    client.getConfiguration().setHttpClientFactory(new BatchResponder(roundTrips));
+
+    final ODataBatchDispatcher dispatcher =
+        client.getBatchRequestFactory().getBatchDispatcher(SERVICE_ROOT, 100, 10, TimeUnit.MILLISECONDS);
+    final Future<ODataRetrieveResponse<ClientEntity>> response = dispatcher.submit(
+        client.getRetrieveRequestFactory().getEntityRequest(URI.create(SERVICE_ROOT + "/People('first')")));
+
+    assertEquals(200, response.get(10, TimeUnit.SECONDS).getStatusCode());
+    assertEquals(1, roundTrips.get());
+    dispatcher.close();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void submitAfterClose() {
+    final ODataClient client = ODataClientFactory.getClient();
+    final ODataBatchDispatcher dispatcher =
+        client.getBatchRequestFactory().getBatchDispatcher(SERVICE_ROOT, 10, 1, TimeUnit.SECONDS);
+    dispatcher.close();
+    dispatcher.submit(client.getRetrieveRequestFactory().getEntityRequest(URI.create(SERVICE_ROOT + "/People")));
+  }
+
+  /**
+   * Answers every batch request with one part per GET request found in the payload: a 404 error for entities
+   * named 'missing', the entity otherwise.
+   */
+  private static class BatchResponder implements HttpClientFactory {
+
+    private final AtomicInteger roundTrips;
+
+    BatchResponder(final AtomicInteger roundTrips) {
+      this.roundTrips = roundTrips;
+    }
+
+    @Override
+    public HttpClient create(final HttpMethod method, final URI uri) {
+      final HttpClient httpClient = mock(HttpClient.class);
+      try {
+        when(httpClient.execute(any(HttpUriRequest.class))).thenAnswer(new Answer<HttpResponse>() {
+          @Override
+          public HttpResponse answer(final InvocationOnMock invocation) throws IOException {
+            return respond((HttpUriRequest) invocation.getArguments()[0]);
+          }
+        });
+      } catch (final IOException e) {
+        throw new IllegalStateException(e);
+      }
+      return httpClient;
+    }
+
+    private HttpResponse respond(final HttpUriRequest request) throws IOException {
+      roundTrips.incrementAndGet();
+      final String payload = IOUtils.toString(
+          ((HttpEntityEnclosingRequest) request).getEntity().getContent(), "UTF-8");
+
+      final StringBuilder body = new StringBuilder();
+      for (String line : payload.split(CRLF)) {
+        if (line.startsWith("GET ")) {
+          final String name = line.substring(line.indexOf("('") + 2, line.indexOf("')"));
+          body.append("--batch_resp").append(CRLF)
+              .append("Content-Type: application/http").append(CRLF)
+              .append("Content-Transfer-Encoding: binary").append(CRLF).append(CRLF);
+          if ("missing".equals(name)) {
+            body.append("HTTP/1.1 404 Not Found").append(CRLF)
+                .append("Content-Type: application/json").append(CRLF).append(CRLF)
+                .append("{\"error\":{\"code\":null,\"message\":\"Not found\"}}").append(CRLF);
+          } else {
+            body.append("HTTP/1.1 200 OK").append(CRLF)
+                .append("Content-Type: application/json;odata.metadata=minimal").append(CRLF).append(CRLF)
+                .append("{\"@odata.context\":\"$metadata#People/$entity\",\"UserName\":\"")
+                .append(name).append("\"}").append(CRLF);
+          }
+        }
+      }
+      body.append("--batch_resp--").append(CRLF);
+
+      final BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+      response.setHeader("Content-Type", "multipart/mixed;boundary=batch_resp");
+      response.setEntity(new StringEntity(body.toString(), ContentType.create("multipart/mixed", "UTF-8")));
+      return new TestResponse(response);
+    }
+
+    @Override
+    public void close(final HttpClient httpClient) {
+      // nothing to release
+    }
+  }
+
+  private static class TestResponse extends BasicHttpResponse implements CloseableHttpResponse {
+
+    TestResponse(final BasicHttpResponse response) {
+      super(response.getStatusLine());
+      setHeaders(response.getAllHeaders());
+      setEntity(response.getEntity());
+    }
+
+    @Override
+    public void close() {
+      // nothing to release
+    }
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.communication.ODataClientErrorException;
+import org.apache.olingo.client.api.domain.ClientEntity;
+import org.apache.olingo.client.api.domain.ClientEntitySet;
+import org.apache.olingo.client.api.domain.ClientEntitySetPrefetchingIterator;
+import org.apache.olingo.client.api.http.HttpClientFactory;
+import org.apache.olingo.client.core.ODataClientFactory;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class ClientEntitySetPrefetchingIteratorTest {
+
+  private static final String SERVICE_ROOT = "http://localhost/service/";
+
+  @Test
+  public void followNextLinks() {
+    final AtomicInteger requests = new AtomicInteger();
+    final ODataClient client = ODataClientFactory.getClient();
+    client.getConfiguration().setHttpClientFactory(new PagingResponder(4, 3, requests));
+
+    final ClientEntitySetPrefetchingIterator<ClientEntitySet, ClientEntity> iterator =
+        new ClientEntitySetPrefetchingIterator<>(client, URI.create(SERVICE_ROOT + "People"), 2);
+    final List<String> ids = new ArrayList<>();
+    while (iterator.hasNext()) {
+      ids.add(iterator.next().getProperty("ID").getPrimitiveValue().toString());
+    }
+
+    assertEquals(12, ids.size());
+    assertEquals("0", ids.get(0));
+    assertEquals("11", ids.get(11));
+    assertEquals(4, requests.get());
+    assertEquals(URI.create(SERVICE_ROOT + "People?$deltatoken=1"), iterator.getDeltaLink());
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test(expected = ODataClientErrorException.class)
+  public void failingPage() {
+    final ODataClient client = ODataClientFactory.getClient();
+    client.getConfiguration().setHttpClientFactory(new PagingResponder(1, 3, new AtomicInteger()));
+
+    final ClientEntitySetPrefetchingIterator<ClientEntitySet, ClientEntity> iterator =
+        new ClientEntitySetPrefetchingIterator<>(client, URI.create(SERVICE_ROOT + "Missing"), 1);
+    iterator.hasNext();
+  }
+
+  @Test(expected = TestError.class, timeout = 10000)
+  public void errorWhileFetching() {
+    final ODataClient client = ODataClientFactory.getClient();
+    client.getConfiguration().setHttpClientFactory(new HttpClientFactory() {
+      @Override
+      public HttpClient create(final HttpMethod method, final URI uri) {
+        throw new TestError();
+      }
+
+      @Override
+      public void close(final HttpClient httpClient) {
+        // nothing to release
+      }
+    });
+
+    final ClientEntitySetPrefetchingIterator<ClientEntitySet, ClientEntity> iterator =
+        new ClientEntitySetPrefetchingIterator<>(client, URI.create(SERVICE_ROOT + "People"), 1);
+    iterator.hasNext();
+  }
+
+  /**
+   * Serves the given number of pages of the given size; any entity set other than 'People' is not found.
+   */
+  private static class PagingResponder implements HttpClientFactory {
+
+    private final int pageCount;
+
+    private final int pageSize;
+
+    private final AtomicInteger requests;
+
+    PagingResponder(final int pageCount, final int pageSize, final AtomicInteger requests) {
+      this.pageCount = pageCount;
+      this.pageSize = pageSize;
+      this.requests = requests;
+    }
+
+    @Override
+    public HttpClient create(final HttpMethod method, final URI uri) {
+      final HttpClient httpClient = mock(HttpClient.class);
+      try {
+        when(httpClient.execute(any(HttpUriRequest.class))).thenAnswer(new Answer<HttpResponse>() {
+          @Override
+          public HttpResponse answer(final InvocationOnMock invocation) throws IOException {
+            return respond((HttpUriRequest) invocation.getArguments()[0]);
+          }
+        });
+      } catch (final IOException e) {
+        throw new IllegalStateException(e);
+      }
+      return httpClient;
+    }
+
+    private HttpResponse respond(final HttpUriRequest request) throws IOException {
+      requests.incrementAndGet();
+      final String requestUri = request.getRequestLine().getUri();
+      if (!requestUri.contains("People")) {
+        final TestResponse response = new TestResponse(404, "Not Found");
+        response.setHeader("Content-Type", "application/json");
+        response.setEntity(new StringEntity("{\"error\":{\"code\":null,\"message\":\"Not found\"}}"));
+        return response;
+      }
+
+      final int page = requestUri.contains("$skiptoken=")
+          ? Integer.parseInt(requestUri.substring(requestUri.indexOf("$skiptoken=") + 11)) : 0;
+      final StringBuilder body = new StringBuilder("{\"@odata.context\":\"$metadata#People\",\"value\":[");
+      for (int i = 0; i < pageSize; i++) {
+        body.append(i == 0 ? "" : ",").append("{\"ID\":").append(page * pageSize + i).append('}');
+      }
+      body.append(']');
+      if (page + 1 < pageCount) {
+        body.append(",\"@odata.nextLink\":\"").append(SERVICE_ROOT).append("People?$skiptoken=")
+            .append(page + 1).append('"');
+      } else {
+        body.append(",\"@odata.deltaLink\":\"").append(SERVICE_ROOT).append("People?$deltatoken=1\"");
+      }
+      body.append('}');
+
+      final TestResponse response = new TestResponse(200, "OK");
+      response.setHeader("Content-Type", "application/json;odata.metadata=minimal");
+      response.setEntity(new StringEntity(body.toString()));
+      return response;
+    }
+
+    @Override
+    public void close(final HttpClient httpClient) {
+      // nothing to release
+    }
+  }
+
+  private static class TestResponse extends BasicHttpResponse implements CloseableHttpResponse {
+
+    TestResponse(final int statusCode, final String reasonPhrase) {
+      super(HttpVersion.HTTP_1_1, statusCode, reasonPhrase);
+    }
+
+    @Override
+    public void close() {
+      // nothing to release
+    }
+  }
+
+  private static class TestError extends Error {
+
+    private static final long serialVersionUID = 1L;
+  }
+}
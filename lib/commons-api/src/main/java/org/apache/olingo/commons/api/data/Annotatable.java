@@ -18,7 +18,6 @@
  */
 package org.apache.olingo.commons.api.data;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -26,7 +25,8 @@ import java.util.List;
  */
 public abstract class Annotatable {
 
-  private final List<Annotation> annotations = new ArrayList<>();
+  /** Created on the first add, as most elements have no annotations. */
+  private List<Annotation> annotations;
 
   /**
    * Get Annotations.
@@ -34,6 +34,19 @@ public abstract class Annotatable {
    * @return annotations
    */
   public List<Annotation> getAnnotations() {
-    return annotations;
+    if (annotations != null) {
+      return annotations;
+    }
+    return new PendingList<Annotation>() {
+      @Override
+      List<Annotation> peek() {
+        return annotations;
+      }
+
+      @Override
+      void store(final List<Annotation> list) {
+        annotations = list;
+      }
+    };
   }
 }
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.data;
+
+import java.util.BitSet;
+
+/**
+ * Values of one primitive property for all rows of a {@link ColumnarEntityCollection}.
+ * Values are held in primitive arrays; <code>null</code> values are marked in a bitmap
+ * or, for dictionary-encoded strings, by a negative code.
+ */
+public abstract class ColumnVector {
+
+  private final String name;
+  private final int size;
+  private final BitSet nulls;
+
+  protected ColumnVector(final String name, final int size, final BitSet nulls) {
+    if (name == null) {
+      throw new IllegalArgumentException("The property name must not be null.");
+    }
+    this.name = name;
+    this.size = size;
+    this.nulls = nulls;
+  }
+
+  /**
+   * Gets the name of the property.
+   * @return the property name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the number of rows.
+   * @return the number of rows
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks whether the value in the given row is <code>null</code>.
+   * @param row the row index
+   * @return whether the value is <code>null</code>
+   */
+  public boolean isNull(final int row) {
+    return nulls != null && nulls.get(row);
+  }
+
+  /**
+   * Gets the value in the given row as object.
+   * @param row the row index
+   * @return the (boxed) value or <code>null</code>
+   */
+  public abstract Object getValue(int row);
+
+  /**
+   * Column of <code>int</code> values, e.g., for properties of type <code>Edm.Int32</code>.
+   */
+  public static final class IntVector extends ColumnVector {
+
+    private final int[] values;
+
+    /**
+     * @param name the property name
+     * @param values the values
+     * @param nulls the rows with <code>null</code> values or <code>null</code> if there are none
+     */
+    public IntVector(final String name, final int[] values, final BitSet nulls) {
+      super(name, values.length, nulls);
+      this.values = values;
+    }
+
+    public int getInt(final int row) {
+      return values[row];
+    }
+
+    @Override
+    public Object getValue(final int row) {
+      return isNull(row) ? null : Integer.valueOf(values[row]);
+    }
+  }
+
+  /**
+   * Column of <code>long</code> values, e.g., for properties of type <code>Edm.Int64</code>.
+   */
+  public static final class LongVector extends ColumnVector {
+
+    private final long[] values;
+
+    /**
+     * @param name the property name
+     * @param values the values
+     * @param nulls the rows with <code>null</code> values or <code>null</code> if there are none
+     */
+    public LongVector(final String name, final long[] values, final BitSet nulls) {
+      super(name, values.length, nulls);
+      this.values = values;
+    }
+
+    public long getLong(final int row) {
+      return values[row];
+    }
+
+    @Override
+    public Object getValue(final int row) {
+      return isNull(row) ? null : Long.valueOf(values[row]);
+    }
+  }
+
+  /**
+   * Column of <code>double</code> values, e.g., for properties of type <code>Edm.Double</code>.
+   */
+  public static final class DoubleVector extends ColumnVector {
+
+    private final double[] values;
+
+    /**
+     * @param name the property name
+     * @param values the values
+     * @param nulls the rows with <code>null</code> values or <code>null</code> if there are none
+     */
+    public DoubleVector(final String name, final double[] values, final BitSet nulls) {
+      super(name, values.length, nulls);
+      this.values = values;
+    }
+
+    public double getDouble(final int row) {
+      return values[row];
+    }
+
+    @Override
+    public Object getValue(final int row) {
+      return isNull(row) ? null : Double.valueOf(values[row]);
+    }
+  }
+
+  /**
+   * Column of <code>boolean</code> values for properties of type <code>Edm.Boolean</code>.
+   */
+  public static final class BooleanVector extends ColumnVector {
+
+    private final boolean[] values;
+
+    /**
+     * @param name the property name
+     * @param values the values
+     * @param nulls the rows with <code>null</code> values or <code>null</code> if there are none
+     */
+    public BooleanVector(final String name, final boolean[] values, final BitSet nulls) {
+      super(name, values.length, nulls);
+      this.values = values;
+    }
+
+    public boolean getBoolean(final int row) {
+      return values[row];
+    }
+
+    @Override
+    public Object getValue(final int row) {
+      return isNull(row) ? null : Boolean.valueOf(values[row]);
+    }
+  }
+
+  /**
+   * Column of dictionary-encoded strings: every row holds the index of its value in the dictionary,
+   * a negative index stands for <code>null</code>.
+   */
+  public static final class DictionaryVector extends ColumnVector {
+
+    private final String[] dictionary;
+    private final int[] codes;
+
+    /**
+     * @param name the property name
+     * @param dictionary the distinct values
+     * @param codes the index of the value in the dictionary for every row, negative for <code>null</code>
+     */
+    public DictionaryVector(final String name, final String[] dictionary, final int[] codes) {
+      super(name, codes.length, null);
+      this.dictionary = dictionary;
+      this.codes = codes;
+    }
+
+    /**
+     * Gets the distinct values.
+     * @return the dictionary (must not be modified)
+     */
+    public String[] getDictionary() {
+      return dictionary;
+    }
+
+    /**
+     * Gets the index of the value in the dictionary.
+     * @param row the row index
+     * @return the index or a negative number for <code>null</code>
+     */
+    public int getCode(final int row) {
+      return codes[row];
+    }
+
+    @Override
+    public boolean isNull(final int row) {
+      return codes[row] < 0;
+    }
+
+    @Override
+    public Object getValue(final int row) {
+      return codes[row] < 0 ? null : dictionary[codes[row]];
+    }
+  }
+}
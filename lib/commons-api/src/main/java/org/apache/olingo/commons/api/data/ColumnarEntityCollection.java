@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.data;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Collection of entities of one entity type whose primitive property values are held column by column
+ * in {@link ColumnVector}s, e.g., as read from a columnar store.
+ * <p>
+ * Serializers can write such a collection directly from the columns without creating objects per row.
+ * Iterating over the collection creates the entities one by one from the column values.
+ */
+public class ColumnarEntityCollection extends AbstractEntityCollection {
+
+  private final int size;
+  private final Map<String, ColumnVector> columns = new LinkedHashMap<String, ColumnVector>();
+  private Integer count;
+  private URI next;
+  private URI deltaLink;
+  private final List<Operation> operations = new ArrayList<Operation>();
+
+  /**
+   * Creates a collection without columns.
+   * @param size the number of rows
+   */
+  public ColumnarEntityCollection(final int size) {
+    this.size = size;
+  }
+
+  /**
+   * Adds a column.
+   * @param column the column; it must have as many rows as this collection
+   * @return this collection for fluid/flow adding
+   */
+  public ColumnarEntityCollection addColumn(final ColumnVector column) {
+    if (column.size() != size) {
+      throw new IllegalArgumentException("Column " + column.getName() + " has " + column.size()
+          + " rows instead of " + size + ".");
+    }
+    columns.put(column.getName(), column);
+    return this;
+  }
+
+  /**
+   * Gets the column for the given property.
+   * @param name the property name
+   * @return the column or <code>null</code>
+   */
+  public ColumnVector getColumn(final String name) {
+    return columns.get(name);
+  }
+
+  /**
+   * Gets all columns in the order they have been added.
+   * @return the columns
+   */
+  public List<ColumnVector> getColumns() {
+    return Collections.unmodifiableList(new ArrayList<ColumnVector>(columns.values()));
+  }
+
+  /**
+   * Gets the number of rows.
+   * @return the number of rows
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Creates the entity for the given row.
+   * @param row the row index
+   * @return a new entity with a primitive property for each column
+   */
+  public Entity getEntity(final int row) {
+    final Entity entity = new Entity();
+    for (final ColumnVector column : columns.values()) {
+      entity.addProperty(new Property(null, column.getName(), ValueType.PRIMITIVE, column.getValue(row)));
+    }
+    return entity;
+  }
+
+  /**
+   * Sets number of entries.
+   *
+   * @param count number of entries
+   */
+  public void setCount(final Integer count) {
+    this.count = count;
+  }
+
+  @Override
+  public Integer getCount() {
+    return count;
+  }
+
+  /**
+   * Sets next link.
+   *
+   * @param next next link.
+   */
+  public void setNext(final URI next) {
+    this.next = next;
+  }
+
+  @Override
+  public URI getNext() {
+    return next;
+  }
+
+  /**
+   * Sets delta link.
+   *
+   * @param deltaLink delta link.
+   */
+  public void setDeltaLink(final URI deltaLink) {
+    this.deltaLink = deltaLink;
+  }
+
+  @Override
+  public URI getDeltaLink() {
+    return deltaLink;
+  }
+
+  @Override
+  public List<Operation> getOperations() {
+    return operations;
+  }
+
+  @Override
+  public Iterator<Entity> iterator() {
+    return new Iterator<Entity>() {
+      private int row = 0;
+
+      @Override
+      public boolean hasNext() {
+        return row < size;
+      }
+
+      @Override
+      public Entity next() {
+        if (row >= size) {
+          throw new NoSuchElementException();
+        }
+        return getEntity(row++);
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+}
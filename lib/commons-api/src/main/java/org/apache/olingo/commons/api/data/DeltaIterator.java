@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.data;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * <p>Data representation of a delta response as iterators, so that a delta can be serialized
+ * without holding all changes in memory.</p>
+ * <p>The iterator itself delivers the added or changed entities. After these have been consumed,
+ * the deleted entities, the added links, and the deleted links are requested in this order,
+ * each exactly once; so implementations can open the corresponding data source lazily.
+ * The next link and the delta link are requested last and can therefore be determined while iterating.</p>
+ */
+public abstract class DeltaIterator extends EntityIterator {
+
+  private URI deltaLink;
+
+  /**
+   * Gets the deleted entities.
+   * @return an iterator over the deleted entities; empty by default
+   */
+  public Iterator<DeletedEntity> getDeletedEntities() {
+    return Collections.<DeletedEntity> emptyList().iterator();
+  }
+
+  /**
+   * Gets the added links.
+   * @return an iterator over the added links; empty by default
+   */
+  public Iterator<DeltaLink> getAddedLinks() {
+    return Collections.<DeltaLink> emptyList().iterator();
+  }
+
+  /**
+   * Gets the deleted links.
+   * @return an iterator over the deleted links; empty by default
+   */
+  public Iterator<DeltaLink> getDeletedLinks() {
+    return Collections.<DeltaLink> emptyList().iterator();
+  }
+
+  /**
+   * Gets delta link.
+   */
+  @Override
+  public URI getDeltaLink() {
+    return deltaLink;
+  }
+
+  /**
+   * Sets delta link.
+   *
+   * @param deltaLink delta link.
+   */
+  public void setDeltaLink(final URI deltaLink) {
+    this.deltaLink = deltaLink;
+  }
+}
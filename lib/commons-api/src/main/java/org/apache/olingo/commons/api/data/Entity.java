@@ -33,10 +33,11 @@ public class Entity extends Linked {
   private Link readLink;
   private Link editLink;
 
-  private final List<Link> mediaEditLinks = new ArrayList<Link>();
-  private final List<Operation> operations = new ArrayList<Operation>();
+  // The lists are created on the first add.
+  private List<Link> mediaEditLinks;
+  private List<Operation> operations;
 
-  private final List<Property> properties = new ArrayList<Property>();
+  private List<Property> properties;
 
   private URI mediaContentSource;
   private String mediaContentType;
@@ -119,7 +120,20 @@ public class Entity extends Linked {
    * @return links.
    */
   public List<Link> getMediaEditLinks() {
-    return mediaEditLinks;
+    if (mediaEditLinks != null) {
+      return mediaEditLinks;
+    }
+    return new PendingList<Link>() {
+      @Override
+      List<Link> peek() {
+        return mediaEditLinks;
+      }
+
+      @Override
+      void store(final List<Link> list) {
+        mediaEditLinks = list;
+      }
+    };
   }
 
   /**
@@ -128,7 +142,20 @@ public class Entity extends Linked {
    * @return operations.
    */
   public List<Operation> getOperations() {
-    return operations;
+    if (operations != null) {
+      return operations;
+    }
+    return new PendingList<Operation>() {
+      @Override
+      List<Operation> peek() {
+        return operations;
+      }
+
+      @Override
+      void store(final List<Operation> list) {
+        operations = list;
+      }
+    };
   }
 
   /**
@@ -138,6 +165,9 @@ public class Entity extends Linked {
    * @return this Entity for fluid/flow adding
    */
   public Entity addProperty(final Property property) {
+    if (properties == null) {
+      properties = new ArrayList<Property>();
+    }
     properties.add(property);
     return this;
   }
@@ -148,7 +178,20 @@ public class Entity extends Linked {
    * @return properties.
    */
   public List<Property> getProperties() {
-    return properties;
+    if (properties != null) {
+      return properties;
+    }
+    return new PendingList<Property>() {
+      @Override
+      List<Property> peek() {
+        return properties;
+      }
+
+      @Override
+      void store(final List<Property> list) {
+        properties = list;
+      }
+    };
   }
 
   /**
@@ -159,6 +202,9 @@ public class Entity extends Linked {
    */
   public Property getProperty(final String name) {
     Property result = null;
+    if (properties == null) {
+      return result;
+    }
 
     for (Property property : properties) {
       if (name.equals(property.getName())) {
@@ -240,9 +286,9 @@ public class Entity extends Linked {
         && (type == null ? ((Entity) o).type == null : type.equals(((Entity) o).type))
         && (readLink == null ? ((Entity) o).readLink == null : readLink.equals(((Entity) o).readLink))
         && (editLink == null ? ((Entity) o).editLink == null : editLink.equals(((Entity) o).editLink))
-        && mediaEditLinks.equals(((Entity) o).mediaEditLinks)
-        && operations.equals(((Entity) o).operations)
-        && properties.equals(((Entity) o).properties)
+        && orEmpty(mediaEditLinks).equals(orEmpty(((Entity) o).mediaEditLinks))
+        && orEmpty(operations).equals(orEmpty(((Entity) o).operations))
+        && getProperties().equals(((Entity) o).getProperties())
         && (mediaContentSource == null ?
             ((Entity) o).mediaContentSource == null :
             mediaContentSource.equals(((Entity) o).mediaContentSource))
@@ -259,9 +305,9 @@ public class Entity extends Linked {
     result = 31 * result + (type == null ? 0 : type.hashCode());
     result = 31 * result + (readLink == null ? 0 : readLink.hashCode());
     result = 31 * result + (editLink == null ? 0 : editLink.hashCode());
-    result = 31 * result + mediaEditLinks.hashCode();
-    result = 31 * result + operations.hashCode();
-    result = 31 * result + properties.hashCode();
+    result = 31 * result + orEmpty(mediaEditLinks).hashCode();
+    result = 31 * result + orEmpty(operations).hashCode();
+    result = 31 * result + getProperties().hashCode();
     result = 31 * result + (mediaContentSource == null ? 0 : mediaContentSource.hashCode());
     result = 31 * result + (mediaContentType == null ? 0 : mediaContentType.hashCode());
     result = 31 * result + (mediaETag == null ? 0 : mediaETag.hashCode());
@@ -270,6 +316,6 @@ public class Entity extends Linked {
 
   @Override
   public String toString() {
-    return properties.toString();
+    return getProperties().toString();
   }
 }
@@ -18,7 +18,7 @@
  */
 package org.apache.olingo.commons.api.data;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -26,12 +26,21 @@ import java.util.List;
  */
 public abstract class Linked extends AbstractODataObject {
 
-  private final List<Link> associationLinks = new ArrayList<Link>();
-  private final List<Link> navigationLinks = new ArrayList<Link>();
-  private final List<Link> bindingLinks = new ArrayList<Link>();
+  // The link lists are created on the first add, as most instances have none or only some kinds of links.
+  private List<Link> associationLinks;
+  private List<Link> navigationLinks;
+  private List<Link> bindingLinks;
+
+  /** Returns the given list or, if it has not been created yet, an empty list. */
+  static <T> List<T> orEmpty(final List<T> list) {
+    return list == null ? Collections.<T> emptyList() : list;
+  }
 
   protected Link getOneByTitle(final String name, final List<Link> links) {
     Link result = null;
+    if (links == null) {
+      return result;
+    }
 
     for (Link link : links) {
       if (name.equals(link.getTitle())) {
@@ -58,7 +67,20 @@ public abstract class Linked extends AbstractODataObject {
    * @return association links.
    */
   public List<Link> getAssociationLinks() {
-    return associationLinks;
+    if (associationLinks != null) {
+      return associationLinks;
+    }
+    return new PendingList<Link>() {
+      @Override
+      List<Link> peek() {
+        return associationLinks;
+      }
+
+      @Override
+      void store(final List<Link> list) {
+        associationLinks = list;
+      }
+    };
   }
 
   /**
@@ -77,7 +99,20 @@ public abstract class Linked extends AbstractODataObject {
    * @return links.
    */
   public List<Link> getNavigationLinks() {
-    return navigationLinks;
+    if (navigationLinks != null) {
+      return navigationLinks;
+    }
+    return new PendingList<Link>() {
+      @Override
+      List<Link> peek() {
+        return navigationLinks;
+      }
+
+      @Override
+      void store(final List<Link> list) {
+        navigationLinks = list;
+      }
+    };
   }
 
   /**
@@ -95,23 +130,36 @@ public abstract class Linked extends AbstractODataObject {
    * @return links.
    */
   public List<Link> getNavigationBindings() {
-    return bindingLinks;
+    if (bindingLinks != null) {
+      return bindingLinks;
+    }
+    return new PendingList<Link>() {
+      @Override
+      List<Link> peek() {
+        return bindingLinks;
+      }
+
+      @Override
+      void store(final List<Link> list) {
+        bindingLinks = list;
+      }
+    };
   }
 
   @Override
   public boolean equals(final Object o) {
     return super.equals(o)
-        && associationLinks.equals(((Linked) o).associationLinks)
-        && navigationLinks.equals(((Linked) o).navigationLinks)
-        && bindingLinks.equals(((Linked) o).bindingLinks);
+        && orEmpty(associationLinks).equals(orEmpty(((Linked) o).associationLinks))
+        && orEmpty(navigationLinks).equals(orEmpty(((Linked) o).navigationLinks))
+        && orEmpty(bindingLinks).equals(orEmpty(((Linked) o).bindingLinks));
   }
 
   @Override
   public int hashCode() {
     int result = super.hashCode();
-    result = 31 * result + associationLinks.hashCode();
-    result = 31 * result + navigationLinks.hashCode();
-    result = 31 * result + bindingLinks.hashCode();
+    result = 31 * result + orEmpty(associationLinks).hashCode();
+    result = 31 * result + orEmpty(navigationLinks).hashCode();
+    result = 31 * result + orEmpty(bindingLinks).hashCode();
     return result;
   }
 }
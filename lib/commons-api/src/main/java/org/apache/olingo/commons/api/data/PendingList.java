@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.data;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * View of a list field which is created on the first add.
+ * Until then, it behaves like an empty list and nothing is kept in the field; the first add stores a new
+ * {@link ArrayList} there, which the getter returns directly from then on.
+ * @param <E> the type of the elements
+ */
+abstract class PendingList<E> extends AbstractList<E> implements RandomAccess {
+
+  /** Returns the current value of the field, <code>null</code> if the list has not been created yet. */
+  abstract List<E> peek();
+
+  /** Stores the created list in the field. */
+  abstract void store(List<E> list);
+
+  private List<E> existing(final int index) {
+    final List<E> elements = peek();
+    if (elements == null) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
+    }
+    return elements;
+  }
+
+  @Override
+  public E get(final int index) {
+    return existing(index).get(index);
+  }
+
+  @Override
+  public int size() {
+    final List<E> elements = peek();
+    return elements == null ? 0 : elements.size();
+  }
+
+  @Override
+  public E set(final int index, final E element) {
+    return existing(index).set(index, element);
+  }
+
+  @Override
+  public void add(final int index, final E element) {
+    List<E> elements = peek();
+    if (elements == null) {
+      elements = new ArrayList<E>();
+      store(elements);
+    }
+    elements.add(index, element);
+    modCount++;
+  }
+
+  @Override
+  public E remove(final int index) {
+    final E previous = existing(index).remove(index);
+    modCount++;
+    return previous;
+  }
+
+  @Override
+  public void clear() {
+    final List<E> elements = peek();
+    if (elements != null) {
+      elements.clear();
+      modCount++;
+    }
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return peek() == null ? Collections.<E> emptyIterator() : super.iterator();
+  }
+}
@@ -18,7 +18,6 @@
  */
 package org.apache.olingo.commons.api.data;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -27,7 +26,7 @@ import java.util.List;
 public class Property extends Valuable {
 
   private String name;
-  private final List<Operation> operations = new ArrayList<Operation>();
+  private List<Operation> operations;
   
   /**
    * Creates a new property
@@ -81,7 +80,7 @@ public class Property extends Valuable {
    */
   @Override
   public boolean isNull() {
-    return getValue() == null || "Edm.Null".equals(getType());
+    return super.isNull() || "Edm.Null".equals(getType());
   }
   
   /**
@@ -90,7 +89,20 @@ public class Property extends Valuable {
    * @return operations.
    */
   public List<Operation> getOperations() {
-    return operations;
+    if (operations != null) {
+      return operations;
+    }
+    return new PendingList<Operation>() {
+      @Override
+      List<Operation> peek() {
+        return operations;
+      }
+
+      @Override
+      void store(final List<Operation> list) {
+        operations = list;
+      }
+    };
   }  
 
   @Override
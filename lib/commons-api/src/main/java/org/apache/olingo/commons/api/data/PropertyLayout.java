@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.data;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+
+/**
+ * Assignment of the properties of a structured type to consecutive ordinals,
+ * to be shared by all {@link SlotEntity} instances of that type.
+ * Instances are immutable and can be used from several threads.
+ */
+public final class PropertyLayout {
+
+  private final String[] names;
+  private final Map<String, Integer> ordinals;
+
+  /**
+   * Creates a layout for the given property names; the ordinal of a property is its index in the list.
+   * @param propertyNames the property names (must not contain duplicates)
+   */
+  public PropertyLayout(final List<String> propertyNames) {
+    names = propertyNames.toArray(new String[propertyNames.size()]);
+    final Map<String, Integer> map = new HashMap<String, Integer>(names.length * 4 / 3 + 1);
+    for (int ordinal = 0; ordinal < names.length; ordinal++) {
+      if (map.put(names[ordinal], ordinal) != null) {
+        throw new IllegalArgumentException("Duplicate property name " + names[ordinal]);
+      }
+    }
+    ordinals = Collections.unmodifiableMap(map);
+  }
+
+  /**
+   * Creates a layout for the structural properties of the given type,
+   * in the order of {@link EdmStructuredType#getPropertyNames()}.
+   * @param type the structured type
+   */
+  public PropertyLayout(final EdmStructuredType type) {
+    this(type.getPropertyNames());
+  }
+
+  /**
+   * Gets the number of properties in this layout.
+   * @return the number of properties
+   */
+  public int size() {
+    return names.length;
+  }
+
+  /**
+   * Gets the name of the property with the given ordinal.
+   * @param ordinal the ordinal
+   * @return the property name
+   */
+  public String getName(final int ordinal) {
+    return names[ordinal];
+  }
+
+  /**
+   * Gets the ordinal of the property with the given name.
+   * @param name the property name
+   * @return the ordinal or <code>-1</code> if the property is not part of this layout
+   */
+  public int getOrdinal(final String name) {
+    final Integer ordinal = name == null ? null : ordinals.get(name);
+    return ordinal == null ? -1 : ordinal;
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.data;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entity which keeps its properties in an array indexed by the property ordinal of a {@link PropertyLayout}
+ * shared by all entities of the same type.
+ * Looking up a property by name is a hash lookup instead of a scan over all properties.
+ * <p>
+ * The list returned by {@link #getProperties()} is a live view: it lists the properties in the order of
+ * the layout, followed by the properties which are not part of the layout (e.g., dynamic properties) in the order
+ * they have been added. Properties added to the view are placed according to that order; adding a property at an
+ * index other than the one given by that order is not supported. The name of a property must not be changed after
+ * it has been added.
+ */
+public class SlotEntity extends Entity {
+
+  private final PropertyLayout layout;
+  private final Property[] slots;
+  private int filled;
+  private List<Property> others;
+  private Properties view;
+
+  /**
+   * Creates an entity without properties.
+   * @param layout the layout of the entity type
+   */
+  public SlotEntity(final PropertyLayout layout) {
+    this.layout = layout;
+    slots = new Property[layout.size()];
+  }
+
+  /**
+   * Gets the layout of this entity.
+   * @return the layout
+   */
+  public PropertyLayout getLayout() {
+    return layout;
+  }
+
+  /**
+   * Gets the property with the given ordinal.
+   * @param ordinal the ordinal of the property in the layout of this entity
+   * @return the property or <code>null</code> if it has not been set
+   */
+  public Property getProperty(final int ordinal) {
+    return slots[ordinal];
+  }
+
+  @Override
+  public Entity addProperty(final Property property) {
+    final int ordinal = layout.getOrdinal(property.getName());
+    if (ordinal >= 0 && slots[ordinal] == null) {
+      slots[ordinal] = property;
+      filled++;
+    } else {
+      if (others == null) {
+        others = new ArrayList<Property>();
+      }
+      others.add(property);
+    }
+    return this;
+  }
+
+  @Override
+  public Property getProperty(final String name) {
+    final int ordinal = layout.getOrdinal(name);
+    if (ordinal >= 0 && slots[ordinal] != null) {
+      return slots[ordinal];
+    }
+    if (others != null) {
+      for (final Property property : others) {
+        if (name.equals(property.getName())) {
+          return property;
+        }
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public List<Property> getProperties() {
+    if (view == null) {
+      view = new Properties();
+    }
+    return view;
+  }
+
+  private int othersSize() {
+    return others == null ? 0 : others.size();
+  }
+
+  /** Returns the list index the given property would get when added. */
+  private int insertionIndex(final Property property) {
+    final int ordinal = layout.getOrdinal(property.getName());
+    if (ordinal < 0 || slots[ordinal] != null) {
+      return filled + othersSize();
+    }
+    int index = 0;
+    for (int slot = 0; slot < ordinal; slot++) {
+      if (slots[slot] != null) {
+        index++;
+      }
+    }
+    return index;
+  }
+
+  /** Returns the slot index of the property at the given list index or -1 if it is not in a slot. */
+  private int toSlot(final int index) {
+    if (index < 0 || index >= filled + othersSize()) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (filled + othersSize()));
+    }
+    if (index >= filled) {
+      return -1;
+    } else if (filled == slots.length) {
+      return index;
+    }
+    int remaining = index;
+    for (int slot = 0; slot < slots.length; slot++) {
+      if (slots[slot] != null && remaining-- == 0) {
+        return slot;
+      }
+    }
+    return -1;
+  }
+
+  private class Properties extends AbstractList<Property> {
+
+    @Override
+    public Property get(final int index) {
+      final int slot = toSlot(index);
+      return slot >= 0 ? slots[slot] : others.get(index - filled);
+    }
+
+    @Override
+    public int size() {
+      return filled + othersSize();
+    }
+
+    @Override
+    public Property set(final int index, final Property element) {
+      final int slot = toSlot(index);
+      if (slot >= 0 && slot == layout.getOrdinal(element.getName())) {
+        final Property previous = slots[slot];
+        slots[slot] = element;
+        return previous;
+      } else if (slot < 0 && layout.getOrdinal(element.getName()) < 0) {
+        return others.set(index - filled, element);
+      } else {
+        final Property previous = remove(index);
+        add(element);
+        return previous;
+      }
+    }
+
+    @Override
+    public void add(final int index, final Property element) {
+      if (index < 0 || index > size()) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+      }
+      if (index != insertionIndex(element)) {
+        throw new UnsupportedOperationException(
+            "Property " + element.getName() + " cannot be added at index " + index + ".");
+      }
+      addProperty(element);
+      modCount++;
+    }
+
+    @Override
+    public Property remove(final int index) {
+      final int slot = toSlot(index);
+      final Property previous;
+      if (slot >= 0) {
+        previous = slots[slot];
+        slots[slot] = null;
+        filled--;
+      } else {
+        previous = others.remove(index - filled);
+      }
+      modCount++;
+      return previous;
+    }
+  }
+}
@@ -27,16 +27,36 @@ import org.apache.olingo.commons.api.edm.geo.Geospatial;
  */
 public abstract class Valuable extends Annotatable {
 
+  /**
+   * Storage forms of a primitive value.
+   * Values set through one of the primitive setters are kept unboxed
+   * until {@link Valuable#getValue()} is called.
+   */
+  public enum PrimitiveStorage {
+    /** The value is held as an object. */
+    OBJECT,
+    /** The value is held as an unboxed <code>int</code>. */
+    INT,
+    /** The value is held as an unboxed <code>long</code>. */
+    LONG,
+    /** The value is held as an unboxed <code>double</code>. */
+    DOUBLE,
+    /** The value is held as an unboxed <code>boolean</code>. */
+    BOOLEAN
+  }
+
   private ValueType valueType = null;
   private Object value = null;
   private String type;
+  private PrimitiveStorage storage = PrimitiveStorage.OBJECT;
+  private long bits;
 
   /**
    * Check if according value is <code>null</code>.
    * @return <code>true</code> if value is <code>null</code>, otherwise <code>false</code>
    */
   public boolean isNull() {
-    return value == null;
+    return storage == PrimitiveStorage.OBJECT && value == null;
   }
 
   /**
@@ -106,7 +126,7 @@ public abstract class Valuable extends Annotatable {
    * @return primitive representation or null if it is not based on a primitive ValueType
    */
   public Object asPrimitive() {
-    return isPrimitive() && !isCollection() ? value : null;
+    return isPrimitive() && !isCollection() ? getValue() : null;
   }
 
   /**
@@ -151,6 +171,22 @@ public abstract class Valuable extends Annotatable {
    * @return the value
    */
   public Object getValue() {
+    if (value == null && storage != PrimitiveStorage.OBJECT) {
+      switch (storage) {
+      case INT:
+        value = Integer.valueOf((int) bits);
+        break;
+      case LONG:
+        value = Long.valueOf(bits);
+        break;
+      case DOUBLE:
+        value = Double.valueOf(Double.longBitsToDouble(bits));
+        break;
+      default:
+        value = Boolean.valueOf(bits != 0);
+        break;
+      }
+    }
     return value;
   }
 
@@ -162,6 +198,105 @@ public abstract class Valuable extends Annotatable {
   public void setValue(final ValueType valueType, final Object value) {
     this.valueType = valueType;
     this.value = value;
+    storage = PrimitiveStorage.OBJECT;
+  }
+
+  /**
+   * Get the form in which the value is stored.
+   * Serializers can use it to pick the matching primitive getter without boxing.
+   * @return the storage form; {@link PrimitiveStorage#OBJECT} unless one of the primitive setters has been used
+   */
+  public PrimitiveStorage getPrimitiveStorage() {
+    return storage;
+  }
+
+  /**
+   * Set a primitive <code>int</code> value without boxing it.
+   * @param value the value
+   */
+  public void setInt(final int value) {
+    setUnboxed(PrimitiveStorage.INT, value);
+  }
+
+  /**
+   * Set a primitive <code>long</code> value without boxing it.
+   * @param value the value
+   */
+  public void setLong(final long value) {
+    setUnboxed(PrimitiveStorage.LONG, value);
+  }
+
+  /**
+   * Set a primitive <code>double</code> value without boxing it.
+   * @param value the value
+   */
+  public void setDouble(final double value) {
+    setUnboxed(PrimitiveStorage.DOUBLE, Double.doubleToRawLongBits(value));
+  }
+
+  /**
+   * Set a primitive <code>boolean</code> value without boxing it.
+   * @param value the value
+   */
+  public void setBoolean(final boolean value) {
+    setUnboxed(PrimitiveStorage.BOOLEAN, value ? 1 : 0);
+  }
+
+  private void setUnboxed(final PrimitiveStorage storage, final long bits) {
+    valueType = ValueType.PRIMITIVE;
+    value = null;
+    this.storage = storage;
+    this.bits = bits;
+  }
+
+  /**
+   * Get the value as <code>int</code>.
+   * @return the value, narrowed like {@link Number#intValue()} if necessary
+   * @throws IllegalStateException if the value is not numeric
+   */
+  public int getInt() {
+    return storage == PrimitiveStorage.INT ? (int) bits : getNumber().intValue();
+  }
+
+  /**
+   * Get the value as <code>long</code>.
+   * @return the value, converted like {@link Number#longValue()} if necessary
+   * @throws IllegalStateException if the value is not numeric
+   */
+  public long getLong() {
+    return storage == PrimitiveStorage.INT || storage == PrimitiveStorage.LONG ? bits : getNumber().longValue();
+  }
+
+  /**
+   * Get the value as <code>double</code>.
+   * @return the value, converted like {@link Number#doubleValue()} if necessary
+   * @throws IllegalStateException if the value is not numeric
+   */
+  public double getDouble() {
+    return storage == PrimitiveStorage.DOUBLE ? Double.longBitsToDouble(bits)
+        : storage == PrimitiveStorage.INT || storage == PrimitiveStorage.LONG ? (double) bits
+            : getNumber().doubleValue();
+  }
+
+  /**
+   * Get the value as <code>boolean</code>.
+   * @return the value
+   * @throws IllegalStateException if the value is not a boolean
+   */
+  public boolean getBoolean() {
+    if (storage == PrimitiveStorage.BOOLEAN) {
+      return bits != 0;
+    } else if (storage == PrimitiveStorage.OBJECT && value instanceof Boolean) {
+      return (Boolean) value;
+    }
+    throw new IllegalStateException("The value is not a boolean.");
+  }
+
+  private Number getNumber() {
+    if (storage == PrimitiveStorage.BOOLEAN || !(getValue() instanceof Number)) {
+      throw new IllegalStateException("The value is not numeric.");
+    }
+    return (Number) value;
   }
 
   /**
@@ -184,7 +319,7 @@ public abstract class Valuable extends Annotatable {
     final Valuable other = (Valuable) o;
     return getAnnotations().equals(other.getAnnotations())
         && (valueType == null ? other.valueType == null : valueType.equals(other.valueType))
-        && (value == null ? other.value == null : value.equals(other.value))
+        && (getValue() == null ? other.getValue() == null : getValue().equals(other.getValue()))
         && (type == null ? other.type == null : type.equals(other.type));
   }
 
@@ -192,13 +327,13 @@ public abstract class Valuable extends Annotatable {
   public int hashCode() {
     int result = getAnnotations().hashCode();
     result = 31 * result + (valueType == null ? 0 : valueType.hashCode());
-    result = 31 * result + (value == null ? 0 : value.hashCode());
+    result = 31 * result + (getValue() == null ? 0 : getValue().hashCode());
     result = 31 * result + (type == null ? 0 : type.hashCode());
     return result;
   }
 
   @Override
   public String toString() {
-    return value == null ? "null" : value.toString();
+    return getValue() == null ? "null" : getValue().toString();
   }
 }
@@ -31,6 +31,8 @@ public abstract class ComposedGeospatial<T extends Geospatial> extends Geospatia
 
   protected final List<T> geospatials;
 
+  private final PackedCoordinates coordinates;
+
   protected ComposedGeospatial(final Dimension dimension, final Type type, final SRID srid,
       final List<T> geospatials) {
 
@@ -39,6 +41,31 @@ public abstract class ComposedGeospatial<T extends Geospatial> extends Geospatia
     if (geospatials != null) {
       this.geospatials.addAll(geospatials);
     }
+    coordinates = null;
+  }
+
+  /**
+   * Creates a composition of points backed by packed coordinates.
+   *
+   * @param coordinates the packed coordinates
+   * @param points      the view of the coordinates as points
+   */
+  protected ComposedGeospatial(final Dimension dimension, final Type type, final SRID srid,
+      final PackedCoordinates coordinates, final List<T> points) {
+
+    super(dimension, type, srid);
+    geospatials = points;
+    this.coordinates = coordinates;
+  }
+
+  /**
+   * Returns the packed coordinates if this composition has been created from them.
+   * Serializers can then write the positions without creating a point object for each of them.
+   *
+   * @return the packed coordinates or <code>null</code>
+   */
+  public PackedCoordinates getCoordinates() {
+    return coordinates;
   }
 
   @Override
@@ -38,6 +38,18 @@ public class LineString extends ComposedGeospatial<Point> {
     super(dimension, Type.LINESTRING, srid, points);
   }
 
+  /**
+   * Creates a new LineString backed by packed coordinates.
+   * The points of this LineString are read-only copies created on every access:
+   * changes to a returned point are not reflected in the coordinates, and the list cannot be modified.
+   * @param dimension     Dimension of the LineString
+   * @param srid          SRID value
+   * @param coordinates   Coordinates of the points
+   */
+  public LineString(final Dimension dimension, final SRID srid, final PackedCoordinates coordinates) {
+    super(dimension, Type.LINESTRING, srid, coordinates, coordinates.asPoints(dimension));
+  }
+
   @Override
   public EdmPrimitiveTypeKind getEdmPrimitiveTypeKind() {
     return dimension == Dimension.GEOGRAPHY ?
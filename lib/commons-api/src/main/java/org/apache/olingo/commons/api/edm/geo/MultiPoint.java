@@ -38,6 +38,18 @@ public class MultiPoint extends ComposedGeospatial<Point> {
     super(dimension, Type.MULTIPOINT, srid, points);
   }
 
+  /**
+   * Creates a new collection of points backed by packed coordinates.
+   * The points of this MultiPoint are read-only copies created on every access:
+   * changes to a returned point are not reflected in the coordinates, and the list cannot be modified.
+   * @param dimension     Dimension of the points
+   * @param srid          SRID value
+   * @param coordinates   Coordinates of the points
+   */
+  public MultiPoint(final Dimension dimension, final SRID srid, final PackedCoordinates coordinates) {
+    super(dimension, Type.MULTIPOINT, srid, coordinates, coordinates.asPoints(dimension));
+  }
+
   @Override
   public EdmPrimitiveTypeKind getEdmPrimitiveTypeKind() {
     return dimension == Dimension.GEOGRAPHY ?
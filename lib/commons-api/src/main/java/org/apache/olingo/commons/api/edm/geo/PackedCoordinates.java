@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.edm.geo;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Coordinates of a sequence of positions, stored in one array as x, y[, z] per position
+ * instead of one {@link Point} object per position.
+ */
+public final class PackedCoordinates {
+
+  private final double[] values;
+  private final boolean hasZ;
+  private final int size;
+
+  /**
+   * Creates packed coordinates; the array is used as is, without copying.
+   * @param values the coordinates, as x, y, and (if <code>hasZ</code>) z for every position
+   * @param hasZ   whether every position has a z coordinate
+   */
+  public PackedCoordinates(final double[] values, final boolean hasZ) {
+    final int stride = hasZ ? 3 : 2;
+    if (values.length % stride != 0) {
+      throw new IllegalArgumentException("The number of coordinates must be a multiple of " + stride + ".");
+    }
+    this.values = values;
+    this.hasZ = hasZ;
+    size = values.length / stride;
+  }
+
+  /**
+   * Returns the number of positions.
+   * @return number of positions
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns whether the positions have z coordinates.
+   * @return whether there are z coordinates
+   */
+  public boolean hasZ() {
+    return hasZ;
+  }
+
+  /**
+   * Returns the x coordinate of a position.
+   * @param index index of the position
+   * @return x coordinate
+   */
+  public double getX(final int index) {
+    return values[index * stride()];
+  }
+
+  /**
+   * Returns the y coordinate of a position.
+   * @param index index of the position
+   * @return y coordinate
+   */
+  public double getY(final int index) {
+    return values[index * stride() + 1];
+  }
+
+  /**
+   * Returns the z coordinate of a position, or 0 if there are no z coordinates.
+   * @param index index of the position
+   * @return z coordinate
+   */
+  public double getZ(final int index) {
+    return hasZ ? values[index * 3 + 2] : 0;
+  }
+
+  private int stride() {
+    return hasZ ? 3 : 2;
+  }
+
+  /**
+   * Returns whether the first and the last position are equal, as required for a polygon ring.
+   * @return whether the sequence is closed; <code>false</code> if it is empty
+   */
+  public boolean isClosed() {
+    return size > 0
+        && getX(0) == getX(size - 1) && getY(0) == getY(size - 1) && getZ(0) == getZ(size - 1);
+  }
+
+  /**
+   * Returns a read-only view of the positions as points.
+   * Every call to <code>get</code> creates a new point from the coordinates, so changes to a returned
+   * point are not reflected in the coordinates or in later calls.
+   * The points have no SRID of their own; the SRID of the composing geospatial value applies.
+   * @param dimension dimension of the points
+   * @return list of points
+   */
+  public List<Point> asPoints(final Geospatial.Dimension dimension) {
+    return new PointList(dimension);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final PackedCoordinates other = (PackedCoordinates) o;
+    return hasZ == other.hasZ && Arrays.equals(values, other.values);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(values) + (hasZ ? 1 : 0);
+  }
+
+  private final class PointList extends AbstractList<Point> implements RandomAccess {
+
+    private final Geospatial.Dimension dimension;
+
+    private PointList(final Geospatial.Dimension dimension) {
+      this.dimension = dimension;
+    }
+
+    @Override
+    public Point get(final int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      }
+      final Point point = new Point(dimension, null);
+      point.setX(getX(index));
+      point.setY(getY(index));
+      point.setZ(getZ(index));
+      return point;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  /**
+   * Collects positions into packed coordinates. Z coordinates are stored only
+   * once a position with a z coordinate other than 0 has been added.
+   */
+  public static final class Builder {
+
+    private double[] values = new double[16];
+    private boolean hasZ;
+    private int size;
+
+    /**
+     * Adds a position without z coordinate.
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return this builder
+     */
+    public Builder add(final double x, final double y) {
+      return add(x, y, 0);
+    }
+
+    /**
+     * Adds a position.
+     * @param x x coordinate
+     * @param y y coordinate
+     * @param z z coordinate
+     * @return this builder
+     */
+    public Builder add(final double x, final double y, final double z) {
+      if (z != 0 && !hasZ) {
+        final double[] withZ = new double[Math.max(16, values.length / 2 * 3)];
+        for (int i = 0; i < size; i++) {
+          withZ[i * 3] = values[i * 2];
+          withZ[i * 3 + 1] = values[i * 2 + 1];
+        }
+        values = withZ;
+        hasZ = true;
+      }
+      final int stride = hasZ ? 3 : 2;
+      if ((size + 1) * stride > values.length) {
+        values = Arrays.copyOf(values, values.length * 2);
+      }
+      values[size * stride] = x;
+      values[size * stride + 1] = y;
+      if (hasZ) {
+        values[size * stride + 2] = z;
+      }
+      size++;
+      return this;
+    }
+
+    /**
+     * Returns the number of positions added so far.
+     * @return number of positions
+     */
+    public int size() {
+      return size;
+    }
+
+    /**
+     * Builds the packed coordinates.
+     * @return packed coordinates with all positions added so far
+     */
+    public PackedCoordinates build() {
+      return new PackedCoordinates(Arrays.copyOf(values, size * (hasZ ? 3 : 2)), hasZ);
+    }
+  }
+}
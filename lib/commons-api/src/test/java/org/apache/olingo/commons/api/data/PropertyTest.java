@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class PropertyTest {
+
+  @Test
+  public void unboxedAccessors() {
+    final Property property = new Property(null, "Number");
+    assertTrue(property.isNull());
+
+    property.setInt(-3);
+    assertEquals(Valuable.PrimitiveStorage.INT, property.getPrimitiveStorage());
+    assertEquals(ValueType.PRIMITIVE, property.getValueType());
+    assertFalse(property.isNull());
+    assertEquals(-3, property.getInt());
+    assertEquals(-3L, property.getLong());
+    assertEquals(-3.0, property.getDouble(), 0);
+    assertEquals(Integer.valueOf(-3), property.getValue());
+    assertEquals(Integer.valueOf(-3), property.asPrimitive());
+
+    property.setLong(Long.MAX_VALUE);
+    assertEquals(Valuable.PrimitiveStorage.LONG, property.getPrimitiveStorage());
+    assertEquals(Long.MAX_VALUE, property.getLong());
+    assertEquals(Long.valueOf(Long.MAX_VALUE), property.getValue());
+
+    property.setDouble(-0.5);
+    assertEquals(-0.5, property.getDouble(), 0);
+    assertEquals(Double.valueOf(-0.5), property.getValue());
+
+    property.setBoolean(true);
+    assertTrue(property.getBoolean());
+    assertEquals(Boolean.TRUE, property.getValue());
+
+    property.setValue(ValueType.PRIMITIVE, (short) 7);
+    assertEquals(Valuable.PrimitiveStorage.OBJECT, property.getPrimitiveStorage());
+    assertEquals(7, property.getInt());
+    assertEquals(7.0, property.getDouble(), 0);
+
+    property.setValue(ValueType.PRIMITIVE, null);
+    assertNull(property.getValue());
+    assertTrue(property.isNull());
+  }
+
+  @Test
+  public void equalsBoxedValue() {
+    final Property unboxed = new Property(null, "Number");
+    unboxed.setLong(42);
+    final Property boxed = new Property(null, "Number", ValueType.PRIMITIVE, 42L);
+    assertEquals(boxed, unboxed);
+    assertEquals(boxed.hashCode(), unboxed.hashCode());
+    assertEquals("Number=42", unboxed.toString());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void nonNumericValue() {
+    new Property(null, "Text", ValueType.PRIMITIVE, "1").getLong();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void booleanIsNotNumeric() {
+    final Property property = new Property(null, "Flag");
+    property.setBoolean(false);
+    property.getInt();
+  }
+}
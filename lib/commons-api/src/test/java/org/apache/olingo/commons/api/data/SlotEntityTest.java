@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+public class SlotEntityTest {
+
+  private static final PropertyLayout LAYOUT = new PropertyLayout(Arrays.asList("ID", "Name", "Price"));
+
+  @Test
+  public void lookup() {
+    final Property id = new Property(null, "ID", ValueType.PRIMITIVE, 1);
+    final Property price = new Property(null, "Price", ValueType.PRIMITIVE, 2.5);
+    final Property dynamic = new Property(null, "Extra", ValueType.PRIMITIVE, "x");
+    final SlotEntity entity = new SlotEntity(LAYOUT);
+    entity.addProperty(dynamic).addProperty(price).addProperty(id);
+
+    assertSame(id, entity.getProperty("ID"));
+    assertSame(id, entity.getProperty(0));
+    assertSame(price, entity.getProperty("Price"));
+    assertNull(entity.getProperty("Name"));
+    assertNull(entity.getProperty(1));
+    assertSame(dynamic, entity.getProperty("Extra"));
+    assertNull(entity.getProperty("Unknown"));
+    assertEquals(Arrays.asList(id, price, dynamic), entity.getProperties());
+  }
+
+  @Test
+  public void propertiesView() {
+    final SlotEntity entity = new SlotEntity(LAYOUT);
+    final List<Property> properties = entity.getProperties();
+    assertTrue(properties.isEmpty());
+
+    final Property name = new Property(null, "Name", ValueType.PRIMITIVE, "n");
+    final Property id = new Property(null, "ID", ValueType.PRIMITIVE, 1);
+    final Property duplicate = new Property(null, "ID", ValueType.PRIMITIVE, 2);
+    properties.add(name);
+    properties.add(0, id);
+    properties.add(duplicate);
+    assertEquals(Arrays.asList(id, name, duplicate), entity.getProperties());
+    assertSame(properties, entity.getProperties());
+    try {
+      properties.add(0, new Property(null, "Extra", ValueType.PRIMITIVE, 3));
+      fail("Expected exception not thrown.");
+    } catch (final UnsupportedOperationException e) {
+      assertEquals(3, properties.size());
+    }
+    assertSame(id, entity.getProperty("ID"));
+
+    final Property otherName = new Property(null, "Name", ValueType.PRIMITIVE, "m");
+    assertSame(name, properties.set(1, otherName));
+    assertSame(otherName, entity.getProperty("Name"));
+
+    assertSame(id, properties.remove(0));
+    assertSame(duplicate, entity.getProperty("ID"));
+    final Iterator<Property> iterator = entity.getProperties().iterator();
+    iterator.next();
+    iterator.remove();
+    assertEquals(Arrays.asList(duplicate), entity.getProperties());
+    assertNull(entity.getProperty("Name"));
+  }
+
+  @Test
+  public void lazyLists() {
+    final Entity entity = new Entity();
+    assertTrue(entity.getProperties().isEmpty());
+    assertTrue(entity.getNavigationLinks().isEmpty());
+    assertEquals(new Entity(), entity);
+    assertEquals(new Entity().hashCode(), entity.hashCode());
+
+    final List<Annotation> annotations = entity.getAnnotations();
+    annotations.add(new Annotation());
+    assertSame(entity.getAnnotations(), entity.getAnnotations());
+    assertNotSame(annotations, entity.getAnnotations());
+    assertEquals(1, annotations.size());
+    annotations.clear();
+
+    final Link link = new Link();
+    link.setTitle("Nav");
+    entity.getNavigationLinks().add(link);
+    entity.getAnnotations().add(new Annotation());
+    assertSame(link, entity.getNavigationLink("Nav"));
+    assertEquals(1, entity.getAnnotations().size());
+    assertTrue(entity.getAssociationLinks().isEmpty());
+    assertFalse(new Entity().equals(entity));
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.edm.geo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+public class PackedCoordinatesTest {
+
+  @Test
+  public void builder() {
+    final PackedCoordinates flat = new PackedCoordinates.Builder().add(1, 2).add(3, 4).add(1, 2).build();
+    assertEquals(3, flat.size());
+    assertFalse(flat.hasZ());
+    assertEquals(3, flat.getX(1), 0);
+    assertEquals(4, flat.getY(1), 0);
+    assertEquals(0, flat.getZ(1), 0);
+    assertTrue(flat.isClosed());
+
+    final PackedCoordinates withZ = new PackedCoordinates.Builder().add(1, 2).add(3, 4, 5).build();
+    assertTrue(withZ.hasZ());
+    assertEquals(0, withZ.getZ(0), 0);
+    assertEquals(5, withZ.getZ(1), 0);
+    assertFalse(withZ.isClosed());
+
+    assertEquals(flat, new PackedCoordinates(new double[] { 1, 2, 3, 4, 1, 2 }, false));
+    assertEquals(flat.hashCode(), new PackedCoordinates(new double[] { 1, 2, 3, 4, 1, 2 }, false).hashCode());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void incompletePosition() {
+    new PackedCoordinates(new double[] { 1, 2, 3 }, false);
+  }
+
+  @Test
+  public void composition() {
+    final PackedCoordinates coordinates = new PackedCoordinates.Builder().add(1, 2).add(3, 4, 5).build();
+    final LineString lineString = new LineString(Geospatial.Dimension.GEOMETRY, SRID.valueOf("4326"), coordinates);
+    assertSame(coordinates, lineString.getCoordinates());
+    assertFalse(lineString.isEmpty());
+
+    final Iterator<Point> iterator = lineString.iterator();
+    final Point first = iterator.next();
+    assertEquals(Geospatial.Dimension.GEOMETRY, first.getDimension());
+    assertEquals(1, first.getX(), 0);
+    assertEquals(2, first.getY(), 0);
+    assertEquals(new Point(Geospatial.Dimension.GEOMETRY, null).getSrid(), first.getSrid());
+    assertEquals(5, iterator.next().getZ(), 0);
+    assertFalse(iterator.hasNext());
+
+    final List<Point> points = coordinates.asPoints(Geospatial.Dimension.GEOGRAPHY);
+    assertEquals(new MultiPoint(Geospatial.Dimension.GEOGRAPHY, null, points),
+        new MultiPoint(Geospatial.Dimension.GEOGRAPHY, null, coordinates));
+    assertNull(new MultiPoint(Geospatial.Dimension.GEOGRAPHY, null, points).getCoordinates());
+  }
+
+  @Test
+  public void pointsAreCopies() {
+    final PackedCoordinates coordinates = new PackedCoordinates.Builder().add(1, 2).build();
+    final List<Point> points = coordinates.asPoints(Geospatial.Dimension.GEOMETRY);
+    points.get(0).setX(7);
+    assertEquals(1, points.get(0).getX(), 0);
+    assertEquals(1, coordinates.getX(0), 0);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void pointsAreReadOnly() {
+    new PackedCoordinates.Builder().add(1, 2).build().asPoints(Geospatial.Dimension.GEOMETRY)
+        .add(new Point(Geospatial.Dimension.GEOMETRY, null));
+  }
+}
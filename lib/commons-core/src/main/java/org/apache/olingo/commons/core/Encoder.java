@@ -18,7 +18,7 @@
  */
 package org.apache.olingo.commons.core;
 
-import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Encodes a Java String (in its internal UTF-16 encoding) into its
@@ -41,6 +41,16 @@ public class Encoder {
     return encoder.encodeInternal(value);
   }
 
+  /**
+   * Appends the percent-encoded UTF-8 representation of a Java String to a buffer,
+   * see {@link #encode(String)}.
+   * @param value the Java String
+   * @param target the buffer the encoded String is appended to
+   */
+  public static void encode(final String value, final StringBuilder target) {
+    encoder.encodeInternal(value, target);
+  }
+
   // OData has special handling for "'", so we allow that to remain unencoded.
   // Other sub-delims not used neither by JAX-RS nor by OData could be added
   // if the encoding is considered to be too aggressive.
@@ -96,25 +106,37 @@ public class Encoder {
    */
   private String encodeInternal(final String input) {
     StringBuilder resultStr = new StringBuilder();
+    encodeInternal(input, resultStr);
+    return resultStr.toString();
+  }
 
-    try {
-      for (byte utf8Byte : input.getBytes("UTF-8")) {
-        final char character = (char) utf8Byte;
-        if (isUnreserved(character)) {
-          resultStr.append(character);
-        } else if (isUnencoded(character)) {
-          resultStr.append(character);
-        } else if (utf8Byte >= 0) {
-          resultStr.append(hex[utf8Byte]);
-        } else {
-          // case UTF-8 continuation byte
-          resultStr.append(hex[256 + utf8Byte]); // index adjusted for the usage of signed bytes
+  private void encodeInternal(final String input, final StringBuilder resultStr) {
+    // ASCII characters are their own UTF-8 representation, so only the rest of the input
+    // starting with the first non-ASCII character has to be converted into bytes.
+    final int length = input.length();
+    for (int index = 0; index < length; index++) {
+      final char character = input.charAt(index);
+      if (character >= 0x80) {
+        for (byte utf8Byte : input.substring(index).getBytes(StandardCharsets.UTF_8)) {
+          append((char) utf8Byte, utf8Byte, resultStr);
         }
+        return;
       }
-    } catch (final UnsupportedEncodingException e) { // should never happen; UTF-8 is always there
-      return null;
+      append(character, (byte) character, resultStr);
+    }
+  }
+
+  private void append(final char character, final byte utf8Byte, final StringBuilder resultStr) {
+    if (isUnreserved(character)) {
+      resultStr.append(character);
+    } else if (isUnencoded(character)) {
+      resultStr.append(character);
+    } else if (utf8Byte >= 0) {
+      resultStr.append(hex[utf8Byte]);
+    } else {
+      // case UTF-8 continuation byte
+      resultStr.append(hex[256 + utf8Byte]); // index adjusted for the usage of signed bytes
     }
-    return resultStr.toString();
   }
 
   private static boolean isUnreserved(final char character) {
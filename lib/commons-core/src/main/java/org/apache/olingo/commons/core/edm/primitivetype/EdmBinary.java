@@ -18,9 +18,6 @@
  */
 package org.apache.olingo.commons.core.edm.primitivetype;
 
-import java.nio.charset.Charset;
-
-import org.apache.commons.codec.binary.Base64;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
 
 /**
@@ -28,14 +25,12 @@ import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
  */
 public class EdmBinary extends SingletonPrimitiveType {
 
-  private static final Charset UTF_8 = Charset.forName("UTF-8");
-
   /**
-   * Byte used to pad output.
+   * Character used to pad output.
    *
    * <b>NOTE</b>: this is provided here from Commons Codec for Android compatibility.
    */
-  private static final byte PAD_DEFAULT = '=';
+  private static final char PAD_DEFAULT = '=';
 
   /**
    * This array is a lookup table that translates Unicode characters drawn from the "Base64 Alphabet" (as specified in
@@ -60,6 +55,10 @@ public class EdmBinary extends SingletonPrimitiveType {
       35, 36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47, 48, 49, 50, 51
   };
 
+  /** The characters of the standard Base64 alphabet, indexed by their 6-bit values. */
+  private static final char[] ENCODE_TABLE =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
   private static final EdmBinary INSTANCE = new EdmBinary();
 
   {
@@ -77,15 +76,15 @@ public class EdmBinary extends SingletonPrimitiveType {
   }
 
   /**
-   * Checks if a byte value is whitespace or not. Whitespace is taken to mean: space, tab, CR, LF
+   * Checks if a character is whitespace or not. Whitespace is taken to mean: space, tab, CR, LF
    * <br/>
    * <b>NOTE</b>: this method is provided here from Commons Codec for Android compatibility.
    *
-   * @param byteToCheck the byte to check
-   * @return true if byte is whitespace, false otherwise
+   * @param charToCheck the character to check
+   * @return true if character is whitespace, false otherwise
    */
-  private static boolean isWhiteSpace(final byte byteToCheck) {
-    switch (byteToCheck) {
+  private static boolean isWhiteSpace(final char charToCheck) {
+    switch (charToCheck) {
     case ' ':
     case '\n':
     case '\r':
@@ -97,35 +96,105 @@ public class EdmBinary extends SingletonPrimitiveType {
   }
 
   /**
-   * Returns whether or not the <code>octet</code> is in the base 64 alphabet.
-   * <br/>
-   * <b>NOTE</b>: this method is provided here from Commons Codec for Android compatibility.
+   * Counts the bytes encoded in a Base64 string. Whitespace is skipped and decoding ends at the first padding
+   * character, as in Commons Codec; an incomplete last group of a single character is discarded.
+   *
+   * @param value the Base64 string
+   * @param lenient whether characters outside the Base64 alphabet (which includes the URL-safe variants
+   *                of characters 62 and 63) are skipped like whitespace
+   * @return the number of bytes or <code>-1</code> if the string contains characters
+   * outside the Base64 alphabet and <code>lenient</code> is false
+   */
+  private static int decodedLength(final String value, final boolean lenient) {
+    long characters = 0;
+    boolean padded = false;
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      if (c == PAD_DEFAULT) {
+        padded = true;
+      } else if (c < DECODE_TABLE.length && DECODE_TABLE[c] != -1) {
+        if (!padded) {
+          characters++;
+        }
+      } else if (!lenient && !isWhiteSpace(c)) {
+        return -1;
+      }
+    }
+    return (int) (characters / 4 * 3 + (characters % 4 == 0 ? 0 : characters % 4 - 1));
+  }
+
+  private static void decode(final String value, final byte[] target) {
+    int position = 0;
+    int bits = 0;
+    int count = 0;
+    for (int i = 0; i < value.length() && position < target.length; i++) {
+      final char c = value.charAt(i);
+      if (c == PAD_DEFAULT) {
+        break;
+      } else if (c < DECODE_TABLE.length && DECODE_TABLE[c] != -1) {
+        bits = bits << 6 | DECODE_TABLE[c];
+        if (++count == 4) {
+          target[position++] = (byte) (bits >> 16);
+          target[position++] = (byte) (bits >> 8);
+          target[position++] = (byte) bits;
+          bits = 0;
+          count = 0;
+        }
+      }
+    }
+    if (count == 2) {
+      target[position] = (byte) (bits >> 4);
+    } else if (count == 3) {
+      target[position++] = (byte) (bits >> 10);
+      target[position] = (byte) (bits >> 2);
+    }
+  }
+
+  /**
+   * Decodes a Base64 string in the standard or the URL-safe alphabet, skipping all other characters
+   * like Commons Codec does.
    *
-   * @param octet The value to test
-   * @return {@code true} if the value is defined in the the base 64 alphabet, {@code false} otherwise.
-   * @since 1.4
+   * @param value the Base64 string
+   * @return the decoded bytes
    */
-  private static boolean isBase64(final byte octet) {
-    return octet == PAD_DEFAULT || (octet >= 0 && octet < DECODE_TABLE.length && DECODE_TABLE[octet] != -1);
+  public static byte[] decode(final String value) {
+    final byte[] result = new byte[decodedLength(value, true)];
+    decode(value, result);
+    return result;
   }
 
   /**
-   * Tests a given byte array to see if it contains only valid characters within the Base64 alphabet. Currently the
-   * method treats whitespace as valid.
-   * <br/>
-   * <b>NOTE</b>: this method is provided here from Commons Codec for Android compatibility.
+   * Writes the Base64 encoding of a range of bytes into a character array, with padding
+   * if the number of bytes is not a multiple of three. Longer values can be encoded in consecutive
+   * chunks as long as all chunks but the last one have a length divisible by three.
    *
-   * @param arrayOctet byte array to test
-   * @return {@code true} if all bytes are valid characters in the Base64 alphabet or if the byte array is empty;
-   * {@code false}, otherwise
+   * @param source       the bytes to encode
+   * @param offset       the start of the range in <code>source</code>
+   * @param length       the number of bytes to encode
+   * @param target       the character array, with room for four characters per started group of three bytes
+   * @param targetOffset the position in <code>target</code> to write to
+   * @return the number of characters written
    */
-  private static boolean isBase64(final byte[] arrayOctet) {
-    for (int i = 0; i < arrayOctet.length; i++) {
-      if (!isBase64(arrayOctet[i]) && !isWhiteSpace(arrayOctet[i])) {
-        return false;
-      }
+  public static int encode(final byte[] source, final int offset, final int length,
+      final char[] target, final int targetOffset) {
+    int position = targetOffset;
+    final int end = offset + length;
+    int i = offset;
+    for (; i + 2 < end; i += 3) {
+      final int bits = (source[i] & 0xFF) << 16 | (source[i + 1] & 0xFF) << 8 | source[i + 2] & 0xFF;
+      target[position++] = ENCODE_TABLE[bits >>> 18];
+      target[position++] = ENCODE_TABLE[bits >>> 12 & 0x3F];
+      target[position++] = ENCODE_TABLE[bits >>> 6 & 0x3F];
+      target[position++] = ENCODE_TABLE[bits & 0x3F];
+    }
+    if (i < end) {
+      final int bits = (source[i] & 0xFF) << 16 | (i + 1 < end ? (source[i + 1] & 0xFF) << 8 : 0);
+      target[position++] = ENCODE_TABLE[bits >>> 18];
+      target[position++] = ENCODE_TABLE[bits >>> 12 & 0x3F];
+      target[position++] = i + 1 < end ? ENCODE_TABLE[bits >>> 6 & 0x3F] : PAD_DEFAULT;
+      target[position++] = PAD_DEFAULT;
     }
-    return true;
+    return position - targetOffset;
   }
 
   @Override
@@ -135,7 +204,7 @@ public class EdmBinary extends SingletonPrimitiveType {
 
     return value == null ?
         isNullable == null || isNullable :
-        isBase64(value.getBytes(UTF_8)) && validateMaxLength(value, maxLength);
+        decodedLength(value, false) >= 0 && validateMaxLength(value, maxLength);
   }
 
   private static boolean validateMaxLength(final String value, final Integer maxLength) {
@@ -163,14 +232,16 @@ public class EdmBinary extends SingletonPrimitiveType {
       final Boolean isNullable, final Integer maxLength, final Integer precision,
       final Integer scale, final Boolean isUnicode, final Class<T> returnType) throws EdmPrimitiveTypeException {
 
-    if (value == null || !isBase64(value.getBytes(UTF_8))) {
+    final int length = value == null ? -1 : decodedLength(value, false);
+    if (length < 0) {
       throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
     }
     if (!validateMaxLength(value, maxLength)) {
       throw new EdmPrimitiveTypeException("The literal '" + value + "' does not match the facets' constraints.");
     }
 
-    final byte[] result = Base64.decodeBase64(value.getBytes(UTF_8));
+    final byte[] result = new byte[length];
+    decode(value, result);
 
     if (returnType.isAssignableFrom(byte[].class)) {
       return returnType.cast(result);
@@ -207,6 +278,8 @@ public class EdmBinary extends SingletonPrimitiveType {
       throw new EdmPrimitiveTypeException("The value '" + value + "' does not match the facets' constraints.");
     }
 
-    return new String(Base64.encodeBase64(byteArrayValue, false), UTF_8);
+    final char[] result = new char[(byteArrayValue.length + 2) / 3 * 4];
+    encode(byteArrayValue, 0, byteArrayValue.length, result, 0);
+    return new String(result);
   }
 }
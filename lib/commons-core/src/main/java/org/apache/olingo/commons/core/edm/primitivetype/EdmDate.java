@@ -52,10 +52,15 @@ public final class EdmDate extends SingletonPrimitiveType {
       final Integer precision, final Integer scale, final Boolean isUnicode, final Class<T> returnType)
       throws EdmPrimitiveTypeException {
     LocalDate date;
-    try {
-      date = LocalDate.parse(value);
-    } catch (DateTimeParseException ex) {
-      throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
+    final long epochDay = value.length() == 10 ? IsoDateTime.parseDate(value, 0) : IsoDateTime.INVALID_DATE;
+    if (epochDay != IsoDateTime.INVALID_DATE) {
+      date = LocalDate.ofEpochDay(epochDay);
+    } else {
+      try {
+        date = LocalDate.parse(value);
+      } catch (DateTimeParseException ex) {
+        throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
+      }
     }
 
     // appropriate types
@@ -85,6 +90,12 @@ public final class EdmDate extends SingletonPrimitiveType {
   @Override
   protected <T> String internalValueToString(final T value, final Boolean isNullable, final Integer maxLength,
       final Integer precision, final Integer scale, final Boolean isUnicode) throws EdmPrimitiveTypeException {
+    final char[] buffer = new char[IsoDateTime.MAX_LENGTH];
+    final int length = valueToChars(value, buffer);
+    if (length >= 0) {
+      return new String(buffer, 0, length);
+    }
+
     // appropriate types
     if (value instanceof LocalDate) {
       return value.toString();
@@ -111,4 +122,49 @@ public final class EdmDate extends SingletonPrimitiveType {
 
     return zdt.toLocalDate().toString();
   }
+
+  /**
+   * Writes the literal representation of a non-null value into the given buffer,
+   * which must hold at least {@link IsoDateTime#MAX_LENGTH} characters.
+   * @param value  the value as {@link LocalDate}, {@link GregorianCalendar},
+   *               {@link java.util.Date} (except {@link java.sql.Date}), or {@link Long}
+   * @param buffer the target buffer
+   * @return the number of characters written, or <code>-1</code> if the value has to be formatted
+   *         with {@link #valueToString(Object, Boolean, Integer, Integer, Integer, Boolean)}
+   */
+  public int valueToChars(final Object value, final char[] buffer) {
+    final long epochDay;
+    if (value instanceof LocalDate) {
+      epochDay = ((LocalDate) value).toEpochDay();
+    } else {
+      final long localMillis = toLocalMillis(value);
+      if (localMillis == Long.MIN_VALUE) {
+        return -1;
+      }
+      epochDay = Math.floorDiv(localMillis, IsoDateTime.SECONDS_PER_DAY * 1000);
+    }
+    return IsoDateTime.formatDate(epochDay, buffer, 0);
+  }
+
+  /**
+   * Returns the milliseconds since the epoch shifted by the offset of the value's time zone,
+   * or of the default time zone for values without one, or {@link Long#MIN_VALUE} if not supported.
+   */
+  private static long toLocalMillis(final Object value) {
+    final long millis;
+    final ZoneId zone;
+    if (value instanceof GregorianCalendar) {
+      millis = ((GregorianCalendar) value).getTimeInMillis();
+      zone = ((GregorianCalendar) value).getTimeZone().toZoneId();
+    } else if (value instanceof Long) {
+      millis = (Long) value;
+      zone = ZoneId.systemDefault();
+    } else if (value instanceof java.util.Date && !(value instanceof java.sql.Date)) {
+      millis = ((java.util.Date) value).getTime();
+      zone = ZoneId.systemDefault();
+    } else {
+      return Long.MIN_VALUE;
+    }
+    return millis + IsoDateTime.getOffset(zone, millis) * 1000L;
+  }
 }
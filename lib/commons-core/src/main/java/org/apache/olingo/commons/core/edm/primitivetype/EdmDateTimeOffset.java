@@ -61,6 +61,10 @@ public final class EdmDateTimeOffset extends SingletonPrimitiveType {
       final Integer precision, final Integer scale, final Boolean isUnicode, final Class<T> returnType)
       throws EdmPrimitiveTypeException {
     try {
+      final T result = fastValueOfString(value, returnType);
+      if (result != null) {
+        return result;
+      }
       ZonedDateTime zdt = parseZonedDateTime(value);
 
       return convertZonedDateTime(zdt, returnType);
@@ -71,6 +75,51 @@ public final class EdmDateTimeOffset extends SingletonPrimitiveType {
     }
   }
 
+  /**
+   * Parses the common form <code>yyyy-MM-ddTHH:mm[:ss[.fffffffff]][Z|&#177;HH:mm]</code> without
+   * <code>java.time</code> and converts it directly into the requested type.
+   * @return the converted value or <code>null</code> if the value has to be parsed by {@link ZonedDateTime}
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> T fastValueOfString(final String value, final Class<T> returnType) {
+    if (value.length() < 16 || value.charAt(10) != 'T') {
+      return null;
+    }
+    final long epochDay = IsoDateTime.parseDate(value, 0);
+    if (epochDay == IsoDateTime.INVALID_DATE) {
+      return null;
+    }
+    int timeEnd = 11;
+    while (timeEnd < value.length() && "Z+-".indexOf(value.charAt(timeEnd)) < 0) {
+      timeEnd++;
+    }
+    final long nanoOfDay = IsoDateTime.parseTime(value, 11, timeEnd);
+    final int offset = IsoDateTime.parseOffset(value, timeEnd);
+    if (nanoOfDay < 0 || offset == IsoDateTime.INVALID_OFFSET) {
+      return null;
+    }
+    final long epochSecond = epochDay * IsoDateTime.SECONDS_PER_DAY
+        + nanoOfDay / IsoDateTime.NANOS_PER_SECOND - offset;
+    final int nanos = (int) (nanoOfDay % IsoDateTime.NANOS_PER_SECOND);
+
+    if (returnType == Instant.class) {
+      return (T) Instant.ofEpochSecond(epochSecond, nanos);
+    } else if (returnType.isAssignableFrom(Timestamp.class)) {
+      final Timestamp timestamp = new Timestamp(epochSecond * 1000);
+      timestamp.setNanos(nanos);
+      return (T) timestamp;
+    } else if (returnType.isAssignableFrom(java.sql.Time.class)) {
+      return (T) new java.sql.Time(epochSecond * 1000);
+    } else if (returnType.isAssignableFrom(java.sql.Date.class)) {
+      return (T) new java.sql.Date(epochSecond * 1000);
+    } else if (returnType.isAssignableFrom(Long.class)) {
+      return (T) Long.valueOf(epochSecond * 1000 + nanos / 1000000);
+    } else {
+      return convertZonedDateTime(ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nanos),
+          ZoneOffset.ofTotalSeconds(offset)), returnType);
+    }
+  }
+
   private static ZonedDateTime parseZonedDateTime(final String value) {
     ZonedDateTime zdt;
     try {
@@ -114,11 +163,66 @@ public final class EdmDateTimeOffset extends SingletonPrimitiveType {
   @Override
   protected <T> String internalValueToString(final T value, final Boolean isNullable, final Integer maxLength,
       final Integer precision, final Integer scale, final Boolean isUnicode) throws EdmPrimitiveTypeException {
+    final char[] buffer = new char[IsoDateTime.MAX_LENGTH];
+    final int length = valueToChars(value, buffer);
+    if (length >= 0) {
+      return new String(buffer, 0, length);
+    }
     ZonedDateTime zdt = createZonedDateTime(value);
 
     return format(zdt.toLocalDateTime(), zdt.getOffset(), zdt.getNano());
   }
 
+  /**
+   * Writes the literal representation of a non-null value into the given buffer,
+   * which must hold at least {@link IsoDateTime#MAX_LENGTH} characters.
+   * @param value  the value as {@link Instant}, {@link ZonedDateTime}, {@link Timestamp},
+   *               {@link java.util.Date}, {@link Long}, or {@link GregorianCalendar}
+   * @param buffer the target buffer
+   * @return the number of characters written, or <code>-1</code> if the value has to be formatted
+   *         with {@link #valueToString(Object, Boolean, Integer, Integer, Integer, Boolean)}
+   */
+  public int valueToChars(final Object value, final char[] buffer) {
+    long epochSecond;
+    int nanos = 0;
+    int offset = 0;
+    if (value instanceof Timestamp) {
+      epochSecond = Math.floorDiv(((Timestamp) value).getTime(), 1000);
+      nanos = ((Timestamp) value).getNanos();
+    } else if (value instanceof Instant) {
+      epochSecond = ((Instant) value).getEpochSecond();
+      nanos = ((Instant) value).getNano();
+    } else if (value instanceof ZonedDateTime) {
+      epochSecond = ((ZonedDateTime) value).toEpochSecond();
+      nanos = ((ZonedDateTime) value).getNano();
+      offset = ((ZonedDateTime) value).getOffset().getTotalSeconds();
+    } else {
+      final long millis;
+      if (value instanceof GregorianCalendar) {
+        millis = ((GregorianCalendar) value).getTimeInMillis();
+        offset = IsoDateTime.getOffset(((GregorianCalendar) value).getTimeZone().toZoneId(), millis);
+      } else if (value instanceof Long) {
+        millis = (Long) value;
+      } else if (value instanceof java.util.Date
+          && !(value instanceof java.sql.Time || value instanceof java.sql.Date)) {
+        millis = ((java.util.Date) value).getTime();
+      } else {
+        return -1;
+      }
+      epochSecond = Math.floorDiv(millis, 1000);
+      nanos = (int) Math.floorMod(millis, 1000) * 1000000;
+    }
+    final long localSecond = epochSecond + offset;
+    int pos = IsoDateTime.formatDate(Math.floorDiv(localSecond, IsoDateTime.SECONDS_PER_DAY), buffer, 0);
+    if (pos < 0) {
+      return -1;
+    }
+    buffer[pos++] = 'T';
+    pos = IsoDateTime.formatTime(Math.floorMod(localSecond, IsoDateTime.SECONDS_PER_DAY)
+        * IsoDateTime.NANOS_PER_SECOND + nanos, buffer, pos);
+    return IsoDateTime.formatOffset(offset, buffer, pos);
+  }
+
   private static <T> ZonedDateTime createZonedDateTime(final T value) throws EdmPrimitiveTypeException {
     if (value instanceof ZonedDateTime) {
       return (ZonedDateTime) value;
@@ -20,8 +20,6 @@ package org.apache.olingo.commons.core.edm.primitivetype;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
@@ -31,8 +29,11 @@ import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
  */
 public final class EdmDecimal extends SingletonPrimitiveType {
 
-  private static final Pattern PATTERN = Pattern.compile(
-          "(?:\\+|-)?(?:0*(\\p{Digit}+?))(?:\\.(\\p{Digit}+?)0*)?((?:E|e)(?:\\+|-)?\\p{Digit}+)?");
+  /** Maximum number of characters written by {@link #valueToChars(Object, Integer, Integer, char[])}. */
+  public static final int MAX_LENGTH = 40;
+
+  /** Returned by {@link #scan(String, boolean)} for literals that are not valid. */
+  private static final long INVALID = -1;
 
   private static final EdmDecimal INSTANCE = new EdmDecimal();
 
@@ -64,29 +65,139 @@ public final class EdmDecimal extends SingletonPrimitiveType {
 
     return value == null
         ? isNullable == null || isNullable
-        : validateLiteral(value) && validatePrecisionAndScale(value, precision, scale);
+        : validatePrecisionAndScale(value, precision, scale);
+  }
+
+  /**
+   * Scans a decimal literal <code>[+|-]digits[.digits][(E|e)[+|-]digits]</code> in one pass.
+   * Digits are counted as they appear in plain notation or, if <code>plain</code> is false, as written:
+   * the integer digits without leading zeros, and the decimals without trailing zeros but at least one
+   * if there is a decimal point.
+   * @return the integer digits in the upper and the decimals in the lower 32 bits, each saturated at
+   *         {@link Integer#MAX_VALUE}, or {@link #INVALID}
+   */
+  private static long scan(final String value, final boolean plain) {
+    final int length = value.length();
+    int i = 0;
+    if (i < length && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+      i++;
+    }
+    final int integerStart = i;
+    while (i < length && isDigit(value.charAt(i))) {
+      i++;
+    }
+    final int integerEnd = i;
+    if (integerEnd == integerStart) {
+      return INVALID;
+    }
+    int fractionStart = -1;
+    int fractionEnd = -1;
+    if (i < length && value.charAt(i) == '.') {
+      fractionStart = ++i;
+      while (i < length && isDigit(value.charAt(i))) {
+        i++;
+      }
+      fractionEnd = i;
+      if (fractionEnd == fractionStart) {
+        return INVALID;
+      }
+    }
+    long exponent = 0;
+    boolean hasExponent = false;
+    if (i < length && (value.charAt(i) == 'E' || value.charAt(i) == 'e')) {
+      hasExponent = true;
+      i++;
+      final boolean negative = i < length && value.charAt(i) == '-';
+      if (i < length && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+        i++;
+      }
+      final int exponentStart = i;
+      while (i < length && isDigit(value.charAt(i))) {
+        exponent = Math.min(exponent * 10 + (value.charAt(i) - '0'), 1L << 40);
+        i++;
+      }
+      if (i == exponentStart) {
+        return INVALID;
+      }
+      exponent = negative ? -exponent : exponent;
+    }
+    if (i != length) {
+      return INVALID;
+    }
+
+    final int fractionLength = fractionStart < 0 ? 0 : fractionEnd - fractionStart;
+    if (!plain || !hasExponent) {
+      int leadingZeros = 0;
+      while (integerStart + leadingZeros < integerEnd && value.charAt(integerStart + leadingZeros) == '0') {
+        leadingZeros++;
+      }
+      int trailingZeros = 0;
+      while (trailingZeros < fractionLength && value.charAt(fractionEnd - 1 - trailingZeros) == '0') {
+        trailingZeros++;
+      }
+      return pack(integerEnd - integerStart - leadingZeros,
+          fractionStart < 0 ? 0 : Math.max(1, fractionLength - trailingZeros));
+    }
+
+    // In plain notation the digits of the unscaled value are split at the scale,
+    // as done by BigDecimal.toPlainString().
+    final long scale = fractionLength - exponent;
+    if (scale != (int) scale) {
+      // Out of range for BigDecimal; let it throw the exception it always did.
+      new BigDecimal(value);
+    }
+    int first = integerStart;
+    while (first < integerEnd && value.charAt(first) == '0') {
+      first++;
+    }
+    if (first == integerEnd && fractionLength > 0) {
+      first = fractionStart;
+      while (first < fractionEnd && value.charAt(first) == '0') {
+        first++;
+      }
+    }
+    if (first == integerEnd || first == fractionEnd) {
+      return pack(0, scale > 0 ? 1 : 0);
+    }
+    final long unscaledDigits = first < integerEnd ? integerEnd - first + fractionLength : fractionEnd - first;
+    long trailingZeros = 0;
+    int last = fractionLength > 0 ? fractionEnd - 1 : integerEnd - 1;
+    while (value.charAt(last) == '0') {
+      trailingZeros++;
+      last = last == fractionStart ? integerEnd - 1 : last - 1;
+    }
+    if (scale <= 0) {
+      return pack(unscaledDigits - scale, 0);
+    } else if (unscaledDigits > scale) {
+      return pack(unscaledDigits - scale, Math.max(1, scale - Math.min(trailingZeros, scale)));
+    } else {
+      return pack(0, scale - trailingZeros);
+    }
   }
 
-  private static boolean validateLiteral(final String value) {
-    return PATTERN.matcher(value).matches();
+  private static boolean isDigit(final char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static long pack(final long significantIntegerDigits, final long decimals) {
+    return Math.min(significantIntegerDigits, Integer.MAX_VALUE) << 32 | Math.min(decimals, Integer.MAX_VALUE);
   }
 
   private static boolean validatePrecisionAndScale(final String value, final Integer precision,
       final Integer scale) {
+    return validatePrecisionAndScale(scan(value, true), precision, scale);
+  }
 
-    Matcher matcher = PATTERN.matcher(value);
-    matcher.matches();
-	if (matcher.group(3) != null) {
-		String plainValue = new BigDecimal(value).toPlainString();
-		matcher = PATTERN.matcher(plainValue);
-		matcher.matches();
-	}
-    final int significantIntegerDigits = "0".equals(matcher.group(1)) ? 0 : matcher.group(1).length();
-    final int decimals = matcher.group(2) == null ? 0 : matcher.group(2).length();
-    return (precision == null || (significantIntegerDigits >= 0 && 
-        significantIntegerDigits <= precision - ((scale == null) ? 0 : scale))) &&
-        (( decimals == 0 && ((scale == null) ? 0 : scale) < 0) ||
-           (decimals >= 0 && decimals <= ((scale == null) ? 0 : scale)));
+  private static boolean validatePrecisionAndScale(final long scanned, final Integer precision,
+      final Integer scale) {
+    if (scanned == INVALID) {
+      return false;
+    }
+    final int significantIntegerDigits = (int) (scanned >>> 32);
+    final int decimals = (int) scanned;
+    final int scaleValue = scale == null ? 0 : scale;
+    return (precision == null || significantIntegerDigits <= (long) precision - scaleValue)
+        && (decimals == 0 && scaleValue < 0 || decimals <= scaleValue);
   }
 
   @Override
@@ -96,19 +207,16 @@ public final class EdmDecimal extends SingletonPrimitiveType {
 
     return value == null
         ? isNullable == null || isNullable
-        : validateLiteral(value) && validatePrecisionAndScale(value, precision, scale);
+        : validatePrecisionAndScale(value, precision, scale);
   }
 
   private boolean validatePrecisionAndScale(String value, Integer precision, String scale) {
-    Matcher matcher = PATTERN.matcher(value);
-    matcher.matches();
-    if (matcher.group(3) != null) {
-      String plainValue = new BigDecimal(value).toPlainString();
-      matcher = PATTERN.matcher(plainValue);
-      matcher.matches();
+    final long scanned = scan(value, true);
+    if (scanned == INVALID) {
+      return false;
     }
-    int significantIntegerDigits = "0".equals(matcher.group(1)) ? 0 : matcher.group(1).length();
-    int decimals = matcher.group(2) == null ? 0 : matcher.group(2).length();
+    int significantIntegerDigits = (int) (scanned >>> 32);
+    int decimals = (int) scanned;
     
     try {
       int scaleValue = (scale == null) ? 0 : Integer.parseInt(scale);
@@ -123,13 +231,13 @@ public final class EdmDecimal extends SingletonPrimitiveType {
             (significantIntegerDigits <= precision - decimals))) && 
             (decimals >= 0 && decimals <= ((precision == null) ? 0 : precision));
       } else if (scaleValue.equals("floating")) {
-        Matcher matcher1 = PATTERN.matcher(value);
-        matcher1.matches();
-        significantIntegerDigits = "0".equals(matcher1.group(1)) ? 0 : matcher1.group(1).length();
-        decimals = matcher1.group(2) == null ? 0 : matcher1.group(2).length();
+        final long scannedAsWritten = scan(value, false);
+        significantIntegerDigits = (int) (scannedAsWritten >>> 32);
+        decimals = (int) scannedAsWritten;
         int exponents = 0;
-        if (matcher1.group(3) != null) {
-          exponents = Integer.parseInt(matcher1.group(3).substring(1));
+        final int exponentIndex = Math.max(value.indexOf('E'), value.indexOf('e'));
+        if (exponentIndex >= 0) {
+          exponents = Integer.parseInt(value.substring(exponentIndex + 1));
           if (exponents < -95 || exponents > 96) {
             if (String.valueOf(exponents).startsWith("-")) {
               significantIntegerDigits += Integer.parseInt(String.valueOf(exponents + 95).substring(1));
@@ -150,10 +258,11 @@ public final class EdmDecimal extends SingletonPrimitiveType {
       final Boolean isNullable, final Integer maxLength, final Integer precision,
       final Integer scale, final Boolean isUnicode, final Class<T> returnType) throws EdmPrimitiveTypeException {
 
-    if (!validateLiteral(value)) {
+    final long scanned = scan(value, true);
+    if (scanned == INVALID) {
       throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
     }
-    if (!validatePrecisionAndScale(value, precision, scale)) {
+    if (!validatePrecisionAndScale(scanned, precision, scale)) {
       throw new EdmPrimitiveTypeException("The literal '" + value + "' does not match the facets' constraints.");
     }
 
@@ -222,6 +331,12 @@ public final class EdmDecimal extends SingletonPrimitiveType {
       final Boolean isNullable, final Integer maxLength, final Integer precision,
       final Integer scale, final Boolean isUnicode) throws EdmPrimitiveTypeException {
 
+    final char[] buffer = new char[MAX_LENGTH];
+    final int length = valueToChars(value, precision, scale, buffer);
+    if (length >= 0) {
+      return new String(buffer, 0, length);
+    }
+
     String result;
     if (value instanceof Long || value instanceof Integer || value instanceof Short
         || value instanceof Byte || value instanceof BigInteger) {
@@ -255,4 +370,89 @@ public final class EdmDecimal extends SingletonPrimitiveType {
 
     return result;
   }
+
+  /**
+   * Writes the plain representation of a non-null value into the given buffer,
+   * applying the same facet checks as {@link #valueToString(Object, Boolean, Integer, Integer, Integer, Boolean)}.
+   * @param value     the value as {@link Long}, {@link Integer}, {@link Short}, {@link Byte},
+   *                  or {@link BigDecimal} with at most 18 digits
+   * @param precision the precision facet
+   * @param scale     the scale facet
+   * @param buffer    the target buffer, holding at least {@link #MAX_LENGTH} characters
+   * @return the number of characters written, or <code>-1</code> if the value has to be formatted
+   *         with {@link #valueToString(Object, Boolean, Integer, Integer, Integer, Boolean)}
+   */
+  public int valueToChars(final Object value, final Integer precision, final Integer scale, final char[] buffer) {
+    final long unscaled;
+    final int valueScale;
+    if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      unscaled = ((Number) value).longValue();
+      valueScale = 0;
+      if (precision != null && precision < digitCount(unscaled)) {
+        return -1;
+      }
+    } else if (value instanceof BigDecimal) {
+      final BigDecimal decimal = (BigDecimal) value;
+      final int valuePrecision = decimal.precision();
+      valueScale = decimal.scale();
+      if (valuePrecision > 18) {
+        return -1;
+      }
+      final long digits = valueScale >= 0 ? Math.max(valuePrecision, valueScale) : (long) valuePrecision - valueScale;
+      if (precision != null && precision < digits || valueScale > (scale == null ? 0 : scale)) {
+        return -1;
+      }
+      unscaled = decimal.unscaledValue().longValue();
+    } else {
+      return -1;
+    }
+    // Like BigDecimal.toPlainString(), zero is written without trailing zeros for a negative scale.
+    return writePlain(unscaled, unscaled == 0 ? Math.max(valueScale, 0) : valueScale, buffer);
+  }
+
+  private static int digitCount(final long value) {
+    // Negative values are used to cover Long.MIN_VALUE.
+    long rest = value < 0 ? value : -value;
+    int count = 1;
+    while (rest <= -10) {
+      rest /= 10;
+      count++;
+    }
+    return count;
+  }
+
+  /** Writes <code>unscaled &times; 10<sup>-scale</sup></code> like {@link BigDecimal#toPlainString()}. */
+  private static int writePlain(final long unscaled, final int scale, final char[] buffer) {
+    final int digits = digitCount(unscaled);
+    final int sign = unscaled < 0 ? 1 : 0;
+    final long length = scale <= 0 ? sign + digits - (long) scale
+        : digits > scale ? sign + digits + 1
+            : sign + 2L + scale;
+    if (length > MAX_LENGTH) {
+      return -1;
+    }
+    int position = (int) length;
+    for (int i = scale; i < 0; i++) {
+      buffer[--position] = '0';
+    }
+    long rest = unscaled < 0 ? unscaled : -unscaled;
+    for (int i = 0; i < digits; i++) {
+      if (i == scale && scale > 0) {
+        buffer[--position] = '.';
+      }
+      buffer[--position] = (char) ('0' - rest % 10);
+      rest /= 10;
+    }
+    if (scale >= digits) {
+      while (position > sign + 2) {
+        buffer[--position] = '0';
+      }
+      buffer[--position] = '.';
+      buffer[--position] = '0';
+    }
+    if (sign == 1) {
+      buffer[--position] = '-';
+    }
+    return (int) length;
+  }
 }
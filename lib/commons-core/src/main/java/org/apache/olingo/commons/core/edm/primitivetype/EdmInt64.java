@@ -53,13 +53,16 @@ public final class EdmInt64 extends SingletonPrimitiveType {
       final Boolean isNullable, final Integer maxLength, final Integer precision,
       final Integer scale, final Boolean isUnicode, final Class<T> returnType) throws EdmPrimitiveTypeException {
 
-    Long valueLong;
+    final long valueLong;
     try {
       valueLong = Long.parseLong(value);
     } catch (final NumberFormatException e) {
       throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.", e);
     }
 
+    if (returnType == Long.class) {
+      return returnType.cast(valueLong);
+    }
     try {
       return convertNumber(valueLong, returnType);
     } catch (final IllegalArgumentException e) {
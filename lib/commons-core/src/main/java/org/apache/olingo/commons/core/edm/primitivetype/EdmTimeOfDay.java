@@ -51,10 +51,15 @@ public final class EdmTimeOfDay extends SingletonPrimitiveType {
       final Integer precision, final Integer scale, final Boolean isUnicode, final Class<T> returnType)
       throws EdmPrimitiveTypeException {
     LocalTime time;
-    try {
-      time = LocalTime.parse(value);
-    } catch (DateTimeParseException ex) {
-      throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
+    final long nanoOfDay = IsoDateTime.parseTime(value, 0, value.length());
+    if (nanoOfDay >= 0) {
+      time = LocalTime.ofNanoOfDay(nanoOfDay);
+    } else {
+      try {
+        time = LocalTime.parse(value);
+      } catch (DateTimeParseException ex) {
+        throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
+      }
     }
 
     // appropriate types
@@ -84,6 +89,12 @@ public final class EdmTimeOfDay extends SingletonPrimitiveType {
   @Override
   protected <T> String internalValueToString(final T value, final Boolean isNullable, final Integer maxLength,
       final Integer precision, final Integer scale, final Boolean isUnicode) throws EdmPrimitiveTypeException {
+    final char[] buffer = new char[IsoDateTime.MAX_LENGTH];
+    final int length = valueToChars(value, buffer);
+    if (length >= 0) {
+      return new String(buffer, 0, length);
+    }
+
     // appropriate types
     if (value instanceof LocalTime) {
       return value.toString();
@@ -110,4 +121,49 @@ public final class EdmTimeOfDay extends SingletonPrimitiveType {
 
     return zdt.toLocalTime().toString();
   }
+
+  /**
+   * Writes the literal representation of a non-null value into the given buffer,
+   * which must hold at least {@link IsoDateTime#MAX_LENGTH} characters.
+   * @param value  the value as {@link LocalTime}, {@link GregorianCalendar},
+   *               {@link java.util.Date} (except {@link java.sql.Time}), or {@link Long}
+   * @param buffer the target buffer
+   * @return the number of characters written, or <code>-1</code> if the value has to be formatted
+   *         with {@link #valueToString(Object, Boolean, Integer, Integer, Integer, Boolean)}
+   */
+  public int valueToChars(final Object value, final char[] buffer) {
+    final long nanoOfDay;
+    if (value instanceof LocalTime) {
+      nanoOfDay = ((LocalTime) value).toNanoOfDay();
+    } else {
+      final long localMillis = toLocalMillis(value);
+      if (localMillis == Long.MIN_VALUE) {
+        return -1;
+      }
+      nanoOfDay = Math.floorMod(localMillis, IsoDateTime.SECONDS_PER_DAY * 1000) * 1000000;
+    }
+    return IsoDateTime.formatLocalTime(nanoOfDay, buffer, 0);
+  }
+
+  /**
+   * Returns the milliseconds since the epoch shifted by the offset of the value's time zone,
+   * or of the default time zone for values without one, or {@link Long#MIN_VALUE} if not supported.
+   */
+  private static long toLocalMillis(final Object value) {
+    final long millis;
+    final ZoneId zone;
+    if (value instanceof GregorianCalendar) {
+      millis = ((GregorianCalendar) value).getTimeInMillis();
+      zone = ((GregorianCalendar) value).getTimeZone().toZoneId();
+    } else if (value instanceof Long) {
+      millis = (Long) value;
+      zone = ZoneId.systemDefault();
+    } else if (value instanceof java.util.Date && !(value instanceof java.sql.Time)) {
+      millis = ((java.util.Date) value).getTime();
+      zone = ZoneId.systemDefault();
+    } else {
+      return Long.MIN_VALUE;
+    }
+    return millis + IsoDateTime.getOffset(zone, millis) * 1000L;
+  }
 }
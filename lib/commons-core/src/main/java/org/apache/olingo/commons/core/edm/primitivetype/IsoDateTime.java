@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.core.edm.primitivetype;
+
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * <p>Formatting and parsing of the ISO 8601 representations used by the date and time types.</p>
+ * <p>Values are written into caller-provided character buffers and parsed into epoch days and
+ * nanoseconds of the day without creating intermediate <code>java.time</code> objects.
+ * Only years from 0 to 9999 are covered; callers fall back to <code>java.time</code>
+ * for everything outside, signalled by negative return values.</p>
+ */
+public final class IsoDateTime {
+
+  /** Maximum number of characters written by one of the format methods for a single value. */
+  public static final int MAX_LENGTH = 38;
+
+  /** Returned by {@link #parseDate(String, int)} for invalid input. */
+  public static final long INVALID_DATE = Long.MIN_VALUE;
+
+  /** Returned by {@link #parseOffset(String, int)} for invalid input. */
+  public static final int INVALID_OFFSET = Integer.MIN_VALUE;
+
+  static final long NANOS_PER_SECOND = 1000000000L;
+  static final long SECONDS_PER_DAY = 86400L;
+  static final long NANOS_PER_DAY = SECONDS_PER_DAY * NANOS_PER_SECOND;
+
+  private static final int MAX_OFFSET_SECONDS = 18 * 3600;
+
+  private IsoDateTime() {}
+
+  /**
+   * Returns the offset of the given time zone at the given instant in seconds.
+   */
+  public static int getOffset(final ZoneId zone, final long millis) {
+    return zone.getRules().getOffset(Instant.ofEpochMilli(millis)).getTotalSeconds();
+  }
+
+  /**
+   * Converts a date of the proleptic Gregorian calendar into the number of days since 1970-01-01.
+   * @param year  year
+   * @param month month (1-12)
+   * @param day   day of month (1-31)
+   * @return the epoch day
+   */
+  public static long toEpochDay(final int year, final int month, final int day) {
+    final long y = month <= 2 ? year - 1 : year;
+    final long era = (y >= 0 ? y : y - 399) / 400;
+    final long yearOfEra = y - era * 400;
+    final long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+    final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097 + dayOfEra - 719468;
+  }
+
+  /**
+   * Writes the date <code>yyyy-MM-dd</code>.
+   * @return the position after the last character written, or <code>-1</code> if the year is outside 0-9999
+   */
+  public static int formatDate(final long epochDay, final char[] buffer, final int position) {
+    final long shifted = epochDay + 719468;
+    final long era = (shifted >= 0 ? shifted : shifted - 146096) / 146097;
+    final long dayOfEra = shifted - era * 146097;
+    final long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    final long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    final long shiftedMonth = (5 * dayOfYear + 2) / 153;
+    final int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+    final int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+    final long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+    if (year < 0 || year > 9999) {
+      return -1;
+    }
+    int pos = position;
+    pos = twoDigits((int) year / 100, buffer, pos);
+    pos = twoDigits((int) year % 100, buffer, pos);
+    buffer[pos++] = '-';
+    pos = twoDigits(month, buffer, pos);
+    buffer[pos++] = '-';
+    return twoDigits(day, buffer, pos);
+  }
+
+  /**
+   * Writes the time <code>HH:mm:ss</code> followed by the fraction of the second without trailing zeros,
+   * as done by {@link java.time.format.DateTimeFormatter#ISO_LOCAL_TIME}.
+   * @return the position after the last character written
+   */
+  public static int formatTime(final long nanoOfDay, final char[] buffer, final int position) {
+    final int pos = formatHourMinuteSecond(nanoOfDay, buffer, position);
+    final int nanos = (int) (nanoOfDay % NANOS_PER_SECOND);
+    if (nanos == 0) {
+      return pos;
+    }
+    int end = formatFraction(nanos, buffer, pos);
+    while (buffer[end - 1] == '0') {
+      end--;
+    }
+    return end;
+  }
+
+  /**
+   * Writes the time in the form of {@link java.time.LocalTime#toString()}: seconds are omitted if they are zero
+   * and there is no fraction, the fraction is written in groups of three digits.
+   * @return the position after the last character written
+   */
+  public static int formatLocalTime(final long nanoOfDay, final char[] buffer, final int position) {
+    final int nanos = (int) (nanoOfDay % NANOS_PER_SECOND);
+    if (nanos == 0 && nanoOfDay / NANOS_PER_SECOND % 60 == 0) {
+      int pos = twoDigits((int) (nanoOfDay / NANOS_PER_SECOND / 3600), buffer, position);
+      buffer[pos++] = ':';
+      return twoDigits((int) (nanoOfDay / NANOS_PER_SECOND / 60 % 60), buffer, pos);
+    }
+    final int pos = formatHourMinuteSecond(nanoOfDay, buffer, position);
+    if (nanos == 0) {
+      return pos;
+    }
+    final int end = formatFraction(nanos, buffer, pos);
+    return nanos % 1000000 == 0 ? end - 6 : nanos % 1000 == 0 ? end - 3 : end;
+  }
+
+  /**
+   * Writes a time-zone offset: <code>Z</code> for zero, <code>+HH:mm</code> or <code>-HH:mm</code> otherwise,
+   * with seconds appended if present, as done by {@link java.time.ZoneOffset#toString()}.
+   * @return the position after the last character written
+   */
+  public static int formatOffset(final int offsetSeconds, final char[] buffer, final int position) {
+    if (offsetSeconds == 0) {
+      buffer[position] = 'Z';
+      return position + 1;
+    }
+    final int absolute = Math.abs(offsetSeconds);
+    int pos = position;
+    buffer[pos++] = offsetSeconds < 0 ? '-' : '+';
+    pos = twoDigits(absolute / 3600, buffer, pos);
+    buffer[pos++] = ':';
+    pos = twoDigits(absolute / 60 % 60, buffer, pos);
+    if (absolute % 60 != 0) {
+      buffer[pos++] = ':';
+      pos = twoDigits(absolute % 60, buffer, pos);
+    }
+    return pos;
+  }
+
+  /**
+   * Parses a date <code>yyyy-MM-dd</code> with a four-digit year starting at the given position.
+   * @return the epoch day or {@link #INVALID_DATE}
+   */
+  public static long parseDate(final String value, final int position) {
+    if (value.length() < position + 10
+        || value.charAt(position + 4) != '-' || value.charAt(position + 7) != '-') {
+      return INVALID_DATE;
+    }
+    final int century = digits(value, position);
+    final int yearOfCentury = digits(value, position + 2);
+    final int month = digits(value, position + 5);
+    final int day = digits(value, position + 8);
+    if (century < 0 || yearOfCentury < 0 || month < 1 || month > 12 || day < 1) {
+      return INVALID_DATE;
+    }
+    final int year = century * 100 + yearOfCentury;
+    if (day > lengthOfMonth(year, month)) {
+      return INVALID_DATE;
+    }
+    return toEpochDay(year, month, day);
+  }
+
+  /**
+   * Parses a time <code>HH:mm[:ss[.fffffffff]]</code> that spans exactly the given range.
+   * @return the nanosecond of the day or <code>-1</code> for invalid input
+   */
+  public static long parseTime(final String value, final int start, final int end) {
+    if (end < start + 5 || end > value.length() || value.charAt(start + 2) != ':') {
+      return -1;
+    }
+    final int hour = digits(value, start);
+    final int minute = digits(value, start + 3);
+    if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+      return -1;
+    }
+    long nanoOfDay = (hour * 3600L + minute * 60L) * NANOS_PER_SECOND;
+    if (end == start + 5) {
+      return nanoOfDay;
+    }
+    if (end < start + 8 || value.charAt(start + 5) != ':') {
+      return -1;
+    }
+    final int second = digits(value, start + 6);
+    if (second < 0 || second > 59) {
+      return -1;
+    }
+    nanoOfDay += second * NANOS_PER_SECOND;
+    if (end == start + 8) {
+      return nanoOfDay;
+    }
+    final int fractionDigits = end - start - 9;
+    if (value.charAt(start + 8) != '.' || fractionDigits < 1 || fractionDigits > 9) {
+      return -1;
+    }
+    int nanos = 0;
+    for (int i = start + 9; i < end; i++) {
+      final char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      nanos = nanos * 10 + (c - '0');
+    }
+    for (int i = fractionDigits; i < 9; i++) {
+      nanos *= 10;
+    }
+    return nanoOfDay + nanos;
+  }
+
+  /**
+   * Parses a time-zone offset <code>Z</code> or <code>&#177;HH:mm</code> that spans to the end of the value.
+   * An empty remainder is treated as offset zero.
+   * @return the offset in seconds or {@link #INVALID_OFFSET}
+   */
+  public static int parseOffset(final String value, final int position) {
+    final int length = value.length() - position;
+    if (length == 0) {
+      return 0;
+    } else if (length == 1) {
+      return value.charAt(position) == 'Z' ? 0 : INVALID_OFFSET;
+    } else if (length != 6 || value.charAt(position + 3) != ':') {
+      return INVALID_OFFSET;
+    }
+    final char sign = value.charAt(position);
+    final int hours = digits(value, position + 1);
+    final int minutes = digits(value, position + 4);
+    if (sign != '+' && sign != '-' || hours < 0 || minutes < 0 || minutes > 59) {
+      return INVALID_OFFSET;
+    }
+    final int seconds = hours * 3600 + minutes * 60;
+    if (seconds > MAX_OFFSET_SECONDS) {
+      return INVALID_OFFSET;
+    }
+    return sign == '-' ? -seconds : seconds;
+  }
+
+  private static int formatHourMinuteSecond(final long nanoOfDay, final char[] buffer, final int position) {
+    final int secondOfDay = (int) (nanoOfDay / NANOS_PER_SECOND);
+    int pos = twoDigits(secondOfDay / 3600, buffer, position);
+    buffer[pos++] = ':';
+    pos = twoDigits(secondOfDay / 60 % 60, buffer, pos);
+    buffer[pos++] = ':';
+    return twoDigits(secondOfDay % 60, buffer, pos);
+  }
+
+  private static int formatFraction(final int nanos, final char[] buffer, final int position) {
+    buffer[position] = '.';
+    int value = nanos;
+    for (int i = position + 9; i > position; i--) {
+      buffer[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+    return position + 10;
+  }
+
+  private static int twoDigits(final int value, final char[] buffer, final int position) {
+    buffer[position] = (char) ('0' + value / 10);
+    buffer[position + 1] = (char) ('0' + value % 10);
+    return position + 2;
+  }
+
+  private static int digits(final String value, final int position) {
+    final char high = value.charAt(position);
+    final char low = value.charAt(position + 1);
+    if (high < '0' || high > '9' || low < '0' || low > '9') {
+      return -1;
+    }
+    return (high - '0') * 10 + (low - '0');
+  }
+
+  private static int lengthOfMonth(final int year, final int month) {
+    switch (month) {
+    case 2:
+      return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+    case 4:
+    case 6:
+    case 9:
+    case 11:
+      return 30;
+    default:
+      return 31;
+    }
+  }
+}
@@ -88,6 +88,15 @@ public class EncoderTest {
     assertEquals("%F0%9F%98%83", Encoder.encode(s));
   }
 
+  @Test
+  public void appendToBuffer() {
+    final StringBuilder buffer = new StringBuilder("a=");
+    Encoder.encode("x y€", buffer);
+    Encoder.encode("", buffer);
+    Encoder.encode("'", buffer);
+    assertEquals("a=x%20y%E2%82%AC'", buffer.toString());
+  }
+
   @Test
   public void uriDecoding() throws URISyntaxException {
     final String decodedValue = RFC3986_UNRESERVED + RFC3986_RESERVED + "0..1..a..z..A..Z..@"
@@ -105,4 +105,23 @@ public class EdmBinaryTest extends PrimitiveTypeBaseTest {
 
     expectTypeErrorInValueOfString(instance, "qrvM3e7_");
   }
+
+  @Test
+  public void encodeInChunks() throws Exception {
+    final byte[] binary = new byte[] { (byte) 0xAA, (byte) 0xBB, (byte) 0xCC, (byte) 0xDD, (byte) 0xEE, (byte) 0xFF,
+        (byte) 0xAA };
+    final char[] chars = new char[12];
+    int length = EdmBinary.encode(binary, 0, 3, chars, 0);
+    length += EdmBinary.encode(binary, 3, 3, chars, length);
+    length += EdmBinary.encode(binary, 6, 1, chars, length);
+    assertEquals("qrvM3e7/qg==", new String(chars, 0, length));
+    assertEquals(0, EdmBinary.encode(binary, 0, 0, chars, 0));
+  }
+
+  @Test
+  public void decodeLeniently() throws Exception {
+    assertTrue(Arrays.equals(new byte[] { (byte) 0xAA, (byte) 0xBB, (byte) 0xCC, (byte) 0xDD },
+        EdmBinary.decode("qr@vM 3Q==qrvM")));
+    assertTrue(Arrays.equals(new byte[0], EdmBinary.decode("q")));
+  }
 }
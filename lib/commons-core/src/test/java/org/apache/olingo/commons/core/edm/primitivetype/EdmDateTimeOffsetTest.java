@@ -75,6 +75,24 @@ public class EdmDateTimeOffsetTest extends PrimitiveTypeBaseTest {
     assertEquals("2012-02-29T12:02:03.123456789+11:00", instance.valueToString(zdt, null, null, 9, null, null));
   }
 
+  @Test
+  public void valueToChars() throws Exception {
+    final char[] buffer = new char[IsoDateTime.MAX_LENGTH];
+    final EdmDateTimeOffset type = EdmDateTimeOffset.getInstance();
+    final ZonedDateTime zdt = ZonedDateTime.parse("2012-02-28T23:32:03.1-01:30");
+    assertEquals("2012-02-28T23:32:03.1-01:30", new String(buffer, 0, type.valueToChars(zdt, buffer)));
+    final Timestamp timestamp = Timestamp.from(zdt.toInstant());
+    timestamp.setNanos(123456789);
+    assertEquals("2012-02-29T01:02:03.123456789Z", new String(buffer, 0, type.valueToChars(timestamp, buffer)));
+    assertEquals("1969-12-31T23:59:59.999Z", new String(buffer, 0, type.valueToChars(-1L, buffer)));
+
+    // Outside of years 0-9999 the caller has to fall back to valueToString.
+    final ZonedDateTime future = ZonedDateTime.parse("+12012-02-28T23:32:03Z");
+    assertEquals(-1, type.valueToChars(future, buffer));
+    assertEquals("+12012-02-28T23:32:03Z", instance.valueToString(future, null, null, null, null, null));
+    assertEquals(-1, type.valueToChars(new Time(0), buffer));
+  }
+
   @Test
   public void valueToStringFromCalendar() throws Exception {
     Calendar dateTime = Calendar.getInstance();
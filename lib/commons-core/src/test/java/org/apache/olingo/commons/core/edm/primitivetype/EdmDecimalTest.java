@@ -209,4 +209,40 @@ public class EdmDecimalTest extends PrimitiveTypeBaseTest {
         validateDecimals("1e97", null, null, 7, "floating", null));
     
   }
+
+  @Test
+  public void validateLiteralForms() throws Exception {
+    assertTrue(instance.validate("1.000", null, null, null, 1, null));
+    assertFalse(instance.validate("1.010", null, null, null, 1, null));
+    assertTrue(instance.validate("-007.5", null, null, 2, 1, null));
+    assertTrue(instance.validate("0.000E3", null, null, null, null, null));
+    assertTrue(instance.validate("12.3400E-2", null, null, 4, 4, null));
+    assertFalse(instance.validate("12.3400E-2", null, null, 4, 3, null));
+    assertTrue(instance.validate("1.5E+2", null, null, 3, null, null));
+    assertFalse(instance.validate("1.5E+2", null, null, 2, null, null));
+    assertFalse(instance.validate("1.", null, null, null, null, null));
+    assertFalse(instance.validate(".5", null, null, null, null, null));
+    assertFalse(instance.validate("1e", null, null, null, null, null));
+    assertFalse(instance.validate("1e+", null, null, null, null, null));
+    assertFalse(instance.validate("+-1", null, null, null, null, null));
+    assertFalse(instance.validate("1 ", null, null, null, null, null));
+  }
+
+  @Test
+  public void valueToChars() throws Exception {
+    final EdmDecimal decimal = EdmDecimal.getInstance();
+    final char[] buffer = new char[IsoDateTime.MAX_LENGTH];
+    assertEquals("-9223372036854775808",
+        new String(buffer, 0, decimal.valueToChars(Long.MIN_VALUE, null, null, buffer)));
+    assertEquals("0.00", new String(buffer, 0, decimal.valueToChars(new BigDecimal("0.00"), null, 2, buffer)));
+    assertEquals("-0.0012", new String(buffer, 0, decimal.valueToChars(new BigDecimal("-0.0012"), 5, 4, buffer)));
+    assertEquals("12.50", new String(buffer, 0, decimal.valueToChars(new BigDecimal("12.50"), 4, 2, buffer)));
+    assertEquals("1000", new String(buffer, 0, decimal.valueToChars(new BigDecimal("1E+3"), 4, null, buffer)));
+    assertEquals("0", new String(buffer, 0, decimal.valueToChars(new BigDecimal("0E+3"), null, null, buffer)));
+
+    assertEquals(-1, decimal.valueToChars(123, 2, null, buffer));
+    assertEquals(-1, decimal.valueToChars(new BigDecimal("12.50"), 4, 1, buffer));
+    assertEquals(-1, decimal.valueToChars(new BigDecimal("1234567890123456789"), null, null, buffer));
+    assertEquals(-1, decimal.valueToChars(1.5, null, 1, buffer));
+  }
 }
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.core.edm.primitivetype;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+
+import org.junit.Test;
+
+public class IsoDateTimeTest {
+
+  private final char[] buffer = new char[IsoDateTime.MAX_LENGTH];
+
+  @Test
+  public void epochDay() {
+    for (final String date : new String[] { "0000-01-01", "0000-03-01", "1582-10-15", "1900-02-28", "1969-12-31",
+        "1970-01-01", "2000-02-29", "2100-03-01", "9999-12-31" }) {
+      final long epochDay = LocalDate.parse(date).toEpochDay();
+      assertEquals(epochDay, IsoDateTime.parseDate(date, 0));
+      assertEquals(date, new String(buffer, 0, IsoDateTime.formatDate(epochDay, buffer, 0)));
+    }
+    assertEquals(-1, IsoDateTime.formatDate(LocalDate.of(10000, 1, 1).toEpochDay(), buffer, 0));
+    assertEquals(-1, IsoDateTime.formatDate(LocalDate.of(-1, 12, 31).toEpochDay(), buffer, 0));
+  }
+
+  @Test
+  public void invalidDate() {
+    for (final String date : new String[] { "2001-02-29", "1900-02-29", "2012-00-01", "2012-13-01", "2012-04-31",
+        "2012-1-01", "2012/01/01", "12-01-01" }) {
+      assertEquals(date, IsoDateTime.INVALID_DATE, IsoDateTime.parseDate(date, 0));
+    }
+  }
+
+  @Test
+  public void time() {
+    for (final String time : new String[] { "00:00", "23:59", "07:16:05", "07:16:05.100", "07:16:05.000001",
+        "07:16:05.000000001", "00:00:00.123456789" }) {
+      final long nanoOfDay = LocalTime.parse(time).toNanoOfDay();
+      assertEquals(nanoOfDay, IsoDateTime.parseTime(time, 0, time.length()));
+      assertEquals(time, new String(buffer, 0, IsoDateTime.formatLocalTime(nanoOfDay, buffer, 0)));
+    }
+    assertEquals("07:16:00", new String(buffer, 0, IsoDateTime.formatTime(26160000000000L, buffer, 0)));
+    assertEquals("07:16:00.12", new String(buffer, 0, IsoDateTime.formatTime(26160120000000L, buffer, 0)));
+    assertEquals(LocalTime.parse("07:16:05.1").toNanoOfDay(), IsoDateTime.parseTime("07:16:05.1", 0, 10));
+
+    for (final String time : new String[] { "24:00", "23:60", "23:59:60", "7:16", "07:16:", "07:16:05.",
+        "07:16:05.1234567890", "07-16" }) {
+      assertEquals(time, -1, IsoDateTime.parseTime(time, 0, time.length()));
+    }
+  }
+
+  @Test
+  public void offset() {
+    assertEquals(0, IsoDateTime.parseOffset("Z", 0));
+    assertEquals(0, IsoDateTime.parseOffset("", 0));
+    assertEquals(-5400, IsoDateTime.parseOffset("x-01:30", 1));
+    assertEquals(18 * 3600, IsoDateTime.parseOffset("+18:00", 0));
+    assertEquals(IsoDateTime.INVALID_OFFSET, IsoDateTime.parseOffset("+18:01", 0));
+    assertEquals(IsoDateTime.INVALID_OFFSET, IsoDateTime.parseOffset("+01:60", 0));
+    assertEquals(IsoDateTime.INVALID_OFFSET, IsoDateTime.parseOffset("01:00", 0));
+    assertEquals(IsoDateTime.INVALID_OFFSET, IsoDateTime.parseOffset("z", 0));
+
+    for (final String offset : new String[] { "Z", "+01:00", "-09:30", "+10:36:20" }) {
+      final int seconds = ZonedDateTime.parse("2000-01-01T00:00" + offset).getOffset().getTotalSeconds();
+      assertEquals(offset, new String(buffer, 0, IsoDateTime.formatOffset(seconds, buffer, 0)));
+    }
+  }
+}
@@ -19,7 +19,10 @@
 package org.apache.olingo.netty.server.api;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+import org.apache.olingo.server.api.OlingoExtension;
 import org.apache.olingo.server.api.processor.Processor;
 
 import io.netty.handler.codec.http.HttpRequest;
@@ -36,6 +39,25 @@ public interface ODataNettyHandler {
    * @param response - HTTP OData response
    */
   void processNettyRequest(HttpRequest request, HttpResponse response, Map<String, String> requestParameters);
+
+  /**
+   * <p>Processes a NettyRequest as an OData request on the given executor.</p>
+   * <p>Processor dispatch and content writing run on a thread of the executor so that
+   * processors doing blocking I/O do not stall the calling event loop.
+   * The content of the request is retained until processing has finished;
+   * the response must not be written to the channel before the returned future has completed.
+   * If the executor is <code>null</code> or rejects the task, the request is processed on the calling thread.</p>
+   * <p>The default implementation processes the request on the calling thread.</p>
+   * @param request - must be a HTTP OData request
+   * @param response - HTTP OData response
+   * @param executor - executor running the processing, e.g., a thread-per-task executor using virtual threads
+   * @return a future that is completed as soon as the response has been filled
+   */
+  default CompletableFuture<Void> processNettyRequest(HttpRequest request, HttpResponse response,
+      Map<String, String> requestParameters, Executor executor) {
+    processNettyRequest(request, response, requestParameters);
+    return CompletableFuture.completedFuture(null);
+  }
   
   /**
    * <p>Registers additional custom processor implementations for handling OData requests.</p>
@@ -44,4 +66,9 @@ public interface ODataNettyHandler {
    */
   void register(Processor processor);
   
+  /**
+   * <p>Registers additional extensions for handling OData requests.</p>
+   * @see org.apache.olingo.server.api.ODataHandler#register(OlingoExtension)
+   */
+  void register(OlingoExtension extension);
 }
@@ -20,6 +20,7 @@ package org.apache.olingo.server.api;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
@@ -27,13 +28,16 @@ import org.apache.olingo.commons.api.edm.provider.CsdlEdmProvider;
 import org.apache.olingo.commons.api.edmx.EdmxReference;
 import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.async.AsyncSupport;
 import org.apache.olingo.server.api.debug.DebugResponseHelper;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.deserializer.FixedFormatDeserializer;
 import org.apache.olingo.server.api.deserializer.ODataDeserializer;
 import org.apache.olingo.server.api.etag.ETagHelper;
 import org.apache.olingo.server.api.etag.ServiceMetadataETagSupport;
+import org.apache.olingo.server.api.paging.KeysetPagingHelper;
 import org.apache.olingo.server.api.prefer.Preferences;
+import org.apache.olingo.server.api.search.SearchIndex;
 import org.apache.olingo.server.api.serializer.EdmAssistedSerializer;
 import org.apache.olingo.server.api.serializer.EdmDeltaSerializer;
 import org.apache.olingo.server.api.serializer.FixedFormatSerializer;
@@ -116,6 +120,21 @@ public abstract class OData {
    */
   public abstract ODataHandler createRawHandler(ServiceMetadata serviceMetadata);
 
+  /**
+   * Creates the support for asynchronous processing of requests which prefer <code>respond-async</code>.
+   * The returned object has to be registered at the handlers and should be kept for the lifetime of the service.
+   *
+   * <br/>
+   * The default implementation throws an {@link UnsupportedOperationException};
+   * it is overridden by the implementations shipped with this library.
+   *
+   * @param executor executor which runs the asynchronous jobs, e.g., a thread pool
+   * @return the asynchronous processing support
+   */
+  public AsyncSupport createAsyncSupport(final Executor executor) {
+    throw new UnsupportedOperationException("Asynchronous processing is not supported by " + getClass().getName());
+  }
+
   /**
    * Creates a metadata object for this service.
    *
@@ -194,6 +213,32 @@ public abstract class OData {
    */
   public abstract ETagHelper createETagHelper();
 
+  /**
+   * Creates a new helper for server-driven paging with keyset skiptokens.
+   * It can be used in Processor implementations.
+   * @param secret the secret used to sign the skiptokens;
+   * all instances of a service must use the same secret to accept each other's skiptokens
+   *
+   * <br/>
+   * The default implementation throws an {@link UnsupportedOperationException};
+   * it is overridden by the implementations shipped with this library.
+   */
+  public KeysetPagingHelper createKeysetPagingHelper(final byte[] secret) {
+    throw new UnsupportedOperationException("Keyset paging is not supported by " + getClass().getName());
+  }
+
+  /**
+   * Creates a new, empty in-memory full-text index for evaluating $search expressions.
+   * It can be used in Processor implementations that keep the entities of an entity set in memory.
+   *
+   * <br/>
+   * The default implementation throws an {@link UnsupportedOperationException};
+   * it is overridden by the implementations shipped with this library.
+   */
+  public SearchIndex createSearchIndex() {
+    throw new UnsupportedOperationException("Search indexes are not supported by " + getClass().getName());
+  }
+
   /**
    * Creates a new Preferences object out of Prefer HTTP request headers.
    * It can be used in Processor implementations.
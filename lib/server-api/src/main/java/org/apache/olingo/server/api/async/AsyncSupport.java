@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.async;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.server.api.OlingoExtension;
+
+/**
+ * <p>Asynchronous request processing as defined by the <code>respond-async</code> preference.</p>
+ * <p>If registered at the handler, a request with the <code>respond-async</code> preference is executed as job
+ * by the executor given at creation and answered immediately with <code>202 Accepted</code> and the URL of a status
+ * monitor resource in the <code>Location</code> header (<code>/{id}</code> relative to the service root).
+ * A GET request to the status monitor returns <code>202 Accepted</code> as long as the job is running and the
+ * response of the job in the <code>application/http</code> format afterwards; a DELETE request cancels the job.
+ * The registered processors are used for the job, so no processor needs to be aware of asynchronous processing.</p>
+ * <p>Since the jobs are held by this instance, it has to be created once per service (see
+ * {@link org.apache.olingo.server.api.OData#createAsyncSupport(java.util.concurrent.Executor)}) and registered
+ * for every request. Instances are thread-safe.</p>
+ * <p>This interface is not meant to be implemented by applications: only instances created by
+ * {@link org.apache.olingo.server.api.OData#createAsyncSupport(java.util.concurrent.Executor)} can be registered.</p>
+ */
+public interface AsyncSupport extends OlingoExtension {
+
+  /**
+   * Sets the maximum number of jobs held at the same time. If the limit is reached, requests are processed
+   * synchronously. The default is 1000.
+   * @param maxJobs the maximum number of jobs
+   * @return this object
+   */
+  AsyncSupport setMaxJobs(int maxJobs);
+
+  /**
+   * Sets the time a job is kept after it has finished or its status monitor has last been requested.
+   * Running jobs whose status monitor is not requested within this time are cancelled. The default is one hour.
+   * @param timeToLive the time to live
+   * @param unit the unit of the time to live
+   * @return this object
+   */
+  AsyncSupport setTimeToLive(long timeToLive, TimeUnit unit);
+
+  /**
+   * Enables spooling of job results larger than the threshold to temporary files in the given directory.
+   * Without spool directory, results are kept in memory.
+   * @param directory the spool directory or <code>null</code> to keep all results in memory
+   * @param threshold the size in bytes up to which results are kept in memory
+   * @return this object
+   */
+  AsyncSupport setSpooling(File directory, int threshold);
+
+  /**
+   * @return the number of jobs currently held (running or finished but not yet delivered)
+   */
+  int getJobCount();
+
+  /**
+   * Cancels a job; the job is interrupted if it is running.
+   * @param jobId the ID of the job as used in the status monitor URL
+   * @return <code>true</code> if the job existed
+   */
+  boolean cancel(String jobId);
+
+  /**
+   * Cancels all jobs. The executor is not shut down.
+   */
+  void shutdown();
+}
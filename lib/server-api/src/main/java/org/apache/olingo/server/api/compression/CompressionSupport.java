@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.compression;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+
+import org.apache.olingo.server.api.OlingoExtension;
+
+/**
+ * <p>Enables the compression of response content.</p>
+ * <p>If registered at the ODataHttpHandler, response content of a compressible content type is compressed with
+ * the coding (<code>gzip</code> or <code>deflate</code>) preferred by the <code>Accept-Encoding</code> header of
+ * the request. Compression is done while streaming, so it works for serialized content as well as for
+ * <code>ODataContent</code>.</p>
+ * <p>Optionally the compressed metadata and service documents are cached. Since the cache is held by this instance,
+ * the same instance should be registered for all requests of a service, and caching should only be enabled if these
+ * documents do not depend on the requesting user.</p>
+ */
+public class CompressionSupport implements OlingoExtension {
+
+  private static final int MAX_CACHED_DOCUMENTS = 64;
+
+  private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+  private boolean cacheServiceDocuments = false;
+  private final Map<String, CompressedDocument> documents = new ConcurrentHashMap<>();
+
+  /**
+   * Sets the compression level between 1 (fastest) and 9 (best compression); -1 selects the default level.
+   * @param compressionLevel the compression level
+   * @return this object
+   */
+  public CompressionSupport setCompressionLevel(final int compressionLevel) {
+    if (compressionLevel != Deflater.DEFAULT_COMPRESSION
+        && (compressionLevel < Deflater.BEST_SPEED || compressionLevel > Deflater.BEST_COMPRESSION)) {
+      throw new IllegalArgumentException("Invalid compression level " + compressionLevel);
+    }
+    this.compressionLevel = compressionLevel;
+    return this;
+  }
+
+  public int getCompressionLevel() {
+    return compressionLevel;
+  }
+
+  /**
+   * Enables the caching of the compressed metadata document and service document.
+   * @param cacheServiceDocuments whether the compressed documents should be cached
+   * @return this object
+   */
+  public CompressionSupport setCacheServiceDocuments(final boolean cacheServiceDocuments) {
+    this.cacheServiceDocuments = cacheServiceDocuments;
+    if (!cacheServiceDocuments) {
+      documents.clear();
+    }
+    return this;
+  }
+
+  public boolean isCacheServiceDocuments() {
+    return cacheServiceDocuments;
+  }
+
+  /**
+   * Determines whether content of the given content type should be compressed.
+   * The default implementation accepts textual content types, JSON, XML, and multipart content
+   * (which is used for batch responses).
+   * @param contentType the value of the Content-Type header of the response
+   * @return whether the content should be compressed
+   */
+  public boolean isCompressible(final String contentType) {
+    if (contentType == null) {
+      return false;
+    }
+    final String type = contentType.toLowerCase(Locale.ROOT);
+    return type.startsWith("text/") || type.startsWith("multipart/")
+        || type.contains("json") || type.contains("xml");
+  }
+
+  /**
+   * Returns a cached compressed document.
+   * @param key the cache key as determined by the handler
+   * @return the cached document or <code>null</code>
+   */
+  public CompressedDocument getCachedDocument(final String key) {
+    return documents.get(key);
+  }
+
+  /**
+   * Caches a compressed document. If the cache is full, it is cleared first.
+   * @param key the cache key as determined by the handler
+   * @param document the compressed document
+   */
+  public void cacheDocument(final String key, final CompressedDocument document) {
+    if (cacheServiceDocuments) {
+      if (documents.size() >= MAX_CACHED_DOCUMENTS) {
+        documents.clear();
+      }
+      documents.put(key, document);
+    }
+  }
+
+  /**
+   * Compressed response of a metadata or service document request.
+   */
+  public static class CompressedDocument {
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final byte[] content;
+
+    public CompressedDocument(final int statusCode, final Map<String, List<String>> headers,
+        final byte[] content) {
+      this.statusCode = statusCode;
+      this.headers = Collections.unmodifiableMap(headers);
+      this.content = content;
+    }
+
+    public int getStatusCode() {
+      return statusCode;
+    }
+
+    /** @return the response headers including the Content-Encoding header */
+    public Map<String, List<String>> getHeaders() {
+      return headers;
+    }
+
+    /** @return the compressed content; must not be modified */
+    public byte[] getContent() {
+      return content;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.etag;
+
+import java.util.List;
+
+import org.apache.olingo.commons.api.edm.EdmBindingTarget;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.server.api.OlingoExtension;
+import org.apache.olingo.server.api.uri.UriParameter;
+
+/**
+ * <p>Applications that can determine the current ETag of an entity cheaply, e.g., from a version column,
+ * can implement this interface and register it at the ODataHttpHandler.</p>
+ * <p>For requests with an if-match or if-none-match header the library then checks the preconditions
+ * before the request is dispatched to a processor. A read request whose if-none-match header matches
+ * is answered with a "Not Modified" response, and a request whose preconditions are not fulfilled
+ * results in a "Precondition Failed" response, without the processor loading or serializing any data.</p>
+ * <p>The returned values must be complete entity tags including the double quotes, e.g., <code>"42"</code>
+ * or <code>W/"42"</code>. If a method returns <code>null</code> the request is dispatched as usual and the
+ * processor has to validate the preconditions itself.</p>
+ * <p>Requests with a system query option $expand are always dispatched to the processor since their
+ * response depends on more than the addressed entity or collection.</p>
+ */
+public interface ETagProvider extends OlingoExtension {
+
+  /**
+   * Returns the current ETag of the entity with the given key in the given entity set, or of the given singleton.
+   * The ETag is also used for requests to properties of the entity.
+   * @param entitySetOrSingleton the entity set or singleton
+   * @param keyPredicates the key predicates of the entity; an empty list for a singleton
+   * @return the ETag value or <code>null</code> if not known
+   */
+  String getETag(EdmBindingTarget entitySetOrSingleton, List<UriParameter> keyPredicates);
+
+  /**
+   * Returns the current ETag of the collection of all entities in the given entity set.
+   * Since the representation of a collection depends on the query options, this should be a weak ETag
+   * which changes whenever an entity of the entity set is created, changed, or deleted.
+   * @param entitySet the entity set
+   * @return the ETag value or <code>null</code> if not known
+   */
+  String getCollectionETag(EdmEntitySet entitySet);
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of non-negative long values (e.g., durations in nanoseconds).
+ * <p>
+ * Values are counted in logarithmic buckets: every power of two is split into eight linear sub-buckets, so
+ * percentiles are reported with a relative error of at most 12.5% while the histogram has a fixed size of a few
+ * kilobytes regardless of the number of recorded values. Recording never blocks and never allocates.
+ * </p>
+ */
+public class Histogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong total = new AtomicLong();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records a value; negative values are recorded as zero.
+   * @param value the value
+   */
+  public void record(final long value) {
+    final long v = value < 0 ? 0 : value;
+    buckets.incrementAndGet(bucketIndex(v));
+    count.incrementAndGet();
+    total.addAndGet(v);
+    long currentMax = max.get();
+    while (v > currentMax && !max.compareAndSet(currentMax, v)) {
+      currentMax = max.get();
+    }
+  }
+
+  /** @return the number of recorded values */
+  public long getCount() {
+    return count.get();
+  }
+
+  /** @return the sum of all recorded values */
+  public long getTotal() {
+    return total.get();
+  }
+
+  /** @return the largest recorded value or 0 if no value has been recorded */
+  public long getMax() {
+    return max.get();
+  }
+
+  /** @return the arithmetic mean of the recorded values or 0 if no value has been recorded */
+  public double getMean() {
+    final long n = count.get();
+    return n == 0 ? 0 : (double) total.get() / n;
+  }
+
+  /**
+   * Returns an upper bound of the value below which the given percentage of the recorded values fall.
+   * @param percentile the percentile between 0 and 100
+   * @return the value at the percentile or 0 if no value has been recorded
+   */
+  public long getValueAtPercentile(final double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+    }
+    final long n = count.get();
+    if (n == 0) {
+      return 0;
+    }
+    final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+    long seen = 0;
+    for (int index = 0; index < BUCKETS; index++) {
+      seen += buckets.get(index);
+      if (seen >= rank) {
+        return Math.min(bucketUpperBound(index), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  /**
+   * Resets the histogram. Values recorded concurrently may be lost or counted partially.
+   */
+  public void reset() {
+    for (int index = 0; index < BUCKETS; index++) {
+      buckets.set(index, 0);
+    }
+    count.set(0);
+    total.set(0);
+    max.set(0);
+  }
+
+  static int bucketIndex(final long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    final int exponent = 63 - Long.numberOfLeadingZeros(value);
+    final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long bucketUpperBound(final int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    final long subBucket = index % SUB_BUCKETS;
+    final long upper = (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS);
+    return upper <= 0 ? Long.MAX_VALUE : upper - 1;
+  }
+
+  @Override
+  public String toString() {
+    return "count=" + getCount() + ", mean=" + (long) getMean() + ", p50=" + getValueAtPercentile(50)
+        + ", p99=" + getValueAtPercentile(99) + ", max=" + getMax();
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.metrics;
+
+import org.apache.olingo.server.api.OlingoExtension;
+
+/**
+ * <p>Receives timings and counters of the request processing.</p>
+ * <p>If implemented this interface can be registered at the ODataHttpHandler. Unlike the debug support the
+ * metrics are collected for every request, so implementations must be thread-safe and cheap: they are called
+ * synchronously on the request thread. If no listener is registered no measurement is taken at all.</p>
+ * @see MetricsRecorder
+ */
+public interface MetricsListener extends OlingoExtension {
+
+  /**
+   * Called whenever a processing phase of a request has been completed (successfully or not).
+   * @param phase the completed phase
+   * @param nanos the elapsed time in nanoseconds
+   */
+  void phaseCompleted(Phase phase, long nanos);
+
+  /**
+   * Called whenever a counter has to be incremented.
+   * @param counter the counter
+   * @param delta the (positive) increment
+   */
+  void count(Counter counter, long delta);
+
+  /**
+   * Processing phases of a request.
+   */
+  enum Phase {
+    /** The processing of a request up to the response object; writing the content is {@link #RESPONSE_WRITING}. */
+    REQUEST,
+    /** Parsing of the resource path and the query options. */
+    URI_PARSING,
+    /** Validation of the parsed URI against the HTTP method. */
+    URI_VALIDATION,
+    /** Content negotiation based on the $format option and the Accept header. */
+    CONTENT_NEGOTIATION,
+    /** Dispatching to and execution of the processor, including serialization done by the processor. */
+    DISPATCH,
+    /** Handling of an error by the error processor. */
+    ERROR_PROCESSING,
+    /** Copying the response content to the underlying transport. */
+    RESPONSE_WRITING
+  }
+
+  /**
+   * Counters of the request processing.
+   */
+  enum Counter {
+    /** Processed requests; each part of a batch request is counted as well. */
+    REQUESTS,
+    /** Requests which have been answered by the error processor. */
+    ERRORS,
+    /** Response bytes written to the underlying transport. */
+    BYTES_WRITTEN,
+    /** Processed parts of batch requests. */
+    BATCH_PARTS
+  }
+}
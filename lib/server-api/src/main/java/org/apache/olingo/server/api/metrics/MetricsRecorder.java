@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe in-memory {@link MetricsListener} which keeps a {@link Histogram} per phase and a value per counter.
+ * <p>
+ * One instance is meant to be shared by all handlers of a service; the collected values can be read at any time,
+ * e.g., by a periodic exporter to a monitoring system.
+ * </p>
+ */
+public class MetricsRecorder implements MetricsListener {
+
+  private final Map<Phase, Histogram> histograms = new EnumMap<>(Phase.class);
+  private final Map<Counter, AtomicLong> counters = new EnumMap<>(Counter.class);
+
+  public MetricsRecorder() {
+    for (final Phase phase : Phase.values()) {
+      histograms.put(phase, new Histogram());
+    }
+    for (final Counter counter : Counter.values()) {
+      counters.put(counter, new AtomicLong());
+    }
+  }
+
+  @Override
+  public void phaseCompleted(final Phase phase, final long nanos) {
+    histograms.get(phase).record(nanos);
+  }
+
+  @Override
+  public void count(final Counter counter, final long delta) {
+    counters.get(counter).addAndGet(delta);
+  }
+
+  /**
+   * @param phase the phase
+   * @return the histogram of the durations (in nanoseconds) of the phase
+   */
+  public Histogram getHistogram(final Phase phase) {
+    return histograms.get(phase);
+  }
+
+  /**
+   * @param counter the counter
+   * @return the current value of the counter
+   */
+  public long getCount(final Counter counter) {
+    return counters.get(counter).get();
+  }
+
+  /**
+   * Resets all histograms and counters.
+   */
+  public void reset() {
+    for (final Histogram histogram : histograms.values()) {
+      histogram.reset();
+    }
+    for (final AtomicLong counter : counters.values()) {
+      counter.set(0);
+    }
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder result = new StringBuilder();
+    for (final Phase phase : Phase.values()) {
+      result.append(phase).append(": ").append(histograms.get(phase)).append('\n');
+    }
+    for (final Counter counter : Counter.values()) {
+      result.append(counter).append(": ").append(getCount(counter)).append('\n');
+    }
+    return result.toString();
+  }
+}
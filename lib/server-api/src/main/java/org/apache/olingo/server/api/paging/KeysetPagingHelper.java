@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.paging;
+
+import java.net.URI;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+import org.apache.olingo.server.api.uri.queryoption.SkipTokenOption;
+
+/**
+ * <p>Supports server-driven paging with keyset (seek) skiptokens.</p>
+ * <p>Instead of the number of entities already delivered, a skiptoken contains the values of the
+ * sort keys of the last entity of a page, i.e., the values of the $orderby expressions followed by
+ * the key properties of the entity type. The next page then starts with the first entity after these
+ * values, so processors can fetch it with a seek predicate instead of skipping over all previous pages.</p>
+ * <p>Skiptokens are opaque to clients and signed; tokens that have been modified or that are used with
+ * another $orderby option are rejected.</p>
+ */
+public interface KeysetPagingHelper {
+
+  /**
+   * Creates the skiptoken for the page following the given entity.
+   * @param entityType the type of the entities in the collection
+   * @param orderByOption the $orderby option of the request or <code>null</code>
+   * @param lastEntity the last entity of the current page
+   * @param pageSize the page size
+   * @return the skiptoken, consisting only of characters that need no percent-encoding
+   * @throws SkipTokenException if the $orderby option contains an expression that is not a property path
+   * or if a value cannot be used for paging
+   */
+  String createSkipToken(EdmEntityType entityType, OrderByOption orderByOption, Entity lastEntity, int pageSize)
+      throws SkipTokenException;
+
+  /**
+   * Parses a skiptoken created by {@link #createSkipToken(EdmEntityType, OrderByOption, Entity, int)}.
+   * @param entityType the type of the entities in the collection
+   * @param orderByOption the $orderby option of the request or <code>null</code>
+   * @param skipTokenOption the $skiptoken option of the request or <code>null</code>
+   * @return the position after which the requested page starts or <code>null</code> if there is no skiptoken
+   * @throws SkipTokenException if the skiptoken is not valid for the given entity type and $orderby option
+   */
+  SeekPosition parseSkipToken(EdmEntityType entityType, OrderByOption orderByOption,
+      SkipTokenOption skipTokenOption) throws SkipTokenException;
+
+  /**
+   * Creates the next link from the request URI, replacing an existing $skiptoken query option.
+   * @param rawRequestUri the raw request URI
+   * @param skipToken the skiptoken for the next page
+   * @return the next link
+   * @throws IllegalArgumentException if the request URI is not a valid URI
+   */
+  URI createNextLink(String rawRequestUri, String skipToken);
+}
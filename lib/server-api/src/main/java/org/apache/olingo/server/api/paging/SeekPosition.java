@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.paging;
+
+import org.apache.olingo.commons.api.data.Entity;
+
+/**
+ * <p>The position after which a page starts, parsed from a keyset skiptoken.</p>
+ * <p>The position consists of the values of the sort keys of the last entity of the previous page:
+ * the $orderby expressions first, followed by the key properties of the entity type.
+ * A page contains the entities which sort after these values, i.e., in ascending order
+ * <code>key0 &gt; value0 or (key0 eq value0 and key1 &gt; value1) or ...</code>.
+ * The values have the default Java types of their EDM primitive types; <code>null</code>
+ * values sort before all other values.</p>
+ */
+public interface SeekPosition {
+
+  /**
+   * Gets the page size the paging has been started with.
+   * @return the page size
+   */
+  int getPageSize();
+
+  /**
+   * Gets the number of sort keys.
+   * @return the number of sort keys
+   */
+  int size();
+
+  /**
+   * Gets the path of a sort key, with the names of the (complex) properties separated by slashes.
+   * @param index the index of the sort key
+   * @return the property path
+   */
+  String getPropertyPath(int index);
+
+  /**
+   * Gets the value of a sort key.
+   * @param index the index of the sort key
+   * @return the value or <code>null</code>
+   */
+  Object getValue(int index);
+
+  /**
+   * Gets whether a sort key is sorted in descending order.
+   * @param index the index of the sort key
+   * @return <code>true</code> if descending
+   */
+  boolean isDescending(int index);
+
+  /**
+   * Checks whether an entity sorts after this position and therefore belongs to the requested or a later page.
+   * @param entity the entity
+   * @return <code>true</code> if the entity sorts after this position
+   * @throws SkipTokenException if a value of the entity cannot be compared
+   */
+  boolean isAfter(Entity entity) throws SkipTokenException;
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.search;
+
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.server.api.uri.queryoption.search.SearchExpression;
+
+/**
+ * <p>In-memory full-text index over the entities of one entity set, evaluating $search expressions.</p>
+ * <p>The string values of the properties of an entity, including those in collections and in complex properties,
+ * are split into terms, i.e., maximal sequences of letters and digits, which are compared case-insensitively.
+ * A search term matches an entity if its terms occur in one of these values, one after the other;
+ * for a single word this means that the word occurs in the entity.
+ * Search expressions combine search terms with AND, OR, and NOT.</p>
+ * <p>Entities are identified by object identity. Processors that keep their data in memory add their entities
+ * once and keep the index up to date whenever an entity is created, changed, or deleted.
+ * An index can be used by several threads concurrently.</p>
+ */
+public interface SearchIndex {
+
+  /**
+   * Adds an entity to the index; an entity that has already been added is indexed again.
+   * @param entity the entity
+   */
+  void add(Entity entity);
+
+  /**
+   * Indexes an entity again after its property values have been changed.
+   * This is the same as {@link #add(Entity)}.
+   * @param entity the entity
+   */
+  void update(Entity entity);
+
+  /**
+   * Removes an entity from the index.
+   * @param entity the entity
+   * @return whether the entity had been added to the index
+   */
+  boolean remove(Entity entity);
+
+  /**
+   * Gets the number of indexed entities.
+   * @return the number of entities
+   */
+  int size();
+
+  /**
+   * Finds the entities matching a search expression.
+   * @param expression the search expression, e.g., from the $search system query option
+   * @return the matching entities, in the order in which they have been (last) indexed
+   */
+  List<Entity> search(SearchExpression expression);
+
+  /**
+   * Removes the entities not matching a search expression from a list, keeping the order of the others.
+   * Entities that have not been added to the index do not match.
+   * @param expression the search expression, e.g., from the $search system query option
+   * @param entities the entities, e.g., of an entity collection
+   */
+  void retainMatches(SearchExpression expression, List<Entity> entities);
+}
@@ -19,6 +19,7 @@
 package org.apache.olingo.server.api.serializer;
 
 import org.apache.olingo.commons.api.data.Delta;
+import org.apache.olingo.commons.api.data.DeltaIterator;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
 import org.apache.olingo.server.api.ServiceMetadata;
 
@@ -37,4 +38,23 @@ public interface EdmDeltaSerializer {
   SerializerResult entityCollection(ServiceMetadata metadata, EdmEntityType referencedEntityType,
       Delta delta, EntityCollectionSerializerOptions options) throws SerializerException;
 
+  /**
+   * Writes a delta response from iterators into a streamed result.
+   * The changes are written incrementally while the content is written to the response,
+   * followed by the next link or the delta link, so memory consumption does not depend on the number of changes.
+   * <br/>
+   * The default implementation throws an {@link UnsupportedOperationException};
+   * the JSON delta serializers of this library support streaming.
+   * @param metadata             metadata for the service
+   * @param referencedEntityType the {@link EdmEntityType} or <code>null</code> if not available
+   * @param delta                the delta data as iterators
+   * @param options              options for the serializer
+   */
+  default SerializerStreamResult entityCollectionStreamed(ServiceMetadata metadata,
+      EdmEntityType referencedEntityType, DeltaIterator delta, EntityCollectionSerializerOptions options)
+      throws SerializerException {
+    throw new UnsupportedOperationException("Streaming of delta responses is not supported by "
+        + getClass().getName());
+  }
+
 }
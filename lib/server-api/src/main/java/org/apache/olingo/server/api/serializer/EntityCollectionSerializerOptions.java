@@ -36,6 +36,11 @@ public class EntityCollectionSerializerOptions {
   private ODataContentWriteErrorCallback odataContentWriteErrorCallback;
   private String xml10InvalidCharReplacement;
   private boolean isFullRepresentation = false;
+  private ExpandLoader expandLoader;
+  private int expandChunkSize = DEFAULT_EXPAND_CHUNK_SIZE;
+
+  /** Default number of parent entities for which expanded navigation properties are loaded at once. */
+  public static final int DEFAULT_EXPAND_CHUNK_SIZE = 100;
 
   /** Gets the {@link ContextURL}. */
   public ContextURL getContextURL() {
@@ -88,6 +93,19 @@ public class EntityCollectionSerializerOptions {
     return isFullRepresentation;
   }
 
+  /**
+   * Gets the loader for expanded navigation properties that are not inlined.
+   * Only the JSON serializer uses it; the XML serializer ignores it.
+   */
+  public ExpandLoader getExpandLoader() {
+    return expandLoader;
+  }
+
+  /** Gets the number of parent entities passed at once to the {@link ExpandLoader}. */
+  public int getExpandChunkSize() {
+    return expandChunkSize;
+  }
+
   /** Initializes the options builder. */
   public static Builder with() {
     return new Builder();
@@ -162,6 +180,24 @@ public class EntityCollectionSerializerOptions {
       return this;
     }
     
+    /**
+     * Sets the loader for expanded navigation properties that are not inlined.
+     * Only the JSON serializer uses it; for XML the related entities have to be inlined beforehand.
+     */
+    public Builder expandLoader(final ExpandLoader expandLoader) {
+      options.expandLoader = expandLoader;
+      return this;
+    }
+
+    /** Sets the number of parent entities passed at once to the {@link ExpandLoader}. */
+    public Builder expandChunkSize(final int expandChunkSize) {
+      if (expandChunkSize <= 0) {
+        throw new IllegalArgumentException("Invalid expand chunk size: " + expandChunkSize);
+      }
+      options.expandChunkSize = expandChunkSize;
+      return this;
+    }
+
     /** Builds the OData serializer options. */
     public EntityCollectionSerializerOptions build() {
       return options;
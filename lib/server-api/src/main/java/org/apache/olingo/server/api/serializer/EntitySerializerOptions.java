@@ -29,6 +29,7 @@ public class EntitySerializerOptions {
   private SelectOption select;
   private boolean writeOnlyReferences;
   private String xml10InvalidCharReplacement;
+  private ExpandLoader expandLoader;
 
   /** Gets the {@link ContextURL}. */
   public ContextURL getContextURL() {
@@ -55,6 +56,14 @@ public class EntitySerializerOptions {
     return xml10InvalidCharReplacement;
   }  
 
+  /**
+   * Gets the loader for expanded navigation properties that are not inlined.
+   * Only the JSON serializer uses it; the XML serializer ignores it.
+   */
+  public ExpandLoader getExpandLoader() {
+    return expandLoader;
+  }
+
   private EntitySerializerOptions() {}
 
   /** Initializes the options builder. */
@@ -101,6 +110,15 @@ public class EntitySerializerOptions {
       return this;
     } 
     
+    /**
+     * Sets the loader for expanded navigation properties that are not inlined.
+     * Only the JSON serializer uses it; for XML the related entities have to be inlined beforehand.
+     */
+    public Builder expandLoader(final ExpandLoader expandLoader) {
+      options.expandLoader = expandLoader;
+      return this;
+    }
+
     /** Builds the OData serializer options. */
     public EntitySerializerOptions build() {
       return options;
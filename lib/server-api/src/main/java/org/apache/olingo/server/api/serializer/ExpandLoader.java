@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.serializer;
+
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityIterator;
+import org.apache.olingo.commons.api.edm.EdmNavigationProperty;
+import org.apache.olingo.server.api.uri.queryoption.ExpandItem;
+
+/**
+ * Loads expanded navigation properties while entities are serialized, instead of requiring them to be inlined
+ * in the navigation links beforehand.
+ * <br/>
+ * The serializer asks for the related entities of a whole chunk of parent entities at once (see
+ * {@link EntityCollectionSerializerOptions#getExpandChunkSize()}), so that an implementation can answer with one
+ * backend query per chunk; only the current chunk is kept in memory.
+ * The loader is only used for navigation properties whose link has no inline entity or entity set.
+ * <br/>
+ * Only the JSON serializer supports a loader; the XML serializer ignores it and writes only what is inlined in the
+ * navigation links.
+ */
+public interface ExpandLoader {
+
+  /**
+   * Loads the entities related to the given parents via the given navigation property.
+   *
+   * @param navigationProperty the expanded navigation property
+   * @param expandItem the expand item for the navigation property, with its nested options;
+   * for <code>$expand=*</code> the star item
+   * @param parents the parent entities, in serialization order
+   * @return one iterator per parent, in the same order; for single-valued navigation properties, the first
+   * entity of the iterator is used; a <code>null</code> element stands for no related entities
+   */
+  List<EntityIterator> load(EdmNavigationProperty navigationProperty, ExpandItem expandItem, List<Entity> parents);
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+  @Test
+  public void empty() {
+    final Histogram histogram = new Histogram();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMax());
+    assertEquals(0, histogram.getMean(), 0);
+    assertEquals(0, histogram.getValueAtPercentile(99));
+  }
+
+  @Test
+  public void smallValuesAreExact() {
+    final Histogram histogram = new Histogram();
+    for (long value = 1; value <= 8; value++) {
+      histogram.record(value);
+    }
+    assertEquals(8, histogram.getCount());
+    assertEquals(36, histogram.getTotal());
+    assertEquals(8, histogram.getMax());
+    assertEquals(4.5, histogram.getMean(), 0);
+    assertEquals(4, histogram.getValueAtPercentile(50));
+    assertEquals(8, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void percentilesWithinRelativeError() {
+    final Histogram histogram = new Histogram();
+    for (long value = 1; value <= 100000; value++) {
+      histogram.record(value * 1000);
+    }
+    assertEquals(100000000, histogram.getMax());
+    final long p50 = histogram.getValueAtPercentile(50);
+    assertTrue(p50 >= 50000000 && p50 <= 50000000 * 1.125);
+    final long p99 = histogram.getValueAtPercentile(99);
+    assertTrue(p99 >= 99000000 && p99 <= 100000000);
+  }
+
+  @Test
+  public void bucketBounds() {
+    for (long value : new long[] { 0, 1, 7, 8, 9, 15, 16, 17, 1000, 123456789, Long.MAX_VALUE }) {
+      final int index = Histogram.bucketIndex(value);
+      assertTrue(value <= Histogram.bucketUpperBound(index));
+      assertTrue(index == 0 || value > Histogram.bucketUpperBound(index - 1));
+    }
+  }
+
+  @Test
+  public void recorder() {
+    final MetricsRecorder recorder = new MetricsRecorder();
+    recorder.phaseCompleted(MetricsListener.Phase.DISPATCH, 1000);
+    recorder.count(MetricsListener.Counter.BYTES_WRITTEN, 42);
+    recorder.count(MetricsListener.Counter.BYTES_WRITTEN, 8);
+    assertEquals(1, recorder.getHistogram(MetricsListener.Phase.DISPATCH).getCount());
+    assertEquals(50, recorder.getCount(MetricsListener.Counter.BYTES_WRITTEN));
+    recorder.reset();
+    assertEquals(0, recorder.getCount(MetricsListener.Counter.BYTES_WRITTEN));
+    assertEquals(0, recorder.getHistogram(MetricsListener.Phase.DISPATCH).getCount());
+  }
+}
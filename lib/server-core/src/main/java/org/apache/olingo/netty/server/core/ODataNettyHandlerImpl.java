@@ -30,6 +30,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.DeflaterOutputStream;
 
 import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.http.HttpHeader;
@@ -41,8 +45,15 @@ import org.apache.olingo.server.api.ODataLibraryException;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.ODataServerError;
+import org.apache.olingo.server.api.OlingoExtension;
 import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.compression.CompressionSupport;
+import org.apache.olingo.server.api.deserializer.DeserializerException;
+import org.apache.olingo.server.api.metrics.MetricsListener;
+import org.apache.olingo.server.api.metrics.MetricsListener.Counter;
+import org.apache.olingo.server.api.metrics.MetricsListener.Phase;
 import org.apache.olingo.server.api.processor.Processor;
+import org.apache.olingo.server.core.ContentEncoding;
 import org.apache.olingo.server.core.ODataExceptionHelper;
 import org.apache.olingo.server.core.ODataHandlerException;
 import org.apache.olingo.server.core.ODataHandlerImpl;
@@ -123,13 +134,51 @@ public class ODataNettyHandlerImpl implements ODataNettyHandler {
 	    copyContent(Channels.newChannel(inputStream), response);
 	  }
 
+  /**
+   * Convert the OData Response to Netty Response and compress its content
+   * @param response
+   * @param odResponse
+   * @param contentEncoding the content coding or <code>null</code> if the content must not be compressed
+   * @param compressionSupport the registered compression support
+   */
+  static void convertToHttp(final HttpResponse response, final ODataResponse odResponse,
+      final String contentEncoding, final CompressionSupport compressionSupport) {
+    if (contentEncoding == null) {
+      convertToHttp(response, odResponse);
+      return;
+    }
+    response.setStatus(HttpResponseStatus.valueOf(odResponse.getStatusCode()));
+    for (Entry<String, List<String>> entry : odResponse.getAllHeaders().entrySet()) {
+      if (!HttpHeader.CONTENT_LENGTH.equalsIgnoreCase(entry.getKey())) {
+        ((HttpMessage) response).headers().add(entry.getKey(), entry.getValue());
+      }
+    }
+    ((HttpMessage) response).headers().set(HttpHeader.CONTENT_ENCODING, contentEncoding);
+    ((HttpMessage) response).headers().add(HttpHeader.VARY, HttpHeader.ACCEPT_ENCODING);
+    try (DeflaterOutputStream output = ContentEncoding.compress(
+        new ByteBufOutputStream(((HttpContent) response).content()), contentEncoding,
+        compressionSupport.getCompressionLevel())) {
+      if (odResponse.getContent() != null) {
+        copyContent(Channels.newChannel(odResponse.getContent()), Channels.newChannel(output));
+      } else {
+        odResponse.getODataContent().write(output);
+      }
+    } catch (IOException e) {
+      throw new ODataRuntimeException("Error on writing response content", e);
+    }
+  }
+
   /** 
    * Copy OData content to netty content
    * @param input
    * @param response
    */
   static void copyContent(final ReadableByteChannel input, final HttpResponse response) {
-    try (WritableByteChannel output = Channels.newChannel(new ByteBufOutputStream(((HttpContent)response).content()))){
+    copyContent(input, Channels.newChannel(new ByteBufOutputStream(((HttpContent)response).content())));
+  }
+
+  private static void copyContent(final ReadableByteChannel input, final WritableByteChannel channel) {
+    try (WritableByteChannel output = channel) {
         ByteBuffer inBuffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
         while (input.read(inBuffer) > 0) {
           inBuffer.flip();
@@ -169,7 +218,8 @@ public class ODataNettyHandlerImpl implements ODataNettyHandler {
 	    try {
 	    	ByteBuf byteBuf = ((HttpContent)httpRequest).content();
 	    	ByteBufInputStream inputStream = new ByteBufInputStream(byteBuf);
-	      odRequest.setBody(inputStream);
+	      odRequest.setBody(ContentEncoding.decompress(inputStream,
+	          httpRequest.headers().get(HttpHeader.CONTENT_ENCODING)));
 	      
 	      odRequest.setProtocol(httpRequest.protocolVersion().text());
 	      odRequest.setMethod(extractMethod(httpRequest));
@@ -181,6 +231,9 @@ public class ODataNettyHandlerImpl implements ODataNettyHandler {
 	      debugger.stopRuntimeMeasurement(innerHandle);
 
 	      return odRequest;
+	    } catch (final IOException e) {
+	      throw new DeserializerException("An I/O exception occurred.", e,
+	          DeserializerException.MessageKeys.IO_EXCEPTION);
 	    } finally {
 	      debugger.stopRuntimeMeasurement(requestHandle);
 	    }
@@ -318,7 +371,54 @@ public void processNettyRequest(HttpRequest request, HttpResponse response,
     }
     debugger.stopRuntimeMeasurement(processMethodHandle);
 
-    convertToHttp(response, odResponse);
+    final CompressionSupport compressionSupport = handler.getCompressionSupport();
+    final String contentEncoding = compressionSupport == null
+        || !ContentEncoding.isCompressible(odResponse, compressionSupport) ? null :
+        ContentEncoding.negotiate(request.headers().get(HttpHeader.ACCEPT_ENCODING));
+    final MetricsListener metricsListener = handler.getMetricsListener();
+    if (metricsListener == null) {
+      convertToHttp(response, odResponse, contentEncoding, compressionSupport);
+    } else {
+      final long start = System.nanoTime();
+      convertToHttp(response, odResponse, contentEncoding, compressionSupport);
+      metricsListener.phaseCompleted(Phase.RESPONSE_WRITING, System.nanoTime() - start);
+      if (response instanceof HttpContent) {
+        metricsListener.count(Counter.BYTES_WRITTEN, ((HttpContent) response).content().readableBytes());
+      }
+    }
+  }
+
+  @Override
+  public CompletableFuture<Void> processNettyRequest(final HttpRequest request, final HttpResponse response,
+      final Map<String, String> requestParameters, final Executor executor) {
+    final CompletableFuture<Void> result = new CompletableFuture<>();
+    // The caller usually releases the request once its channel handler returns.
+    final ByteBuf content = request instanceof HttpContent ? ((HttpContent) request).content().retain() : null;
+    final Runnable task = new Runnable() {
+      @Override
+      public void run() {
+        try {
+          processNettyRequest(request, response, requestParameters);
+          result.complete(null);
+        } catch (final Throwable e) {
+          result.completeExceptionally(e);
+        } finally {
+          if (content != null) {
+            content.release();
+          }
+        }
+      }
+    };
+    if (executor == null) {
+      task.run();
+    } else {
+      try {
+        executor.execute(task);
+      } catch (final RejectedExecutionException e) {
+        task.run();
+      }
+    }
+    return result;
   }
 
   public ODataResponse process(ODataRequest request) {
@@ -329,4 +429,9 @@ public void processNettyRequest(HttpRequest request, HttpResponse response,
   public void register(Processor processor) {
     handler.register(processor);
   }
+
+  @Override
+  public void register(OlingoExtension extension) {
+    handler.register(extension);
+  }
 }
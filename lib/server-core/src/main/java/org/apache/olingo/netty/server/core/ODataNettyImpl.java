@@ -20,6 +20,7 @@ package org.apache.olingo.netty.server.core;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
@@ -33,13 +34,16 @@ import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataHandler;
 import org.apache.olingo.server.api.ODataHttpHandler;
 import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.async.AsyncSupport;
 import org.apache.olingo.server.api.debug.DebugResponseHelper;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.deserializer.FixedFormatDeserializer;
 import org.apache.olingo.server.api.deserializer.ODataDeserializer;
 import org.apache.olingo.server.api.etag.ETagHelper;
 import org.apache.olingo.server.api.etag.ServiceMetadataETagSupport;
+import org.apache.olingo.server.api.paging.KeysetPagingHelper;
 import org.apache.olingo.server.api.prefer.Preferences;
+import org.apache.olingo.server.api.search.SearchIndex;
 import org.apache.olingo.server.api.serializer.EdmAssistedSerializer;
 import org.apache.olingo.server.api.serializer.EdmDeltaSerializer;
 import org.apache.olingo.server.api.serializer.FixedFormatSerializer;
@@ -140,6 +144,21 @@ public class ODataNettyImpl extends ODataNetty {
     return odata.createETagHelper();
   }
 
+  @Override
+  public KeysetPagingHelper createKeysetPagingHelper(byte[] secret) {
+    return odata.createKeysetPagingHelper(secret);
+  }
+
+  @Override
+  public SearchIndex createSearchIndex() {
+    return odata.createSearchIndex();
+  }
+
+  @Override
+  public AsyncSupport createAsyncSupport(Executor executor) {
+    return odata.createAsyncSupport(executor);
+  }
+
   @Override
   public Preferences createPreferences(Collection<String> preferHeaders) {
     return odata.createPreferences(preferHeaders);
@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.compression.CompressionSupport;
+import org.apache.olingo.server.api.compression.CompressionSupport.CompressedDocument;
+
+/**
+ * Handles the HTTP content codings <code>gzip</code> and <code>deflate</code>
+ * of request and response content.
+ */
+public final class ContentEncoding {
+
+  public static final String GZIP = "gzip";
+  public static final String DEFLATE = "deflate";
+  private static final String X_GZIP = "x-gzip";
+  private static final String IDENTITY = "identity";
+  private static final String ANY = "*";
+  private static final int BUFFER_SIZE = 8192;
+
+  private ContentEncoding() {}
+
+  /**
+   * Selects the content coding for the response from the value of the Accept-Encoding header.
+   * @param acceptEncoding the value of the Accept-Encoding header (may be <code>null</code>)
+   * @return {@link #GZIP}, {@link #DEFLATE}, or <code>null</code> if the content must not be compressed
+   */
+  public static String negotiate(final String acceptEncoding) {
+    if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+      return null;
+    }
+    double gzip = -1;
+    double deflate = -1;
+    double any = -1;
+    for (final String part : acceptEncoding.split(",")) {
+      final String[] parameters = part.split(";");
+      final String coding = parameters[0].trim().toLowerCase(Locale.ROOT);
+      double quality = 1;
+      for (int i = 1; i < parameters.length; i++) {
+        final String parameter = parameters[i].trim();
+        if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+          try {
+            quality = Double.parseDouble(parameter.substring(2).trim());
+          } catch (final NumberFormatException e) {
+            quality = 0;
+          }
+        }
+      }
+      if (GZIP.equals(coding) || X_GZIP.equals(coding)) {
+        gzip = Math.max(gzip, quality);
+      } else if (DEFLATE.equals(coding)) {
+        deflate = quality;
+      } else if (ANY.equals(coding)) {
+        any = quality;
+      }
+    }
+    if (gzip < 0) {
+      gzip = any;
+    }
+    if (deflate < 0) {
+      deflate = any;
+    }
+    if (gzip > 0 && gzip >= deflate) {
+      return GZIP;
+    } else if (deflate > 0) {
+      return DEFLATE;
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Determines whether the content of the response can be compressed.
+   * @param response the OData response
+   * @param compressionSupport the registered compression support
+   * @return whether the content can be compressed
+   */
+  public static boolean isCompressible(final ODataResponse response, final CompressionSupport compressionSupport) {
+    final int statusCode = response.getStatusCode();
+    return statusCode >= HttpStatusCode.OK.getStatusCode()
+        && statusCode != HttpStatusCode.NO_CONTENT.getStatusCode()
+        && statusCode != HttpStatusCode.NOT_MODIFIED.getStatusCode()
+        && (response.getContent() != null || response.getODataContent() != null)
+        && response.getHeader(HttpHeader.CONTENT_ENCODING) == null
+        && compressionSupport.isCompressible(response.getHeader(HttpHeader.CONTENT_TYPE));
+  }
+
+  /**
+   * Wraps the output stream so that written content is compressed.
+   * The caller has to call {@link DeflaterOutputStream#finish()} or {@link DeflaterOutputStream#close()}.
+   * @param output the output stream
+   * @param contentEncoding {@link #GZIP} or {@link #DEFLATE}
+   * @param compressionLevel the compression level
+   * @return the compressing stream
+   * @throws IOException if an I/O error occurs
+   */
+  public static DeflaterOutputStream compress(final OutputStream output, final String contentEncoding,
+      final int compressionLevel) throws IOException {
+    if (GZIP.equals(contentEncoding)) {
+      return new GZIPOutputStream(output, BUFFER_SIZE) {
+        {
+          def.setLevel(compressionLevel);
+        }
+      };
+    } else if (DEFLATE.equals(contentEncoding)) {
+      // A custom deflater is not ended by the stream itself.
+      return new DeflaterOutputStream(output, new Deflater(compressionLevel), BUFFER_SIZE) {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            def.end();
+          }
+        }
+      };
+    } else {
+      throw new IllegalArgumentException("Unsupported content coding " + contentEncoding);
+    }
+  }
+
+  /**
+   * Wraps the request body so that it is decompressed according to the Content-Encoding header.
+   * @param body the request body
+   * @param contentEncoding the value of the Content-Encoding header (may be <code>null</code>)
+   * @return the decompressing stream
+   * @throws ODataHandlerException if a content coding is not supported
+   * @throws IOException if the body could not be read
+   */
+  public static InputStream decompress(final InputStream body, final String contentEncoding)
+      throws ODataHandlerException, IOException {
+    if (body == null || contentEncoding == null || contentEncoding.trim().isEmpty()) {
+      return body;
+    }
+    InputStream result = body;
+    // Codings are listed in the order in which they have been applied.
+    final String[] codings = contentEncoding.split(",");
+    for (int i = codings.length - 1; i >= 0; i--) {
+      final String coding = codings[i].trim().toLowerCase(Locale.ROOT);
+      if (GZIP.equals(coding) || X_GZIP.equals(coding)) {
+        result = new GZIPInputStream(result, BUFFER_SIZE);
+      } else if (DEFLATE.equals(coding)) {
+        result = new InflaterInputStream(result);
+      } else if (!IDENTITY.equals(coding) && !coding.isEmpty()) {
+        throw new ODataHandlerException("Unsupported content coding " + coding,
+            ODataHandlerException.MessageKeys.UNSUPPORTED_CONTENT_ENCODING, coding);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the key under which the compressed response to the request can be cached, if the request is an
+   * unconditional GET request of the metadata document or the service document.
+   * @param request the OData request
+   * @param contentEncoding the negotiated content coding
+   * @return the cache key or <code>null</code> if the response must not be cached
+   */
+  public static String getDocumentCacheKey(final ODataRequest request, final String contentEncoding) {
+    if (request.getMethod() != HttpMethod.GET
+        || request.getHeader(HttpHeader.IF_MATCH) != null
+        || request.getHeader(HttpHeader.IF_NONE_MATCH) != null
+        || request.getHeader(HttpHeader.IF_MODIFIED_SINCE) != null
+        || request.getHeader(HttpHeader.IF_UNMODIFIED_SINCE) != null) {
+      return null;
+    }
+    final String path = request.getRawODataPath();
+    if (path != null && !path.isEmpty() && !"/".equals(path) && !"/$metadata".equals(path)
+        && !"$metadata".equals(path)) {
+      return null;
+    }
+    return contentEncoding + '\n' + request.getRawBaseUri() + '\n' + path + '\n' + request.getRawQueryPath()
+        + '\n' + request.getHeader(HttpHeader.ACCEPT) + '\n' + request.getHeader(HttpHeader.ACCEPT_CHARSET)
+        + '\n' + request.getHeader(HttpHeader.ODATA_MAX_VERSION);
+  }
+
+  /**
+   * Compresses the complete content of the response into a document which can be cached.
+   * @param response the OData response
+   * @param contentEncoding the content coding
+   * @param compressionLevel the compression level
+   * @return the compressed document
+   * @throws IOException if an I/O error occurs
+   */
+  public static CompressedDocument createDocument(final ODataResponse response, final String contentEncoding,
+      final int compressionLevel) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DeflaterOutputStream output = compress(bytes, contentEncoding, compressionLevel)) {
+      if (response.getContent() != null) {
+        final InputStream input = response.getContent();
+        try {
+          final byte[] buffer = new byte[BUFFER_SIZE];
+          int count;
+          while ((count = input.read(buffer)) > 0) {
+            output.write(buffer, 0, count);
+          }
+        } finally {
+          input.close();
+        }
+      } else {
+        response.getODataContent().write(Channels.newChannel(output));
+      }
+    }
+    final Map<String, List<String>> headers = new LinkedHashMap<>();
+    for (final Entry<String, List<String>> header : response.getAllHeaders().entrySet()) {
+      if (!HttpHeader.CONTENT_LENGTH.equalsIgnoreCase(header.getKey())) {
+        headers.put(header.getKey(), new ArrayList<>(header.getValue()));
+      }
+    }
+    addEncodingHeaders(headers, contentEncoding);
+    headers.put(HttpHeader.CONTENT_LENGTH, singleton(Integer.toString(bytes.size())));
+    return new CompressedDocument(response.getStatusCode(), headers, bytes.toByteArray());
+  }
+
+  /**
+   * Adds the Content-Encoding header and the Vary header to the given headers.
+   * @param headers the response headers
+   * @param contentEncoding the content coding
+   */
+  public static void addEncodingHeaders(final Map<String, List<String>> headers, final String contentEncoding) {
+    headers.put(HttpHeader.CONTENT_ENCODING, singleton(contentEncoding));
+    List<String> vary = headers.get(HttpHeader.VARY);
+    if (vary == null) {
+      vary = new ArrayList<>();
+      headers.put(HttpHeader.VARY, vary);
+    }
+    vary.add(HttpHeader.ACCEPT_ENCODING);
+  }
+
+  private static List<String> singleton(final String value) {
+    final List<String> list = new ArrayList<>(1);
+    list.add(value);
+    return list;
+  }
+}
@@ -23,8 +23,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import org.apache.olingo.commons.api.format.AcceptCharset;
 import org.apache.olingo.commons.api.format.AcceptType;
@@ -53,22 +53,44 @@ public final class ContentNegotiator {
           ContentType.JSON_FULL_METADATA,
           ContentType.APPLICATION_ATOM_XML,
           ContentType.APPLICATION_XML));
+  private static final List<ContentType> METADATA_SUPPORTED_CONTENT_TYPES =
+      Collections.unmodifiableList(Arrays.asList(ContentType.APPLICATION_XML, ContentType.APPLICATION_JSON));
+  private static final List<ContentType> BINARY_SUPPORTED_CONTENT_TYPES =
+      Collections.singletonList(ContentType.APPLICATION_OCTET_STREAM);
+  private static final List<ContentType> TEXT_SUPPORTED_CONTENT_TYPES =
+      Collections.singletonList(ContentType.TEXT_PLAIN);
+  private static final List<ContentType> BATCH_SUPPORTED_CONTENT_TYPES =
+      Collections.singletonList(ContentType.MULTIPART_MIXED);
+
+  /**
+   * Upper bound for the number of entries in each of the caches below; a full cache is cleared.
+   * Clients normally send only a handful of distinct header values.
+   */
+  private static final int MAX_CACHE_SIZE = 256;
+  /** Parsed Accept header values, keyed by the raw header value. */
+  private static final Map<String, List<AcceptType>> ACCEPT_TYPES = new ConcurrentHashMap<>();
+  /** Parsed Accept-Charset header values, keyed by the raw header value. */
+  private static final Map<String, List<AcceptCharset>> ACCEPT_CHARSETS = new ConcurrentHashMap<>();
+  /**
+   * Negotiated content types for the default supported content types,
+   * keyed by representation type, $format value, Accept, and Accept-Charset header values.
+   */
+  private static final Map<String, ContentType> NEGOTIATED = new ConcurrentHashMap<>();
 
   private ContentNegotiator() {}
 
   private static List<ContentType> getDefaultSupportedContentTypes(final RepresentationType type) {
     switch (type) {
     case METADATA:
-      return Collections.unmodifiableList(Arrays.asList(ContentType.APPLICATION_XML,
-          ContentType.APPLICATION_JSON));
+      return METADATA_SUPPORTED_CONTENT_TYPES;
     case MEDIA:
     case BINARY:
-      return Collections.singletonList(ContentType.APPLICATION_OCTET_STREAM);
+      return BINARY_SUPPORTED_CONTENT_TYPES;
     case VALUE:
     case COUNT:
-      return Collections.singletonList(ContentType.TEXT_PLAIN);
+      return TEXT_SUPPORTED_CONTENT_TYPES;
     case BATCH:
-      return Collections.singletonList(ContentType.MULTIPART_MIXED);
+      return BATCH_SUPPORTED_CONTENT_TYPES;
     default:
       return DEFAULT_SUPPORTED_CONTENT_TYPES;
     }
@@ -91,14 +113,67 @@ public final class ContentNegotiator {
   public static ContentType doContentNegotiation(final FormatOption formatOption, final ODataRequest request,
       final CustomContentTypeSupport customContentTypeSupport, final RepresentationType representationType)
           throws ContentNegotiatorException {
-    final List<ContentType> supportedContentTypes =
-        getSupportedContentTypes(customContentTypeSupport, representationType);
-    final List<String> acceptHeaderValueList = request.getHeaders(HttpHeader.ACCEPT);
-    final String acceptHeaderValue = acceptHeaderValueList != null ? 
-    		acceptHeaderValueList.stream().collect(Collectors.joining(", ")) : null;
-    List<String> acceptCharsetValueList = request.getHeaders(HttpHeader.ACCEPT_CHARSET);
-    String acceptCharset = acceptCharsetValueList != null ? 
-    		acceptCharsetValueList.stream().collect(Collectors.joining(", ")) : null;
+    final String acceptHeaderValue = joinHeaderValues(request.getHeaders(HttpHeader.ACCEPT));
+    final String acceptCharset = joinHeaderValues(request.getHeaders(HttpHeader.ACCEPT_CHARSET));
+    final String format = formatOption == null ? null : formatOption.getFormat();
+
+    // The result only depends on the header values if the supported content types are the default ones.
+    final String key = customContentTypeSupport == null ?
+        representationType.name() + keyPart(format) + keyPart(acceptHeaderValue) + keyPart(acceptCharset) :
+        null;
+    ContentType result = key == null ? null : NEGOTIATED.get(key);
+    if (result == null) {
+      result = doContentNegotiation(formatOption, acceptHeaderValue, acceptCharset,
+          getSupportedContentTypes(customContentTypeSupport, representationType), representationType);
+      if (key != null) {
+        cache(NEGOTIATED, key, result);
+      }
+    }
+    return result;
+  }
+
+  /** Encodes a value for a cache key; the length prefix keeps absent, empty, and all other values apart. */
+  private static String keyPart(final String value) {
+    return value == null ? "/" : "/" + value.length() + ':' + value;
+  }
+
+  private static <T> void cache(final Map<String, T> cache, final String key, final T value) {
+    if (cache.size() >= MAX_CACHE_SIZE) {
+      cache.clear();
+    }
+    cache.put(key, value);
+  }
+
+  private static String joinHeaderValues(final List<String> values) {
+    if (values == null) {
+      return null;
+    } else if (values.size() == 1) {
+      return values.get(0);
+    } else {
+      final StringBuilder result = new StringBuilder();
+      for (final String value : values) {
+        if (result.length() > 0) {
+          result.append(", ");
+        }
+        result.append(value);
+      }
+      return result.toString();
+    }
+  }
+
+  private static List<AcceptType> getAcceptTypes(final String acceptHeaderValue) {
+    List<AcceptType> types = ACCEPT_TYPES.get(acceptHeaderValue);
+    if (types == null) {
+      types = Collections.unmodifiableList(AcceptType.create(acceptHeaderValue));
+      cache(ACCEPT_TYPES, acceptHeaderValue, types);
+    }
+    return types;
+  }
+
+  private static ContentType doContentNegotiation(final FormatOption formatOption,
+      final String acceptHeaderValue, final String acceptCharset,
+      final List<ContentType> supportedContentTypes, final RepresentationType representationType)
+          throws ContentNegotiatorException {
     List<AcceptCharset> charsets = null;
       
     ContentType result = null;
@@ -148,7 +223,7 @@ public final class ContentNegotiator {
     } else if (acceptHeaderValue != null) {
       charsets = getAcceptCharset(acceptCharset);
       try {
-        result = getAcceptedType(AcceptType.create(acceptHeaderValue), 
+        result = getAcceptedType(getAcceptTypes(acceptHeaderValue),
             supportedContentTypes, charsets);
       } catch (final IllegalArgumentException e) {
         throw new AcceptHeaderContentNegotiatorException(e.getMessage(), e,
@@ -156,7 +231,7 @@ public final class ContentNegotiator {
             e.getMessage().substring(e.getMessage().lastIndexOf(COLON) + 1));
       } 
       if (result == null) {
-        List<AcceptType> types = AcceptType.create(acceptHeaderValue);
+        List<AcceptType> types = getAcceptTypes(acceptHeaderValue);
         throw new ContentNegotiatorException(
             "The combination of type and subtype " + types.get(0) +
             " != " + supportedContentTypes,
@@ -189,7 +264,11 @@ public final class ContentNegotiator {
     List<AcceptCharset> charsets = null;
     if (acceptCharset != null) {
       try {
-        charsets = AcceptCharset.create(acceptCharset); 
+        charsets = ACCEPT_CHARSETS.get(acceptCharset);
+        if (charsets == null) {
+          charsets = Collections.unmodifiableList(AcceptCharset.create(acceptCharset));
+          cache(ACCEPT_CHARSETS, acceptCharset, charsets);
+        }
       } catch (UnsupportedCharsetException e) {
         throw new ContentNegotiatorException(e.getMessage(), e,
             ContentNegotiatorException.MessageKeys.UNSUPPORTED_ACCEPT_CHARSET, 
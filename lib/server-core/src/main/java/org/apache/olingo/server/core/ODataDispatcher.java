@@ -38,7 +38,10 @@ import org.apache.olingo.server.api.ODataLibraryException;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.etag.CustomETagSupport;
+import org.apache.olingo.server.api.etag.ETagProvider;
 import org.apache.olingo.server.api.etag.PreconditionException;
+import org.apache.olingo.server.api.metrics.MetricsListener;
+import org.apache.olingo.server.api.metrics.MetricsListener.Phase;
 import org.apache.olingo.server.api.processor.ActionComplexCollectionProcessor;
 import org.apache.olingo.server.api.processor.ActionComplexProcessor;
 import org.apache.olingo.server.api.processor.ActionEntityCollectionProcessor;
@@ -62,6 +65,7 @@ import org.apache.olingo.server.api.processor.PrimitiveValueProcessor;
 import org.apache.olingo.server.api.processor.ReferenceCollectionProcessor;
 import org.apache.olingo.server.api.processor.ReferenceProcessor;
 import org.apache.olingo.server.api.processor.ServiceDocumentProcessor;
+import org.apache.olingo.server.api.serializer.CustomContentTypeSupport;
 import org.apache.olingo.server.api.serializer.RepresentationType;
 import org.apache.olingo.server.api.uri.UriInfo;
 import org.apache.olingo.server.api.uri.UriResource;
@@ -73,8 +77,10 @@ import org.apache.olingo.server.api.uri.UriResourcePartTyped;
 import org.apache.olingo.server.api.uri.UriResourcePrimitiveProperty;
 import org.apache.olingo.server.api.uri.UriResourceProperty;
 import org.apache.olingo.server.api.uri.UriResourceSingleton;
+import org.apache.olingo.server.api.uri.queryoption.FormatOption;
 import org.apache.olingo.server.core.batchhandler.BatchHandler;
 import org.apache.olingo.server.core.etag.PreconditionsValidator;
+import org.apache.olingo.server.core.etag.ProvidedETagValidator;
 
 public class ODataDispatcher {
 
@@ -95,7 +101,7 @@ public class ODataDispatcher {
     switch (uriInfo.getKind()) {
     case metadata:
       checkMethods(request.getMethod(), HttpMethod.GET, HttpMethod.HEAD);
-      final ContentType requestedContentType = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
+      final ContentType requestedContentType = doContentNegotiation(uriInfo.getFormatOption(),
           request, handler.getCustomContentTypeSupport(), RepresentationType.METADATA);
       handler.selectProcessor(MetadataProcessor.class)
           .readMetadata(request, response, uriInfo, requestedContentType);
@@ -107,7 +113,7 @@ public class ODataDispatcher {
         handler.selectProcessor(RedirectProcessor.class)
             .redirect(request, response);
       } else {
-        final ContentType serviceContentType = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
+        final ContentType serviceContentType = doContentNegotiation(uriInfo.getFormatOption(),
             request, handler.getCustomContentTypeSupport(), RepresentationType.SERVICE);
         handler.selectProcessor(ServiceDocumentProcessor.class)
             .readServiceDocument(request, response, uriInfo, serviceContentType);
@@ -116,7 +122,9 @@ public class ODataDispatcher {
 
     case resource:
     case entityId:
-      handleResourceDispatching(request, response);
+      if (!isPreconditionHandled(request, response)) {
+        handleResourceDispatching(request, response);
+      }
       break;
 
     case batch:
@@ -230,7 +238,7 @@ public class ODataDispatcher {
       ContentType responseFormat;
       switch (returnType.getType().getKind()) {
       case ENTITY:
-        responseFormat = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
+        responseFormat = doContentNegotiation(uriInfo.getFormatOption(),
             request, handler.getCustomContentTypeSupport(),
             isCollection ? RepresentationType.COLLECTION_ENTITY : RepresentationType.ENTITY);
         if (isCollection) {
@@ -243,7 +251,7 @@ public class ODataDispatcher {
         break;
 
       case PRIMITIVE:
-        responseFormat = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
+        responseFormat = doContentNegotiation(uriInfo.getFormatOption(),
             request, handler.getCustomContentTypeSupport(),
             isCollection ? RepresentationType.COLLECTION_PRIMITIVE : RepresentationType.PRIMITIVE);
         if (isCollection) {
@@ -256,7 +264,7 @@ public class ODataDispatcher {
         break;
 
       case COMPLEX:
-        responseFormat = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
+        responseFormat = doContentNegotiation(uriInfo.getFormatOption(),
             request, handler.getCustomContentTypeSupport(),
             isCollection ? RepresentationType.COLLECTION_COMPLEX : RepresentationType.COMPLEX);
         if (isCollection) {
@@ -284,7 +292,7 @@ public class ODataDispatcher {
 
     if (isCollection && httpMethod == HttpMethod.GET) {
       validatePreferHeader(request);
-      final ContentType responseFormat = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
+      final ContentType responseFormat = doContentNegotiation(uriInfo.getFormatOption(),
           request, handler.getCustomContentTypeSupport(), RepresentationType.COLLECTION_REFERENCE);
       handler.selectProcessor(ReferenceCollectionProcessor.class)
           .readReferenceCollection(request, response, uriInfo, responseFormat);
@@ -297,7 +305,7 @@ public class ODataDispatcher {
 
     } else if (!isCollection && httpMethod == HttpMethod.GET) {
       validatePreferHeader(request);
-      final ContentType responseFormat = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
+      final ContentType responseFormat = doContentNegotiation(uriInfo.getFormatOption(),
           request, handler.getCustomContentTypeSupport(), RepresentationType.REFERENCE);
       handler.selectProcessor(ReferenceProcessor.class).readReference(request, response, uriInfo, responseFormat);
 
@@ -338,8 +346,7 @@ public class ODataDispatcher {
     validatePreferHeader(request);
     if (method == HttpMethod.GET) {
       // This can be a GET on an EntitySet, Navigation or Function
-      final ContentType requestedContentType = ContentNegotiator.
-          doContentNegotiation(uriInfo.getFormatOption(),
+      final ContentType requestedContentType = doContentNegotiation(uriInfo.getFormatOption(),
           request, handler.getCustomContentTypeSupport(), RepresentationType.MEDIA);
       handler.selectProcessor(MediaEntityProcessor.class)
           .readMediaEntity(request, response, uriInfo, requestedContentType);
@@ -348,7 +355,7 @@ public class ODataDispatcher {
         || isSingletonMedia(resource))) {
       validatePreconditions(request, true);
       final ContentType requestFormat = ContentType.parse(request.getHeader(HttpHeader.CONTENT_TYPE));
-      final ContentType responseFormat = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
+      final ContentType responseFormat = doContentNegotiation(uriInfo.getFormatOption(),
           request, handler.getCustomContentTypeSupport(), RepresentationType.ENTITY);
       handler.selectProcessor(MediaEntityProcessor.class)
           .updateMediaEntity(request, response, uriInfo, requestFormat, responseFormat);
@@ -373,8 +380,7 @@ public class ODataDispatcher {
             RepresentationType.BINARY : RepresentationType.VALUE;
     if (method == HttpMethod.GET) {
       validatePreferHeader(request);
-      final ContentType requestedContentType = ContentNegotiator.
-          doContentNegotiation(uriInfo.getFormatOption(),
+      final ContentType requestedContentType = doContentNegotiation(uriInfo.getFormatOption(),
           request, handler.getCustomContentTypeSupport(), valueRepresentationType);
 
       handler.selectProcessor(PrimitiveValueProcessor.class)
@@ -383,7 +389,7 @@ public class ODataDispatcher {
       validatePreconditions(request, false);
       final ContentType requestFormat = getSupportedContentType(request.getHeader(HttpHeader.CONTENT_TYPE),
           valueRepresentationType, true);
-      final ContentType responseFormat = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
+      final ContentType responseFormat = doContentNegotiation(uriInfo.getFormatOption(),
           request, handler.getCustomContentTypeSupport(), valueRepresentationType);
       handler.selectProcessor(PrimitiveValueProcessor.class)
           .updatePrimitiveValue(request, response, uriInfo, requestFormat, responseFormat);
@@ -404,7 +410,7 @@ public class ODataDispatcher {
         : RepresentationType.COMPLEX;
     if (method == HttpMethod.GET) {
       validatePreferHeader(request);
-      final ContentType requestedContentType = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
+      final ContentType requestedContentType = doContentNegotiation(uriInfo.getFormatOption(),
           request, handler.getCustomContentTypeSupport(), complexRepresentationType);
       if (isCollection) {
         handler.selectProcessor(ComplexCollectionProcessor.class)
@@ -418,7 +424,7 @@ public class ODataDispatcher {
       validatePreconditions(request, false);
       final ContentType requestFormat = getSupportedContentType(request.getHeader(HttpHeader.CONTENT_TYPE),
           complexRepresentationType, true);
-      final ContentType responseFormat = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
+      final ContentType responseFormat = doContentNegotiation(uriInfo.getFormatOption(),
           request, handler.getCustomContentTypeSupport(), complexRepresentationType);
       if (isCollection) {
         handler.selectProcessor(ComplexCollectionProcessor.class)
@@ -449,7 +455,7 @@ public class ODataDispatcher {
         : RepresentationType.PRIMITIVE;
     if (method == HttpMethod.GET) {
       validatePreferHeader(request);
-      final ContentType requestedContentType = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
+      final ContentType requestedContentType = doContentNegotiation(uriInfo.getFormatOption(),
           request, handler.getCustomContentTypeSupport(), representationType);
       if (isCollection) {
         handler.selectProcessor(PrimitiveCollectionProcessor.class)
@@ -472,7 +478,7 @@ public class ODataDispatcher {
     	  requestFormat = getSupportedContentType(request.getHeader(HttpHeader.CONTENT_TYPE),
     	          representationType, true);
       }
-      final ContentType responseFormat = ContentNegotiator.doContentNegotiation(uriInfo.getFormatOption(),
+      final ContentType responseFormat = doContentNegotiation(uriInfo.getFormatOption(),
           request, handler.getCustomContentTypeSupport(), representationType);
       if (isCollection) {
         handler.selectProcessor(PrimitiveCollectionProcessor.class)
@@ -534,14 +540,12 @@ public class ODataDispatcher {
     final HttpMethod method = request.getMethod();
     if (method == HttpMethod.GET) {
       validatePreferHeader(request);
-      final ContentType requestedContentType = ContentNegotiator.
-          doContentNegotiation(uriInfo.getFormatOption(),
+      final ContentType requestedContentType = doContentNegotiation(uriInfo.getFormatOption(),
           request, handler.getCustomContentTypeSupport(), RepresentationType.COLLECTION_ENTITY);
       handler.selectProcessor(EntityCollectionProcessor.class)
           .readEntityCollection(request, response, uriInfo, requestedContentType);
     } else if (method == HttpMethod.POST) {
-      final ContentType responseFormat = ContentNegotiator.
-          doContentNegotiation(uriInfo.getFormatOption(),
+      final ContentType responseFormat = doContentNegotiation(uriInfo.getFormatOption(),
           request, handler.getCustomContentTypeSupport(), RepresentationType.ENTITY);
       if (isMedia) {
         validatePreferHeader(request);
@@ -573,8 +577,7 @@ public class ODataDispatcher {
           final ContentType requestFormat = getSupportedContentType(
               request.getHeader(HttpHeader.CONTENT_TYPE),
               RepresentationType.ENTITY, true);
-          final ContentType responseFormat = ContentNegotiator.
-              doContentNegotiation(uriInfo.getFormatOption(),
+          final ContentType responseFormat = doContentNegotiation(uriInfo.getFormatOption(),
               request, handler.getCustomContentTypeSupport(), RepresentationType.ENTITY);
           handler.selectProcessor(EntityProcessor.class)
               .updateEntity(request, response, uriInfo, requestFormat, responseFormat);
@@ -614,8 +617,7 @@ public class ODataDispatcher {
       final HttpMethod method = request.getMethod();
       if (method == HttpMethod.GET) {
         validatePreferHeader(request);
-        final ContentType requestedContentType = ContentNegotiator.
-            doContentNegotiation(uriInfo.getFormatOption(),
+        final ContentType requestedContentType = doContentNegotiation(uriInfo.getFormatOption(),
             request, handler.getCustomContentTypeSupport(), RepresentationType.ENTITY);
         handler.selectProcessor(EntityProcessor.class)
             .readEntity(request, response, uriInfo, requestedContentType);
@@ -627,8 +629,7 @@ public class ODataDispatcher {
         final ContentType requestFormat = getSupportedContentType(
             request.getHeader(HttpHeader.CONTENT_TYPE),
             RepresentationType.ENTITY, true);
-        final ContentType responseFormat = ContentNegotiator.
-            doContentNegotiation(uriInfo.getFormatOption(),
+        final ContentType responseFormat = doContentNegotiation(uriInfo.getFormatOption(),
             request, handler.getCustomContentTypeSupport(), RepresentationType.ENTITY);
         handler.selectProcessor(EntityProcessor.class)
             .updateEntity(request, response, uriInfo, requestFormat, responseFormat);
@@ -675,6 +676,13 @@ public class ODataDispatcher {
     }
   }
 
+  private boolean isPreconditionHandled(final ODataRequest request, final ODataResponse response)
+      throws PreconditionException {
+    // Answer conditional requests without a processor if the application knows the current ETag.
+    final ETagProvider eTagProvider = handler.getETagProvider();
+    return eTagProvider != null && new ProvidedETagValidator(eTagProvider, uriInfo).validate(request, response);
+  }
+
   private void checkMethod(final HttpMethod requestMethod, final HttpMethod allowedMethod)
       throws ODataHandlerException {
     if (requestMethod != allowedMethod) {
@@ -699,6 +707,23 @@ public class ODataDispatcher {
         ODataHandlerException.MessageKeys.HTTP_METHOD_NOT_ALLOWED, httpMethod.toString());
   }
 
+  private ContentType doContentNegotiation(final FormatOption formatOption, final ODataRequest request,
+      final CustomContentTypeSupport customContentTypeSupport, final RepresentationType representationType)
+      throws ContentNegotiatorException {
+    final MetricsListener metricsListener = handler.getMetricsListener();
+    if (metricsListener == null) {
+      return ContentNegotiator.doContentNegotiation(formatOption, request, customContentTypeSupport,
+          representationType);
+    }
+    final long start = System.nanoTime();
+    try {
+      return ContentNegotiator.doContentNegotiation(formatOption, request, customContentTypeSupport,
+          representationType);
+    } finally {
+      metricsListener.phaseCompleted(Phase.CONTENT_NEGOTIATION, System.nanoTime() - start);
+    }
+  }
+
   private ContentType getSupportedContentType(final String contentTypeHeader,
       final RepresentationType representationType, final boolean mustNotBeNull)
       throws ODataHandlerException, ContentNegotiatorException {
@@ -46,7 +46,9 @@ public class ODataHandlerException extends ODataLibraryException {
     /** parameter: prefer header */
     INVALID_PREFER_HEADER,
     /** invalid payload */
-    INVALID_PAYLOAD;
+    INVALID_PAYLOAD,
+    /** parameter: content coding */
+    UNSUPPORTED_CONTENT_ENCODING;
 
     @Override
     public String getKey() {
@@ -18,8 +18,13 @@
  */
 package org.apache.olingo.server.core;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.olingo.commons.api.edm.constants.ODataServiceVersion;
 import org.apache.olingo.commons.api.ex.ODataRuntimeException;
@@ -35,9 +40,15 @@ import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.OlingoExtension;
 import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.compression.CompressionSupport;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.etag.CustomETagSupport;
+import org.apache.olingo.server.api.etag.ETagProvider;
 import org.apache.olingo.server.api.etag.PreconditionException;
+import org.apache.olingo.server.api.metrics.MetricsListener;
+import org.apache.olingo.server.api.metrics.MetricsListener.Counter;
+import org.apache.olingo.server.api.metrics.MetricsListener.Phase;
+import org.apache.olingo.server.api.paging.SkipTokenException;
 import org.apache.olingo.server.api.processor.DefaultProcessor;
 import org.apache.olingo.server.api.processor.ErrorProcessor;
 import org.apache.olingo.server.api.processor.Processor;
@@ -47,6 +58,7 @@ import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.uri.UriInfo;
 import org.apache.olingo.server.api.uri.queryoption.FormatOption;
 import org.apache.olingo.server.api.uri.queryoption.SystemQueryOptionKind;
+import org.apache.olingo.server.core.async.AsyncSupportImpl;
 import org.apache.olingo.server.core.debug.ServerCoreDebugger;
 import org.apache.olingo.server.core.uri.parser.Parser;
 import org.apache.olingo.server.core.uri.parser.UriParserException;
@@ -62,13 +74,23 @@ import org.apache.olingo.server.core.uri.validator.UriValidator;
  */
 public class ODataHandlerImpl implements ODataHandler {
 
+  /** Processor interfaces implemented by a processor class, computed once per class. */
+  private static final Map<Class<?>, List<Class<?>>> PROCESSOR_INTERFACES = new ConcurrentHashMap<>();
+
   private final OData odata;
   private final ServiceMetadata serviceMetadata;
   private final List<Processor> processors = new LinkedList<>();
+  /** The processor to use for each processor interface, resolved at registration time. */
+  private final Map<Class<?>, Processor> processorTable = new HashMap<>();
   private final ServerCoreDebugger debugger;
 
   private CustomContentTypeSupport customContentTypeSupport;
   private CustomETagSupport customETagSupport;
+  private ETagProvider eTagProvider;
+  private MetricsListener metricsListener;
+  private CompressionSupport compressionSupport;
+  private AsyncSupportImpl asyncSupport;
+  private int nestingLevel;
 
   private UriInfo uriInfo;
   private Exception lastThrownException;
@@ -83,8 +105,25 @@ public class ODataHandlerImpl implements ODataHandler {
   }
 
   public ODataResponse process(final ODataRequest request) {
+    // Requests within a batch request are never processed asynchronously on their own.
+    if (asyncSupport != null && nestingLevel == 0) {
+      final ODataResponse asyncResponse = asyncSupport.handle(this, request);
+      if (asyncResponse != null) {
+        return asyncResponse;
+      }
+    }
+    nestingLevel++;
+    try {
+      return processRequest(request);
+    } finally {
+      nestingLevel--;
+    }
+  }
+
+  private ODataResponse processRequest(final ODataRequest request) {
     ODataResponse response = new ODataResponse();
     final int responseHandle = debugger.startRuntimeMeasurement("ODataHandler", "process");
+    final long start = metricsListener == null ? 0 : System.nanoTime();
     try {
       processInternal(request, response);
     } catch (final UriValidationException e) {
@@ -114,6 +153,9 @@ public class ODataHandlerImpl implements ODataHandler {
     } catch (PreconditionException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
       handleException(request, response, serverError, e);
+    } catch (SkipTokenException e) {
+      ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
+      handleException(request, response, serverError, e);
     } catch (ODataHandlerException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
       handleException(request, response, serverError, e);
@@ -125,6 +167,10 @@ public class ODataHandlerImpl implements ODataHandler {
       handleException(request, response, serverError, e);
     }
     debugger.stopRuntimeMeasurement(responseHandle);
+    if (metricsListener != null) {
+      metricsListener.phaseCompleted(Phase.REQUEST, System.nanoTime() - start);
+      metricsListener.count(Counter.REQUESTS, 1);
+    }
     return response;
   }
 
@@ -142,15 +188,18 @@ public class ODataHandlerImpl implements ODataHandler {
     }
 
     final int measurementUriParser = debugger.startRuntimeMeasurement("Parser", "parseUri");
+    long start = metricsListener == null ? 0 : System.nanoTime();
     try {
       uriInfo = new Parser(serviceMetadata.getEdm(), odata)
           .parseUri(request.getRawODataPath(), request.getRawQueryPath(), null, request.getRawBaseUri());
     } catch (final ODataLibraryException e) {
       debugger.stopRuntimeMeasurement(measurementUriParser);
       debugger.stopRuntimeMeasurement(measurementHandle);
+      phaseCompleted(Phase.URI_PARSING, start);
       throw e;
     }
     debugger.stopRuntimeMeasurement(measurementUriParser);
+    start = phaseCompleted(Phase.URI_PARSING, start);
 
     final int measurementUriValidator = debugger.startRuntimeMeasurement("UriValidator", "validate");
     final HttpMethod method = request.getMethod();
@@ -159,9 +208,11 @@ public class ODataHandlerImpl implements ODataHandler {
     } catch (final UriValidationException e) {
       debugger.stopRuntimeMeasurement(measurementUriValidator);
       debugger.stopRuntimeMeasurement(measurementHandle);
+      phaseCompleted(Phase.URI_VALIDATION, start);
       throw e;
     }
     debugger.stopRuntimeMeasurement(measurementUriValidator);
+    start = phaseCompleted(Phase.URI_VALIDATION, start);
 
     final int measurementDispatcher = debugger.startRuntimeMeasurement("ODataDispatcher", "dispatch");
     try {
@@ -169,9 +220,25 @@ public class ODataHandlerImpl implements ODataHandler {
     } finally {
       debugger.stopRuntimeMeasurement(measurementDispatcher);
       debugger.stopRuntimeMeasurement(measurementHandle);
+      phaseCompleted(Phase.DISPATCH, start);
     }
   }
 
+  /**
+   * Reports the completion of a phase to the registered metrics listener, if any.
+   * @param phase the completed phase
+   * @param start the start of the phase as returned by {@link System#nanoTime()}
+   * @return the end of the phase which can be used as start of the next phase, or 0 without metrics listener
+   */
+  private long phaseCompleted(final Phase phase, final long start) {
+    if (metricsListener == null) {
+      return 0;
+    }
+    final long end = System.nanoTime();
+    metricsListener.phaseCompleted(phase, end - start);
+    return end;
+  }
+
   public void handleException(final ODataRequest request, final ODataResponse response,
       final ODataServerError serverError, final Exception exception) {
     final int measurementHandle = debugger.startRuntimeMeasurement("ODataHandler", "handleException");
@@ -194,9 +261,14 @@ public class ODataHandlerImpl implements ODataHandler {
       requestedContentType = ContentType.JSON;
     }
     final int measurementError = debugger.startRuntimeMeasurement("ErrorProcessor", "processError");
+    final long start = metricsListener == null ? 0 : System.nanoTime();
     exceptionProcessor.processError(request, response, serverError, requestedContentType);
     debugger.stopRuntimeMeasurement(measurementError);
     debugger.stopRuntimeMeasurement(measurementHandle);
+    if (metricsListener != null) {
+      phaseCompleted(Phase.ERROR_PROCESSING, start);
+      metricsListener.count(Counter.ERRORS, 1);
+    }
   }
 
   /**
@@ -245,32 +317,95 @@ public class ODataHandlerImpl implements ODataHandler {
   }
 
   <T extends Processor> T selectProcessor(final Class<T> cls) throws ODataHandlerException {
-    for (final Processor processor : processors) {
-      if (cls.isAssignableFrom(processor.getClass())) {
-        processor.init(odata, serviceMetadata);
-        return cls.cast(processor);
+    Processor selected = processorTable.get(cls);
+    if (selected == null) {
+      for (final Processor processor : processors) {
+        if (cls.isAssignableFrom(processor.getClass())) {
+          selected = processor;
+          break;
+        }
       }
     }
-    throw new ODataHandlerException("Processor: " + cls.getSimpleName() + " not registered.",
-        ODataHandlerException.MessageKeys.PROCESSOR_NOT_IMPLEMENTED, cls.getSimpleName());
+    if (selected == null) {
+      throw new ODataHandlerException("Processor: " + cls.getSimpleName() + " not registered.",
+          ODataHandlerException.MessageKeys.PROCESSOR_NOT_IMPLEMENTED, cls.getSimpleName());
+    }
+    selected.init(odata, serviceMetadata);
+    return cls.cast(selected);
   }
 
   public void register(final Processor processor) {
     processors.add(0, processor);
+    // The last registered processor wins, as in the list above.
+    for (final Class<?> processorInterface : getProcessorInterfaces(processor.getClass())) {
+      processorTable.put(processorInterface, processor);
+    }
+  }
+
+  private static List<Class<?>> getProcessorInterfaces(final Class<?> processorClass) {
+    List<Class<?>> result = PROCESSOR_INTERFACES.get(processorClass);
+    if (result == null) {
+      result = new ArrayList<>();
+      for (Class<?> current = processorClass; current != null; current = current.getSuperclass()) {
+        collectProcessorInterfaces(current.getInterfaces(), result);
+      }
+      result = Collections.unmodifiableList(result);
+      PROCESSOR_INTERFACES.put(processorClass, result);
+    }
+    return result;
+  }
+
+  private static void collectProcessorInterfaces(final Class<?>[] interfaces, final List<Class<?>> result) {
+    for (final Class<?> processorInterface : interfaces) {
+      if (Processor.class.isAssignableFrom(processorInterface) && !result.contains(processorInterface)) {
+        result.add(processorInterface);
+        collectProcessorInterfaces(processorInterface.getInterfaces(), result);
+      }
+    }
   }
 
   @Override
   public void register(OlingoExtension extension) {
     if(extension instanceof CustomContentTypeSupport) {
       this.customContentTypeSupport = (CustomContentTypeSupport) extension;
+    } else if(extension instanceof ETagProvider) {
+      this.eTagProvider = (ETagProvider) extension;
+      if (extension instanceof CustomETagSupport) {
+        this.customETagSupport = (CustomETagSupport) extension;
+      }
     } else if(extension instanceof CustomETagSupport) {
       this.customETagSupport = (CustomETagSupport) extension;
+    } else if(extension instanceof MetricsListener) {
+      this.metricsListener = (MetricsListener) extension;
+    } else if(extension instanceof CompressionSupport) {
+      this.compressionSupport = (CompressionSupport) extension;
+    } else if(extension instanceof AsyncSupportImpl) {
+      this.asyncSupport = (AsyncSupportImpl) extension;
     } else {
       throw new ODataRuntimeException("Got not supported exception with class name " +
           extension.getClass().getSimpleName());
     }
   }
 
+  /**
+   * Creates a new handler with the same processors and extensions, except the support for asynchronous processing,
+   * which can be used to process a request in another thread.
+   * @return the new handler
+   */
+  public ODataHandlerImpl copyWithoutAsyncSupport() {
+    final ODataHandlerImpl copy = new ODataHandlerImpl(odata, serviceMetadata, new ServerCoreDebugger(odata));
+    copy.processors.clear();
+    copy.processors.addAll(processors);
+    copy.processorTable.clear();
+    copy.processorTable.putAll(processorTable);
+    copy.customContentTypeSupport = customContentTypeSupport;
+    copy.customETagSupport = customETagSupport;
+    copy.eTagProvider = eTagProvider;
+    copy.metricsListener = metricsListener;
+    copy.compressionSupport = compressionSupport;
+    return copy;
+  }
+
   public CustomContentTypeSupport getCustomContentTypeSupport() {
     return customContentTypeSupport;
   }
@@ -279,6 +414,18 @@ public class ODataHandlerImpl implements ODataHandler {
     return customETagSupport;
   }
 
+  public ETagProvider getETagProvider() {
+    return eTagProvider;
+  }
+
+  public MetricsListener getMetricsListener() {
+    return metricsListener;
+  }
+
+  public CompressionSupport getCompressionSupport() {
+    return compressionSupport;
+  }
+
   public Exception getLastThrownException() {
     return lastThrownException;
   }
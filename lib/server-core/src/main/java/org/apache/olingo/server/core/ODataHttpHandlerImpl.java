@@ -19,7 +19,6 @@
 package org.apache.olingo.server.core;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channel;
 import java.nio.channels.Channels;
@@ -31,6 +30,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -38,8 +39,8 @@ import javax.servlet.http.HttpServletResponse;
 import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.OData;
-import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.ODataHttpHandler;
 import org.apache.olingo.server.api.ODataLibraryException;
 import org.apache.olingo.server.api.ODataRequest;
@@ -47,9 +48,14 @@ import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.OlingoExtension;
 import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.compression.CompressionSupport;
+import org.apache.olingo.server.api.compression.CompressionSupport.CompressedDocument;
 import org.apache.olingo.server.api.debug.DebugSupport;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.etag.CustomETagSupport;
+import org.apache.olingo.server.api.metrics.MetricsListener;
+import org.apache.olingo.server.api.metrics.MetricsListener.Counter;
+import org.apache.olingo.server.api.metrics.MetricsListener.Phase;
 import org.apache.olingo.server.api.processor.Processor;
 import org.apache.olingo.server.api.serializer.CustomContentTypeSupport;
 import org.apache.olingo.server.core.debug.ServerCoreDebugger;
@@ -81,11 +87,21 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
     ODataResponse odResponse;
     debugger.resolveDebugMode(request);
 
+    final CompressionSupport compressionSupport = handler.getCompressionSupport();
+    final String contentEncoding = compressionSupport == null ? null :
+        ContentEncoding.negotiate(request.getHeader(HttpHeader.ACCEPT_ENCODING));
+    String documentCacheKey = null;
+    CompressedDocument document = null;
+
     final int processMethodHandle = debugger.startRuntimeMeasurement("ODataHttpHandlerImpl", "process");
     try {
       fillODataRequest(odRequest, request, split);
 
-      odResponse = process(odRequest);
+      if (contentEncoding != null && compressionSupport.isCacheServiceDocuments() && !debugger.isDebugMode()) {
+        documentCacheKey = ContentEncoding.getDocumentCacheKey(odRequest, contentEncoding);
+        document = documentCacheKey == null ? null : compressionSupport.getCachedDocument(documentCacheKey);
+      }
+      odResponse = document == null ? process(odRequest) : null;
       // ALL future methods after process must not throw exceptions!
     } catch (Exception e) {
       exception = e;
@@ -104,7 +120,35 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
               serverEnvironmentVariables);
     }
 
-    convertToHttp(response, odResponse);
+    final MetricsListener metricsListener = handler.getMetricsListener();
+    final long start = metricsListener == null ? 0 : System.nanoTime();
+    final long bytesWritten;
+    if (document == null && documentCacheKey != null
+        && odResponse.getStatusCode() == HttpStatusCode.OK.getStatusCode()
+        && ContentEncoding.isCompressible(odResponse, compressionSupport)) {
+      document = createDocument(odResponse, contentEncoding, compressionSupport.getCompressionLevel());
+      compressionSupport.cacheDocument(documentCacheKey, document);
+    }
+    if (document != null) {
+      bytesWritten = convertToHttp(response, document);
+    } else if (contentEncoding != null && ContentEncoding.isCompressible(odResponse, compressionSupport)) {
+      bytesWritten = convertToHttp(response, odResponse, contentEncoding, compressionSupport.getCompressionLevel());
+    } else {
+      bytesWritten = convertToHttp(response, odResponse);
+    }
+    if (metricsListener != null) {
+      metricsListener.phaseCompleted(Phase.RESPONSE_WRITING, System.nanoTime() - start);
+      metricsListener.count(Counter.BYTES_WRITTEN, bytesWritten);
+    }
+  }
+
+  private static CompressedDocument createDocument(final ODataResponse odResponse, final String contentEncoding,
+      final int compressionLevel) {
+    try {
+      return ContentEncoding.createDocument(odResponse, contentEncoding, compressionLevel);
+    } catch (final IOException e) {
+      throw new ODataRuntimeException("Error on compressing response content", e);
+    }
   }
 
   private Map<String, String> createEnvironmentVariablesMap(final HttpServletRequest request) {
@@ -149,41 +193,81 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
     return resp;
   }
 
-  static void convertToHttp(final HttpServletResponse response, final ODataResponse odResponse) {
+  static long convertToHttp(final HttpServletResponse response, final ODataResponse odResponse) {
+    return convertToHttp(response, odResponse, null, Deflater.DEFAULT_COMPRESSION);
+  }
+
+  /**
+   * Copies status, headers, and content of the OData response to the servlet response.
+   * @param contentEncoding the content coding used to compress the content or <code>null</code>
+   * @param compressionLevel the compression level
+   * @return the number of content bytes written
+   */
+  static long convertToHttp(final HttpServletResponse response, final ODataResponse odResponse,
+      final String contentEncoding, final int compressionLevel) {
     response.setStatus(odResponse.getStatusCode());
 
     for (Entry<String, List<String>> entry : odResponse.getAllHeaders().entrySet()) {
+      if (contentEncoding != null && HttpHeader.CONTENT_LENGTH.equalsIgnoreCase(entry.getKey())) {
+        continue;
+      }
       for (String headerValue : entry.getValue()) {
         response.addHeader(entry.getKey(), headerValue);
       }
     }
 
-    if (odResponse.getContent() != null) {
-      copyContent(odResponse.getContent(), response);
-    } else if (odResponse.getODataContent() != null) {
-      writeContent(odResponse, response);
+    if (odResponse.getContent() == null && odResponse.getODataContent() == null) {
+      return 0;
+    }
+    if (contentEncoding != null) {
+      response.setHeader(HttpHeader.CONTENT_ENCODING, contentEncoding);
+      response.addHeader(HttpHeader.VARY, HttpHeader.ACCEPT_ENCODING);
     }
-  }
-  
-  static void writeContent(final ODataResponse odataResponse, final HttpServletResponse servletResponse) {
     try {
-      ODataContent res = odataResponse.getODataContent();
-      res.write(Channels.newChannel(servletResponse.getOutputStream()));
+      final CountingByteChannel output = new CountingByteChannel(Channels.newChannel(response.getOutputStream()));
+      if (contentEncoding == null) {
+        if (odResponse.getContent() != null) {
+          copyContent(Channels.newChannel(odResponse.getContent()), output);
+        } else {
+          odResponse.getODataContent().write(output);
+        }
+      } else {
+        try (DeflaterOutputStream compressed =
+            ContentEncoding.compress(Channels.newOutputStream(output), contentEncoding, compressionLevel)) {
+          if (odResponse.getContent() != null) {
+            copyContent(Channels.newChannel(odResponse.getContent()), Channels.newChannel(compressed));
+          } else {
+            odResponse.getODataContent().write(compressed);
+          }
+        }
+      }
+      return output.getCount();
     } catch (IOException e) {
-      throw new ODataRuntimeException("Error on reading request content", e);
+      throw new ODataRuntimeException("Error on writing response content", e);
     }
   }
 
-  static void copyContent(final InputStream inputStream, final HttpServletResponse servletResponse) {
-    copyContent(Channels.newChannel(inputStream), servletResponse);
+  static long convertToHttp(final HttpServletResponse response, final CompressedDocument document) {
+    response.setStatus(document.getStatusCode());
+    for (Entry<String, List<String>> entry : document.getHeaders().entrySet()) {
+      for (String headerValue : entry.getValue()) {
+        response.addHeader(entry.getKey(), headerValue);
+      }
+    }
+    try {
+      response.getOutputStream().write(document.getContent());
+      return document.getContent().length;
+    } catch (IOException e) {
+      throw new ODataRuntimeException("Error on writing response content", e);
+    }
   }
 
-  static void copyContent(final ReadableByteChannel input, final HttpServletResponse servletResponse) {
-    try (WritableByteChannel output = Channels.newChannel(servletResponse.getOutputStream());) {
+  static void copyContent(final ReadableByteChannel input, final WritableByteChannel output) {
+    try (WritableByteChannel out = output) {
       ByteBuffer inBuffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
       while (input.read(inBuffer) > 0) {
         inBuffer.flip();
-        output.write(inBuffer);
+        out.write(inBuffer);
         inBuffer.clear();
       }
     } catch (IOException e) {
@@ -207,7 +291,8 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
       final int split) throws ODataLibraryException {
     final int requestHandle = debugger.startRuntimeMeasurement("ODataHttpHandlerImpl", "fillODataRequest");
     try {
-      odRequest.setBody(httpRequest.getInputStream());
+      odRequest.setBody(ContentEncoding.decompress(httpRequest.getInputStream(),
+          httpRequest.getHeader(HttpHeader.CONTENT_ENCODING)));
       odRequest.setProtocol(httpRequest.getProtocol());
       odRequest.setMethod(extractMethod(httpRequest));
       int innerHandle = debugger.startRuntimeMeasurement("ODataHttpHandlerImpl", "copyHeaders");
@@ -23,6 +23,7 @@ import java.io.OutputStream;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
 
+import org.apache.olingo.commons.api.data.DeltaIterator;
 import org.apache.olingo.commons.api.data.EntityIterator;
 import org.apache.olingo.commons.api.data.EntityMediaObject;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
@@ -32,12 +33,15 @@ import org.apache.olingo.server.api.ODataContentWriteErrorCallback;
 import org.apache.olingo.server.api.ODataContentWriteErrorContext;
 import org.apache.olingo.server.api.ODataLibraryException;
 import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.serializer.EdmDeltaSerializer;
 import org.apache.olingo.server.api.serializer.EntityCollectionSerializerOptions;
 import org.apache.olingo.server.api.serializer.ODataSerializer;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.serializer.SerializerStreamResult;
 import org.apache.olingo.server.core.serializer.SerializerStreamResultImpl;
 import org.apache.olingo.server.core.serializer.FixedFormatSerializerImpl;
+import org.apache.olingo.server.core.serializer.json.JsonDeltaSerializer;
+import org.apache.olingo.server.core.serializer.json.JsonDeltaSerializerWithNavigations;
 import org.apache.olingo.server.core.serializer.json.ODataJsonSerializer;
 import org.apache.olingo.server.core.serializer.xml.ODataXmlSerializer;
 
@@ -119,6 +123,39 @@ public class ODataWritableContent implements ODataContent {
 	}
   }
   
+  private static class StreamContentForJsonDelta extends StreamContent {
+    private EdmDeltaSerializer deltaSerializer;
+
+    public StreamContentForJsonDelta(DeltaIterator iterator, EdmEntityType entityType,
+        EdmDeltaSerializer deltaSerializer, ServiceMetadata metadata,
+        EntityCollectionSerializerOptions options) {
+      super(iterator, entityType, metadata, options);
+
+      this.deltaSerializer = deltaSerializer;
+    }
+
+    protected void writeEntity(EntityIterator entity, OutputStream outputStream) throws SerializerException {
+      try {
+        if (deltaSerializer instanceof JsonDeltaSerializerWithNavigations) {
+          ((JsonDeltaSerializerWithNavigations) deltaSerializer).entityCollectionIntoStream(metadata, entityType,
+              (DeltaIterator) entity, options, outputStream);
+        } else {
+          ((JsonDeltaSerializer) deltaSerializer).entityCollectionIntoStream(metadata, entityType,
+              (DeltaIterator) entity, options, outputStream);
+        }
+        outputStream.flush();
+      } catch (final IOException e) {
+        throw new ODataRuntimeException("Failed entity serialization", e);
+      }
+    }
+
+    @Override
+    protected void writeBinary(EntityMediaObject mediaEntity,
+        OutputStream outputStream) throws SerializerException {
+      throw new ODataRuntimeException("Not Implemented in Delta Handling");
+    }
+  }
+
   private static class StreamContentForMedia extends StreamContent {
 	    private FixedFormatSerializerImpl fixedFormatSerializer;
 
@@ -187,6 +224,12 @@ public class ODataWritableContent implements ODataContent {
     return new ODataWritableContentBuilder(iterator, entityType, serializer, metadata, options);
   }
   
+  public static ODataWritableContentBuilder with(DeltaIterator delta, EdmEntityType entityType,
+      EdmDeltaSerializer deltaSerializer, ServiceMetadata metadata,
+      EntityCollectionSerializerOptions options) {
+    return new ODataWritableContentBuilder(delta, entityType, deltaSerializer, metadata, options);
+  }
+
   public static ODataWritableContentBuilder with(EntityMediaObject mediaEntity, 
 		  FixedFormatSerializerImpl fixedFormatSerializer) {
 	  return new ODataWritableContentBuilder(mediaEntity, fixedFormatSerializer);
@@ -212,6 +255,7 @@ public class ODataWritableContent implements ODataContent {
 
   public static class ODataWritableContentBuilder {
     private ODataSerializer serializer;
+    private EdmDeltaSerializer deltaSerializer;
     private EntityIterator entities;
     private ServiceMetadata metadata;
     private EdmEntityType entityType;
@@ -229,6 +273,16 @@ public class ODataWritableContent implements ODataContent {
       this.options = options;
     }
 
+    public ODataWritableContentBuilder(DeltaIterator delta, EdmEntityType entityType,
+        EdmDeltaSerializer deltaSerializer,
+        ServiceMetadata metadata, EntityCollectionSerializerOptions options) {
+      this.entities = delta;
+      this.entityType = entityType;
+      this.deltaSerializer = deltaSerializer;
+      this.metadata = metadata;
+      this.options = options;
+    }
+
     public ODataWritableContentBuilder(EntityMediaObject mediaEntity, FixedFormatSerializerImpl fixedFormatSerializer) {
     	this.mediaEntity = mediaEntity;
     	this.fixedFormatSerializer = fixedFormatSerializer;
@@ -239,6 +293,11 @@ public class ODataWritableContent implements ODataContent {
         StreamContent input = new StreamContentForJson(entities, entityType,
             (ODataJsonSerializer) serializer, metadata, options);
         return new ODataWritableContent(input);
+      } else if (deltaSerializer instanceof JsonDeltaSerializer
+          || deltaSerializer instanceof JsonDeltaSerializerWithNavigations) {
+        StreamContent input = new StreamContentForJsonDelta((DeltaIterator) entities, entityType,
+            deltaSerializer, metadata, options);
+        return new ODataWritableContent(input);
       }else if (serializer instanceof ODataXmlSerializer) {
         StreamContentForXml input = new StreamContentForXml(entities, entityType,
             (ODataXmlSerializer) serializer, metadata, options);
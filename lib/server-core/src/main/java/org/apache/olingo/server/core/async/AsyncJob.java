@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.async;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.core.ODataHandlerImpl;
+
+/**
+ * A request processed asynchronously, together with its materialized result.
+ */
+class AsyncJob {
+
+  private final String id;
+  private final FutureTask<Result> task;
+  private volatile long finishedAt;
+  private volatile long lastAccess = System.currentTimeMillis();
+
+  AsyncJob(final String id, final ODataHandlerImpl handler, final ODataRequest request,
+      final File spoolDirectory, final int spoolThreshold) {
+    this.id = id;
+    task = new FutureTask<Result>(new Callable<Result>() {
+      @Override
+      public Result call() throws IOException {
+        return Result.create(handler.process(request), spoolDirectory, spoolThreshold);
+      }
+    }) {
+      @Override
+      protected void set(final Result result) {
+        super.set(result);
+        if (isCancelled()) {
+          // The result is not stored in a cancelled task and would never be disposed.
+          result.dispose();
+        }
+      }
+
+      @Override
+      protected void done() {
+        finishedAt = System.currentTimeMillis();
+      }
+    };
+  }
+
+  String getId() {
+    return id;
+  }
+
+  FutureTask<Result> getTask() {
+    return task;
+  }
+
+  boolean isDone() {
+    return task.isDone();
+  }
+
+  /** @return the time the job has finished in milliseconds or 0 if it is still running */
+  long getFinishedAt() {
+    return task.isDone() ? finishedAt : 0;
+  }
+
+  /** Records that the status monitor of the job has been requested. */
+  void touch() {
+    lastAccess = System.currentTimeMillis();
+  }
+
+  /**
+   * @return the time in milliseconds the job has finished or its status monitor has last been requested,
+   * whatever happened later
+   */
+  long getLastActivity() {
+    return Math.max(lastAccess, getFinishedAt());
+  }
+
+  /** Cancels the job if it is still running and releases its result otherwise. */
+  void cancel() {
+    task.cancel(true);
+    dispose();
+  }
+
+  /**
+   * Releases the resources of a result which has not been delivered.
+   */
+  void dispose() {
+    if (task.isDone() && !task.isCancelled()) {
+      try {
+        task.get().dispose();
+      } catch (final Exception e) {
+        // nothing to dispose
+      }
+    }
+  }
+
+  /**
+   * Status, headers, and content of the response of a job.
+   */
+  static class Result {
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final byte[] content;
+    private final File file;
+
+    private Result(final int statusCode, final Map<String, List<String>> headers, final byte[] content,
+        final File file) {
+      this.statusCode = statusCode;
+      this.headers = headers;
+      this.content = content;
+      this.file = file;
+    }
+
+    static Result create(final ODataResponse response, final File spoolDirectory, final int spoolThreshold)
+        throws IOException {
+      byte[] content = null;
+      File file = null;
+      if (response.getContent() != null || response.getODataContent() != null) {
+        final SpoolingOutputStream output = new SpoolingOutputStream(spoolDirectory, spoolThreshold);
+        boolean written = false;
+        try {
+          if (response.getContent() != null) {
+            final InputStream input = response.getContent();
+            try {
+              final byte[] buffer = new byte[8192];
+              int count;
+              while ((count = input.read(buffer)) > 0) {
+                output.write(buffer, 0, count);
+              }
+            } finally {
+              input.close();
+            }
+          } else {
+            response.getODataContent().write(output);
+          }
+          output.close();
+          written = true;
+        } finally {
+          if (!written) {
+            output.discard();
+          }
+        }
+        content = output.getBytes();
+        file = output.getFile();
+      }
+      return new Result(response.getStatusCode(), response.getAllHeaders(), content, file);
+    }
+
+    /**
+     * Creates the response of the job; a spool file is deleted as soon as the content is closed.
+     * @return the response of the job
+     * @throws FileNotFoundException if the spool file does not exist anymore
+     */
+    ODataResponse toResponse() throws FileNotFoundException {
+      final ODataResponse response = new ODataResponse();
+      response.setStatusCode(statusCode);
+      for (final Map.Entry<String, List<String>> header : headers.entrySet()) {
+        response.addHeader(header.getKey(), new ArrayList<String>(header.getValue()));
+      }
+      if (content != null) {
+        response.setContent(new ByteArrayInputStream(content));
+      } else if (file != null) {
+        response.setContent(new FileInputStream(file) {
+          @Override
+          public void close() throws IOException {
+            try {
+              super.close();
+            } finally {
+              dispose();
+            }
+          }
+        });
+      }
+      return response;
+    }
+
+    void dispose() {
+      if (file != null && file.exists() && !file.delete()) {
+        file.deleteOnExit();
+      }
+    }
+  }
+}
@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.async;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.format.PreferenceName;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.async.AsyncSupport;
+import org.apache.olingo.server.api.deserializer.DeserializerException;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.core.ODataExceptionHelper;
+import org.apache.olingo.server.core.ODataHandlerImpl;
+import org.apache.olingo.server.core.prefer.PreferencesImpl;
+import org.apache.olingo.server.core.serializer.AsyncResponseSerializer;
+
+public class AsyncSupportImpl implements AsyncSupport {
+
+  /** Path of the status monitor resources relative to the service root. */
+  public static final String STATUS_MONITOR_SEGMENT = "$async";
+  private static final String STATUS_MONITOR_PATH = "/" + STATUS_MONITOR_SEGMENT + "/";
+  private static final String CONTENT_TRANSFER_ENCODING = "Content-Transfer-Encoding";
+  private static final String BINARY = "binary";
+  private static final long SWEEP_INTERVAL = 1000;
+
+  private final Executor executor;
+  private final Map<String, AsyncJob> jobs = new ConcurrentHashMap<>();
+  /** Number of jobs held, including jobs which are about to be added; never exceeds the maximum. */
+  private final AtomicInteger jobCount = new AtomicInteger();
+  private volatile int maxJobs = 1000;
+  private volatile long timeToLive = TimeUnit.HOURS.toMillis(1);
+  private volatile File spoolDirectory;
+  private volatile int spoolThreshold;
+  private volatile long nextSweep;
+
+  public AsyncSupportImpl(final Executor executor) {
+    if (executor == null) {
+      throw new IllegalArgumentException("An executor is required.");
+    }
+    this.executor = executor;
+  }
+
+  @Override
+  public AsyncSupport setMaxJobs(final int maxJobs) {
+    if (maxJobs <= 0) {
+      throw new IllegalArgumentException("The maximum number of jobs must be positive.");
+    }
+    this.maxJobs = maxJobs;
+    return this;
+  }
+
+  @Override
+  public AsyncSupport setTimeToLive(final long timeToLive, final TimeUnit unit) {
+    this.timeToLive = unit.toMillis(timeToLive);
+    return this;
+  }
+
+  @Override
+  public AsyncSupport setSpooling(final File directory, final int threshold) {
+    spoolDirectory = directory;
+    spoolThreshold = threshold;
+    return this;
+  }
+
+  @Override
+  public int getJobCount() {
+    return jobs.size();
+  }
+
+  @Override
+  public boolean cancel(final String jobId) {
+    final AsyncJob job = removeJob(jobId);
+    if (job == null) {
+      return false;
+    }
+    job.cancel();
+    return true;
+  }
+
+  @Override
+  public void shutdown() {
+    for (final String jobId : new ArrayList<String>(jobs.keySet())) {
+      cancel(jobId);
+    }
+  }
+
+  /**
+   * Handles requests to status monitor resources and starts jobs for requests preferring
+   * <code>respond-async</code>.
+   * @param handler the handler which received the request
+   * @param request the request
+   * @return the response or <code>null</code> if the request has to be processed synchronously
+   */
+  public ODataResponse handle(final ODataHandlerImpl handler, final ODataRequest request) {
+    final String path = request.getRawODataPath();
+    if (path != null && path.startsWith(STATUS_MONITOR_PATH)) {
+      sweep();
+      return handleStatusMonitor(request, path.substring(STATUS_MONITOR_PATH.length()));
+    } else if (new PreferencesImpl(request.getHeaders(HttpHeader.PREFER)).hasRespondAsync()) {
+      sweep();
+      return submit(handler, request);
+    }
+    return null;
+  }
+
+  private ODataResponse submit(final ODataHandlerImpl handler, final ODataRequest request) {
+    if (!reserveJob()) {
+      return null;
+    }
+    final ODataRequest jobRequest;
+    try {
+      jobRequest = copyRequest(request);
+    } catch (final IOException e) {
+      jobCount.decrementAndGet();
+      final ODataResponse response = new ODataResponse();
+      final DeserializerException exception = new DeserializerException("An I/O exception occurred.", e,
+          DeserializerException.MessageKeys.IO_EXCEPTION);
+      handler.handleException(request, response,
+          ODataExceptionHelper.createServerErrorObject(exception, null), exception);
+      return response;
+    }
+    final String id = UUID.randomUUID().toString();
+    final AsyncJob job = new AsyncJob(id, handler.copyWithoutAsyncSupport(), jobRequest,
+        spoolDirectory, spoolThreshold);
+    jobs.put(id, job);
+    try {
+      executor.execute(job.getTask());
+    } catch (final RejectedExecutionException e) {
+      removeJob(id);
+      return null;
+    }
+
+    final ODataResponse response = new ODataResponse();
+    response.setStatusCode(HttpStatusCode.ACCEPTED.getStatusCode());
+    response.setHeader(HttpHeader.LOCATION, getLocation(request, id));
+    response.setHeader(HttpHeader.PREFERENCE_APPLIED, PreferenceName.RESPOND_ASYNC.getName());
+    return response;
+  }
+
+  private ODataResponse handleStatusMonitor(final ODataRequest request, final String id) {
+    final ODataResponse response = new ODataResponse();
+    final AsyncJob job = jobs.get(id);
+    if (job == null) {
+      response.setStatusCode(HttpStatusCode.NOT_FOUND.getStatusCode());
+    } else if (request.getMethod() == HttpMethod.DELETE) {
+      cancel(id);
+      response.setStatusCode(HttpStatusCode.NO_CONTENT.getStatusCode());
+    } else if (request.getMethod() != HttpMethod.GET) {
+      response.setStatusCode(HttpStatusCode.METHOD_NOT_ALLOWED.getStatusCode());
+    } else if (!job.isDone()) {
+      job.touch();
+      response.setStatusCode(HttpStatusCode.ACCEPTED.getStatusCode());
+      response.setHeader(HttpHeader.LOCATION, request.getRawRequestUri());
+    } else if (removeJob(id) == null) {
+      // The result has been delivered or the job has been cancelled concurrently.
+      response.setStatusCode(HttpStatusCode.NOT_FOUND.getStatusCode());
+    } else {
+      response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+      response.setHeader(HttpHeader.CONTENT_TYPE, ContentType.APPLICATION_HTTP.toContentTypeString());
+      response.setHeader(CONTENT_TRANSFER_ENCODING, BINARY);
+      response.setContent(getResult(job));
+    }
+    return response;
+  }
+
+  private InputStream getResult(final AsyncJob job) {
+    ODataResponse result;
+    try {
+      result = job.getTask().get().toResponse();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      result = errorResponse();
+    } catch (final ExecutionException e) {
+      result = errorResponse();
+    } catch (final CancellationException e) {
+      result = errorResponse();
+    } catch (final IOException e) {
+      result = errorResponse();
+    }
+    try {
+      return new AsyncResponseSerializer().serialize(result);
+    } catch (final SerializerException e) {
+      if (result.getContent() != null) {
+        // Closing the content deletes a spool file.
+        try {
+          result.getContent().close();
+        } catch (final IOException ignored) {
+          // the result is discarded anyway
+        }
+      }
+      return new ByteArrayInputStream(new byte[0]);
+    }
+  }
+
+  private ODataResponse errorResponse() {
+    final ODataResponse response = new ODataResponse();
+    response.setStatusCode(HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+    return response;
+  }
+
+  /**
+   * Reserves a place for a new job if the maximum number of jobs has not been reached.
+   * @return whether a place has been reserved
+   */
+  private boolean reserveJob() {
+    while (true) {
+      final int count = jobCount.get();
+      if (count >= maxJobs) {
+        return false;
+      } else if (jobCount.compareAndSet(count, count + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private AsyncJob removeJob(final String id) {
+    final AsyncJob job = jobs.remove(id);
+    if (job != null) {
+      jobCount.decrementAndGet();
+    }
+    return job;
+  }
+
+  /**
+   * Removes jobs whose time to live has expired; runs at most once per second.
+   * Running jobs whose status monitor has not been requested within the time to live are cancelled.
+   */
+  private void sweep() {
+    final long now = System.currentTimeMillis();
+    if (now < nextSweep) {
+      return;
+    }
+    nextSweep = now + SWEEP_INTERVAL;
+    for (final AsyncJob job : jobs.values()) {
+      if (job.getLastActivity() + timeToLive < now && removeJob(job.getId()) != null) {
+        job.cancel();
+      }
+    }
+  }
+
+  private String getLocation(final ODataRequest request, final String id) {
+    final String baseUri = request.getRawBaseUri();
+    return (baseUri.endsWith("/") ? baseUri.substring(0, baseUri.length() - 1) : baseUri)
+        + STATUS_MONITOR_PATH + id;
+  }
+
+  /**
+   * Copies the request, so that it can be processed after the original request has been answered.
+   * The body is read completely and the <code>respond-async</code> preference is removed.
+   */
+  private ODataRequest copyRequest(final ODataRequest request) throws IOException {
+    final ODataRequest copy = new ODataRequest();
+    copy.setMethod(request.getMethod());
+    copy.setProtocol(request.getProtocol());
+    copy.setRawBaseUri(request.getRawBaseUri());
+    copy.setRawODataPath(request.getRawODataPath());
+    copy.setRawQueryPath(request.getRawQueryPath());
+    copy.setRawRequestUri(request.getRawRequestUri());
+    copy.setRawServiceResolutionUri(request.getRawServiceResolutionUri());
+    for (final Map.Entry<String, List<String>> header : request.getAllHeaders().entrySet()) {
+      if (HttpHeader.PREFER.equalsIgnoreCase(header.getKey())) {
+        final List<String> preferences = removeRespondAsync(header.getValue());
+        if (!preferences.isEmpty()) {
+          copy.addHeader(HttpHeader.PREFER, preferences);
+        }
+      } else {
+        copy.addHeader(header.getKey(), new ArrayList<String>(header.getValue()));
+      }
+    }
+    final InputStream body = request.getBody();
+    if (body != null) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[8192];
+      int count;
+      while ((count = body.read(buffer)) > 0) {
+        bytes.write(buffer, 0, count);
+      }
+      copy.setBody(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+    return copy;
+  }
+
+  private List<String> removeRespondAsync(final List<String> values) {
+    final List<String> result = new ArrayList<String>();
+    for (final String value : values) {
+      final StringBuilder remaining = new StringBuilder();
+      for (final String preference : value.split(",")) {
+        if (!PreferenceName.RESPOND_ASYNC.getName().equalsIgnoreCase(preference.trim())) {
+          remaining.append(remaining.length() == 0 ? "" : ",").append(preference);
+        }
+      }
+      if (remaining.length() > 0) {
+        result.add(remaining.toString());
+      }
+    }
+    return result;
+  }
+}
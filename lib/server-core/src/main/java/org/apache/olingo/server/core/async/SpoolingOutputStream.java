@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.async;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream which keeps the written bytes in memory up to a threshold
+ * and continues in a temporary file afterwards.
+ */
+class SpoolingOutputStream extends OutputStream {
+
+  private final File directory;
+  private final int threshold;
+  private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+  private File file;
+  private OutputStream fileStream;
+
+  /**
+   * @param directory the directory for the temporary file or <code>null</code> to keep everything in memory
+   * @param threshold the number of bytes kept in memory
+   */
+  SpoolingOutputStream(final File directory, final int threshold) {
+    this.directory = directory;
+    this.threshold = threshold;
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    prepare(1).write(b);
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    prepare(len).write(b, off, len);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (fileStream != null) {
+      fileStream.flush();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (fileStream != null) {
+      fileStream.close();
+    }
+  }
+
+  /**
+   * Closes the stream and deletes the temporary file, if any; used if the written content is incomplete.
+   */
+  void discard() {
+    try {
+      close();
+    } catch (final IOException e) {
+      // the file is deleted anyway
+    }
+    if (file != null && file.exists() && !file.delete()) {
+      file.deleteOnExit();
+    }
+  }
+
+  private OutputStream prepare(final int length) throws IOException {
+    if (fileStream == null && directory != null && buffer.size() + length > threshold) {
+      file = File.createTempFile("olingo-async-", ".tmp", directory);
+      fileStream = new BufferedOutputStream(new FileOutputStream(file));
+      buffer.writeTo(fileStream);
+      buffer = null;
+    }
+    return fileStream == null ? buffer : fileStream;
+  }
+
+  /** @return the written bytes or <code>null</code> if they have been spooled to a file */
+  byte[] getBytes() {
+    return buffer == null ? null : buffer.toByteArray();
+  }
+
+  /** @return the spool file or <code>null</code> if the bytes are kept in memory */
+  File getFile() {
+    return file;
+  }
+}
@@ -28,7 +28,10 @@ import org.apache.olingo.server.api.batch.BatchFacade;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
+import org.apache.olingo.server.api.metrics.MetricsListener;
+import org.apache.olingo.server.api.metrics.MetricsListener.Counter;
 import org.apache.olingo.server.api.processor.BatchProcessor;
+import org.apache.olingo.server.core.ODataHandlerImpl;
 import org.apache.olingo.server.core.batchhandler.referenceRewriting.BatchReferenceRewriter;
 
 public class BatchPartHandler {
@@ -64,6 +67,13 @@ public class BatchPartHandler {
       throws BatchDeserializerException {
     ODataResponse response;
 
+    if (oDataHandler instanceof ODataHandlerImpl) {
+      final MetricsListener metricsListener = ((ODataHandlerImpl) oDataHandler).getMetricsListener();
+      if (metricsListener != null) {
+        metricsListener.count(Counter.BATCH_PARTS, 1);
+      }
+    }
+
     if (isChangeSet) {
       rewriter.replaceReference(request);
 
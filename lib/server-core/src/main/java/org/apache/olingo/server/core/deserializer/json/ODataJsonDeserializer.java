@@ -73,10 +73,12 @@ import org.apache.olingo.commons.api.edm.geo.LineString;
 import org.apache.olingo.commons.api.edm.geo.MultiLineString;
 import org.apache.olingo.commons.api.edm.geo.MultiPoint;
 import org.apache.olingo.commons.api.edm.geo.MultiPolygon;
+import org.apache.olingo.commons.api.edm.geo.PackedCoordinates;
 import org.apache.olingo.commons.api.edm.geo.Point;
 import org.apache.olingo.commons.api.edm.geo.Polygon;
 import org.apache.olingo.commons.api.edm.geo.SRID;
 import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.core.edm.primitivetype.EdmPrimitiveTypeFactory;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.deserializer.DeserializerException.MessageKeys;
@@ -702,6 +704,10 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     case PRIMITIVE:
     case DEFINITION:
     case ENUM:
+      if (type.getKind() == EdmTypeKind.PRIMITIVE && (mapping == null || mapping.getMappedJavaClass() == null)
+          && readUnboxedPrimitive((EdmPrimitiveType) type, jsonNode, property)) {
+        break;
+      }
       Object value = readPrimitiveValue(name, (EdmPrimitiveType) type,
           isNullable, maxLength, precision, scale, isUnicode, mapping, jsonNode);
       property.setValue(type.getKind() == EdmTypeKind.ENUM ? ValueType.ENUM : ValueType.PRIMITIVE,
@@ -815,6 +821,40 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     return complexValue;
   }
 
+  /**
+   * Stores numeric and boolean JSON values whose node type fits the EDM type as unboxed primitives.
+   * These need no facet checks beyond what the JSON node type already guarantees.
+   * @return whether the value has been stored
+   */
+  private boolean readUnboxedPrimitive(final EdmPrimitiveType type, final JsonNode jsonNode,
+      final Property property) {
+    if (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int32)) {
+      if (jsonNode.isInt()) {
+        property.setInt(jsonNode.intValue());
+        return true;
+      }
+    } else if (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int64)) {
+      if (!isIEEE754Compatible && (jsonNode.isInt() || jsonNode.isLong())) {
+        property.setLong(jsonNode.longValue());
+        return true;
+      }
+    } else if (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Double)) {
+      if (jsonNode.isNumber()) {
+        final double value = jsonNode.doubleValue();
+        if (!Double.isInfinite(value)) {
+          property.setDouble(value);
+          return true;
+        }
+      }
+    } else if (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Boolean)) {
+      if (jsonNode.isBoolean()) {
+        property.setBoolean(jsonNode.booleanValue());
+        return true;
+      }
+    }
+    return false;
+  }
+
   private Object readPrimitiveValue(final String name, final EdmPrimitiveType type,
       final boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
       final boolean isUnicode, final EdmMapping mapping, final JsonNode jsonNode) throws DeserializerException {
@@ -884,17 +924,17 @@ public class ODataJsonDeserializer implements ODataDeserializer {
           if (geoDataType.equals(Point.class)) {
             return readGeoPointValue(name, dimension, topNode, srid);
           } else if (geoDataType.equals(MultiPoint.class)) {
-            return new MultiPoint(dimension, srid, readGeoPointValues(name, dimension, 0, false, topNode));
+            return new MultiPoint(dimension, srid, readGeoPointValues(name, 0, false, topNode));
           } else if (geoDataType.equals(LineString.class)) {
             // Although a line string with less than two points is not really one, the OData specification says:
             // "The coordinates member of a LineString can have zero or more positions".
             // Therefore the required minimal size of the points array currently is zero.
-            return new LineString(dimension, srid, readGeoPointValues(name, dimension, 0, false, topNode));
+            return new LineString(dimension, srid, readGeoPointValues(name, 0, false, topNode));
           } else if (geoDataType.equals(MultiLineString.class)) {
             List<LineString> lines = new ArrayList<>();
             for (final JsonNode element : topNode) {
               // Line strings can be empty (see above).
-              lines.add(new LineString(dimension, srid, readGeoPointValues(name, dimension, 0, false, element)));
+              lines.add(new LineString(dimension, srid, readGeoPointValues(name, 0, false, element)));
             }
             return new MultiLineString(dimension, srid, lines);
           } else if (geoDataType.equals(Polygon.class)) {
@@ -926,13 +966,12 @@ public class ODataJsonDeserializer implements ODataDeserializer {
 
   private Point readGeoPointValue(final String name, final Geospatial.Dimension dimension, JsonNode node, SRID srid)
       throws DeserializerException, EdmPrimitiveTypeException {
-    if (node.isArray() && (node.size() ==2 || node.size() == 3)
-        && node.get(0).isNumber() && node.get(1).isNumber() && (node.get(2) == null || node.get(2).isNumber())) {
+    if (isGeoPosition(node)) {
       Point point = new Point(dimension, srid);
-      point.setX(getDoubleValue(node.get(0).asText()));
-      point.setY(getDoubleValue(node.get(1).asText()));
+      point.setX(getDoubleValue(node.get(0)));
+      point.setY(getDoubleValue(node.get(1)));
       if (node.get(2) != null) {
-        point.setZ(getDoubleValue(node.get(2).asText()));
+        point.setZ(getDoubleValue(node.get(2)));
       }
       return point;
     }
@@ -940,29 +979,40 @@ public class ODataJsonDeserializer implements ODataDeserializer {
         DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
   }
 
-  private double getDoubleValue(final String value) throws EdmPrimitiveTypeException {
-    final BigDecimal bigDecimalValue = new BigDecimal(value);
-    final Double result = bigDecimalValue.doubleValue();
+  private boolean isGeoPosition(final JsonNode node) {
+    return node.isArray() && (node.size() ==2 || node.size() == 3)
+        && node.get(0).isNumber() && node.get(1).isNumber() && (node.get(2) == null || node.get(2).isNumber());
+  }
+
+  private double getDoubleValue(final JsonNode node) throws EdmPrimitiveTypeException {
+    final BigDecimal bigDecimalValue = node.decimalValue();
+    final double result = bigDecimalValue.doubleValue();
     // "Real" infinite values cannot occur, so we can throw an exception
     // if the conversion to a double results in an infinite value.
     // An exception is also thrown if the number cannot be stored in a double without loss.
-    if (result.isInfinite() || BigDecimal.valueOf(result).compareTo(bigDecimalValue) != 0) {
-      throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
+    if (Double.isInfinite(result) || BigDecimal.valueOf(result).compareTo(bigDecimalValue) != 0) {
+      throw new EdmPrimitiveTypeException("The literal '" + node.asText() + "' has illegal content.");
     }
     return result;
   }
 
-  private List<Point> readGeoPointValues(final String name, final Geospatial.Dimension dimension,
+  /** Reads positions directly into packed coordinates, without creating a point object for each of them. */
+  private PackedCoordinates readGeoPointValues(final String name,
       final int minimalSize, final boolean closed, JsonNode node)
       throws DeserializerException, EdmPrimitiveTypeException {
     if (node.isArray()) {
-      List<Point> points = new ArrayList<>();
+      PackedCoordinates.Builder builder = new PackedCoordinates.Builder();
       for (final JsonNode element : node) {
-        points.add(readGeoPointValue(name, dimension, element, null));
+        if (!isGeoPosition(element)) {
+          throw new DeserializerException("Invalid point value '" + element + "' in property: " + name,
+              DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
+        }
+        builder.add(getDoubleValue(element.get(0)), getDoubleValue(element.get(1)),
+            element.get(2) == null ? 0 : getDoubleValue(element.get(2)));
       }
-      if (points.size() >= minimalSize
-          && (!closed || points.get(points.size() - 1).equals(points.get(0)))) {
-          return points;
+      final PackedCoordinates coordinates = builder.build();
+      if (coordinates.size() >= minimalSize && (!closed || coordinates.isClosed())) {
+          return coordinates;
       }
     }
     throw new DeserializerException("Invalid point values '" + node + "' in property: " + name,
@@ -975,10 +1025,10 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     if (node.isArray() && (node.size() >= 1)) {
       List<LineString> interiors = new ArrayList<>();
       for (int i = 1; i < node.size(); i++) {
-        interiors.add(new LineString(dimension, srid, readGeoPointValues(name, dimension, 4, true, node.get(i))));
+        interiors.add(new LineString(dimension, srid, readGeoPointValues(name, 4, true, node.get(i))));
       }
       return new Polygon(dimension, srid, interiors,
-          new LineString(dimension, srid, readGeoPointValues(name, dimension, 4, true, node.get(0))));
+          new LineString(dimension, srid, readGeoPointValues(name, 4, true, node.get(0))));
     }
     throw new DeserializerException("Invalid polygon values '" + node + "' in property: " + name,
         DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
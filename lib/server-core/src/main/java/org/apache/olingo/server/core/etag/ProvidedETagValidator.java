@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.etag;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.etag.ETagProvider;
+import org.apache.olingo.server.api.etag.PreconditionException;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriInfoKind;
+import org.apache.olingo.server.api.uri.UriParameter;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourceEntitySet;
+import org.apache.olingo.server.api.uri.UriResourceKind;
+import org.apache.olingo.server.api.uri.UriResourceSingleton;
+
+/**
+ * Validates the preconditions of a request against the ETag an {@link ETagProvider} delivers
+ * for the addressed resource, before the request is dispatched to a processor.
+ */
+public class ProvidedETagValidator {
+
+  private final ETagProvider eTagProvider;
+  private final UriInfo uriInfo;
+
+  public ProvidedETagValidator(final ETagProvider eTagProvider, final UriInfo uriInfo) {
+    this.eTagProvider = eTagProvider;
+    this.uriInfo = uriInfo;
+  }
+
+  /**
+   * Checks the preconditions of the request if it has an if-match or if-none-match header
+   * and the ETag of the addressed resource is known.
+   * @param request the OData request
+   * @param response the OData response, filled with a "Not Modified" response if appropriate
+   * @return <code>true</code> if the response is complete and the request must not be dispatched
+   * @throws PreconditionException if the preconditions are not fulfilled
+   */
+  public boolean validate(final ODataRequest request, final ODataResponse response) throws PreconditionException {
+    final List<String> ifMatch = request.getHeaders(HttpHeader.IF_MATCH);
+    final List<String> ifNoneMatch = request.getHeaders(HttpHeader.IF_NONE_MATCH);
+    if (ifMatch == null && ifNoneMatch == null) {
+      return false;
+    }
+    final HttpMethod method = request.getMethod();
+    if (method == HttpMethod.GET || method == HttpMethod.HEAD) {
+      final String eTag = getETag(true);
+      if (new ETagHelperImpl().checkReadPreconditions(eTag, ifMatch, ifNoneMatch)) {
+        response.setStatusCode(HttpStatusCode.NOT_MODIFIED.getStatusCode());
+        response.setHeader(HttpHeader.ETAG, eTag);
+        return true;
+      }
+    } else if (method == HttpMethod.PUT || method == HttpMethod.PATCH || method == HttpMethod.DELETE) {
+      new ETagHelperImpl().checkChangePreconditions(getETag(false), ifMatch, ifNoneMatch);
+    }
+    return false;
+  }
+
+  /**
+   * Gets the ETag of the addressed entity, of one of its properties, or of the addressed entity set.
+   * @param includeCollection whether the ETag of a whole entity set should be considered
+   * @return the ETag or <code>null</code> if it cannot be determined
+   */
+  protected String getETag(final boolean includeCollection) {
+    if (uriInfo.getKind() != UriInfoKind.resource || uriInfo.getExpandOption() != null) {
+      return null;
+    }
+    final List<UriResource> parts = uriInfo.getUriResourceParts();
+    for (int i = 1; i < parts.size(); i++) {
+      final UriResourceKind kind = parts.get(i).getKind();
+      if (kind != UriResourceKind.primitiveProperty && kind != UriResourceKind.complexProperty
+          // The ETag of the media resource is not the ETag of the entity.
+          && !(kind == UriResourceKind.value && i > 1)) {
+        return null;
+      }
+    }
+    final UriResource first = parts.get(0);
+    if (first instanceof UriResourceEntitySet) {
+      final UriResourceEntitySet entitySet = (UriResourceEntitySet) first;
+      if (entitySet.isCollection()) {
+        return includeCollection && parts.size() == 1 ?
+            eTagProvider.getCollectionETag(entitySet.getEntitySet()) :
+            null;
+      }
+      return eTagProvider.getETag(entitySet.getEntitySet(), entitySet.getKeyPredicates());
+    } else if (first instanceof UriResourceSingleton) {
+      return eTagProvider.getETag(((UriResourceSingleton) first).getSingleton(),
+          Collections.<UriParameter> emptyList());
+    }
+    return null;
+  }
+}
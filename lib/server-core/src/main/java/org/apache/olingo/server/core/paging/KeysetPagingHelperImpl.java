@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.paging;
+
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmKeyPropertyRef;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+import org.apache.olingo.server.api.paging.KeysetPagingHelper;
+import org.apache.olingo.server.api.paging.SeekPosition;
+import org.apache.olingo.server.api.paging.SkipTokenException;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourceProperty;
+import org.apache.olingo.server.api.uri.queryoption.OrderByItem;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+import org.apache.olingo.server.api.uri.queryoption.SkipTokenOption;
+import org.apache.olingo.server.api.uri.queryoption.SystemQueryOptionKind;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.api.uri.queryoption.expression.Member;
+import org.apache.olingo.server.core.uri.parser.UriDecoder;
+import org.apache.olingo.server.core.uri.parser.UriParserSyntaxException;
+
+/**
+ * <p>Creates and parses keyset skiptokens.</p>
+ * <p>A skiptoken consists of the Base64url-encoded payload and the Base64url-encoded HMAC-SHA256
+ * signature of the payload, separated by a dot. The payload contains the page size and the values
+ * of the sort keys, each either as <code>-</code> for <code>null</code> or as its length, a colon,
+ * and the URI literal of the value without type prefixes and quotes, all separated by commas.
+ * The signature also covers the entity type and the $orderby option.</p>
+ */
+public class KeysetPagingHelperImpl implements KeysetPagingHelper {
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final String SKIP_TOKEN = "%24skiptoken=";
+  private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+  private final SecretKeySpec key;
+
+  public KeysetPagingHelperImpl(final byte[] secret) {
+    if (secret == null || secret.length == 0) {
+      throw new IllegalArgumentException("A secret for signing skiptokens is required.");
+    }
+    key = new SecretKeySpec(secret, ALGORITHM);
+  }
+
+  @Override
+  public String createSkipToken(final EdmEntityType entityType, final OrderByOption orderByOption,
+      final Entity lastEntity, final int pageSize) throws SkipTokenException {
+    final StringBuilder payload = new StringBuilder().append(pageSize);
+    for (final SortKey sortKey : getSortKeys(entityType, orderByOption)) {
+      final Object value = sortKey.getValue(lastEntity);
+      payload.append(',');
+      if (value == null) {
+        payload.append('-');
+      } else {
+        final String text = sortKey.valueToString(value);
+        payload.append(text.length()).append(':').append(text);
+      }
+    }
+    final byte[] payloadBytes = payload.toString().getBytes(UTF_8);
+    final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    return encoder.encodeToString(payloadBytes) + '.'
+        + encoder.encodeToString(sign(payloadBytes, entityType, orderByOption));
+  }
+
+  @Override
+  public SeekPosition parseSkipToken(final EdmEntityType entityType, final OrderByOption orderByOption,
+      final SkipTokenOption skipTokenOption) throws SkipTokenException {
+    if (skipTokenOption == null || skipTokenOption.getValue() == null) {
+      return null;
+    }
+    final String token = skipTokenOption.getValue();
+    final int dot = token.indexOf('.');
+    final byte[] payloadBytes;
+    final byte[] signature;
+    try {
+      payloadBytes = Base64.getUrlDecoder().decode(dot < 0 ? token : token.substring(0, dot));
+      signature = Base64.getUrlDecoder().decode(dot < 0 ? "" : token.substring(dot + 1));
+    } catch (final IllegalArgumentException e) {
+      throw invalidToken(e);
+    }
+    if (dot < 0 || !MessageDigest.isEqual(signature, sign(payloadBytes, entityType, orderByOption))) {
+      throw invalidToken(null);
+    }
+
+    final List<SortKey> sortKeys = getSortKeys(entityType, orderByOption);
+    final List<Object> values = new ArrayList<>(sortKeys.size());
+    final String payload = new String(payloadBytes, UTF_8);
+    int position = payload.indexOf(',');
+    final int pageSize;
+    try {
+      pageSize = Integer.parseInt(position < 0 ? payload : payload.substring(0, position));
+      for (final SortKey sortKey : sortKeys) {
+        if (position < 0 || position + 1 >= payload.length()) {
+          throw invalidToken(null);
+        }
+        if (payload.charAt(position + 1) == '-') {
+          values.add(null);
+          position += 2;
+        } else {
+          final int colon = payload.indexOf(':', position);
+          final int end = colon + 1 + Integer.parseInt(payload.substring(position + 1, colon));
+          values.add(sortKey.valueOfString(payload.substring(colon + 1, end), sortKey.getDefaultType()));
+          position = end;
+        }
+        if (position < payload.length() && payload.charAt(position) != ',') {
+          throw invalidToken(null);
+        }
+      }
+    } catch (final RuntimeException e) {
+      // Thrown for missing or malformed numbers and lengths.
+      throw invalidToken(e);
+    }
+    if (pageSize <= 0 || position < payload.length()) {
+      throw invalidToken(null);
+    }
+    return new SeekPositionImpl(sortKeys, Collections.unmodifiableList(values), pageSize);
+  }
+
+  @Override
+  public URI createNextLink(final String rawRequestUri, final String skipToken) {
+    final int queryStart = rawRequestUri.indexOf('?');
+    final StringBuilder nextLink = new StringBuilder(rawRequestUri.length() + skipToken.length() + 16);
+    if (queryStart < 0) {
+      nextLink.append(rawRequestUri).append('?');
+    } else {
+      nextLink.append(rawRequestUri, 0, queryStart + 1);
+      int start = queryStart + 1;
+      while (start < rawRequestUri.length()) {
+        int end = rawRequestUri.indexOf('&', start);
+        end = end < 0 ? rawRequestUri.length() : end;
+        if (end > start && !isSkipToken(rawRequestUri, start, end)) {
+          nextLink.append(rawRequestUri, start, end).append('&');
+        }
+        start = end + 1;
+      }
+    }
+    nextLink.append(SKIP_TOKEN);
+    for (final byte b : skipToken.getBytes(UTF_8)) {
+      final char c = (char) (b & 0xFF);
+      if (c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9'
+          || c == '-' || c == '.' || c == '_' || c == '~') {
+        nextLink.append(c);
+      } else {
+        nextLink.append('%').append(HEX[c >> 4]).append(HEX[c & 0x0F]);
+      }
+    }
+    return URI.create(nextLink.toString());
+  }
+
+  /**
+   * Checks whether the query option between start and end is a skiptoken, using the same rule as the URI parser:
+   * the percent-decoded and trimmed name has to match the system query option exactly.
+   */
+  private static boolean isSkipToken(final String query, final int start, final int end) {
+    int nameEnd = query.indexOf('=', start);
+    nameEnd = nameEnd < 0 || nameEnd > end ? end : nameEnd;
+    try {
+      return SystemQueryOptionKind.get(UriDecoder.decode(query.substring(start, nameEnd)).trim())
+          == SystemQueryOptionKind.SKIPTOKEN;
+    } catch (final UriParserSyntaxException e) {
+      // A malformed name is not a system query option for the parser either.
+      return false;
+    }
+  }
+
+  private List<SortKey> getSortKeys(final EdmEntityType entityType, final OrderByOption orderByOption)
+      throws SkipTokenException {
+    final List<SortKey> sortKeys = new ArrayList<>();
+    if (orderByOption != null) {
+      for (final OrderByItem item : orderByOption.getOrders()) {
+        final Expression expression = item.getExpression();
+        if (!(expression instanceof Member)
+            || ((Member) expression).getStartTypeFilter() != null || ((Member) expression).isCollection()) {
+          throw unsupportedOrderBy();
+        }
+        final List<String> path = new ArrayList<>();
+        EdmProperty property = null;
+        for (final UriResource part : ((Member) expression).getResourcePath().getUriResourceParts()) {
+          if (!(part instanceof UriResourceProperty) || ((UriResourceProperty) part).isCollection()) {
+            throw unsupportedOrderBy();
+          }
+          property = ((UriResourceProperty) part).getProperty();
+          path.add(property.getName());
+        }
+        sortKeys.add(createSortKey(path, property, item.isDescending()));
+      }
+    }
+    // The key properties make the sort order unique, so that each skiptoken identifies a single position.
+    for (final EdmKeyPropertyRef keyPropertyRef : entityType.getKeyPropertyRefs()) {
+      sortKeys.add(createSortKey(Arrays.asList(keyPropertyRef.getName().split("/")),
+          keyPropertyRef.getProperty(), false));
+    }
+    return sortKeys;
+  }
+
+  private SortKey createSortKey(final List<String> path, final EdmProperty property, final boolean descending)
+      throws SkipTokenException {
+    if (property == null || !(property.getType() instanceof EdmPrimitiveType)
+        || !Comparable.class.isAssignableFrom(((EdmPrimitiveType) property.getType()).getDefaultType())) {
+      throw unsupportedOrderBy();
+    }
+    return new SortKey(path, property, descending);
+  }
+
+  private byte[] sign(final byte[] payload, final EdmEntityType entityType, final OrderByOption orderByOption) {
+    try {
+      final Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(key);
+      mac.update(payload);
+      mac.update((byte) 0);
+      mac.update(entityType.getFullQualifiedName().getFullQualifiedNameAsString().getBytes(UTF_8));
+      mac.update((byte) 0);
+      if (orderByOption != null && orderByOption.getText() != null) {
+        mac.update(orderByOption.getText().getBytes(UTF_8));
+      }
+      return mac.doFinal();
+    } catch (final GeneralSecurityException e) {
+      throw new ODataRuntimeException("Cannot sign skiptoken", e);
+    }
+  }
+
+  private static SkipTokenException invalidToken(final Exception cause) {
+    return new SkipTokenException("Invalid skiptoken.", cause, SkipTokenException.MessageKeys.INVALID_SKIP_TOKEN);
+  }
+
+  private static SkipTokenException unsupportedOrderBy() {
+    return new SkipTokenException("Only property paths are supported in $orderby for paging.",
+        SkipTokenException.MessageKeys.UNSUPPORTED_ORDER_BY);
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.paging;
+
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.server.api.paging.SeekPosition;
+import org.apache.olingo.server.api.paging.SkipTokenException;
+
+public class SeekPositionImpl implements SeekPosition {
+
+  private final List<SortKey> sortKeys;
+  private final List<Object> values;
+  private final int pageSize;
+
+  SeekPositionImpl(final List<SortKey> sortKeys, final List<Object> values, final int pageSize) {
+    this.sortKeys = sortKeys;
+    this.values = values;
+    this.pageSize = pageSize;
+  }
+
+  @Override
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  @Override
+  public int size() {
+    return sortKeys.size();
+  }
+
+  @Override
+  public String getPropertyPath(final int index) {
+    return sortKeys.get(index).getPath();
+  }
+
+  @Override
+  public Object getValue(final int index) {
+    return values.get(index);
+  }
+
+  @Override
+  public boolean isDescending(final int index) {
+    return sortKeys.get(index).isDescending();
+  }
+
+  @Override
+  public boolean isAfter(final Entity entity) throws SkipTokenException {
+    for (int i = 0; i < sortKeys.size(); i++) {
+      final SortKey sortKey = sortKeys.get(i);
+      final Object position = values.get(i);
+      Object value = sortKey.getValue(entity);
+      if (value != null && position != null && value.getClass() != position.getClass()) {
+        // Entities may hold values of other Java types than the default type the position has been parsed to.
+        value = sortKey.valueOfString(sortKey.valueToString(value), position.getClass());
+      }
+      final int result = compare(value, position);
+      if (result != 0) {
+        return sortKey.isDescending() ? result < 0 : result > 0;
+      }
+    }
+    return false;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static int compare(final Object value, final Object position) {
+    if (value == null) {
+      return position == null ? 0 : -1;
+    } else if (position == null) {
+      return 1;
+    } else {
+      return ((Comparable<Object>) value).compareTo(position);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.paging;
+
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.server.api.paging.SkipTokenException;
+
+/**
+ * A sort key of keyset paging: a path to a primitive property and the sort direction.
+ */
+class SortKey {
+
+  private final List<String> path;
+  private final EdmProperty property;
+  private final EdmPrimitiveType type;
+  private final boolean descending;
+
+  SortKey(final List<String> path, final EdmProperty property, final boolean descending) {
+    this.path = path;
+    this.property = property;
+    type = (EdmPrimitiveType) property.getType();
+    this.descending = descending;
+  }
+
+  String getPath() {
+    final StringBuilder result = new StringBuilder();
+    for (final String segment : path) {
+      result.append(result.length() == 0 ? "" : "/").append(segment);
+    }
+    return result.toString();
+  }
+
+  boolean isDescending() {
+    return descending;
+  }
+
+  /** Gets the value of this sort key in the given entity. */
+  Object getValue(final Entity entity) {
+    Property current = entity.getProperty(path.get(0));
+    for (int i = 1; i < path.size() && current != null; i++) {
+      if (current.isNull() || current.asComplex() == null) {
+        return null;
+      }
+      final String name = path.get(i);
+      Property next = null;
+      for (final Property candidate : current.asComplex().getValue()) {
+        if (name.equals(candidate.getName())) {
+          next = candidate;
+          break;
+        }
+      }
+      current = next;
+    }
+    return current == null ? null : current.getValue();
+  }
+
+  String valueToString(final Object value) throws SkipTokenException {
+    try {
+      return type.valueToString(value, true, property.getMaxLength(), property.getPrecision(),
+          property.getScale(), property.isUnicode());
+    } catch (final EdmPrimitiveTypeException e) {
+      throw new SkipTokenException("Invalid value for property " + getPath(), e,
+          SkipTokenException.MessageKeys.INVALID_VALUE, getPath());
+    }
+  }
+
+  Object valueOfString(final String value, final Class<?> returnType) throws SkipTokenException {
+    try {
+      return type.valueOfString(value, true, property.getMaxLength(), property.getPrecision(),
+          property.getScale(), property.isUnicode(), returnType);
+    } catch (final EdmPrimitiveTypeException e) {
+      throw new SkipTokenException("Invalid value for property " + getPath(), e,
+          SkipTokenException.MessageKeys.INVALID_VALUE, getPath());
+    }
+  }
+
+  Class<?> getDefaultType() {
+    return type.getDefaultType();
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.search;
+
+import java.util.Arrays;
+
+/**
+ * The occurrences of a term in the indexed documents, in ascending order of the documents.
+ * <br/>
+ * Postings are stored in a byte array as variable-length integers: for every document the difference to the
+ * previous document, the number of positions, and the differences between the ascending positions.
+ */
+final class PostingList {
+
+  private byte[] data = new byte[16];
+  private int length;
+  private int lastDocument = -1;
+  private int documentCount;
+
+  /**
+   * Appends the occurrences in a document.
+   * @param document the document; greater than all documents added before
+   * @param positions the positions of the term in the document, in ascending order
+   * @param count the number of positions
+   */
+  void add(final int document, final int[] positions, final int count) {
+    write(document - lastDocument);
+    write(count);
+    int previous = 0;
+    for (int index = 0; index < count; index++) {
+      write(positions[index] - previous);
+      previous = positions[index];
+    }
+    lastDocument = document;
+    documentCount++;
+  }
+
+  int getDocumentCount() {
+    return documentCount;
+  }
+
+  Reader reader() {
+    return new Reader(data, length);
+  }
+
+  private void write(final int value) {
+    if (length + 5 > data.length) {
+      data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+    }
+    int remaining = value;
+    while ((remaining & ~0x7F) != 0) {
+      data[length++] = (byte) ((remaining & 0x7F) | 0x80);
+      remaining >>>= 7;
+    }
+    data[length++] = (byte) remaining;
+  }
+
+  /**
+   * Iterates over the documents of a posting list; the positions of a document are decoded only on request.
+   */
+  static final class Reader {
+
+    /** Returned when all documents have been read. */
+    static final int END = Integer.MAX_VALUE;
+
+    private final byte[] data;
+    private final int length;
+    private int offset;
+    private int document = -1;
+    private int positionCount;
+    private boolean positionsRead = true;
+    private int[] positions = new int[8];
+
+    private Reader(final byte[] data, final int length) {
+      this.data = data;
+      this.length = length;
+    }
+
+    /**
+     * Moves to the next document.
+     * @return the document or {@link #END}
+     */
+    int next() {
+      if (!positionsRead) {
+        // skip the positions of the current document
+        for (int index = 0; index < positionCount; index++) {
+          while ((data[offset++] & 0x80) != 0) {
+            // continuation byte
+          }
+        }
+        positionsRead = true;
+      }
+      if (offset >= length) {
+        document = END;
+        positionCount = 0;
+        return END;
+      }
+      document += read();
+      positionCount = read();
+      positionsRead = false;
+      return document;
+    }
+
+    /**
+     * Moves to the first document not less than the given one.
+     * @param target the document
+     * @return the document or {@link #END}
+     */
+    int advance(final int target) {
+      while (document < target) {
+        next();
+      }
+      return document;
+    }
+
+    int document() {
+      return document;
+    }
+
+    /**
+     * @return the number of positions of the term in the current document
+     */
+    int positionCount() {
+      return positionCount;
+    }
+
+    /**
+     * @param index the index of the position, less than {@link #positionCount()}
+     * @return the position of the term in the current document
+     */
+    int position(final int index) {
+      readPositions();
+      return positions[index];
+    }
+
+    /**
+     * Checks whether the term occurs at a position in the current document.
+     * @param position the position
+     * @return whether the term occurs at the position
+     */
+    boolean hasPosition(final int position) {
+      readPositions();
+      return Arrays.binarySearch(positions, 0, positionCount, position) >= 0;
+    }
+
+    private void readPositions() {
+      if (!positionsRead) {
+        if (positions.length < positionCount) {
+          positions = new int[positionCount];
+        }
+        int previous = 0;
+        for (int index = 0; index < positionCount; index++) {
+          previous += read();
+          positions[index] = previous;
+        }
+        positionsRead = true;
+      }
+    }
+
+    private int read() {
+      int value = 0;
+      int shift = 0;
+      byte current;
+      do {
+        current = data[offset++];
+        value |= (current & 0x7F) << shift;
+        shift += 7;
+      } while ((current & 0x80) != 0);
+      return value;
+    }
+  }
+}
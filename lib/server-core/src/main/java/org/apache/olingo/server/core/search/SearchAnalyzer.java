@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into search terms: maximal sequences of letters and digits, in lower case.
+ */
+final class SearchAnalyzer {
+
+  private SearchAnalyzer() {
+    // static helper
+  }
+
+  /**
+   * Analyzes a text.
+   * @param text the text
+   * @return the terms, in the order of their occurrence
+   */
+  static List<String> analyze(final String text) {
+    final List<String> terms = new ArrayList<String>();
+    final int length = text.length();
+    int start = -1;
+    int index = 0;
+    while (index < length) {
+      final int codePoint = text.codePointAt(index);
+      if (Character.isLetterOrDigit(codePoint)) {
+        if (start < 0) {
+          start = index;
+        }
+      } else if (start >= 0) {
+        terms.add(text.substring(start, index).toLowerCase(Locale.ROOT));
+        start = -1;
+      }
+      index += Character.charCount(codePoint);
+    }
+    if (start >= 0) {
+      terms.add(text.substring(start).toLowerCase(Locale.ROOT));
+    }
+    return terms;
+  }
+}
@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.search;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+import org.apache.olingo.commons.api.data.ComplexValue;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.server.api.search.SearchIndex;
+import org.apache.olingo.server.api.uri.queryoption.search.SearchBinary;
+import org.apache.olingo.server.api.uri.queryoption.search.SearchBinaryOperatorKind;
+import org.apache.olingo.server.api.uri.queryoption.search.SearchExpression;
+import org.apache.olingo.server.api.uri.queryoption.search.SearchUnaryOperatorKind;
+
+/**
+ * <p>Inverted index from search terms to the entities (documents) containing them.</p>
+ * <p>Every indexed entity gets a new document number; its terms are numbered consecutively,
+ * leaving a gap between property values so that phrases do not span several values.
+ * Changed entities are indexed again under a new number; the postings of removed and outdated documents
+ * are skipped during searches until they make up half of the index, which is then built anew.</p>
+ */
+public class SearchIndexImpl implements SearchIndex {
+
+  /** Minimum number of outdated documents before the index is built anew. */
+  private static final int MIN_PURGE_SIZE = 64;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<String, PostingList> postings = new HashMap<String, PostingList>();
+  /** The entities by document number, <code>null</code> for outdated documents. */
+  private final List<Entity> documents = new ArrayList<Entity>();
+  private final Map<Entity, Integer> documentNumbers = new IdentityHashMap<Entity, Integer>();
+  private final BitSet current = new BitSet();
+
+  @Override
+  public void add(final Entity entity) {
+    lock.writeLock().lock();
+    try {
+      final Integer document = documentNumbers.get(entity);
+      if (document != null) {
+        discard(document);
+      }
+      index(entity);
+      purgeIfNeeded();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void update(final Entity entity) {
+    add(entity);
+  }
+
+  @Override
+  public boolean remove(final Entity entity) {
+    lock.writeLock().lock();
+    try {
+      final Integer document = documentNumbers.remove(entity);
+      if (document == null) {
+        return false;
+      }
+      discard(document);
+      purgeIfNeeded();
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return documentNumbers.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public List<Entity> search(final SearchExpression expression) {
+    lock.readLock().lock();
+    try {
+      final BitSet matches = evaluate(expression);
+      final List<Entity> result = new ArrayList<Entity>(matches.cardinality());
+      for (int document = matches.nextSetBit(0); document >= 0; document = matches.nextSetBit(document + 1)) {
+        result.add(documents.get(document));
+      }
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void retainMatches(final SearchExpression expression, final List<Entity> entities) {
+    lock.readLock().lock();
+    try {
+      final BitSet matches = evaluate(expression);
+      // removeIf compacts lists like ArrayList in one pass instead of shifting the tail for every removal.
+      entities.removeIf(new Predicate<Entity>() {
+        @Override
+        public boolean test(final Entity entity) {
+          final Integer document = documentNumbers.get(entity);
+          return document == null || !matches.get(document);
+        }
+      });
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void index(final Entity entity) {
+    final int document = documents.size();
+    documents.add(entity);
+    documentNumbers.put(entity, document);
+    current.set(document);
+
+    final Map<String, Occurrences> occurrences = new HashMap<String, Occurrences>();
+    int position = 0;
+    for (final Property property : entity.getProperties()) {
+      position = collect(property.getValue(), occurrences, position);
+    }
+    for (final Map.Entry<String, Occurrences> entry : occurrences.entrySet()) {
+      PostingList postingList = postings.get(entry.getKey());
+      if (postingList == null) {
+        postingList = new PostingList();
+        postings.put(entry.getKey(), postingList);
+      }
+      postingList.add(document, entry.getValue().positions, entry.getValue().count);
+    }
+  }
+
+  private int collect(final Object value, final Map<String, Occurrences> occurrences, final int position) {
+    int next = position;
+    if (value instanceof String) {
+      for (final String term : SearchAnalyzer.analyze((String) value)) {
+        Occurrences termOccurrences = occurrences.get(term);
+        if (termOccurrences == null) {
+          termOccurrences = new Occurrences();
+          occurrences.put(term, termOccurrences);
+        }
+        termOccurrences.add(next++);
+      }
+      // gap between values
+      next++;
+    } else if (value instanceof ComplexValue) {
+      for (final Property property : ((ComplexValue) value).getValue()) {
+        next = collect(property.getValue(), occurrences, next);
+      }
+    } else if (value instanceof Collection) {
+      for (final Object item : (Collection<?>) value) {
+        next = collect(item, occurrences, next);
+      }
+    }
+    return next;
+  }
+
+  private void discard(final int document) {
+    documents.set(document, null);
+    current.clear(document);
+  }
+
+  private void purgeIfNeeded() {
+    final int outdated = documents.size() - documentNumbers.size();
+    if (outdated >= MIN_PURGE_SIZE && 2 * outdated >= documents.size()) {
+      final List<Entity> entities = new ArrayList<Entity>(documentNumbers.size());
+      for (final Entity entity : documents) {
+        if (entity != null) {
+          entities.add(entity);
+        }
+      }
+      postings.clear();
+      documents.clear();
+      documentNumbers.clear();
+      current.clear();
+      for (final Entity entity : entities) {
+        index(entity);
+      }
+    }
+  }
+
+  private BitSet evaluate(final SearchExpression expression) {
+    if (expression.isSearchTerm()) {
+      return evaluateTerm(expression.asSearchTerm().getSearchTerm());
+    } else if (expression.isSearchBinary()) {
+      final SearchBinary binary = expression.asSearchBinary();
+      final BitSet result = evaluate(binary.getLeftOperand());
+      if (binary.getOperator() == SearchBinaryOperatorKind.AND) {
+        result.and(evaluate(binary.getRightOperand()));
+      } else {
+        result.or(evaluate(binary.getRightOperand()));
+      }
+      return result;
+    } else if (expression.isSearchUnary()
+        && expression.asSearchUnary().getOperator() == SearchUnaryOperatorKind.NOT) {
+      final BitSet result = (BitSet) current.clone();
+      result.andNot(evaluate(expression.asSearchUnary().getOperand()));
+      return result;
+    }
+    throw new IllegalArgumentException("Unknown search expression: " + expression);
+  }
+
+  private BitSet evaluateTerm(final String searchTerm) {
+    final BitSet result = new BitSet();
+    final List<String> terms = SearchAnalyzer.analyze(searchTerm);
+    if (terms.isEmpty()) {
+      return result;
+    }
+    final PostingList.Reader[] readers = new PostingList.Reader[terms.size()];
+    for (int index = 0; index < readers.length; index++) {
+      final PostingList postingList = postings.get(terms.get(index));
+      if (postingList == null) {
+        return result;
+      }
+      readers[index] = postingList.reader();
+    }
+
+    int document = readers[0].next();
+    while (document != PostingList.Reader.END) {
+      // find the next document containing all terms
+      int index = 1;
+      while (index < readers.length) {
+        final int candidate = readers[index].advance(document);
+        if (candidate > document) {
+          document = readers[0].advance(candidate);
+          index = 1;
+          if (document == PostingList.Reader.END) {
+            return result;
+          }
+        } else {
+          index++;
+        }
+      }
+      if (current.get(document) && (readers.length == 1 || isPhrase(readers))) {
+        result.set(document);
+      }
+      document = readers[0].next();
+    }
+    return result;
+  }
+
+  /** Checks whether the terms of all readers occur one after the other in their current document. */
+  private static boolean isPhrase(final PostingList.Reader[] readers) {
+    for (int start = 0; start < readers[0].positionCount(); start++) {
+      final int position = readers[0].position(start);
+      boolean found = true;
+      for (int index = 1; index < readers.length && found; index++) {
+        found = readers[index].hasPosition(position + index);
+      }
+      if (found) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** The positions of a term in the document being indexed. */
+  private static final class Occurrences {
+
+    private int[] positions = new int[2];
+    private int count;
+
+    private void add(final int position) {
+      if (count == positions.length) {
+        final int[] larger = new int[2 * count];
+        System.arraycopy(positions, 0, larger, 0, count);
+        positions = larger;
+      }
+      positions[count++] = position;
+    }
+  }
+}
@@ -22,11 +22,8 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.io.UnsupportedEncodingException;
-import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.ReadableByteChannel;
-import java.nio.channels.WritableByteChannel;
 import java.util.List;
 import java.util.Map;
 
@@ -35,23 +32,29 @@ import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.serializer.SerializerException;
 
 public class AsyncResponseSerializer {
-  private static final int BUFFER_SIZE = 8192;
   private static final String COLON = ":";
   private static final String SP = " ";
   private static final String CRLF = "\r\n";
   private static final String HEADER_CHARSET_NAME = "ISO-8859-1";
   private static final String HTTP_VERSION = "HTTP/1.1";
 
+  /**
+   * Serializes the response in the <code>application/http</code> format.
+   * The content of the response is not copied but streamed when the returned stream is read.
+   * @param response the response
+   * @return the serialized response
+   * @throws SerializerException if the serialization fails
+   */
   public InputStream serialize(final ODataResponse response) throws SerializerException {
     try {
       ByteArrayOutputStream buffer = new ByteArrayOutputStream();
       appendStatusLine(response, buffer);
       appendResponseHeader(response, buffer);
       append(CRLF, buffer);
-      appendBody(response, buffer);
 
       buffer.flush();
-      return new ByteArrayInputStream(buffer.toByteArray(), 0, buffer.size());
+      final InputStream head = new ByteArrayInputStream(buffer.toByteArray(), 0, buffer.size());
+      return response.getContent() == null ? head : new SequenceInputStream(head, response.getContent());
     } catch (IOException e) {
       throw new SerializerException("Exception occurred during serialization of asynchronous response.",
           e, SerializerException.MessageKeys.IO_EXCEPTION);
@@ -80,22 +83,6 @@ public class AsyncResponseSerializer {
     append(HTTP_VERSION + SP + response.getStatusCode() + SP + status + CRLF, buffer);
   }
 
-  private void appendBody(final ODataResponse response, final ByteArrayOutputStream buffer) throws IOException {
-    InputStream input = response.getContent();
-    if (input != null) {
-      ByteBuffer inBuffer = ByteBuffer.allocate(BUFFER_SIZE);
-      try (ReadableByteChannel ic = Channels.newChannel(input)) {
-        try (WritableByteChannel oc = Channels.newChannel(buffer)) {
-          while (ic.read(inBuffer) > 0) {
-            inBuffer.flip();
-            oc.write(inBuffer);
-            inBuffer.rewind();
-          }
-        }
-      }
-    }
-  }
-
   private void append(final String value, final ByteArrayOutputStream buffer) throws IOException {
     try {
       buffer.write(value.getBytes(HEADER_CHARSET_NAME));
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+import org.apache.olingo.commons.api.Constants;
+import org.apache.olingo.commons.api.data.ContextURL;
+import org.apache.olingo.commons.api.data.DeletedEntity;
+import org.apache.olingo.commons.api.data.DeltaIterator;
+import org.apache.olingo.commons.api.data.DeltaLink;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.server.api.serializer.EntityCollectionSerializerOptions;
+import org.apache.olingo.server.api.serializer.SerializerException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes a delta response from a {@link DeltaIterator} into an output stream.
+ * The order of the response is defined here; the JSON delta serializers implement the parts that differ
+ * between their formats.
+ */
+abstract class JsonDeltaIteratorWriter {
+
+  private static final String IO_EXCEPTION_TEXT = "An I/O exception occurred.";
+
+  void write(final DeltaIterator delta, final EntityCollectionSerializerOptions options,
+      final OutputStream outputStream) throws SerializerException {
+    try {
+      final JsonGenerator json = new JsonFactory().createGenerator(outputStream);
+      json.writeStartObject();
+
+      writeContextURL(options == null ? null : options.getContextURL(), json);
+
+      if (options != null && options.getCount() != null && options.getCount().getValue()) {
+        writeInlineCount(delta.getCount(), json);
+      }
+      json.writeFieldName(Constants.VALUE);
+      writeEntries(delta, options, json);
+
+      // The links are requested after all changes have been written, so they can be determined while iterating.
+      writeNextOrDeltaLink(delta, json);
+
+      json.close();
+    } catch (final IOException e) {
+      throw new SerializerException(IO_EXCEPTION_TEXT, e, SerializerException.MessageKeys.IO_EXCEPTION);
+    }
+  }
+
+  private void writeEntries(final DeltaIterator delta, final EntityCollectionSerializerOptions options,
+      final JsonGenerator json) throws IOException, SerializerException {
+    final ContextURL contextURL = options == null ? null : options.getContextURL();
+    json.writeStartArray();
+    while (delta.hasNext()) {
+      writeAddedUpdatedEntity(delta.next(), options, contextURL,
+          contextURL == null ? null : contextURL.getEntitySetOrSingletonOrType(), json);
+    }
+    final Iterator<DeletedEntity> deletedEntities = delta.getDeletedEntities();
+    while (deletedEntities.hasNext()) {
+      writeDeletedEntity(deletedEntities.next(), json);
+    }
+    final Iterator<DeltaLink> addedLinks = delta.getAddedLinks();
+    while (addedLinks.hasNext()) {
+      writeLink(addedLinks.next(), checkLinkOptions(options), json, true);
+    }
+    final Iterator<DeltaLink> deletedLinks = delta.getDeletedLinks();
+    while (deletedLinks.hasNext()) {
+      writeLink(deletedLinks.next(), checkLinkOptions(options), json, false);
+    }
+    json.writeEndArray();
+  }
+
+  /** Links are written relative to the entity set of the context URL, so they cannot be written without one. */
+  private static EntityCollectionSerializerOptions checkLinkOptions(final EntityCollectionSerializerOptions options)
+      throws SerializerException {
+    if (options == null || options.getContextURL() == null) {
+      throw new SerializerException("ContextURL null!", SerializerException.MessageKeys.NO_CONTEXT_URL);
+    }
+    return options;
+  }
+
+  /**
+   * Writes the context URL unless the metadata level is <code>none</code>.
+   * @param contextURL the context URL of the options or <code>null</code>
+   * @throws SerializerException if the context URL is required but missing
+   */
+  abstract void writeContextURL(ContextURL contextURL, JsonGenerator json) throws IOException, SerializerException;
+
+  abstract void writeInlineCount(Integer count, JsonGenerator json) throws IOException;
+
+  /**
+   * @param options the serializer options or <code>null</code>
+   * @param contextURL the context URL of the options, even if it is not written
+   * @param name the entity set, singleton, or type of the context URL
+   */
+  abstract void writeAddedUpdatedEntity(Entity entity, EntityCollectionSerializerOptions options,
+      ContextURL contextURL, String name, JsonGenerator json) throws IOException, SerializerException;
+
+  abstract void writeDeletedEntity(DeletedEntity deletedEntity, JsonGenerator json)
+      throws IOException, SerializerException;
+
+  abstract void writeLink(DeltaLink link, EntityCollectionSerializerOptions options, JsonGenerator json,
+      boolean isAdded) throws IOException, SerializerException;
+
+  /** Writes the next link or, if there is none, the delta link of the iterator. */
+  abstract void writeNextOrDeltaLink(DeltaIterator delta, JsonGenerator json) throws IOException;
+}
@@ -31,6 +31,7 @@ import org.apache.olingo.commons.api.data.ComplexValue;
 import org.apache.olingo.commons.api.data.ContextURL;
 import org.apache.olingo.commons.api.data.DeletedEntity;
 import org.apache.olingo.commons.api.data.Delta;
+import org.apache.olingo.commons.api.data.DeltaIterator;
 import org.apache.olingo.commons.api.data.DeltaLink;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.Link;
@@ -52,9 +53,11 @@ import org.apache.olingo.server.api.serializer.EdmDeltaSerializer;
 import org.apache.olingo.server.api.serializer.EntityCollectionSerializerOptions;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.serializer.SerializerResult;
+import org.apache.olingo.server.api.serializer.SerializerStreamResult;
 import org.apache.olingo.server.api.uri.UriHelper;
 import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
 import org.apache.olingo.server.api.uri.queryoption.SelectOption;
+import org.apache.olingo.server.core.ODataWritableContent;
 import org.apache.olingo.server.core.serializer.SerializerResultImpl;
 import org.apache.olingo.server.core.serializer.utils.CircleStreamBuffer;
 import org.apache.olingo.server.core.serializer.utils.ContentTypeHelper;
@@ -122,6 +125,56 @@ public class JsonDeltaSerializer implements EdmDeltaSerializer {
 
   }
 
+  @Override
+  public SerializerStreamResult entityCollectionStreamed(ServiceMetadata metadata,
+      EdmEntityType referencedEntityType, DeltaIterator delta, EntityCollectionSerializerOptions options)
+      throws SerializerException {
+    return ODataWritableContent.with(delta, referencedEntityType, this, metadata, options).build();
+  }
+
+  public void entityCollectionIntoStream(final ServiceMetadata metadata, final EdmEntityType entityType,
+      final DeltaIterator delta, final EntityCollectionSerializerOptions options, final OutputStream outputStream)
+      throws SerializerException {
+    new JsonDeltaIteratorWriter() {
+      @Override
+      void writeContextURL(final ContextURL contextURL, final JsonGenerator json)
+          throws IOException, SerializerException {
+        JsonDeltaSerializer.this.writeContextURL(checkContextURL(contextURL), json);
+      }
+
+      @Override
+      void writeInlineCount(final Integer count, final JsonGenerator json) throws IOException {
+        JsonDeltaSerializer.this.writeInlineCount(count, json);
+      }
+
+      @Override
+      void writeAddedUpdatedEntity(final Entity entity, final EntityCollectionSerializerOptions options,
+          final ContextURL contextURL, final String name, final JsonGenerator json)
+          throws IOException, SerializerException {
+        JsonDeltaSerializer.this.writeAddedUpdatedEntity(metadata, entityType, entity,
+            options == null ? null : options.getExpand(), options == null ? null : options.getSelect(),
+            contextURL, false, name, json);
+      }
+
+      @Override
+      void writeDeletedEntity(final DeletedEntity deletedEntity, final JsonGenerator json)
+          throws IOException, SerializerException {
+        JsonDeltaSerializer.this.writeDeletedEntity(deletedEntity, json);
+      }
+
+      @Override
+      void writeLink(final DeltaLink link, final EntityCollectionSerializerOptions options, final JsonGenerator json,
+          final boolean isAdded) throws IOException, SerializerException {
+        JsonDeltaSerializer.this.writeLink(link, options, json, isAdded);
+      }
+
+      @Override
+      void writeNextOrDeltaLink(final DeltaIterator delta, final JsonGenerator json) throws IOException {
+        writeDeltaLink(delta, json, writeNextLink(delta, json));
+      }
+    }.write(delta, options, outputStream);
+  }
+
   protected void writeEntitySet(final ServiceMetadata metadata, final EdmEntityType entityType,
       final Delta entitySet, final EntityCollectionSerializerOptions options,
       final JsonGenerator json) throws IOException,
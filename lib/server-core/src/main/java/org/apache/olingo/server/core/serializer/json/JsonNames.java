@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.json;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.olingo.commons.api.IConstants;
+import org.apache.olingo.server.api.ServiceMetadata;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * Pre-encoded JSON names: the control information of a constants version (e.g., <code>@odata.id</code>) and, per
+ * property name, the name itself and the control information derived from it (e.g.,
+ * <code>Property@odata.navigationLink</code>). Writing a {@link SerializableString} copies the encoded bytes
+ * instead of encoding the name again for every instance.
+ * <br/>
+ * Names are shared by all serializers for the same service metadata and constants version
+ * (see {@link #get(ServiceMetadata, IConstants)}); property names are added on first use.
+ */
+public final class JsonNames {
+
+  /** Upper bound for the number of property names, as open types may bring arbitrary dynamic names. */
+  private static final int MAX_SIZE = 4096;
+
+  /** Names per service metadata, which is weakly referenced and compared by identity, and constants class. */
+  private static final ConcurrentMap<MetadataKey, ConcurrentMap<Class<?>, JsonNames>> scopes =
+      new ConcurrentHashMap<MetadataKey, ConcurrentMap<Class<?>, JsonNames>>();
+  private static final ReferenceQueue<ServiceMetadata> collected = new ReferenceQueue<ServiceMetadata>();
+
+  private final IConstants constants;
+  private final Map<String, PropertyNames> properties = new ConcurrentHashMap<String, PropertyNames>();
+
+  private final SerializableString id;
+  private final SerializableString type;
+  private final SerializableString etag;
+  private final SerializableString readLink;
+  private final SerializableString editLink;
+  private final SerializableString mediaEtag;
+  private final SerializableString mediaContentType;
+  private final SerializableString mediaReadLink;
+  private final SerializableString mediaEditLink;
+  private final SerializableString context;
+  private final SerializableString metadataEtag;
+  private final SerializableString nextLink;
+  private final SerializableString deltaLink;
+
+  private JsonNames(final IConstants constants) {
+    this.constants = constants;
+    id = new SerializedString(constants.getId());
+    type = new SerializedString(constants.getType());
+    etag = new SerializedString(constants.getEtag());
+    readLink = new SerializedString(constants.getReadLink());
+    editLink = new SerializedString(constants.getEditLink());
+    mediaEtag = new SerializedString(constants.getMediaEtag());
+    mediaContentType = new SerializedString(constants.getMediaContentType());
+    mediaReadLink = new SerializedString(constants.getMediaReadLink());
+    mediaEditLink = new SerializedString(constants.getMediaEditLink());
+    context = new SerializedString(constants.getContext());
+    metadataEtag = new SerializedString(constants.getMetadataEtag());
+    nextLink = new SerializedString(constants.getNextLink());
+    deltaLink = new SerializedString(constants.getDeltaLink());
+  }
+
+  /**
+   * Gets the names for the given service metadata and constants version, creating them on first use.
+   * @param metadata the service metadata; if <code>null</code>, names are not shared
+   * @param constants the constants version
+   * @return the names
+   */
+  public static JsonNames get(final ServiceMetadata metadata, final IConstants constants) {
+    if (metadata == null) {
+      return new JsonNames(constants);
+    }
+    ConcurrentMap<Class<?>, JsonNames> scope = scopes.get(new MetadataKey(metadata, null));
+    if (scope == null) {
+      removeCollected();
+      scope = new ConcurrentHashMap<Class<?>, JsonNames>();
+      final ConcurrentMap<Class<?>, JsonNames> previous =
+          scopes.putIfAbsent(new MetadataKey(metadata, collected), scope);
+      if (previous != null) {
+        scope = previous;
+      }
+    }
+    JsonNames names = scope.get(constants.getClass());
+    if (names == null) {
+      names = new JsonNames(constants);
+      final JsonNames previous = scope.putIfAbsent(constants.getClass(), names);
+      if (previous != null) {
+        names = previous;
+      }
+    }
+    return names;
+  }
+
+  /** Removes the names of service metadata which has been garbage-collected. */
+  private static void removeCollected() {
+    Reference<? extends ServiceMetadata> key;
+    while ((key = collected.poll()) != null) {
+      scopes.remove(key);
+    }
+  }
+
+  /**
+   * Gets the names for a property.
+   * @param propertyName the name of the property; the empty string gives the names of the top level
+   * @return the names
+   */
+  public PropertyNames get(final String propertyName) {
+    PropertyNames names = properties.get(propertyName);
+    if (names == null) {
+      names = new PropertyNames(propertyName, constants);
+      if (properties.size() >= MAX_SIZE) {
+        properties.clear();
+      }
+      properties.put(propertyName, names);
+    }
+    return names;
+  }
+
+  public SerializableString getId() {
+    return id;
+  }
+
+  public SerializableString getType() {
+    return type;
+  }
+
+  public SerializableString getEtag() {
+    return etag;
+  }
+
+  public SerializableString getReadLink() {
+    return readLink;
+  }
+
+  public SerializableString getEditLink() {
+    return editLink;
+  }
+
+  public SerializableString getMediaEtag() {
+    return mediaEtag;
+  }
+
+  public SerializableString getMediaContentType() {
+    return mediaContentType;
+  }
+
+  public SerializableString getMediaReadLink() {
+    return mediaReadLink;
+  }
+
+  public SerializableString getMediaEditLink() {
+    return mediaEditLink;
+  }
+
+  public SerializableString getContext() {
+    return context;
+  }
+
+  public SerializableString getMetadataEtag() {
+    return metadataEtag;
+  }
+
+  public SerializableString getNextLink() {
+    return nextLink;
+  }
+
+  public SerializableString getDeltaLink() {
+    return deltaLink;
+  }
+
+  /**
+   * The name of a property and the names of the control information annotating it.
+   */
+  public static final class PropertyNames {
+
+    private final SerializableString name;
+    private final SerializableString type;
+    private final SerializableString count;
+    private final SerializableString navigationLink;
+    private final SerializableString associationLink;
+    private final SerializableString mediaEtag;
+    private final SerializableString mediaContentType;
+    private final SerializableString mediaReadLink;
+    private final SerializableString mediaEditLink;
+
+    private PropertyNames(final String propertyName, final IConstants constants) {
+      name = new SerializedString(propertyName);
+      type = new SerializedString(propertyName + constants.getType());
+      count = new SerializedString(propertyName + constants.getCount());
+      navigationLink = new SerializedString(propertyName + constants.getNavigationLink());
+      associationLink = new SerializedString(propertyName + constants.getAssociationLink());
+      mediaEtag = new SerializedString(propertyName + constants.getMediaEtag());
+      mediaContentType = new SerializedString(propertyName + constants.getMediaContentType());
+      mediaReadLink = new SerializedString(propertyName + constants.getMediaReadLink());
+      mediaEditLink = new SerializedString(propertyName + constants.getMediaEditLink());
+    }
+
+    public SerializableString getName() {
+      return name;
+    }
+
+    public SerializableString getType() {
+      return type;
+    }
+
+    public SerializableString getCount() {
+      return count;
+    }
+
+    public SerializableString getNavigationLink() {
+      return navigationLink;
+    }
+
+    public SerializableString getAssociationLink() {
+      return associationLink;
+    }
+
+    public SerializableString getMediaEtag() {
+      return mediaEtag;
+    }
+
+    public SerializableString getMediaContentType() {
+      return mediaContentType;
+    }
+
+    public SerializableString getMediaReadLink() {
+      return mediaReadLink;
+    }
+
+    public SerializableString getMediaEditLink() {
+      return mediaEditLink;
+    }
+  }
+
+  /** Weak reference to service metadata, equal to references to the same instance. */
+  private static final class MetadataKey extends WeakReference<ServiceMetadata> {
+
+    private final int hash;
+
+    private MetadataKey(final ServiceMetadata metadata, final ReferenceQueue<ServiceMetadata> queue) {
+      super(metadata, queue);
+      hash = System.identityHashCode(metadata);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      final ServiceMetadata metadata = get();
+      return metadata != null && obj instanceof MetadataKey && metadata == ((MetadataKey) obj).get();
+    }
+  }
+}
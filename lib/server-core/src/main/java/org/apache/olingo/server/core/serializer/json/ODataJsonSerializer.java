@@ -19,11 +19,16 @@
 package org.apache.olingo.server.core.serializer.json;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -34,6 +39,8 @@ import org.apache.olingo.commons.api.Constants;
 import org.apache.olingo.commons.api.IConstants;
 import org.apache.olingo.commons.api.constants.Constantsv00;
 import org.apache.olingo.commons.api.data.AbstractEntityCollection;
+import org.apache.olingo.commons.api.data.ColumnVector;
+import org.apache.olingo.commons.api.data.ColumnarEntityCollection;
 import org.apache.olingo.commons.api.data.ComplexValue;
 import org.apache.olingo.commons.api.data.ContextURL;
 import org.apache.olingo.commons.api.data.Entity;
@@ -42,6 +49,8 @@ import org.apache.olingo.commons.api.data.Link;
 import org.apache.olingo.commons.api.data.Linked;
 import org.apache.olingo.commons.api.data.Operation;
 import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.Valuable;
+import org.apache.olingo.commons.api.data.ValueType;
 import org.apache.olingo.commons.api.edm.EdmComplexType;
 import org.apache.olingo.commons.api.edm.EdmEntitySet;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
@@ -61,16 +70,24 @@ import org.apache.olingo.commons.api.edm.geo.LineString;
 import org.apache.olingo.commons.api.edm.geo.MultiLineString;
 import org.apache.olingo.commons.api.edm.geo.MultiPoint;
 import org.apache.olingo.commons.api.edm.geo.MultiPolygon;
+import org.apache.olingo.commons.api.edm.geo.PackedCoordinates;
 import org.apache.olingo.commons.api.edm.geo.Point;
 import org.apache.olingo.commons.api.edm.geo.Polygon;
 import org.apache.olingo.commons.api.edm.geo.SRID;
 import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.core.edm.primitivetype.EdmBinary;
+import org.apache.olingo.commons.core.edm.primitivetype.EdmDate;
+import org.apache.olingo.commons.core.edm.primitivetype.EdmDateTimeOffset;
+import org.apache.olingo.commons.core.edm.primitivetype.EdmDecimal;
 import org.apache.olingo.commons.core.edm.primitivetype.EdmPrimitiveTypeFactory;
+import org.apache.olingo.commons.core.edm.primitivetype.EdmTimeOfDay;
+import org.apache.olingo.commons.core.edm.primitivetype.IsoDateTime;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.serializer.ComplexSerializerOptions;
 import org.apache.olingo.server.api.serializer.EntityCollectionSerializerOptions;
 import org.apache.olingo.server.api.serializer.EntitySerializerOptions;
+import org.apache.olingo.server.api.serializer.ExpandLoader;
 import org.apache.olingo.server.api.serializer.PrimitiveSerializerOptions;
 import org.apache.olingo.server.api.serializer.ReferenceCollectionSerializerOptions;
 import org.apache.olingo.server.api.serializer.ReferenceSerializerOptions;
@@ -87,14 +104,19 @@ import org.apache.olingo.server.core.ODataWritableContent;
 import org.apache.olingo.server.core.serializer.AbstractODataSerializer;
 import org.apache.olingo.server.core.serializer.SerializerResultImpl;
 import org.apache.olingo.server.core.serializer.utils.CircleStreamBuffer;
+import org.apache.olingo.server.core.serializer.utils.ColumnBinding;
 import org.apache.olingo.server.core.serializer.utils.ContentTypeHelper;
 import org.apache.olingo.server.core.serializer.utils.ContextURLBuilder;
 import org.apache.olingo.server.core.serializer.utils.ExpandSelectHelper;
+import org.apache.olingo.server.core.serializer.utils.KeyPredicateWriter;
+import org.apache.olingo.server.core.serializer.utils.SerializationPlan;
 import org.apache.olingo.server.core.uri.UriHelperImpl;
 import org.apache.olingo.server.core.uri.queryoption.ExpandOptionImpl;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
 
 public class ODataJsonSerializer extends AbstractODataSerializer {
 
@@ -115,7 +137,14 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
   private final boolean isODataMetadataNone;
   private final boolean isODataMetadataFull;
   private IConstants constants;
+  /** Pre-encoded names, shared per service metadata once a serialization method has been called. */
+  private JsonNames names;
+  private ServiceMetadata namesScope;
   private ODataJsonInstanceAnnotationSerializer instanceAnnotSerializer;
+  private final SerializationPlan.Cache plans = new SerializationPlan.Cache();
+  private final KeyPredicateWriter.Cache keyPredicates = new KeyPredicateWriter.Cache();
+  /** Expand loading of the serialization call in progress, or <code>null</code> if it has no {@link ExpandLoader}. */
+  private ExpandLoading expandLoading;
 
   public ODataJsonSerializer(final ContentType contentType, final IConstants constants) {
     isIEEE754Compatible = ContentTypeHelper.isODataIEEE754Compatible(contentType);
@@ -201,6 +230,9 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
   public SerializerResult entityCollection(final ServiceMetadata metadata,
       final EdmEntityType entityType, final AbstractEntityCollection entitySet,
       final EntityCollectionSerializerOptions options) throws SerializerException {
+    useNames(metadata);
+    final ExpandLoading previousExpandLoading = startExpandLoading(options == null ? null : options.getExpandLoader(),
+        options == null ? 0 : options.getExpandChunkSize());
     OutputStream outputStream = null;
     SerializerException cachedException = null;
     boolean pagination = false;
@@ -237,6 +269,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
           new SerializerException(IO_EXCEPTION_TEXT, e, SerializerException.MessageKeys.IO_EXCEPTION);
       throw cachedException;
     } finally {
+      expandLoading = previousExpandLoading;
       closeCircleStreamBufferOutput(outputStream, cachedException);
     }
   }
@@ -252,6 +285,9 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       final EdmEntityType entityType, final EntityIterator entitySet,
       final EntityCollectionSerializerOptions options, final OutputStream outputStream)
       throws SerializerException {
+    useNames(metadata);
+    final ExpandLoading previousExpandLoading = startExpandLoading(options == null ? null : options.getExpandLoader(),
+        options == null ? 0 : options.getExpandChunkSize());
 
     SerializerException cachedException;
     boolean pagination = false;
@@ -283,18 +319,23 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       cachedException =
           new SerializerException(IO_EXCEPTION_TEXT, e, SerializerException.MessageKeys.IO_EXCEPTION);
       throw cachedException;
+    } finally {
+      expandLoading = previousExpandLoading;
     }
   }
 
   @Override
   public SerializerResult entity(final ServiceMetadata metadata, final EdmEntityType entityType,
       final Entity entity, final EntitySerializerOptions options) throws SerializerException {
+    useNames(metadata);
     OutputStream outputStream = null;
     SerializerException cachedException = null;
     
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     outputStream = buffer.getOutputStream();
+    final ExpandLoading previousExpandLoading = startExpandLoading(options == null ? null : options.getExpandLoader(),
+        EntityCollectionSerializerOptions.DEFAULT_EXPAND_CHUNK_SIZE);
     try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
       String name =  contextURL == null ? null:contextURL.getEntitySetOrSingletonOrType();
       writeEntity(metadata, entityType, entity, contextURL,
@@ -312,10 +353,25 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
           new SerializerException(IO_EXCEPTION_TEXT, e, SerializerException.MessageKeys.IO_EXCEPTION);
       throw cachedException;
     } finally {
+      expandLoading = previousExpandLoading;
       closeCircleStreamBufferOutput(outputStream, cachedException);
     }
   }
 
+  private void useNames(final ServiceMetadata metadata) {
+    if (metadata != null && metadata != namesScope) {
+      names = JsonNames.get(metadata, constants);
+      namesScope = metadata;
+    }
+  }
+
+  private JsonNames names() {
+    if (names == null) {
+      names = JsonNames.get(null, constants);
+    }
+    return names;
+  }
+
   ContextURL checkContextURL(final ContextURL contextURL) throws SerializerException {
     if (isODataMetadataNone) {
       return null;
@@ -330,18 +386,220 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       final boolean onlyReference, final Set<String> ancestors, String name, final JsonGenerator json)
           throws IOException, SerializerException, DecoderException {
     json.writeStartArray();
-    for (final Entity entity : entitySet) {
-      if (onlyReference) {
-        json.writeStartObject();
-        json.writeStringField(constants.getId(), getEntityId(entity, entityType, name));
-        json.writeEndObject();
-      } else {
-        writeEntity(metadata, entityType, entity, null, expand, toDepth, select, false, ancestors, name, json);
+    final ExpandLoading loading = expandLoading;
+    if (loading != null && !onlyReference && toDepth == null && ExpandSelectHelper.hasExpand(expand)) {
+      // load the expanded navigation properties of a whole chunk of entities at once
+      final List<Entity> chunk = new ArrayList<>();
+      final Iterator<Entity> iterator = entitySet.iterator();
+      while (iterator.hasNext()) {
+        chunk.clear();
+        while (chunk.size() < loading.chunkSize && iterator.hasNext()) {
+          chunk.add(iterator.next());
+        }
+        try {
+          loadExpansions(loading, entityType, chunk, expand, name);
+          for (final Entity entity : chunk) {
+            writeEntity(metadata, entityType, entity, null, expand, toDepth, select, false, ancestors, name, json);
+          }
+        } finally {
+          for (final Entity entity : chunk) {
+            loading.loaded.remove(entity);
+          }
+        }
+      }
+    } else if (isColumnarApplicable(entityType, entitySet, expand, toDepth, select, onlyReference)) {
+      writeColumnarEntitySet(metadata, entityType, (ColumnarEntityCollection) entitySet, select, expand, json);
+    } else {
+      for (final Entity entity : entitySet) {
+        if (onlyReference) {
+          json.writeStartObject();
+          writeStringField(json, names().getId(), getEntityId(entity, entityType, name));
+          json.writeEndObject();
+        } else {
+          writeEntity(metadata, entityType, entity, null, expand, toDepth, select, false, ancestors, name, json);
+        }
       }
     }
     json.writeEndArray();
   }
 
+  /**
+   * Checks whether the entities can be written directly from the columns, i.e., whether nothing else than the
+   * structural properties has to be written for them.
+   */
+  private boolean isColumnarApplicable(final EdmEntityType entityType, final AbstractEntityCollection entitySet,
+      final ExpandOption expand, final Integer toDepth, final SelectOption select, final boolean onlyReference) {
+    return entitySet instanceof ColumnarEntityCollection
+        && !onlyReference && toDepth == null && !ExpandSelectHelper.hasExpand(expand)
+        && !isODataMetadataFull
+        && (isODataMetadataNone || plans.get(entityType, select, expand).areKeyPredicateNamesSelected());
+  }
+
+  private void writeColumnarEntitySet(final ServiceMetadata metadata, final EdmEntityType entityType,
+      final ColumnarEntityCollection entitySet, final SelectOption select, final ExpandOption expand,
+      final JsonGenerator json) throws IOException, SerializerException, DecoderException {
+    final SerializationPlan plan = plans.get(entityType, select, expand);
+    final List<ColumnBinding> bindings = ColumnBinding.bind(plan, entitySet);
+    // Strings are encoded once per distinct value.
+    final SerializableString[][] encodedStrings = new SerializableString[bindings.size()][];
+    for (int i = 0; i < bindings.size(); i++) {
+      if (bindings.get(i).getKind() == ColumnBinding.Kind.STRING) {
+        final String[] strings = bindings.get(i).getStrings();
+        encodedStrings[i] = new SerializableString[strings.length];
+        for (int code = 0; code < strings.length; code++) {
+          encodedStrings[i][code] = strings[code] == null ? null : new SerializedString(strings[code]);
+        }
+      }
+    }
+    final int size = entitySet.size();
+    for (int row = 0; row < size; row++) {
+      json.writeStartObject();
+      for (int i = 0; i < bindings.size(); i++) {
+        writeColumnValue(metadata, plan, bindings.get(i), encodedStrings[i], row, json);
+      }
+      json.writeEndObject();
+    }
+  }
+
+  private void writeColumnValue(final ServiceMetadata metadata, final SerializationPlan plan,
+      final ColumnBinding binding, final SerializableString[] encodedStrings, final int row,
+      final JsonGenerator json) throws IOException, SerializerException, DecoderException {
+    final SerializationPlan.PropertyPlan propertyPlan = binding.getPropertyPlan();
+    final ColumnVector column = binding.getColumn();
+    final boolean isNull = column == null || column.isNull(row);
+    if (!isNull) {
+      switch (binding.getKind()) {
+      case INT:
+        final int intValue = ((ColumnVector.IntVector) column).getInt(row);
+        json.writeFieldName(propertyPlan.getSerializedName());
+        if (isIEEE754Compatible && propertyPlan.getEdmProperty().getType()
+            == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int64)) {
+          json.writeString(Integer.toString(intValue));
+        } else {
+          json.writeNumber(intValue);
+        }
+        return;
+      case LONG:
+        final long longValue = ((ColumnVector.LongVector) column).getLong(row);
+        json.writeFieldName(propertyPlan.getSerializedName());
+        if (isIEEE754Compatible) {
+          json.writeString(Long.toString(longValue));
+        } else {
+          json.writeNumber(longValue);
+        }
+        return;
+      case DOUBLE:
+        final double doubleValue = ((ColumnVector.DoubleVector) column).getDouble(row);
+        // Infinity and NaN are written the generic way.
+        if (!Double.isInfinite(doubleValue) && !Double.isNaN(doubleValue)) {
+          json.writeFieldName(propertyPlan.getSerializedName());
+          json.writeNumber(doubleValue);
+          return;
+        }
+        break;
+      case BOOLEAN:
+        json.writeFieldName(propertyPlan.getSerializedName());
+        json.writeBoolean(((ColumnVector.BooleanVector) column).getBoolean(row));
+        return;
+      case STRING:
+        final int index = binding.getStringIndex(row);
+        if (index >= 0) {
+          json.writeFieldName(propertyPlan.getSerializedName());
+          json.writeString(encodedStrings[index]);
+          return;
+        }
+        break;
+      default:
+        break;
+      }
+    }
+    writeProperty(metadata, propertyPlan.getEdmProperty(),
+        isNull ? null : new Property(null, propertyPlan.getName(), ValueType.PRIMITIVE, column.getValue(row)),
+        propertyPlan.getSelectedPaths(), json, plan.getExpandedPaths(), null, null,
+        propertyPlan.getSerializedName());
+  }
+
+  /**
+   * Starts the expand loading of a serialization call.
+   * @return the expand loading of the enclosing call, to be restored when this call has finished
+   */
+  private ExpandLoading startExpandLoading(final ExpandLoader loader, final int chunkSize) {
+    final ExpandLoading previous = expandLoading;
+    expandLoading = loader == null ? null : new ExpandLoading(loader, chunkSize);
+    return previous;
+  }
+
+  /** State of a serialization call which loads expanded navigation properties with an {@link ExpandLoader}. */
+  private static final class ExpandLoading {
+    private final ExpandLoader loader;
+    private final int chunkSize;
+    /** Related entities loaded for the current chunk of entities, by parent and navigation-property name. */
+    private final Map<Linked, Map<String, EntityIterator>> loaded = new IdentityHashMap<>();
+
+    private ExpandLoading(final ExpandLoader loader, final int chunkSize) {
+      this.loader = loader;
+      this.chunkSize = chunkSize;
+    }
+  }
+
+  private static boolean isInlined(final Link navigationLink) {
+    return navigationLink != null
+        && (navigationLink.getInlineEntitySet() != null || navigationLink.getInlineEntity() != null);
+  }
+
+  /**
+   * Asks the {@link ExpandLoader} for the related entities of all given entities, for every expanded navigation
+   * property of the given type which is not inlined.
+   */
+  private void loadExpansions(final ExpandLoading loading, final EdmEntityType type, final List<Entity> entities,
+      final ExpandOption expand, final String name) {
+    final ExpandItem expandAll = ExpandSelectHelper.getExpandAll(expand);
+    for (final String propertyName : type.getNavigationPropertyNames()) {
+      final ExpandItem innerOptions = ExpandSelectHelper.getExpandItemBasedOnType(expand.getExpandItems(),
+          propertyName, type, name);
+      final ExpandItem expandItem = innerOptions == null ? expandAll : innerOptions;
+      if (expandItem == null) {
+        continue;
+      }
+      final List<Entity> parents = new ArrayList<>(entities.size());
+      for (final Entity entity : entities) {
+        if (!isInlined(entity.getNavigationLink(propertyName))) {
+          parents.add(entity);
+        }
+      }
+      if (!parents.isEmpty()) {
+        final List<EntityIterator> loaded =
+            loading.loader.load(type.getNavigationProperty(propertyName), expandItem, parents);
+        for (int i = 0; i < parents.size(); i++) {
+          Map<String, EntityIterator> byProperty = loading.loaded.get(parents.get(i));
+          if (byProperty == null) {
+            byProperty = new HashMap<>();
+            loading.loaded.put(parents.get(i), byProperty);
+          }
+          byProperty.put(propertyName, loaded == null || i >= loaded.size() ? null : loaded.get(i));
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the related entities loaded for a navigation property, loading them if that did not happen together with
+   * other entities.
+   */
+  private EntityIterator getLoadedExpansion(final ExpandLoading loading, final Linked linked,
+      final EdmNavigationProperty property, final ExpandItem expandItem) {
+    final Map<String, EntityIterator> byProperty = loading.loaded.get(linked);
+    if (byProperty != null && byProperty.containsKey(property.getName())) {
+      return byProperty.remove(property.getName());
+    }
+    if (linked instanceof Entity) {
+      final List<EntityIterator> loaded =
+          loading.loader.load(property, expandItem, Collections.singletonList((Entity) linked));
+      return loaded == null || loaded.isEmpty() ? null : loaded.get(0);
+    }
+    return null;
+  }
+
   /**
    * Get the ascii representation of the entity id
    * or thrown an {@link SerializerException} if id is <code>null</code>.
@@ -357,24 +615,19 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
           || name == null) {
         throw new SerializerException("Entity id is null.", SerializerException.MessageKeys.MISSING_ID);
       }else{
-        final UriHelper uriHelper = new UriHelperImpl(); 
-        entity.setId(URI.create(name + '(' + uriHelper.buildKeyPredicate(entityType, entity) + ')'));
+        entity.setId(URI.create(buildCanonicalId(name, entityType, entity)));
       }
     }
     return entity.getId().toASCIIString();
   }
 
-  private boolean areKeyPredicateNamesSelected(SelectOption select, EdmEntityType type) {
-    if (select == null || ExpandSelectHelper.isAll(select)) {
-      return true;
-    }
-    final Set<String> selected = ExpandSelectHelper.getSelectedPropertyNames(select.getSelectItems());
-    for (String key : type.getKeyPredicateNames()) {
-      if (!selected.contains(key)) {
-        return false;
-      }
-    }
-    return true;
+  private String buildCanonicalId(final String name, final EdmEntityType entityType, final Entity entity)
+      throws SerializerException {
+    // serializers may be shared between threads, so the builder must not be kept in a field
+    final StringBuilder id = new StringBuilder(name.length() + 16);
+    id.append(name).append('(');
+    keyPredicates.get(entityType).append(entity, id);
+    return id.append(')').toString();
   }
 
   protected void writeEntity(final ServiceMetadata metadata, final EdmEntityType entityType, final Entity entity,
@@ -383,11 +636,14 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       String name, final JsonGenerator json)
       throws IOException, SerializerException, DecoderException {
     boolean cycle = false;
+    // the ID is computed once and used for both adding to and removing from the ancestors
+    String id = null;
     if (expand != null) {
       if (ancestors == null) {
         ancestors = new HashSet<>();
       }
-      cycle = !ancestors.add(getEntityId(entity, entityType, name));
+      id = getEntityId(entity, entityType, name);
+      cycle = !ancestors.add(id);
     }
     try {
       json.writeStartObject();
@@ -398,40 +654,41 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
           writeMetadataETag(metadata, json);
         }
         if (entity.getETag() != null) {
-          json.writeStringField(constants.getEtag(), entity.getETag());
+          writeStringField(json, names().getEtag(), entity.getETag());
         }
         if (entityType.hasStream()) {
           if (entity.getMediaETag() != null) {
-            json.writeStringField(constants.getMediaEtag(), entity.getMediaETag());
+            writeStringField(json, names().getMediaEtag(), entity.getMediaETag());
           }
           if (entity.getMediaContentType() != null) {
-            json.writeStringField(constants.getMediaContentType(), entity.getMediaContentType());
+            writeStringField(json, names().getMediaContentType(), entity.getMediaContentType());
           }
           if (entity.getMediaContentSource() != null) {
-            json.writeStringField(constants.getMediaReadLink(), entity.getMediaContentSource().toString());
+            writeStringField(json, names().getMediaReadLink(), entity.getMediaContentSource().toString());
           }
           if (entity.getMediaEditLinks() != null && !entity.getMediaEditLinks().isEmpty()) {
-            json.writeStringField(constants.getMediaEditLink(), entity.getMediaEditLinks().get(0).getHref());
+            writeStringField(json, names().getMediaEditLink(), entity.getMediaEditLinks().get(0).getHref());
           }
         }
       }
       if (cycle || onlyReference) {
-        json.writeStringField(constants.getId(), getEntityId(entity, entityType, name));
+        writeStringField(json, names().getId(), id == null ? getEntityId(entity, entityType, name) : id);
       } else {
         final EdmEntityType resolvedType = resolveEntityType(metadata, entityType, entity.getType());
+        final SerializationPlan plan = plans.get(resolvedType, select, expand);
         if ((!isODataMetadataNone && !resolvedType.equals(entityType)) || isODataMetadataFull) {
-          json.writeStringField(constants.getType(), "#" + entity.getType());
+          writeStringField(json, names().getType(), plan.getTypeName());
         }
-        if ((!isODataMetadataNone && !areKeyPredicateNamesSelected(select, resolvedType)) || isODataMetadataFull) {
-          json.writeStringField(constants.getId(), getEntityId(entity, resolvedType, name));
+        if ((!isODataMetadataNone && !plan.areKeyPredicateNamesSelected()) || isODataMetadataFull) {
+          writeStringField(json, names().getId(), getEntityId(entity, resolvedType, name));
         }
         
         if (isODataMetadataFull) {
           if (entity.getSelfLink() != null) {
-            json.writeStringField(constants.getReadLink(), entity.getSelfLink().getHref());
+            writeStringField(json, names().getReadLink(), entity.getSelfLink().getHref());
           }
           if (entity.getEditLink() != null) {
-            json.writeStringField(constants.getEditLink(), entity.getEditLink().getHref());
+            writeStringField(json, names().getEditLink(), entity.getEditLink().getHref());
           }
         }
         instanceAnnotSerializer.writeInstanceAnnotationsOnEntity(entity.getAnnotations(), json);        
@@ -441,8 +698,8 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       }
       json.writeEndObject();
     } finally {
-      if (expand != null && !cycle && ancestors != null) {
-        ancestors.remove(getEntityId(entity, entityType, name));
+      if (id != null && !cycle) {
+        ancestors.remove(id);
       }
     }
   }
@@ -511,30 +768,11 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       final List<Property> properties,
       final SelectOption select, final JsonGenerator json, Linked linked, ExpandOption expand)
       throws IOException, SerializerException, DecoderException {
-    final boolean all = ExpandSelectHelper.isAll(select);
-    final Set<String> selected = all ? new HashSet<>() :
-        ExpandSelectHelper.getSelectedPropertyNames(select.getSelectItems());
-    addKeyPropertiesToSelected(selected, type);
-    Set<List<String>> expandedPaths = ExpandSelectHelper.getExpandedItemsPath(expand);
-    for (final String propertyName : type.getPropertyNames()) {
-      if (all || selected.contains(propertyName)) {
-        final EdmProperty edmProperty = type.getStructuralProperty(propertyName);
-        final Property property = findProperty(propertyName, properties);
-        final Set<List<String>> selectedPaths = all || edmProperty.isPrimitive() ? null :
-            ExpandSelectHelper.getSelectedPaths(select.getSelectItems(), propertyName);
-        writeProperty(metadata, edmProperty, property, selectedPaths, json, expandedPaths, linked, expand);
-      }
-    }
-  }
-  
-  private void addKeyPropertiesToSelected(Set<String> selected, EdmStructuredType type) {
-    if (!selected.isEmpty() && type instanceof EdmEntityType) {
-      List<String> keyNames = ((EdmEntityType) type).getKeyPredicateNames();
-      for (String key : keyNames) {
-        if (!selected.contains(key)) {
-          selected.add(key);
-        }
-      }
+    final SerializationPlan plan = plans.get(type, select, expand);
+    for (final SerializationPlan.PropertyPlan propertyPlan : plan.getProperties()) {
+      writeProperty(metadata, propertyPlan.getEdmProperty(), plan.findProperty(propertyPlan, properties),
+          propertyPlan.getSelectedPaths(), json, plan.getExpandedPaths(), linked, expand,
+          propertyPlan.getSerializedName());
     }
   }
 
@@ -546,11 +784,11 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       for (final String propertyName : type.getNavigationPropertyNames()) {
         final Link navigationLink = linked.getNavigationLink(propertyName);
         if (navigationLink != null) {
-          json.writeStringField(propertyName + constants.getNavigationLink(), navigationLink.getHref());  
+          writeStringField(json, names().get(propertyName).getNavigationLink(), navigationLink.getHref());  
         }
         final Link associationLink = linked.getAssociationLink(propertyName);
         if (associationLink != null) {
-          json.writeStringField(propertyName + constants.getAssociationLink(), associationLink.getHref());  
+          writeStringField(json, names().get(propertyName).getAssociationLink(), associationLink.getHref());  
         }
       }
     }
@@ -583,7 +821,19 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
             childExpand = expand;
           }
                              
-          writeExpandedNavigationProperty(metadata, property, navigationLink,
+          AbstractEntityCollection inlineEntitySet = navigationLink == null ? null
+              : navigationLink.getInlineEntitySet();
+          Entity inlineEntity = navigationLink == null ? null : navigationLink.getInlineEntity();
+          if (expandLoading != null && !isInlined(navigationLink)) {
+            final EntityIterator loaded = getLoadedExpansion(expandLoading, linked, property,
+                innerOptions == null ? expandAll : innerOptions);
+            if (property.isCollection()) {
+              inlineEntitySet = loaded;
+            } else {
+              inlineEntity = loaded != null && loaded.hasNext() ? loaded.next() : null;
+            }
+          }
+          writeExpandedNavigationProperty(metadata, property, inlineEntitySet, inlineEntity,
             childExpand, levels,
             innerOptions == null ? null : innerOptions.getSelectOption(),
             innerOptions == null ? null : innerOptions.getCountOption(),
@@ -625,8 +875,10 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       }
       Link link = (Link) property.getValue();
       Property stream = link.getInlineEntity().getProperty(propertyName);
-      Base64 decoder = new Base64(true);
-      byte[] decodedBytes = (byte[]) decoder.decode(stream.getValue());
+      final Object encoded = stream.getValue();
+      byte[] decodedBytes = encoded instanceof String
+          ? EdmBinary.decode((String) encoded)
+          : (byte[]) new Base64(true).decode(encoded);
       json.writeStringField(propertyName, new String(decodedBytes));     
     }
   }
@@ -637,37 +889,49 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       Integer toDepth, final SelectOption innerSelect, final CountOption innerCount,
       final boolean writeOnlyCount, final boolean writeOnlyRef, final Set<String> ancestors,
       String name, final JsonGenerator json) throws IOException, SerializerException, DecoderException {
+    writeExpandedNavigationProperty(metadata, property,
+        navigationLink == null ? null : navigationLink.getInlineEntitySet(),
+        navigationLink == null ? null : navigationLink.getInlineEntity(),
+        innerExpand, toDepth, innerSelect, innerCount, writeOnlyCount, writeOnlyRef, ancestors, name, json);
+  }
+
+  private void writeExpandedNavigationProperty(
+      final ServiceMetadata metadata, final EdmNavigationProperty property,
+      final AbstractEntityCollection inlineEntitySet, final Entity inlineEntity, final ExpandOption innerExpand,
+      Integer toDepth, final SelectOption innerSelect, final CountOption innerCount,
+      final boolean writeOnlyCount, final boolean writeOnlyRef, final Set<String> ancestors,
+      String name, final JsonGenerator json) throws IOException, SerializerException, DecoderException {
 
     if (property.isCollection()) {
       if (writeOnlyCount) {
-        if (navigationLink == null || navigationLink.getInlineEntitySet() == null) {
+        if (inlineEntitySet == null) {
           writeInlineCount(property.getName(), 0, json);
         } else {
-          writeInlineCount(property.getName(), navigationLink.getInlineEntitySet().getCount(), json);
+          writeInlineCount(property.getName(), inlineEntitySet.getCount(), json);
         }
       } else {
-        if (navigationLink == null || navigationLink.getInlineEntitySet() == null) {
+        if (inlineEntitySet == null) {
           if (innerCount != null && innerCount.getValue()) {
             writeInlineCount(property.getName(), 0, json);
           }
-          json.writeFieldName(property.getName());
+          json.writeFieldName(names().get(property.getName()).getName());
           json.writeStartArray();
           json.writeEndArray();
         } else {
           if (innerCount != null && innerCount.getValue()) {
-            writeInlineCount(property.getName(), navigationLink.getInlineEntitySet().getCount(), json);
+            writeInlineCount(property.getName(), inlineEntitySet.getCount(), json);
           }
-          json.writeFieldName(property.getName());
-          writeEntitySet(metadata, property.getType(), navigationLink.getInlineEntitySet(), innerExpand, toDepth,
+          json.writeFieldName(names().get(property.getName()).getName());
+          writeEntitySet(metadata, property.getType(), inlineEntitySet, innerExpand, toDepth,
               innerSelect, writeOnlyRef, ancestors, name, json);
         }
       }
     } else {
-      json.writeFieldName(property.getName());
-      if (navigationLink == null || navigationLink.getInlineEntity() == null) {
+      json.writeFieldName(names().get(property.getName()).getName());
+      if (inlineEntity == null) {
         json.writeNull();
       } else {
-        writeEntity(metadata, property.getType(), navigationLink.getInlineEntity(), null,
+        writeEntity(metadata, property.getType(), inlineEntity, null,
             innerExpand, toDepth, innerSelect, writeOnlyRef, ancestors, name, json);
       }
     }
@@ -682,13 +946,25 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       final EdmProperty edmProperty, final Property property,
       final Set<List<String>> selectedPaths, final JsonGenerator json, 
       Set<List<String>> expandedPaths, Linked linked, ExpandOption expand)
+      throws IOException, SerializerException, DecoderException  {
+    writeProperty(metadata, edmProperty, property, selectedPaths, json, expandedPaths, linked, expand, null);
+  }
+
+  private void writeProperty(final ServiceMetadata metadata,
+      final EdmProperty edmProperty, final Property property,
+      final Set<List<String>> selectedPaths, final JsonGenerator json,
+      Set<List<String>> expandedPaths, Linked linked, ExpandOption expand, final SerializableString fieldName)
       throws IOException, SerializerException, DecoderException  {
 	
 	instanceAnnotSerializer.writeInstanceAnnotationsOnProperties(edmProperty, property, json);
     boolean isStreamProperty = isStreamProperty(edmProperty);
     writePropertyType(edmProperty, json);
     if (!isStreamProperty) {
-      json.writeFieldName(edmProperty.getName());
+      if (fieldName == null) {
+        json.writeFieldName(names().get(edmProperty.getName()).getName());
+      } else {
+        json.writeFieldName(fieldName);
+      }
     }
     if (property == null || property.isNull()) {
       if (edmProperty.isNullable() == Boolean.FALSE && !isStreamProperty) {
@@ -715,30 +991,30 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     if (!isODataMetadataFull) {
       return;
     }
-    String typeName = edmProperty.getName() + constants.getType();
+    final SerializableString typeName = names().get(edmProperty.getName()).getType();
     final EdmType type = edmProperty.getType();
     if (type.getKind() == EdmTypeKind.ENUM || type.getKind() == EdmTypeKind.DEFINITION) {
       if (edmProperty.isCollection()) {
-        json.writeStringField(typeName, 
+        writeStringField(json, typeName, 
             "#Collection(" + type.getFullQualifiedName().getFullQualifiedNameAsString() + ")");
       } else {
-        json.writeStringField(typeName, "#" + type.getFullQualifiedName().getFullQualifiedNameAsString());
+        writeStringField(json, typeName, "#" + type.getFullQualifiedName().getFullQualifiedNameAsString());
       }
     } else if (edmProperty.isPrimitive()) {
       if (edmProperty.isCollection()) {
-        json.writeStringField(typeName, "#Collection(" + type.getFullQualifiedName().getName() + ")");
+        writeStringField(json, typeName, "#Collection(" + type.getFullQualifiedName().getName() + ")");
       } else {
         // exclude the properties that can be heuristically determined
         if (type != EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Boolean) &&
             type != EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Double) &&
             type != EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.String)) {
-          json.writeStringField(typeName, "#" + type.getFullQualifiedName().getName());                  
+          writeStringField(json, typeName, "#" + type.getFullQualifiedName().getName());                  
         }
       }
     } else if (type.getKind() == EdmTypeKind.COMPLEX) {
       // non-collection case written in writeComplex method directly.
       if (edmProperty.isCollection()) {
-        json.writeStringField(typeName, 
+        writeStringField(json, typeName, 
             "#Collection(" + type.getFullQualifiedName().getFullQualifiedNameAsString() + ")");
       }
     } else {
@@ -813,7 +1089,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
           resolvedType = resolveComplexType(metadata, type, derivedName);
         }
         if (!isODataMetadataNone && !resolvedType.equals(type) || isODataMetadataFull) {
-           json.writeStringField(constants.getType(), "#" + 
+           writeStringField(json, names().getType(), "#" + 
         resolvedType.getFullQualifiedName().getFullQualifiedNameAsString());
         }
         
@@ -882,7 +1158,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       case COLLECTION_COMPLEX:
         json.writeStartObject();
         if (isODataMetadataFull || (!isODataMetadataNone && !derivedType.equals(type))) {
-             json.writeStringField(constants.getType(), "#" + 
+             writeStringField(json, names().getType(), "#" + 
                  derivedType.getFullQualifiedName().getFullQualifiedNameAsString());
         }
         expandedPaths = expandedPaths == null || expandedPaths.isEmpty() ? null :
@@ -903,7 +1179,10 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       final Boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
       final Boolean isUnicode, final JsonGenerator json)
       throws EdmPrimitiveTypeException, IOException, SerializerException {
-    if (property.isPrimitive()) {
+    if (property.getPrimitiveStorage() != Valuable.PrimitiveStorage.OBJECT
+        && writeUnboxedPrimitive(type, property, json)) {
+      return;
+    } else if (property.isPrimitive()) {
       writePrimitiveValue(property.getName(), type, property.asPrimitive(),
           isNullable, maxLength, precision, scale, isUnicode, json);
     } else if (property.isGeospatial()) {
@@ -917,9 +1196,146 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     }
   }
 
+  /**
+   * Writes a value held unboxed in the property directly if its storage form matches the EDM type;
+   * other combinations need the facet checks of {@link EdmPrimitiveType#valueToString} and are left to the caller.
+   * @return whether the value has been written
+   */
+  private boolean writeUnboxedPrimitive(final EdmPrimitiveType type, final Property property,
+      final JsonGenerator json) throws IOException {
+    switch (property.getPrimitiveStorage()) {
+    case INT:
+      if (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int32)) {
+        json.writeNumber(property.getInt());
+        return true;
+      }
+      return false;
+    case LONG:
+      if (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int64)) {
+        if (isIEEE754Compatible) {
+          json.writeString(Long.toString(property.getLong()));
+        } else {
+          json.writeNumber(property.getLong());
+        }
+        return true;
+      }
+      return false;
+    case DOUBLE:
+      final double value = property.getDouble();
+      if (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Double)
+          && !Double.isInfinite(value) && !Double.isNaN(value)) {
+        json.writeNumber(value);
+        return true;
+      }
+      return false;
+    case BOOLEAN:
+      if (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Boolean)) {
+        json.writeBoolean(property.getBoolean());
+        return true;
+      }
+      return false;
+    default:
+      return false;
+    }
+  }
+
+  /**
+   * Writes date and time values straight from a character buffer; these types have no facets to check.
+   * @return whether the value has been written
+   */
+  private boolean writeTemporalValue(final EdmPrimitiveType type, final Object value, final JsonGenerator json)
+      throws IOException {
+    if (type != EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.DateTimeOffset)
+        && type != EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Date)
+        && type != EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.TimeOfDay)) {
+      return false;
+    }
+    // allocated per value, as serializers may be shared between threads; the buffer does not escape
+    final char[] valueBuffer = new char[IsoDateTime.MAX_LENGTH];
+    final int length;
+    if (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.DateTimeOffset)) {
+      length = ((EdmDateTimeOffset) type).valueToChars(value, valueBuffer);
+    } else if (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Date)) {
+      length = ((EdmDate) type).valueToChars(value, valueBuffer);
+    } else {
+      length = ((EdmTimeOfDay) type).valueToChars(value, valueBuffer);
+    }
+    if (length < 0) {
+      return false;
+    }
+    json.writeString(valueBuffer, 0, length);
+    return true;
+  }
+
+  /**
+   * Writes Int64 and Decimal values without formatting them into a string first;
+   * values not covered here are left to {@link EdmPrimitiveType#valueToString}.
+   * @return whether the value has been written
+   */
+  private boolean writeNumericValue(final EdmPrimitiveType type, final Object value,
+      final Integer precision, final Integer scale, final JsonGenerator json) throws IOException {
+    if (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int64)) {
+      if (!(value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)) {
+        return false;
+      }
+      final long longValue = ((Number) value).longValue();
+      if (isIEEE754Compatible) {
+        json.writeString(Long.toString(longValue));
+      } else {
+        json.writeNumber(longValue);
+      }
+      return true;
+    } else if (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Decimal)) {
+      final char[] valueBuffer = new char[EdmDecimal.MAX_LENGTH];
+      final int length = ((EdmDecimal) type).valueToChars(value, precision, scale, valueBuffer);
+      if (length < 0) {
+        return false;
+      }
+      if (isIEEE754Compatible) {
+        json.writeString(valueBuffer, 0, length);
+      } else {
+        json.writeNumber(valueBuffer, 0, length);
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Lets the generator Base64-encode binary values in chunks instead of building the encoded string.
+   * A value given as {@link InputStream} is read to its end and closed; its length is not checked
+   * against the MaxLength facet.
+   * @return whether the value has been written
+   */
+  private boolean writeBinaryValue(final EdmPrimitiveType type, final Object value, final Integer maxLength,
+      final JsonGenerator json) throws IOException {
+    if (type != EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Binary)) {
+      return false;
+    }
+    if (value instanceof byte[]) {
+      if (maxLength != null && ((byte[]) value).length > maxLength) {
+        return false;
+      }
+      json.writeBinary((byte[]) value);
+      return true;
+    } else if (value instanceof InputStream) {
+      try (InputStream stream = (InputStream) value) {
+        json.writeBinary(stream, -1);
+      }
+      return true;
+    }
+    return false;
+  }
+
   protected void writePrimitiveValue(final String name, final EdmPrimitiveType type, final Object primitiveValue,
       final Boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
       final Boolean isUnicode, final JsonGenerator json) throws EdmPrimitiveTypeException, IOException {
+    if (primitiveValue != null
+        && (writeTemporalValue(type, primitiveValue, json)
+            || writeNumericValue(type, primitiveValue, precision, scale, json)
+            || writeBinaryValue(type, primitiveValue, maxLength, json))) {
+      return;
+    }
     final String value = type.valueToString(primitiveValue,
         isNullable, maxLength, precision, scale, isUnicode);
     if (value == null) {
@@ -941,18 +1357,18 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
         Link stream = (Link)primitiveValue;
         if (!isODataMetadataNone) {
           if (stream.getMediaETag() != null) {
-            json.writeStringField(name+constants.getMediaEtag(), stream.getMediaETag());
+            writeStringField(json, names().get(name).getMediaEtag(), stream.getMediaETag());
           }
           if (stream.getType() != null) {
-            json.writeStringField(name+constants.getMediaContentType(), stream.getType());
+            writeStringField(json, names().get(name).getMediaContentType(), stream.getType());
           }
         }
         if (isODataMetadataFull) {
           if (stream.getRel() != null && stream.getRel().equals(Constants.NS_MEDIA_READ_LINK_REL)) {
-            json.writeStringField(name+constants.getMediaReadLink(), stream.getHref());
+            writeStringField(json, names().get(name).getMediaReadLink(), stream.getHref());
           }
           if (stream.getRel() == null || stream.getRel().equals(Constants.NS_MEDIA_EDIT_LINK_REL)) {
-            json.writeStringField(name+constants.getMediaEditLink(), stream.getHref());
+            writeStringField(json, names().get(name).getMediaEditLink(), stream.getHref());
           }
         }
       }
@@ -1043,6 +1459,19 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
   }
 
   private void writeGeoPoints(JsonGenerator json, final ComposedGeospatial<Point> points) throws IOException {
+    final PackedCoordinates coordinates = points.getCoordinates();
+    if (coordinates != null) {
+      for (int i = 0; i < coordinates.size(); i++) {
+        json.writeStartArray();
+        json.writeNumber(coordinates.getX(i));
+        json.writeNumber(coordinates.getY(i));
+        if (coordinates.getZ(i) != 0) {
+          json.writeNumber(coordinates.getZ(i));
+        }
+        json.writeEndArray();
+      }
+      return;
+    }
     for (final Point point : points) {
       json.writeStartArray();
       writeGeoPoint(json, point);
@@ -1106,6 +1535,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
   @Override
   public SerializerResult primitive(final ServiceMetadata metadata, final EdmPrimitiveType type,
       final Property property, final PrimitiveSerializerOptions options) throws SerializerException {
+    useNames(metadata);
     OutputStream outputStream = null;
     SerializerException cachedException = null;
     
@@ -1149,6 +1579,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
   @Override
   public SerializerResult complex(final ServiceMetadata metadata, final EdmComplexType type,
       final Property property, final ComplexSerializerOptions options) throws SerializerException {
+    useNames(metadata);
     OutputStream outputStream = null;
     SerializerException cachedException = null;
     try {
@@ -1176,7 +1607,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
         resolvedType = resolveComplexType(metadata, type, property.getType());
       }
       if (!isODataMetadataNone && !resolvedType.equals(type) || isODataMetadataFull) {
-        json.writeStringField(constants.getType(), "#" + 
+        writeStringField(json, names().getType(), "#" + 
       resolvedType.getFullQualifiedName().getFullQualifiedNameAsString());
       }
       writeOperations(property.getOperations(), json);      
@@ -1206,6 +1637,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
   @Override
   public SerializerResult primitiveCollection(final ServiceMetadata metadata, final EdmPrimitiveType type,
       final Property property, final PrimitiveSerializerOptions options) throws SerializerException {
+    useNames(metadata);
     OutputStream outputStream = null;
     SerializerException cachedException = null;
     
@@ -1217,7 +1649,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       writeContextURL(contextURL, json);
       writeMetadataETag(metadata, json);
       if (isODataMetadataFull) {
-        json.writeStringField(constants.getType(),  "#Collection("+type.getFullQualifiedName().getName()+")");
+        writeStringField(json, names().getType(), "#Collection("+type.getFullQualifiedName().getName()+")");
       }
       writeOperations(property.getOperations(), json);
       json.writeFieldName(Constants.VALUE);
@@ -1244,6 +1676,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
   public SerializerResult complexCollection(final ServiceMetadata metadata, final EdmComplexType type,
       final Property property, final ComplexSerializerOptions options) 
     		  throws SerializerException {
+    useNames(metadata);
     OutputStream outputStream = null;
     SerializerException cachedException = null;
     
@@ -1255,8 +1688,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       writeContextURL(contextURL, json);
       writeMetadataETag(metadata, json);
       if (isODataMetadataFull) {
-        json.writeStringField(constants.getType(), 
-            "#Collection(" + type.getFullQualifiedName().getFullQualifiedNameAsString() + ")");                
+        writeStringField(json, names().getType(), "#Collection(" + type.getFullQualifiedName().getFullQualifiedNameAsString() + ")");                
       }
       writeOperations(property.getOperations(), json);
       json.writeFieldName(Constants.VALUE);
@@ -1288,6 +1720,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
   @Override
   public SerializerResult reference(final ServiceMetadata metadata, final EdmEntitySet edmEntitySet,
       final Entity entity, final ReferenceSerializerOptions options) throws SerializerException {
+    useNames(metadata);
     OutputStream outputStream = null;
     SerializerException cachedException = null;
 
@@ -1300,7 +1733,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
 
       json.writeStartObject();
       writeContextURL(contextURL, json);
-      json.writeStringField(constants.getId(), uriHelper.buildCanonicalURL(edmEntitySet, entity));
+      writeStringField(json, names().getId(), uriHelper.buildCanonicalURL(edmEntitySet, entity));
       json.writeEndObject();
 
       json.close();
@@ -1318,13 +1751,14 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
   public SerializerResult referenceCollection(final ServiceMetadata metadata, final EdmEntitySet edmEntitySet,
       final AbstractEntityCollection entityCollection, final ReferenceCollectionSerializerOptions options)
       throws SerializerException {
+    useNames(metadata);
     OutputStream outputStream = null;
     SerializerException cachedException = null;
     boolean pagination = false ;
 
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
     CircleStreamBuffer buffer = new CircleStreamBuffer();
-    final UriHelper uriHelper = new UriHelperImpl();
+    final EdmEntityType entityType = edmEntitySet.getEntityType();
     outputStream = buffer.getOutputStream();
     try (final JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
       json.writeStartObject();
@@ -1337,7 +1771,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       json.writeArrayFieldStart(Constants.VALUE);
       for (final Entity entity : entityCollection) {
         json.writeStartObject();
-        json.writeStringField(constants.getId(), uriHelper.buildCanonicalURL(edmEntitySet, entity));
+        writeStringField(json, names().getId(), buildCanonicalId(edmEntitySet.getName(), entityType, entity));
         json.writeEndObject();
       }
       json.writeEndArray();
@@ -1360,7 +1794,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
 
   void writeContextURL(final ContextURL contextURL, final JsonGenerator json) throws IOException {
     if (!isODataMetadataNone && contextURL != null) {
-      json.writeStringField(constants.getContext(), ContextURLBuilder.create(contextURL).toASCIIString());
+      writeStringField(json, names().getContext(), ContextURLBuilder.create(contextURL).toASCIIString());
     }
   }
 
@@ -1369,8 +1803,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
         && metadata != null
         && metadata.getServiceMetadataETagSupport() != null
         && metadata.getServiceMetadataETagSupport().getMetadataETag() != null) {
-      json.writeStringField(constants.getMetadataEtag(),
-          metadata.getServiceMetadataETagSupport().getMetadataETag());
+      writeStringField(json, names().getMetadataEtag(), metadata.getServiceMetadataETagSupport().getMetadataETag());
     }
   }
 
@@ -1378,18 +1811,25 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       throws IOException {
     if (count != null) {
       if (isIEEE754Compatible) {
-        json.writeStringField(propertyName + constants.getCount(), String.valueOf(count));
+        writeStringField(json, names().get(propertyName).getCount(), String.valueOf(count));
       } else {
-        json.writeNumberField(propertyName + constants.getCount(), count);
+        json.writeFieldName(names().get(propertyName).getCount());
+        json.writeNumber(count);
       }
     }
   }
 
+  private static void writeStringField(final JsonGenerator json, final SerializableString name, final String value)
+      throws IOException {
+    json.writeFieldName(name);
+    json.writeString(value);
+  }
+
   void writeNextLink(final AbstractEntityCollection entitySet, final JsonGenerator json, boolean pagination)
       throws IOException {
     if (entitySet.getNext() != null) {
       pagination = true;
-      json.writeStringField(constants.getNextLink(), entitySet.getNext().toASCIIString());
+      writeStringField(json, names().getNextLink(), entitySet.getNext().toASCIIString());
     }else{
       pagination = false;
     }
@@ -1398,7 +1838,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
   void writeDeltaLink(final AbstractEntityCollection entitySet, final JsonGenerator json, boolean pagination)
       throws IOException {
     if (entitySet.getDeltaLink() != null && !pagination) {
-      json.writeStringField(constants.getDeltaLink(), entitySet.getDeltaLink().toASCIIString());
+      writeStringField(json, names().getDeltaLink(), entitySet.getDeltaLink().toASCIIString());
  }
   }
 }
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.ColumnVector;
+import org.apache.olingo.commons.api.data.ColumnarEntityCollection;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmType;
+import org.apache.olingo.commons.core.edm.primitivetype.EdmPrimitiveTypeFactory;
+import org.apache.olingo.server.core.serializer.utils.SerializationPlan.PropertyPlan;
+
+/**
+ * Binding of a planned property to the column of a {@link ColumnarEntityCollection} holding its values,
+ * together with the way these values can be written without creating objects per row.
+ */
+public final class ColumnBinding {
+
+  /** How the values of a column are written. */
+  public enum Kind {
+    /** <code>int</code> values of an <code>Edm.Int32</code> or <code>Edm.Int64</code> property */
+    INT,
+    /** <code>long</code> values of an <code>Edm.Int64</code> property */
+    LONG,
+    /** <code>double</code> values of an <code>Edm.Double</code> property */
+    DOUBLE,
+    /** <code>boolean</code> values of an <code>Edm.Boolean</code> property */
+    BOOLEAN,
+    /** dictionary-encoded values of an <code>Edm.String</code> property */
+    STRING,
+    /** values to be written as boxed property values, as for entities */
+    GENERIC,
+    /** no column for the property; it is written as missing property */
+    MISSING
+  }
+
+  private final PropertyPlan propertyPlan;
+  private final ColumnVector column;
+  private final Kind kind;
+  private final String[] strings;
+
+  private ColumnBinding(final PropertyPlan propertyPlan, final ColumnVector column) {
+    this.propertyPlan = propertyPlan;
+    this.column = column;
+    kind = column == null ? Kind.MISSING : getKind(column, propertyPlan.getEdmProperty());
+    strings = kind == Kind.STRING ? validate(((ColumnVector.DictionaryVector) column).getDictionary(),
+        propertyPlan.getEdmProperty()) : null;
+  }
+
+  /**
+   * Binds all planned properties to the columns of the given collection.
+   * @param plan the serialization plan
+   * @param collection the columnar collection
+   * @return the bindings in the order of the planned properties
+   */
+  public static List<ColumnBinding> bind(final SerializationPlan plan, final ColumnarEntityCollection collection) {
+    final List<ColumnBinding> bindings = new ArrayList<ColumnBinding>(plan.getProperties().size());
+    for (final PropertyPlan propertyPlan : plan.getProperties()) {
+      bindings.add(new ColumnBinding(propertyPlan, collection.getColumn(propertyPlan.getName())));
+    }
+    return bindings;
+  }
+
+  private static Kind getKind(final ColumnVector column, final EdmProperty property) {
+    if (!property.isPrimitive() || property.isCollection()) {
+      return Kind.GENERIC;
+    }
+    final EdmType type = property.getType();
+    if (column instanceof ColumnVector.IntVector
+        && (type == getType(EdmPrimitiveTypeKind.Int32) || type == getType(EdmPrimitiveTypeKind.Int64))) {
+      return Kind.INT;
+    } else if (column instanceof ColumnVector.LongVector && type == getType(EdmPrimitiveTypeKind.Int64)) {
+      return Kind.LONG;
+    } else if (column instanceof ColumnVector.DoubleVector && type == getType(EdmPrimitiveTypeKind.Double)) {
+      return Kind.DOUBLE;
+    } else if (column instanceof ColumnVector.BooleanVector && type == getType(EdmPrimitiveTypeKind.Boolean)) {
+      return Kind.BOOLEAN;
+    } else if (column instanceof ColumnVector.DictionaryVector && type == getType(EdmPrimitiveTypeKind.String)) {
+      return Kind.STRING;
+    } else {
+      return Kind.GENERIC;
+    }
+  }
+
+  private static EdmPrimitiveType getType(final EdmPrimitiveTypeKind kind) {
+    return EdmPrimitiveTypeFactory.getInstance(kind);
+  }
+
+  /** Checks the facets once per distinct value; values violating them are left to the generic path. */
+  private static String[] validate(final String[] dictionary, final EdmProperty property) {
+    final EdmPrimitiveType type = (EdmPrimitiveType) property.getType();
+    final String[] result = new String[dictionary.length];
+    for (int i = 0; i < dictionary.length; i++) {
+      try {
+        result[i] = type.valueToString(dictionary[i], property.isNullable(), property.getMaxLength(),
+            property.getPrecision(), property.getScale(), property.isUnicode());
+      } catch (final EdmPrimitiveTypeException e) {
+        result[i] = null;
+      }
+    }
+    return result;
+  }
+
+  public PropertyPlan getPropertyPlan() {
+    return propertyPlan;
+  }
+
+  public ColumnVector getColumn() {
+    return column;
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * Gets the index of the validated string value of a row of a {@link Kind#STRING} column.
+   * @param row the row index; its value must not be <code>null</code>
+   * @return the index in the dictionary or <code>-1</code> if the value has to be written the generic way
+   */
+  public int getStringIndex(final int row) {
+    final int code = ((ColumnVector.DictionaryVector) column).getCode(row);
+    return strings[code] == null ? -1 : code;
+  }
+
+  /**
+   * Gets the validated dictionary of a {@link Kind#STRING} column.
+   * @return the dictionary, with <code>null</code> for values to be written the generic way
+   */
+  public String[] getStrings() {
+    return strings;
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.utils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmKeyPropertyRef;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.core.Encoder;
+import org.apache.olingo.server.api.serializer.SerializerException;
+
+/**
+ * Writes the key predicate of entities of an entity type, e.g., <code>PropertyInt16=1,PropertyString='a'</code>,
+ * the same way as {@link org.apache.olingo.server.api.uri.UriHelper#buildKeyPredicate(EdmEntityType, Entity)}.
+ * <br/>
+ * Key property references, property paths, types, and the encoded key names are resolved once per type
+ * (see {@link Cache}) instead of once per entity.
+ */
+public final class KeyPredicateWriter {
+
+  private final KeyPart[] parts;
+
+  private KeyPredicateWriter(final EdmEntityType entityType) {
+    final List<String> keyNames = entityType.getKeyPredicateNames();
+    parts = new KeyPart[keyNames.size()];
+    for (int index = 0; index < parts.length; index++) {
+      final String keyName = keyNames.get(index);
+      final StringBuilder prefix = new StringBuilder();
+      if (index > 0) {
+        prefix.append(',');
+      }
+      if (parts.length > 1) {
+        Encoder.encode(keyName, prefix);
+        prefix.append('=');
+      }
+      parts[index] = new KeyPart(keyName, prefix.toString(), entityType.getKeyPropertyRef(keyName));
+    }
+  }
+
+  /**
+   * Appends the key predicate of an entity, without surrounding parentheses.
+   * @param entity the entity
+   * @param target the buffer the key predicate is appended to
+   * @throws SerializerException if a key property is not found or its value cannot be written
+   */
+  public void append(final Entity entity, final StringBuilder target) throws SerializerException {
+    for (final KeyPart part : parts) {
+      if (part.edmProperty == null) {
+        throw new SerializerException("Property not found (possibly an alias): " + part.keyName,
+            SerializerException.MessageKeys.MISSING_PROPERTY, part.keyName);
+      }
+      final Object value = part.findValue(entity);
+      target.append(part.prefix);
+      try {
+        Encoder.encode(part.type.toUriLiteral(
+            part.type.valueToString(value,
+                part.edmProperty.isNullable(), part.edmProperty.getMaxLength(),
+                part.edmProperty.getPrecision(), part.edmProperty.getScale(), part.edmProperty.isUnicode())),
+            target);
+      } catch (final EdmPrimitiveTypeException e) {
+        throw new SerializerException("Wrong key value!", e,
+            SerializerException.MessageKeys.WRONG_PROPERTY_VALUE, part.edmProperty.getName(),
+            value != null ? value.toString() : null);
+      }
+    }
+  }
+
+  private static final class KeyPart {
+
+    private final String keyName;
+    private final String prefix;
+    private final String path;
+    private final String[] segments;
+    private final EdmProperty edmProperty;
+    private final EdmPrimitiveType type;
+
+    private KeyPart(final String keyName, final String prefix, final EdmKeyPropertyRef keyPropertyRef) {
+      this.keyName = keyName;
+      this.prefix = prefix;
+      path = keyPropertyRef.getName();
+      segments = path.split("/");
+      edmProperty = keyPropertyRef.getProperty();
+      type = edmProperty == null ? null : (EdmPrimitiveType) edmProperty.getType();
+    }
+
+    private Object findValue(final Entity entity) throws SerializerException {
+      Property property = entity.getProperty(segments[0]);
+      for (int index = 1; index < segments.length && property != null; index++) {
+        property = find(segments[index], property.asComplex().getValue());
+      }
+      if (property == null) {
+        throw new SerializerException("Key Value Cannot be null for property: " + path,
+            SerializerException.MessageKeys.NULL_PROPERTY, path);
+      }
+      return property.getValue();
+    }
+
+    private static Property find(final String name, final List<Property> properties) {
+      for (final Property property : properties) {
+        if (name.equals(property.getName())) {
+          return property;
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Writers created so far, keyed by entity type; a cache is meant to live as long as a serializer.
+   */
+  public static final class Cache {
+
+    private static final int MAX_SIZE = 256;
+
+    private final Map<EdmEntityType, KeyPredicateWriter> writers =
+        new ConcurrentHashMap<EdmEntityType, KeyPredicateWriter>();
+
+    public KeyPredicateWriter get(final EdmEntityType entityType) {
+      KeyPredicateWriter writer = writers.get(entityType);
+      if (writer == null) {
+        writer = new KeyPredicateWriter(entityType);
+        if (writers.size() >= MAX_SIZE) {
+          writers.clear();
+        }
+        writers.put(entityType, writer);
+      }
+      return writer;
+    }
+  }
+}
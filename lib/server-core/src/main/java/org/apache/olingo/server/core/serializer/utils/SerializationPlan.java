@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
+import org.apache.olingo.server.api.uri.queryoption.SelectOption;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * Description of how instances of a structured type are serialized for a given combination of
+ * <code>$select</code> and <code>$expand</code> options: which structural properties are written and in which order,
+ * their pre-encoded names and selected sub-paths, the expanded complex paths and whether the key properties are
+ * selected.
+ * <br/>
+ * Plans are computed once per combination (see {@link Cache}) instead of once per serialized instance. Apart from
+ * the type name, which is computed on first use, a plan does not change after construction and can be shared between
+ * threads.
+ */
+public final class SerializationPlan {
+
+  private final EdmStructuredType type;
+  private final List<PropertyPlan> properties;
+  private final Set<List<String>> expandedPaths;
+  private final boolean keyPredicateNamesSelected;
+  private String typeName;
+
+  private SerializationPlan(final EdmStructuredType type, final SelectOption select, final ExpandOption expand) {
+    this.type = type;
+
+    final boolean all = ExpandSelectHelper.isAll(select);
+    final Set<String> selected = all ? new HashSet<String>() :
+        ExpandSelectHelper.getSelectedPropertyNames(select.getSelectItems());
+    boolean keysSelected = true;
+    if (type instanceof EdmEntityType) {
+      for (final String key : ((EdmEntityType) type).getKeyPredicateNames()) {
+        keysSelected &= all || selected.contains(key);
+      }
+      // key properties are always written
+      if (!selected.isEmpty()) {
+        selected.addAll(((EdmEntityType) type).getKeyPredicateNames());
+      }
+    }
+    keyPredicateNamesSelected = keysSelected;
+
+    final List<PropertyPlan> propertyPlans = new ArrayList<PropertyPlan>();
+    int position = 0;
+    for (final String propertyName : type.getPropertyNames()) {
+      if (all || selected.contains(propertyName)) {
+        final EdmProperty edmProperty = type.getStructuralProperty(propertyName);
+        final Set<List<String>> selectedPaths = all || edmProperty.isPrimitive() ? null :
+            ExpandSelectHelper.getSelectedPaths(select.getSelectItems(), propertyName);
+        propertyPlans.add(new PropertyPlan(edmProperty, position, selectedPaths));
+      }
+      position++;
+    }
+    properties = Collections.unmodifiableList(propertyPlans);
+
+    expandedPaths = Collections.unmodifiableSet(ExpandSelectHelper.getExpandedItemsPath(expand));
+  }
+
+  public EdmStructuredType getType() {
+    return type;
+  }
+
+  /**
+   * @return the structural properties to be written, in metadata order
+   */
+  public List<PropertyPlan> getProperties() {
+    return properties;
+  }
+
+  /**
+   * @return the paths of complex properties to be expanded
+   */
+  public Set<List<String>> getExpandedPaths() {
+    return expandedPaths;
+  }
+
+  /**
+   * @return <code>true</code> if all key properties are selected (always for non-entity types)
+   */
+  public boolean areKeyPredicateNamesSelected() {
+    return keyPredicateNamesSelected;
+  }
+
+  /**
+   * @return the qualified name of the type, prefixed with <code>#</code> as required for type annotations
+   */
+  public String getTypeName() {
+    // computed on first use, as the type annotation is not written for every metadata level
+    if (typeName == null) {
+      typeName = "#" + type.getFullQualifiedName().getFullQualifiedNameAsString();
+    }
+    return typeName;
+  }
+
+  /**
+   * Finds the value of a planned property. Properties are usually provided in metadata order: the property at the
+   * same position is checked first, falling back to a scan of the whole list.
+   *
+   * @param propertyPlan the planned property
+   * @param values the properties of the instance being serialized
+   * @return the property or <code>null</code> if not present
+   */
+  public Property findProperty(final PropertyPlan propertyPlan, final List<Property> values) {
+    final String name = propertyPlan.getName();
+    if (propertyPlan.position < values.size()) {
+      final Property candidate = values.get(propertyPlan.position);
+      if (candidate != null && name.equals(candidate.getName())) {
+        return candidate;
+      }
+    }
+    for (final Property property : values) {
+      if (name.equals(property.getName())) {
+        return property;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * A structural property to be written.
+   */
+  public static final class PropertyPlan {
+
+    private final EdmProperty edmProperty;
+    private final int position;
+    private final Set<List<String>> selectedPaths;
+    private final SerializableString serializedName;
+
+    private PropertyPlan(final EdmProperty edmProperty, final int position, final Set<List<String>> selectedPaths) {
+      this.edmProperty = edmProperty;
+      this.position = position;
+      this.selectedPaths = selectedPaths == null ? null : Collections.unmodifiableSet(selectedPaths);
+      serializedName = new SerializedString(edmProperty.getName());
+    }
+
+    public String getName() {
+      return edmProperty.getName();
+    }
+
+    public EdmProperty getEdmProperty() {
+      return edmProperty;
+    }
+
+    /**
+     * @return the selected sub-paths, <code>null</code> if the property is selected as a whole
+     */
+    public Set<List<String>> getSelectedPaths() {
+      return selectedPaths;
+    }
+
+    /**
+     * @return the JSON-encoded property name
+     */
+    public SerializableString getSerializedName() {
+      return serializedName;
+    }
+  }
+
+  /**
+   * Plans computed so far, keyed by the identity of type and options; options are parsed once per request, so a
+   * cache is meant to live as long as a serializer.
+   */
+  public static final class Cache {
+
+    private static final int MAX_SIZE = 256;
+
+    private final Map<Key, SerializationPlan> plans = new ConcurrentHashMap<Key, SerializationPlan>();
+
+    public SerializationPlan get(final EdmStructuredType type, final SelectOption select,
+        final ExpandOption expand) {
+      final Key key = new Key(type, select, expand);
+      SerializationPlan plan = plans.get(key);
+      if (plan == null) {
+        plan = new SerializationPlan(type, select, expand);
+        if (plans.size() >= MAX_SIZE) {
+          plans.clear();
+        }
+        plans.put(key, plan);
+      }
+      return plan;
+    }
+  }
+
+  private static final class Key {
+
+    private final EdmStructuredType type;
+    private final SelectOption select;
+    private final ExpandOption expand;
+
+    private Key(final EdmStructuredType type, final SelectOption select, final ExpandOption expand) {
+      this.type = type;
+      this.select = select;
+      this.expand = expand;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return type == other.type && select == other.select && expand == other.expand;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * System.identityHashCode(type) + System.identityHashCode(select))
+          + System.identityHashCode(expand);
+    }
+  }
+}
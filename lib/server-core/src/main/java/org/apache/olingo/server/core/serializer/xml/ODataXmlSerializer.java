@@ -19,9 +19,11 @@
 package org.apache.olingo.server.core.serializer.xml;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -33,6 +35,8 @@ import javax.xml.stream.XMLStreamWriter;
 
 import org.apache.olingo.commons.api.Constants;
 import org.apache.olingo.commons.api.data.AbstractEntityCollection;
+import org.apache.olingo.commons.api.data.ColumnVector;
+import org.apache.olingo.commons.api.data.ColumnarEntityCollection;
 import org.apache.olingo.commons.api.data.ComplexValue;
 import org.apache.olingo.commons.api.data.ContextURL;
 import org.apache.olingo.commons.api.data.Entity;
@@ -42,6 +46,7 @@ import org.apache.olingo.commons.api.data.Link;
 import org.apache.olingo.commons.api.data.Linked;
 import org.apache.olingo.commons.api.data.Operation;
 import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.ValueType;
 import org.apache.olingo.commons.api.edm.EdmComplexType;
 import org.apache.olingo.commons.api.edm.EdmEntitySet;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
@@ -55,6 +60,7 @@ import org.apache.olingo.commons.api.edm.EdmType;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
 import org.apache.olingo.commons.api.edm.constants.EdmTypeKind;
 import org.apache.olingo.commons.api.ex.ODataErrorDetail;
+import org.apache.olingo.commons.core.edm.primitivetype.EdmBinary;
 import org.apache.olingo.commons.core.edm.primitivetype.EdmPrimitiveTypeFactory;
 import org.apache.olingo.commons.core.edm.primitivetype.EdmString;
 import org.apache.olingo.server.api.ODataServerError;
@@ -68,7 +74,6 @@ import org.apache.olingo.server.api.serializer.ReferenceSerializerOptions;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.serializer.SerializerResult;
 import org.apache.olingo.server.api.serializer.SerializerStreamResult;
-import org.apache.olingo.server.api.uri.UriHelper;
 import org.apache.olingo.server.api.uri.queryoption.CountOption;
 import org.apache.olingo.server.api.uri.queryoption.ExpandItem;
 import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
@@ -78,9 +83,11 @@ import org.apache.olingo.server.core.ODataWritableContent;
 import org.apache.olingo.server.core.serializer.AbstractODataSerializer;
 import org.apache.olingo.server.core.serializer.SerializerResultImpl;
 import org.apache.olingo.server.core.serializer.utils.CircleStreamBuffer;
+import org.apache.olingo.server.core.serializer.utils.ColumnBinding;
 import org.apache.olingo.server.core.serializer.utils.ContextURLBuilder;
 import org.apache.olingo.server.core.serializer.utils.ExpandSelectHelper;
-import org.apache.olingo.server.core.uri.UriHelperImpl;
+import org.apache.olingo.server.core.serializer.utils.KeyPredicateWriter;
+import org.apache.olingo.server.core.serializer.utils.SerializationPlan;
 import org.apache.olingo.server.core.uri.queryoption.ExpandOptionImpl;
 
 public class ODataXmlSerializer extends AbstractODataSerializer {
@@ -92,6 +99,13 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
   private static final String NS_METADATA = Constants.NS_METADATA;
   private static final String DATA = Constants.PREFIX_DATASERVICES;
   private static final String NS_DATA = Constants.NS_DATASERVICES;
+  /** Number of bytes Base64-encoded at a time; a multiple of three so that chunks need no padding. */
+  private static final int BINARY_CHUNK_SIZE = 3 * 1024;
+
+  private final SerializationPlan.Cache plans = new SerializationPlan.Cache();
+  private final KeyPredicateWriter.Cache keyPredicates = new KeyPredicateWriter.Cache();
+  /** Scratch buffer for canonical entity IDs. */
+  private final StringBuilder idBuffer = new StringBuilder();
 
   @Override
   public SerializerResult serviceDocument(final ServiceMetadata metadata, final String serviceRoot)
@@ -410,11 +424,109 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
       final String xml10InvalidCharReplacement,final XMLStreamWriter writer, 
       final boolean writeOnlyRef, final String name,final Set<String> ancestors) 
           throws XMLStreamException, SerializerException {
+    if (entitySet instanceof ColumnarEntityCollection && !writeOnlyRef && toDepth == null
+        && !ExpandSelectHelper.hasExpand(expand) && !entityType.hasStream()) {
+      writeColumnarEntitySet(metadata, entityType, (ColumnarEntityCollection) entitySet, expand, select,
+          xml10InvalidCharReplacement, writer);
+      return;
+    }
     for (final Entity entity : entitySet) {
       writeEntity(metadata, entityType, entity, null, expand, toDepth, select, 
           xml10InvalidCharReplacement, writer, false, writeOnlyRef, name, ancestors);
     }
   }
+
+  /**
+   * Writes the entries directly from the columns; they look like the entries of entities without ID,
+   * ETag, links, and operations.
+   */
+  private void writeColumnarEntitySet(final ServiceMetadata metadata, final EdmEntityType entityType,
+      final ColumnarEntityCollection entitySet, final ExpandOption expand, final SelectOption select,
+      final String xml10InvalidCharReplacement, final XMLStreamWriter writer)
+      throws XMLStreamException, SerializerException {
+    final SerializationPlan plan = plans.get(entityType, select, expand);
+    final List<ColumnBinding> bindings = ColumnBinding.bind(plan, entitySet);
+    final Entity empty = new Entity();
+    final List<Link> navigationLinks = new ArrayList<Link>();
+    for (final String propertyName : entityType.getNavigationPropertyNames()) {
+      navigationLinks.add(getOrCreateLink(empty, propertyName));
+    }
+    final String updated = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'")
+        .format(new Date(System.currentTimeMillis()));
+    final String term = "#" + entityType.getFullQualifiedName().getFullQualifiedNameAsString();
+
+    final int size = entitySet.size();
+    for (int row = 0; row < size; row++) {
+      writer.writeStartElement(ATOM, Constants.ATOM_ELEM_ENTRY, NS_ATOM);
+      writerAuthorInfo(null, updated, writer);
+      for (final Link link : navigationLinks) {
+        writeLink(writer, link);
+      }
+      writer.writeStartElement(ATOM, Constants.ATOM_ELEM_CATEGORY, NS_ATOM);
+      writer.writeAttribute(Constants.ATOM_ATTR_SCHEME, Constants.NS_SCHEME);
+      writer.writeAttribute(Constants.ATOM_ATTR_TERM, term);
+      writer.writeEndElement();
+      writer.writeStartElement(NS_ATOM, Constants.ATOM_ELEM_CONTENT);
+      writer.writeAttribute(Constants.ATTR_TYPE, "application/xml");
+      writer.writeStartElement(METADATA, Constants.PROPERTIES, NS_METADATA);
+      for (final ColumnBinding binding : bindings) {
+        writeColumnValue(metadata, plan, binding, row, xml10InvalidCharReplacement, writer);
+      }
+      writer.writeEndElement(); // properties
+      writer.writeEndElement(); // content
+      writer.writeEndElement(); // entry
+    }
+  }
+
+  private void writeColumnValue(final ServiceMetadata metadata, final SerializationPlan plan,
+      final ColumnBinding binding, final int row, final String xml10InvalidCharReplacement,
+      final XMLStreamWriter writer) throws XMLStreamException, SerializerException {
+    final EdmProperty edmProperty = binding.getPropertyPlan().getEdmProperty();
+    final ColumnVector column = binding.getColumn();
+    final boolean isNull = column == null || column.isNull(row);
+    String value = null;
+    if (!isNull) {
+      switch (binding.getKind()) {
+      case INT:
+        value = Integer.toString(((ColumnVector.IntVector) column).getInt(row));
+        break;
+      case LONG:
+        value = Long.toString(((ColumnVector.LongVector) column).getLong(row));
+        break;
+      case DOUBLE:
+        final double doubleValue = ((ColumnVector.DoubleVector) column).getDouble(row);
+        // Infinity and NaN are written the generic way.
+        value = Double.isInfinite(doubleValue) || Double.isNaN(doubleValue) ? null : Double.toString(doubleValue);
+        break;
+      case BOOLEAN:
+        value = Boolean.toString(((ColumnVector.BooleanVector) column).getBoolean(row));
+        break;
+      case STRING:
+        final int index = binding.getStringIndex(row);
+        if (index >= 0) {
+          writer.writeStartElement(DATA, edmProperty.getName(), NS_DATA);
+          writer.writeCharacters(replaceInvalidCharacters((EdmPrimitiveType) edmProperty.getType(),
+              binding.getStrings()[index], edmProperty.isUnicode(), xml10InvalidCharReplacement));
+          writer.writeEndElement();
+          return;
+        }
+        break;
+      default:
+        break;
+      }
+    }
+    if (value == null) {
+      writeProperty(metadata, edmProperty,
+          isNull ? null : new Property(null, edmProperty.getName(), ValueType.PRIMITIVE, column.getValue(row)),
+          binding.getPropertyPlan().getSelectedPaths(), xml10InvalidCharReplacement, writer,
+          plan.getExpandedPaths(), null, null);
+    } else {
+      writer.writeStartElement(DATA, edmProperty.getName(), NS_DATA);
+      writer.writeAttribute(METADATA, NS_METADATA, Constants.ATTR_TYPE, edmProperty.getType().getName());
+      writer.writeCharacters(value);
+      writer.writeEndElement();
+    }
+  }
   
   /**
    * Get the ascii representation of the entity id
@@ -431,8 +543,10 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
           || name == null)) {
         throw new SerializerException("Entity id is null.", SerializerException.MessageKeys.MISSING_ID);
       }else{
-        final UriHelper uriHelper = new UriHelperImpl(); 
-        entity.setId(URI.create(name + '(' + uriHelper.buildKeyPredicate(entityType, entity) + ')'));
+        idBuffer.setLength(0);
+        idBuffer.append(name).append('(');
+        keyPredicates.get(entityType).append(entity, idBuffer);
+        entity.setId(URI.create(idBuffer.append(')').toString()));
       }
     }
     return entity.getId().toASCIIString();
@@ -445,11 +559,13 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
       final XMLStreamWriter writer, final boolean top, final boolean writeOnlyRef,String name,  Set<String> ancestors)
       throws XMLStreamException, SerializerException {
     boolean cycle = false;
+    String ancestorId = null;
     if (expand != null) {
       if (ancestors == null) {
         ancestors = new HashSet<String>();
       }
-      cycle = !ancestors.add(getEntityId(entity, entityType, name));
+      ancestorId = getEntityId(entity, entityType, name);
+      cycle = !ancestors.add(ancestorId);
     }
 
     if (cycle || writeOnlyRef) {
@@ -536,7 +652,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
       writer.writeEndElement(); // entry
     } finally {
       if (!cycle && ancestors != null) {
-        ancestors.remove(getEntityId(entity, entityType, name));
+        ancestors.remove(ancestorId == null ? getEntityId(entity, entityType, name) : ancestorId);
       }
     }
   }
@@ -554,6 +670,13 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
   }
 
   private void writerAuthorInfo(final String title, final XMLStreamWriter writer) throws XMLStreamException {
+    writerAuthorInfo(title,
+        new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'").format(new Date(System.currentTimeMillis())),
+        writer);
+  }
+
+  private void writerAuthorInfo(final String title, final String updated, final XMLStreamWriter writer)
+      throws XMLStreamException {
     writer.writeStartElement(NS_ATOM, Constants.ATTR_TITLE);
     if (title != null) {
       writer.writeCharacters(title);
@@ -563,8 +686,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     writer.writeEndElement();
 
     writer.writeStartElement(NS_ATOM, Constants.ATOM_ELEM_UPDATED);
-    writer.writeCharacters(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'")
-        .format(new Date(System.currentTimeMillis())));
+    writer.writeCharacters(updated);
     writer.writeEndElement();
 
     writer.writeStartElement(NS_ATOM, "author");
@@ -625,31 +747,11 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
       final List<Property> properties, final SelectOption select, final String xml10InvalidCharReplacement, 
       final XMLStreamWriter writer, Linked linked, ExpandOption expand) 
           throws XMLStreamException, SerializerException {
-    final boolean all = ExpandSelectHelper.isAll(select);
-    final Set<String> selected = all ? new HashSet<String>() :
-        ExpandSelectHelper.getSelectedPropertyNames(select.getSelectItems());
-    addKeyPropertiesToSelected(selected, type);
-    Set<List<String>> expandedPaths = ExpandSelectHelper.getExpandedItemsPath(expand);
-    for (final String propertyName : type.getPropertyNames()) {
-      if (all || selected.contains(propertyName)) {
-        final EdmProperty edmProperty = type.getStructuralProperty(propertyName);
-        final Property property = findProperty(propertyName, properties);
-        final Set<List<String>> selectedPaths = all || edmProperty.isPrimitive() ? null :
-            ExpandSelectHelper.getSelectedPaths(select.getSelectItems(), propertyName);
-        writeProperty(metadata, edmProperty, property, selectedPaths, 
-            xml10InvalidCharReplacement, writer, expandedPaths, linked, expand);
-      }
-    }
-  }
-
-  private void addKeyPropertiesToSelected(Set<String> selected, EdmStructuredType type) {
-    if (!selected.isEmpty() && type instanceof EdmEntityType) {
-      List<String> keyNames = ((EdmEntityType) type).getKeyPredicateNames();
-      for (String key : keyNames) {
-        if (!selected.contains(key)) {
-          selected.add(key);
-        }
-      }
+    final SerializationPlan plan = plans.get(type, select, expand);
+    for (final SerializationPlan.PropertyPlan propertyPlan : plan.getProperties()) {
+      writeProperty(metadata, propertyPlan.getEdmProperty(), plan.findProperty(propertyPlan, properties),
+          propertyPlan.getSelectedPaths(), xml10InvalidCharReplacement, writer, plan.getExpandedPaths(), linked,
+          expand);
     }
   }
   
@@ -985,10 +1087,55 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     }
   }
 
+  /**
+   * Writes binary values Base64-encoded in chunks instead of building the encoded string.
+   * A value given as {@link InputStream} is read to its end and closed; its length is not checked
+   * against the MaxLength facet.
+   * @return whether the value has been written
+   */
+  private boolean writeBinaryValue(final EdmPrimitiveType type, final Object value, final Integer maxLength,
+      final XMLStreamWriter writer) throws XMLStreamException {
+    if (type != EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Binary)
+        || !(value instanceof byte[] || value instanceof InputStream)) {
+      return false;
+    }
+    final char[] chars = new char[BINARY_CHUNK_SIZE / 3 * 4];
+    if (value instanceof byte[]) {
+      final byte[] bytes = (byte[]) value;
+      if (maxLength != null && bytes.length > maxLength) {
+        return false;
+      }
+      for (int offset = 0; offset < bytes.length; offset += BINARY_CHUNK_SIZE) {
+        final int length = Math.min(BINARY_CHUNK_SIZE, bytes.length - offset);
+        writer.writeCharacters(chars, 0, EdmBinary.encode(bytes, offset, length, chars, 0));
+      }
+    } else {
+      final byte[] bytes = new byte[BINARY_CHUNK_SIZE];
+      try (InputStream stream = (InputStream) value) {
+        int length;
+        do {
+          // All chunks but the last one must be complete for the encoding to continue seamlessly.
+          length = 0;
+          int read;
+          while (length < bytes.length && (read = stream.read(bytes, length, bytes.length - length)) >= 0) {
+            length += read;
+          }
+          writer.writeCharacters(chars, 0, EdmBinary.encode(bytes, 0, length, chars, 0));
+        } while (length == bytes.length);
+      } catch (final IOException e) {
+        throw new XMLStreamException(e);
+      }
+    }
+    return true;
+  }
+
   protected void writePrimitiveValue(final EdmPrimitiveType type, final Object primitiveValue,
       final Boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
       final Boolean isUnicode, final String xml10InvalidCharReplacement,
       final XMLStreamWriter writer) throws EdmPrimitiveTypeException, XMLStreamException {
+    if (primitiveValue != null && writeBinaryValue(type, primitiveValue, maxLength, writer)) {
+      return;
+    }
     final String value = type.valueToString(primitiveValue,
         isNullable, maxLength, precision, scale, isUnicode);
     if (value == null) {
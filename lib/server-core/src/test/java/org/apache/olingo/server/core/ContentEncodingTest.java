@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.compression.CompressionSupport;
+import org.apache.olingo.server.api.compression.CompressionSupport.CompressedDocument;
+import org.junit.Test;
+
+public class ContentEncodingTest {
+
+  private static final byte[] CONTENT =
+      "{\"value\":[{\"PropertyInt16\":1},{\"PropertyInt16\":2},{\"PropertyInt16\":3}]}".getBytes();
+
+  @Test
+  public void negotiate() {
+    assertNull(ContentEncoding.negotiate(null));
+    assertNull(ContentEncoding.negotiate(""));
+    assertNull(ContentEncoding.negotiate("identity"));
+    assertNull(ContentEncoding.negotiate("br"));
+    assertNull(ContentEncoding.negotiate("gzip;q=0"));
+    assertNull(ContentEncoding.negotiate("*;q=0"));
+    assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("gzip"));
+    assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("x-gzip"));
+    assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("gzip, deflate, br"));
+    assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("*"));
+    assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("deflate"));
+    assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("gzip;q=0.5, deflate"));
+    assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("gzip;q=0, *"));
+  }
+
+  @Test
+  public void roundTrip() throws Exception {
+    for (final String coding : new String[] { ContentEncoding.GZIP, ContentEncoding.DEFLATE }) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final OutputStream output = ContentEncoding.compress(bytes, coding, Deflater.BEST_SPEED);
+      output.write(CONTENT);
+      output.close();
+      // Closing again, e.g., by an enclosing try-with-resources, must not fail.
+      output.close();
+      final InputStream input = ContentEncoding.decompress(new ByteArrayInputStream(bytes.toByteArray()), coding);
+      assertArrayEquals(CONTENT, IOUtils.toByteArray(input));
+    }
+  }
+
+  @Test
+  public void decompressIdentity() throws Exception {
+    final InputStream body = new ByteArrayInputStream(CONTENT);
+    assertTrue(body == ContentEncoding.decompress(body, null));
+    assertTrue(body == ContentEncoding.decompress(body, "identity"));
+  }
+
+  @Test
+  public void decompressUnsupported() throws Exception {
+    try {
+      ContentEncoding.decompress(new ByteArrayInputStream(CONTENT), "br");
+      fail("Expected exception not thrown.");
+    } catch (final ODataHandlerException e) {
+      assertEquals(ODataHandlerException.MessageKeys.UNSUPPORTED_CONTENT_ENCODING, e.getMessageKey());
+    }
+  }
+
+  @Test
+  public void compressible() {
+    final CompressionSupport compressionSupport = new CompressionSupport();
+    final ODataResponse response = new ODataResponse();
+    response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    response.setHeader(HttpHeader.CONTENT_TYPE, ContentType.JSON.toContentTypeString());
+    assertFalse(ContentEncoding.isCompressible(response, compressionSupport));
+    response.setContent(new ByteArrayInputStream(CONTENT));
+    assertTrue(ContentEncoding.isCompressible(response, compressionSupport));
+    response.setHeader(HttpHeader.CONTENT_TYPE, ContentType.APPLICATION_OCTET_STREAM.toContentTypeString());
+    assertFalse(ContentEncoding.isCompressible(response, compressionSupport));
+    response.setHeader(HttpHeader.CONTENT_TYPE, ContentType.APPLICATION_XML.toContentTypeString());
+    response.setHeader(HttpHeader.CONTENT_ENCODING, ContentEncoding.GZIP);
+    assertFalse(ContentEncoding.isCompressible(response, compressionSupport));
+  }
+
+  @Test
+  public void documentCache() throws Exception {
+    final ODataRequest request = new ODataRequest();
+    request.setMethod(HttpMethod.GET);
+    request.setRawBaseUri("http://localhost/odata");
+    request.setRawODataPath("/$metadata");
+    final String key = ContentEncoding.getDocumentCacheKey(request, ContentEncoding.GZIP);
+    assertNotNull(key);
+    request.setRawODataPath("/ESAllPrim");
+    assertNull(ContentEncoding.getDocumentCacheKey(request, ContentEncoding.GZIP));
+    request.setRawODataPath("");
+    request.setHeader(HttpHeader.IF_NONE_MATCH, "W/\"1\"");
+    assertNull(ContentEncoding.getDocumentCacheKey(request, ContentEncoding.GZIP));
+
+    final ODataResponse response = new ODataResponse();
+    response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    response.setHeader(HttpHeader.CONTENT_TYPE, ContentType.APPLICATION_XML.toContentTypeString());
+    response.setHeader(HttpHeader.CONTENT_LENGTH, Integer.toString(CONTENT.length));
+    response.setContent(new ByteArrayInputStream(CONTENT));
+    final CompressedDocument document = ContentEncoding.createDocument(response, ContentEncoding.GZIP, 9);
+    assertEquals(HttpStatusCode.OK.getStatusCode(), document.getStatusCode());
+    assertEquals(ContentEncoding.GZIP, document.getHeaders().get(HttpHeader.CONTENT_ENCODING).get(0));
+    assertEquals(Integer.toString(document.getContent().length),
+        document.getHeaders().get(HttpHeader.CONTENT_LENGTH).get(0));
+    assertArrayEquals(CONTENT, IOUtils.toByteArray(
+        ContentEncoding.decompress(new ByteArrayInputStream(document.getContent()), ContentEncoding.GZIP)));
+
+    final CompressionSupport compressionSupport = new CompressionSupport();
+    compressionSupport.cacheDocument(key, document);
+    assertNull(compressionSupport.getCachedDocument(key));
+    compressionSupport.setCacheServiceDocuments(true).cacheDocument(key, document);
+    assertTrue(document == compressionSupport.getCachedDocument(key));
+  }
+}
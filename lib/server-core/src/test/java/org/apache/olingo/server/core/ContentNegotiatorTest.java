@@ -232,6 +232,17 @@ public class ContentNegotiatorTest {
     }
   }
 
+  @Test
+  public void absentAndLiteralNullFormat() throws Exception {
+    testContentNegotiation(new String[] { ACCEPT_CASE_MIN, null, null, null }, RepresentationType.ENTITY);
+    try {
+      testContentNegotiation(new String[] { null, "null", null, null }, RepresentationType.ENTITY);
+      fail("Exception expected.");
+    } catch (final ContentNegotiatorException e) {
+      // Expected Exception, although the result without $format has been cached before
+    }
+  }
+
   @Test
   public void checkSupport() throws Exception {
     ContentNegotiator.checkSupport(ContentType.JSON, null, RepresentationType.ENTITY);
@@ -343,4 +354,45 @@ public class ContentNegotiatorTest {
         RepresentationType.BATCH);
   }
   
+  @Test
+  public void repeatedNegotiation() throws Exception {
+    ODataRequest request = new ODataRequest();
+    request.addHeader(HttpHeader.ACCEPT, Arrays.asList(ACCEPT_CASE_XML + ";q=0.5", ACCEPT_CASE_FULL));
+    for (int i = 0; i < 3; i++) {
+      assertEquals(ContentType.JSON_FULL_METADATA,
+          ContentNegotiator.doContentNegotiation(null, request, null, RepresentationType.ENTITY));
+    }
+    assertEquals(ContentType.APPLICATION_XML,
+        ContentNegotiator.doContentNegotiation(null, request, null, RepresentationType.METADATA));
+    try {
+      ContentNegotiator.doContentNegotiation(null, request, createCustomContentTypeSupport("a/b"),
+          RepresentationType.ENTITY);
+      fail("Exception expected");
+    } catch (final ContentNegotiatorException e) {
+      // Expected Exception
+    }
+
+    request = new ODataRequest();
+    request.addHeader(HttpHeader.ACCEPT, Arrays.asList("*/*"));
+    request.addHeader(HttpHeader.ACCEPT_CHARSET, Arrays.asList("utf-8"));
+    for (int i = 0; i < 3; i++) {
+      assertEquals(ContentType.create(ContentType.JSON, ContentType.PARAMETER_CHARSET, "utf-8"),
+          ContentNegotiator.doContentNegotiation(null, request, null, RepresentationType.ENTITY));
+    }
+  }
+
+  @Test
+  public void repeatedNegotiationFailure() throws Exception {
+    ODataRequest request = new ODataRequest();
+    request.addHeader(HttpHeader.ACCEPT, Arrays.asList("a/b/c"));
+    for (int i = 0; i < 2; i++) {
+      try {
+        ContentNegotiator.doContentNegotiation(null, request, null, RepresentationType.ENTITY);
+        fail("Exception expected");
+      } catch (final AcceptHeaderContentNegotiatorException e) {
+        // Expected Exception
+      }
+    }
+  }
+
 }
@@ -29,6 +29,7 @@ import org.apache.olingo.server.api.ODataLibraryException.MessageKey;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.etag.PreconditionException;
+import org.apache.olingo.server.api.paging.SkipTokenException;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.core.uri.parser.UriParserException;
 import org.apache.olingo.server.core.uri.parser.UriParserSemanticException;
@@ -120,6 +121,19 @@ public class ExceptionHelperTest {
     }
   }
 
+  @Test
+  public void skipTokenExceptions() {
+    for (MessageKey key : SkipTokenException.MessageKeys.values()) {
+      final SkipTokenException e = new SkipTokenException(DEV_MSG, key);
+      ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
+      if (e.getMessageKey().equals(SkipTokenException.MessageKeys.UNSUPPORTED_ORDER_BY)) {
+        checkStatusCode(serverError, HttpStatusCode.NOT_IMPLEMENTED, e);
+      } else {
+        checkStatusCode(serverError, HttpStatusCode.BAD_REQUEST, e);
+      }
+    }
+  }
+
   @Test
   public void httpHandlerExceptions() {
     for (MessageKey key : ODataHandlerException.MessageKeys.values()) {
@@ -26,6 +26,7 @@ import java.util.Properties;
 import java.util.UUID;
 
 import org.apache.olingo.server.api.ODataLibraryException;
+import org.apache.olingo.server.api.paging.SkipTokenException;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.core.uri.parser.UriParserSemanticException;
 import org.apache.olingo.server.core.uri.parser.UriParserSyntaxException;
@@ -56,6 +57,7 @@ public class TranslatedExceptionSubclassesTest {
     testException(ContentNegotiatorException.class, ContentNegotiatorException.MessageKeys.values());
     testException(SerializerException.class, SerializerException.MessageKeys.values());
     testException(UriValidationException.class, UriValidationException.MessageKeys.values());
+    testException(SkipTokenException.class, SkipTokenException.MessageKeys.values());
     testException(UriParserSyntaxException.class, UriParserSyntaxException.MessageKeys.values());
   }
 
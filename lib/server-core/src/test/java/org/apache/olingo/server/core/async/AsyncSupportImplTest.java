@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.async;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.edm.provider.CsdlAbstractEdmProvider;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.async.AsyncSupport;
+import org.apache.olingo.server.core.ODataHandlerImpl;
+import org.apache.olingo.server.core.debug.ServerCoreDebugger;
+import org.hamcrest.CoreMatchers;
+import org.junit.Test;
+
+public class AsyncSupportImplTest {
+
+  private static final String BASE_URI = "http://localhost/odata";
+
+  private final List<Runnable> tasks = Collections.synchronizedList(new ArrayList<Runnable>());
+  private final Executor executor = new Executor() {
+    @Override
+    public void execute(final Runnable command) {
+      tasks.add(command);
+    }
+  };
+
+  @Test
+  public void respondAsync() throws Exception {
+    final AsyncSupport asyncSupport = OData.newInstance().createAsyncSupport(executor);
+    ODataResponse response = process(asyncSupport, HttpMethod.GET, "/$metadata", "respond-async");
+    assertEquals(HttpStatusCode.ACCEPTED.getStatusCode(), response.getStatusCode());
+    assertEquals("respond-async", response.getHeader(HttpHeader.PREFERENCE_APPLIED));
+    final String location = response.getHeader(HttpHeader.LOCATION);
+    assertTrue(location.startsWith(BASE_URI + "/$async/"));
+    assertEquals(1, asyncSupport.getJobCount());
+    assertEquals(1, tasks.size());
+
+    final String monitorPath = location.substring(BASE_URI.length());
+    response = process(asyncSupport, HttpMethod.GET, monitorPath, null);
+    assertEquals(HttpStatusCode.ACCEPTED.getStatusCode(), response.getStatusCode());
+
+    tasks.get(0).run();
+    response = process(asyncSupport, HttpMethod.GET, monitorPath, null);
+    assertEquals(HttpStatusCode.OK.getStatusCode(), response.getStatusCode());
+    assertEquals(ContentType.APPLICATION_HTTP.toContentTypeString(), response.getHeader(HttpHeader.CONTENT_TYPE));
+    final String result = IOUtils.toString(response.getContent(), StandardCharsets.UTF_8);
+    assertThat(result, CoreMatchers.startsWith("HTTP/1.1 200 OK\r\n"));
+    assertThat(result, CoreMatchers.containsString("<edmx:Edmx"));
+    assertEquals(0, asyncSupport.getJobCount());
+
+    response = process(asyncSupport, HttpMethod.GET, monitorPath, null);
+    assertEquals(HttpStatusCode.NOT_FOUND.getStatusCode(), response.getStatusCode());
+  }
+
+  @Test
+  public void cancel() throws Exception {
+    final AsyncSupport asyncSupport = OData.newInstance().createAsyncSupport(executor);
+    ODataResponse response = process(asyncSupport, HttpMethod.GET, "/$metadata", "respond-async");
+    final String monitorPath = response.getHeader(HttpHeader.LOCATION).substring(BASE_URI.length());
+
+    response = process(asyncSupport, HttpMethod.DELETE, monitorPath, null);
+    assertEquals(HttpStatusCode.NO_CONTENT.getStatusCode(), response.getStatusCode());
+    assertEquals(0, asyncSupport.getJobCount());
+    tasks.get(0).run();
+    response = process(asyncSupport, HttpMethod.GET, monitorPath, null);
+    assertEquals(HttpStatusCode.NOT_FOUND.getStatusCode(), response.getStatusCode());
+  }
+
+  @Test
+  public void synchronousIfLimitReached() throws Exception {
+    final AsyncSupport asyncSupport = OData.newInstance().createAsyncSupport(executor).setMaxJobs(1);
+    ODataResponse response = process(asyncSupport, HttpMethod.GET, "/$metadata", "respond-async");
+    assertEquals(HttpStatusCode.ACCEPTED.getStatusCode(), response.getStatusCode());
+    response = process(asyncSupport, HttpMethod.GET, "/$metadata", "respond-async");
+    assertEquals(HttpStatusCode.OK.getStatusCode(), response.getStatusCode());
+    assertNull(response.getHeader(HttpHeader.PREFERENCE_APPLIED));
+    assertEquals(1, tasks.size());
+  }
+
+  @Test
+  public void spooling() throws Exception {
+    final File directory = Files.createTempDirectory("olingo-async-test").toFile();
+    try {
+      final AsyncSupport asyncSupport = OData.newInstance().createAsyncSupport(executor).setSpooling(directory, 10);
+      ODataResponse response = process(asyncSupport, HttpMethod.GET, "/$metadata", "respond-async");
+      final String monitorPath = response.getHeader(HttpHeader.LOCATION).substring(BASE_URI.length());
+      tasks.get(0).run();
+      assertEquals(1, directory.list().length);
+
+      response = process(asyncSupport, HttpMethod.GET, monitorPath, null);
+      final InputStream content = response.getContent();
+      assertThat(IOUtils.toString(content, StandardCharsets.UTF_8), CoreMatchers.containsString("<edmx:Edmx"));
+      content.close();
+      assertEquals(0, directory.list().length);
+    } finally {
+      for (final File file : directory.listFiles()) {
+        file.delete();
+      }
+      directory.delete();
+    }
+  }
+
+  @Test
+  public void limitHoldsForConcurrentRequests() throws Exception {
+    final AsyncSupport asyncSupport = OData.newInstance().createAsyncSupport(executor).setMaxJobs(1);
+    final CountDownLatch start = new CountDownLatch(1);
+    final AtomicInteger accepted = new AtomicInteger();
+    final List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < 8; i++) {
+      final Thread thread = new Thread() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+          } catch (final InterruptedException e) {
+            return;
+          }
+          if (process(asyncSupport, HttpMethod.GET, "/$metadata", "respond-async").getStatusCode()
+              == HttpStatusCode.ACCEPTED.getStatusCode()) {
+            accepted.incrementAndGet();
+          }
+        }
+      };
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(1, accepted.get());
+    assertEquals(1, asyncSupport.getJobCount());
+    assertEquals(1, tasks.size());
+  }
+
+  @Test
+  public void abandonedJobExpires() throws Exception {
+    final AsyncSupport asyncSupport = OData.newInstance().createAsyncSupport(executor)
+        .setTimeToLive(0, TimeUnit.MILLISECONDS);
+    final ODataResponse response = process(asyncSupport, HttpMethod.GET, "/$metadata", "respond-async");
+    final String monitorPath = response.getHeader(HttpHeader.LOCATION).substring(BASE_URI.length());
+    assertEquals(1, asyncSupport.getJobCount());
+
+    // The expired jobs are removed at most once per second.
+    Thread.sleep(1100);
+    assertEquals(HttpStatusCode.NOT_FOUND.getStatusCode(),
+        process(asyncSupport, HttpMethod.GET, monitorPath, null).getStatusCode());
+    assertEquals(0, asyncSupport.getJobCount());
+  }
+
+  @Test
+  public void spoolFileDeletedOnFailure() throws Exception {
+    final File directory = Files.createTempDirectory("olingo-async-test").toFile();
+    try {
+      final ODataResponse response = new ODataResponse();
+      response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+      response.setContent(new ByteArrayInputStream(new byte[100]) {
+        @Override
+        public synchronized int read(final byte[] b, final int off, final int len) {
+          if (pos == count) {
+            throw new IllegalStateException("broken content");
+          }
+          return super.read(b, off, len);
+        }
+      });
+      try {
+        AsyncJob.Result.create(response, directory, 10);
+        fail("Expected exception not thrown.");
+      } catch (final IllegalStateException e) {
+        assertEquals("broken content", e.getMessage());
+      }
+      assertEquals(0, directory.list().length);
+    } finally {
+      for (final File file : directory.listFiles()) {
+        file.delete();
+      }
+      directory.delete();
+    }
+  }
+
+  private ODataResponse process(final AsyncSupport asyncSupport, final HttpMethod method, final String path,
+      final String prefer) {
+    final OData odata = OData.newInstance();
+    final ServiceMetadata metadata = odata.createServiceMetadata(new CsdlAbstractEdmProvider() {},
+        Collections.<EdmxReference> emptyList());
+    final ODataHandlerImpl handler = new ODataHandlerImpl(odata, metadata, new ServerCoreDebugger(odata));
+    handler.register(asyncSupport);
+
+    final ODataRequest request = new ODataRequest();
+    request.setMethod(method);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawODataPath(path);
+    request.setRawRequestUri(BASE_URI + path);
+    if (prefer != null) {
+      request.addHeader(HttpHeader.PREFER, prefer);
+    }
+    return handler.process(request);
+  }
+}
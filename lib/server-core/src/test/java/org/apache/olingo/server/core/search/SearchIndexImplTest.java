@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.ComplexValue;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.ValueType;
+import org.apache.olingo.server.api.search.SearchIndex;
+import org.apache.olingo.server.core.uri.parser.search.SearchParser;
+import org.junit.Test;
+
+public class SearchIndexImplTest {
+
+  private final Entity first = entity(1, "The quick brown fox", "jumps over the lazy dog");
+  private final Entity second = entity(2, "Quick brown dogs", null);
+  private final Entity third = entity(3, "A lazy cat", "sleeps all day");
+
+  @Test
+  public void terms() throws Exception {
+    final SearchIndex index = createIndex();
+    assertEquals(Arrays.asList(first, second), search(index, "quick"));
+    assertEquals(Arrays.asList(first, second), search(index, "QUICK"));
+    assertEquals(Arrays.asList(first), search(index, "dog"));
+    assertEquals(Collections.emptyList(), search(index, "unknown"));
+    assertEquals(Collections.emptyList(), search(index, "qu"));
+  }
+
+  @Test
+  public void operators() throws Exception {
+    final SearchIndex index = createIndex();
+    assertEquals(Arrays.asList(first), search(index, "quick lazy"));
+    assertEquals(Arrays.asList(first), search(index, "quick AND lazy"));
+    assertEquals(Arrays.asList(first, second, third), search(index, "quick OR lazy"));
+    assertEquals(Arrays.asList(second, third), search(index, "NOT fox"));
+    assertEquals(Arrays.asList(second), search(index, "quick NOT fox"));
+    assertEquals(Arrays.asList(third), search(index, "(cat OR fox) NOT quick"));
+  }
+
+  @Test
+  public void phrases() throws Exception {
+    final SearchIndex index = createIndex();
+    assertEquals(Arrays.asList(first, second), search(index, "\"quick brown\""));
+    assertEquals(Collections.emptyList(), search(index, "\"brown quick\""));
+    assertEquals(Arrays.asList(first), search(index, "\"the lazy dog\""));
+    // phrases do not span property values
+    assertEquals(Collections.emptyList(), search(index, "\"fox jumps\""));
+    // values of complex properties
+    assertEquals(Arrays.asList(third), search(index, "\"sleeps all day\""));
+  }
+
+  @Test
+  public void updates() throws Exception {
+    final SearchIndex index = createIndex();
+    first.getProperty("Title").setValue(ValueType.PRIMITIVE, "A slow fox");
+    index.update(first);
+    assertEquals(3, index.size());
+    assertEquals(Arrays.asList(second), search(index, "quick"));
+    assertEquals(Arrays.asList(third, first), search(index, "lazy"));
+
+    assertTrue(index.remove(third));
+    assertFalse(index.remove(third));
+    assertEquals(2, index.size());
+    assertEquals(Arrays.asList(first), search(index, "lazy"));
+    assertEquals(Arrays.asList(second, first), search(index, "NOT cat"));
+
+    final List<Entity> entities = new ArrayList<Entity>(Arrays.asList(third, second, first));
+    index.retainMatches(new SearchParser().parse("brown OR fox").getSearchExpression(), entities);
+    assertEquals(Arrays.asList(second, first), entities);
+  }
+
+  @Test
+  public void purge() throws Exception {
+    final SearchIndex index = createIndex();
+    for (int round = 0; round < 100; round++) {
+      second.getProperty("Title").setValue(ValueType.PRIMITIVE, "Quick brown dogs " + round);
+      index.update(second);
+      final Entity added = entity(100 + round, "temporary " + round, null);
+      index.add(added);
+      assertEquals(Arrays.asList(added), search(index, "temporary"));
+      index.remove(added);
+    }
+    assertEquals(3, index.size());
+    assertEquals(Arrays.asList(first, second), search(index, "\"quick brown\""));
+    assertEquals(Arrays.asList(second), search(index, "99"));
+    assertEquals(Collections.emptyList(), search(index, "98 OR temporary"));
+  }
+
+  @Test
+  public void postingList() {
+    final PostingList postingList = new PostingList();
+    postingList.add(3, new int[] { 1, 200, 70000 }, 3);
+    postingList.add(1000, new int[] { 5 }, 1);
+    postingList.add(1001, new int[] { 0, 1 }, 2);
+    assertEquals(3, postingList.getDocumentCount());
+
+    PostingList.Reader reader = postingList.reader();
+    assertEquals(3, reader.next());
+    assertTrue(reader.hasPosition(70000));
+    assertFalse(reader.hasPosition(2));
+    assertEquals(1000, reader.next());
+    assertEquals(1, reader.positionCount());
+    assertEquals(1001, reader.next());
+    assertEquals(1, reader.position(1));
+    assertEquals(PostingList.Reader.END, reader.next());
+
+    reader = postingList.reader();
+    assertEquals(1000, reader.advance(4));
+    assertEquals(5, reader.position(0));
+    assertEquals(PostingList.Reader.END, reader.advance(1002));
+  }
+
+  @Test
+  public void analyzer() {
+    assertEquals(Arrays.asList("über", "straße", "42", "x"), SearchAnalyzer.analyze("Über-Straße, 42 (x)"));
+    assertEquals(Collections.emptyList(), SearchAnalyzer.analyze(" - "));
+  }
+
+  private SearchIndex createIndex() {
+    final SearchIndex index = new SearchIndexImpl();
+    index.add(first);
+    index.add(second);
+    index.add(third);
+    return index;
+  }
+
+  private static List<Entity> search(final SearchIndex index, final String search) throws Exception {
+    return index.search(new SearchParser().parse(search).getSearchExpression());
+  }
+
+  private static Entity entity(final int id, final String title, final String description) {
+    final ComplexValue details = new ComplexValue();
+    details.getValue().add(new Property(null, "Description", ValueType.PRIMITIVE, description));
+    return new Entity()
+        .addProperty(new Property(null, "Id", ValueType.PRIMITIVE, id))
+        .addProperty(new Property(null, "Title", ValueType.PRIMITIVE, title))
+        .addProperty(new Property(null, "Details", ValueType.COMPLEX, details));
+  }
+}
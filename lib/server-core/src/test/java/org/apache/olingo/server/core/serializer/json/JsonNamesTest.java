@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+
+import org.apache.olingo.commons.api.constants.Constantsv00;
+import org.apache.olingo.commons.api.constants.Constantsv01;
+import org.apache.olingo.commons.api.edm.provider.CsdlAbstractEdmProvider;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.core.ServiceMetadataImpl;
+import org.junit.Test;
+
+public class JsonNamesTest {
+
+  @Test
+  public void names() {
+    final JsonNames names = JsonNames.get(null, new Constantsv00());
+    assertEquals("@odata.id", names.getId().getValue());
+    assertEquals("@odata.metadataEtag", names.getMetadataEtag().getValue());
+    final JsonNames.PropertyNames propertyNames = names.get("NavPropertyETTwoPrimOne");
+    assertSame(propertyNames, names.get("NavPropertyETTwoPrimOne"));
+    assertEquals("NavPropertyETTwoPrimOne", propertyNames.getName().getValue());
+    assertEquals("NavPropertyETTwoPrimOne@odata.navigationLink", propertyNames.getNavigationLink().getValue());
+    assertEquals("NavPropertyETTwoPrimOne@odata.count", propertyNames.getCount().getValue());
+    assertEquals("@odata.count", names.get("").getCount().getValue());
+    assertEquals("@id", JsonNames.get(null, new Constantsv01()).getId().getValue());
+  }
+
+  @Test
+  public void escaping() {
+    assertEquals("\\\"x\\\"",
+        new String(JsonNames.get(null, new Constantsv00()).get("\"x\"").getName().asQuotedChars()));
+  }
+
+  @Test
+  public void scope() {
+    final ServiceMetadata metadata = new ServiceMetadataImpl(new CsdlAbstractEdmProvider() {},
+        Collections.<EdmxReference> emptyList(), null);
+    final JsonNames names = JsonNames.get(metadata, new Constantsv00());
+    assertSame(names, JsonNames.get(metadata, new Constantsv00()));
+    assertNotSame(names, JsonNames.get(metadata, new Constantsv01()));
+    assertNotSame(names, JsonNames.get(new ServiceMetadataImpl(new CsdlAbstractEdmProvider() {},
+        Collections.<EdmxReference> emptyList(), null), new Constantsv00()));
+    assertNotSame(names, JsonNames.get(null, new Constantsv00()));
+  }
+}
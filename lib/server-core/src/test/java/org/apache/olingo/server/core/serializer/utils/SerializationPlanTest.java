@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.ValueType;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.edm.provider.CsdlAbstractEdmProvider;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntityType;
+import org.apache.olingo.commons.api.edm.provider.CsdlProperty;
+import org.apache.olingo.commons.api.edm.provider.CsdlPropertyRef;
+import org.apache.olingo.commons.core.edm.EdmProviderImpl;
+import org.apache.olingo.server.api.uri.queryoption.SelectItem;
+import org.apache.olingo.server.api.uri.queryoption.SelectOption;
+import org.apache.olingo.server.core.uri.UriInfoImpl;
+import org.apache.olingo.server.core.uri.UriResourcePrimitivePropertyImpl;
+import org.apache.olingo.server.core.uri.queryoption.SelectItemImpl;
+import org.apache.olingo.server.core.uri.queryoption.SelectOptionImpl;
+import org.junit.Test;
+
+public class SerializationPlanTest {
+
+  private static final FullQualifiedName PERSON = new FullQualifiedName("Namespace", "Person");
+
+  private final EdmEntityType type = new EdmProviderImpl(new CsdlAbstractEdmProvider() {
+    @Override
+    public CsdlEntityType getEntityType(final FullQualifiedName entityTypeName) {
+      return PERSON.equals(entityTypeName) ?
+          new CsdlEntityType().setName(PERSON.getName())
+              .setKey(Collections.singletonList(new CsdlPropertyRef().setName("Id")))
+              .setProperties(Arrays.asList(
+                  new CsdlProperty().setName("Id").setType(EdmPrimitiveTypeKind.Int32.getFullQualifiedName()),
+                  new CsdlProperty().setName("Name").setType(EdmPrimitiveTypeKind.String.getFullQualifiedName()),
+                  new CsdlProperty().setName("Age").setType(EdmPrimitiveTypeKind.Int16.getFullQualifiedName()))) :
+          null;
+    }
+  }).getEntityType(PERSON);
+
+  @Test
+  public void allProperties() {
+    final SerializationPlan plan = new SerializationPlan.Cache().get(type, null, null);
+
+    assertEquals(3, plan.getProperties().size());
+    assertEquals("Id", plan.getProperties().get(0).getName());
+    assertEquals("Age", plan.getProperties().get(2).getName());
+    assertNull(plan.getProperties().get(1).getSelectedPaths());
+    assertEquals("Name", plan.getProperties().get(1).getSerializedName().getValue());
+    assertTrue(plan.areKeyPredicateNamesSelected());
+    assertTrue(plan.getExpandedPaths().isEmpty());
+    assertEquals("#Namespace.Person", plan.getTypeName());
+  }
+
+  @Test
+  public void selectedPropertiesWithKey() {
+    final SerializationPlan plan = new SerializationPlan.Cache().get(type, select("Age"), null);
+
+    assertEquals(2, plan.getProperties().size());
+    assertEquals("Id", plan.getProperties().get(0).getName());
+    assertEquals("Age", plan.getProperties().get(1).getName());
+    assertFalse(plan.areKeyPredicateNamesSelected());
+  }
+
+  @Test
+  public void findProperty() {
+    final SerializationPlan plan = new SerializationPlan.Cache().get(type, null, null);
+    final Property id = new Property(null, "Id", ValueType.PRIMITIVE, 1);
+    final Property name = new Property(null, "Name", ValueType.PRIMITIVE, "Bob");
+
+    final List<Property> ordered = Arrays.asList(id, name);
+    assertSame(id, plan.findProperty(plan.getProperties().get(0), ordered));
+    assertSame(name, plan.findProperty(plan.getProperties().get(1), ordered));
+    assertNull(plan.findProperty(plan.getProperties().get(2), ordered));
+
+    final List<Property> unordered = new ArrayList<Property>(ordered);
+    Collections.reverse(unordered);
+    assertSame(id, plan.findProperty(plan.getProperties().get(0), unordered));
+    assertSame(name, plan.findProperty(plan.getProperties().get(1), unordered));
+  }
+
+  @Test
+  public void cache() {
+    final SerializationPlan.Cache cache = new SerializationPlan.Cache();
+    final SelectOption select = select("Name");
+
+    assertSame(cache.get(type, select, null), cache.get(type, select, null));
+    assertNotSame(cache.get(type, select, null), cache.get(type, null, null));
+  }
+
+  private SelectOption select(final String propertyName) {
+    final SelectItem item = new SelectItemImpl().setResourcePath(new UriInfoImpl()
+        .addResourcePart(new UriResourcePrimitivePropertyImpl(type.getStructuralProperty(propertyName))));
+    return new SelectOptionImpl().setSelectItems(Collections.singletonList(item));
+  }
+}
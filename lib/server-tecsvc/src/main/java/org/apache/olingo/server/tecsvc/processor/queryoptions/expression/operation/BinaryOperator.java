@@ -91,13 +91,34 @@ public class BinaryOperator {
   private TypedOperand left;
   private List<TypedOperand> rightValues = null;
 
+  // Integer operands that fit into a long are compared and combined without converting them to BigInteger.
+  private boolean integral = false;
+  private long leftLong;
+  private long rightLong;
+
   public BinaryOperator(final VisitorOperand leftOperand, final VisitorOperand rightOperand)
       throws ODataApplicationException {
-    left = leftOperand.asTypedOperand();
-    right = rightOperand.asTypedOperand();
+    left = leftOperand instanceof TypedOperand ? (TypedOperand) leftOperand : leftOperand.asTypedOperand();
+    right = rightOperand instanceof TypedOperand ? (TypedOperand) rightOperand : rightOperand.asTypedOperand();
+
+    if (isLongValued(left) && isLongValued(right)) {
+      integral = true;
+      leftLong = ((Number) left.getValue()).longValue();
+      rightLong = ((Number) right.getValue()).longValue();
+    } else {
+      left = left.asTypedOperand();
+      right = right.asTypedOperand();
+
+      left = left.castToCommonType(right);
+      right = right.castToCommonType(left);
+    }
+  }
 
-    left = left.castToCommonType(right);
-    right = right.castToCommonType(left);
+  private static boolean isLongValued(final TypedOperand operand) {
+    final Object value = operand.getValue();
+    return operand.isIntegerType() && !operand.isNull()
+        && (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+        || value instanceof BigInteger && ((BigInteger) value).bitLength() < Long.SIZE);
   }
 
   public BinaryOperator(final VisitorOperand leftOperand, final List<VisitorOperand> rightOperand)
@@ -192,7 +213,9 @@ public class BinaryOperator {
       result = 0; // null is equals to null
     } else {
       // left and right are not null!
-      if (left.isIntegerType()) {
+      if (integral) {
+        result = Long.signum(Long.compare(leftLong, rightLong));
+      } else if (left.isIntegerType()) {
         result = left.getTypedValue(BigInteger.class).compareTo(right.getTypedValue(BigInteger.class));
       } else if (left.isDecimalType()) {
         result = left.getTypedValue(BigDecimal.class).compareTo(right.getTypedValue(BigDecimal.class));
@@ -347,8 +370,34 @@ public class BinaryOperator {
   }
 
   private BigInteger integerArithmeticOperation(final BinaryOperatorKind operator) throws ODataApplicationException {
-    final BigInteger left = this.left.getTypedValue(BigInteger.class);
-    final BigInteger right = this.right.getTypedValue(BigInteger.class);
+    if (integral) {
+      try {
+        switch (operator) {
+        case ADD:
+          return BigInteger.valueOf(Math.addExact(leftLong, rightLong));
+        case SUB:
+          return BigInteger.valueOf(Math.subtractExact(leftLong, rightLong));
+        case MUL:
+          return BigInteger.valueOf(Math.multiplyExact(leftLong, rightLong));
+        case DIV:
+          if (rightLong != 0 && !(leftLong == Long.MIN_VALUE && rightLong == -1)) {
+            return BigInteger.valueOf(leftLong / rightLong);
+          }
+          break;
+        case MOD:
+          if (rightLong > 0) {
+            return BigInteger.valueOf(Math.floorMod(leftLong, rightLong));
+          }
+          break;
+        default:
+          break;
+        }
+      } catch (final ArithmeticException e) {
+        // The result does not fit into a long; compute it below.
+      }
+    }
+    final BigInteger left = integral ? BigInteger.valueOf(leftLong) : this.left.getTypedValue(BigInteger.class);
+    final BigInteger right = integral ? BigInteger.valueOf(rightLong) : this.right.getTypedValue(BigInteger.class);
 
     switch (operator) {
     case ADD:
@@ -19,6 +19,8 @@
 package org.apache.olingo.netty.server.core;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -29,6 +31,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import org.apache.olingo.commons.api.edmx.EdmxReference;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
@@ -153,4 +157,40 @@ public class ODataNettyHandlerImplTest {
     nettyResponse.status();
     assertEquals(HttpStatusCode.CREATED.getStatusCode(), HttpResponseStatus.CREATED.code());
   }
+
+  @Test
+  public void processOnExecutor() throws Exception {
+    final ODataNetty odata = ODataNetty.newInstance();
+    final ServiceMetadata metadata = odata.createServiceMetadata(
+        new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+    ODataNettyHandler handler = odata.createNettyHandler(metadata);
+
+    final List<Runnable> tasks = new ArrayList<Runnable>();
+    final Executor executor = new Executor() {
+      @Override
+      public void execute(final Runnable command) {
+        tasks.add(command);
+      }
+    };
+    DefaultFullHttpRequest nettyRequest =
+        new DefaultFullHttpRequest(HttpVersion.HTTP_1_1,
+            io.netty.handler.codec.http.HttpMethod.GET, "/odata.svc/$metadata");
+    DefaultFullHttpResponse nettyResponse =
+        new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+    Map<String, String> requestParams = new HashMap<String, String>();
+    requestParams.put("contextPath", "/odata.svc");
+
+    final CompletableFuture<Void> future =
+        handler.processNettyRequest(nettyRequest, nettyResponse, requestParams, executor);
+    assertFalse(future.isDone());
+    assertEquals(1, tasks.size());
+    assertEquals(2, nettyRequest.refCnt());
+
+    tasks.get(0).run();
+    assertTrue(future.isDone());
+    future.get();
+    assertEquals(1, nettyRequest.refCnt());
+    assertEquals(HttpResponseStatus.OK, nettyResponse.status());
+    assertTrue(nettyResponse.content().readableBytes() > 0);
+  }
 }
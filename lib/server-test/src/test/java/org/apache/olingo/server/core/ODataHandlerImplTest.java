@@ -22,6 +22,7 @@ import static org.hamcrest.CoreMatchers.containsString;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
@@ -58,6 +59,9 @@ import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.batch.BatchFacade;
+import org.apache.olingo.server.api.metrics.MetricsListener.Counter;
+import org.apache.olingo.server.api.metrics.MetricsListener.Phase;
+import org.apache.olingo.server.api.metrics.MetricsRecorder;
 import org.apache.olingo.server.api.processor.ActionComplexCollectionProcessor;
 import org.apache.olingo.server.api.processor.ActionComplexProcessor;
 import org.apache.olingo.server.api.processor.ActionEntityCollectionProcessor;
@@ -403,6 +407,39 @@ public class ODataHandlerImplTest {
     assertNull(handler.getUriInfo());
   }
 
+  @Test
+  public void metrics() throws Exception {
+    final OData odata = OData.newInstance();
+    final ServiceMetadata metadata = odata.createServiceMetadata(
+        new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+    ODataHandlerImpl handler = new ODataHandlerImpl(odata, metadata, new ServerCoreDebugger(odata));
+    final MetricsRecorder recorder = new MetricsRecorder();
+    handler.register(recorder);
+    assertSame(recorder, handler.getMetricsListener());
+
+    ODataRequest request = new ODataRequest();
+    request.setMethod(HttpMethod.GET);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawODataPath("$metadata");
+    assertEquals(HttpStatusCode.OK.getStatusCode(), handler.process(request).getStatusCode());
+
+    request = new ODataRequest();
+    request.setMethod(HttpMethod.GET);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawODataPath("NotFound");
+    assertEquals(HttpStatusCode.NOT_FOUND.getStatusCode(), handler.process(request).getStatusCode());
+
+    assertEquals(2, recorder.getCount(Counter.REQUESTS));
+    assertEquals(1, recorder.getCount(Counter.ERRORS));
+    assertEquals(2, recorder.getHistogram(Phase.REQUEST).getCount());
+    assertEquals(2, recorder.getHistogram(Phase.URI_PARSING).getCount());
+    assertEquals(1, recorder.getHistogram(Phase.URI_VALIDATION).getCount());
+    assertEquals(1, recorder.getHistogram(Phase.CONTENT_NEGOTIATION).getCount());
+    assertEquals(1, recorder.getHistogram(Phase.DISPATCH).getCount());
+    assertEquals(1, recorder.getHistogram(Phase.ERROR_PROCESSING).getCount());
+    assertEquals(0, recorder.getHistogram(Phase.RESPONSE_WRITING).getCount());
+  }
+
   @Test
   public void dispatchBatch() throws Exception {
     final String uri = "$batch";
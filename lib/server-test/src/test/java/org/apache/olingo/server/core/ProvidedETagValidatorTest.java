@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmBindingTarget;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.etag.ETagProvider;
+import org.apache.olingo.server.api.etag.PreconditionException;
+import org.apache.olingo.server.api.uri.UriParameter;
+import org.apache.olingo.server.core.etag.ProvidedETagValidator;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+public class ProvidedETagValidatorTest {
+
+  private static final OData odata = OData.newInstance();
+  private static final Edm edm = odata.createServiceMetadata(
+      new EdmTechProvider(), Collections.<EdmxReference> emptyList()).getEdm();
+
+  private static final ETagProvider provider = new ETagProvider() {
+    @Override
+    public String getETag(final EdmBindingTarget entitySetOrSingleton, final List<UriParameter> keyPredicates) {
+      return keyPredicates.isEmpty() ?
+          "\"" + entitySetOrSingleton.getName() + "\"" :
+          "\"" + entitySetOrSingleton.getName() + keyPredicates.get(0).getText() + "\"";
+    }
+
+    @Override
+    public String getCollectionETag(final EdmEntitySet entitySet) {
+      return "W/\"" + entitySet.getName() + "\"";
+    }
+  };
+
+  @Test
+  public void notModified() throws Exception {
+    final ODataResponse response = new ODataResponse();
+    assertTrue(validate("ESAllPrim(1)", HttpMethod.GET, HttpHeader.IF_NONE_MATCH, "\"ESAllPrim1\"", response));
+    assertEquals(HttpStatusCode.NOT_MODIFIED.getStatusCode(), response.getStatusCode());
+    assertEquals("\"ESAllPrim1\"", response.getHeader(HttpHeader.ETAG));
+
+    assertTrue(validate("ESAllPrim(1)/PropertyInt16/$value", HttpMethod.GET, HttpHeader.IF_NONE_MATCH,
+        "\"ESAllPrim1\"", new ODataResponse()));
+    assertTrue(validate("SI", HttpMethod.GET, HttpHeader.IF_NONE_MATCH, "\"SI\"", new ODataResponse()));
+  }
+
+  @Test
+  public void weakCollectionETag() throws Exception {
+    assertTrue(validate("ESAllPrim?$top=1", HttpMethod.GET, HttpHeader.IF_NONE_MATCH, "W/\"ESAllPrim\"",
+        new ODataResponse()));
+    assertFalse(validate("ESAllPrim/$count", HttpMethod.GET, HttpHeader.IF_NONE_MATCH, "W/\"ESAllPrim\"",
+        new ODataResponse()));
+    assertFalse(validate("ESAllPrim?$expand=NavPropertyETTwoPrimOne", HttpMethod.GET, HttpHeader.IF_NONE_MATCH,
+        "W/\"ESAllPrim\"", new ODataResponse()));
+  }
+
+  @Test
+  public void modified() throws Exception {
+    final ODataResponse response = new ODataResponse();
+    assertFalse(validate("ESAllPrim(1)", HttpMethod.GET, HttpHeader.IF_NONE_MATCH, "\"ESAllPrim2\"", response));
+    assertNull(response.getHeader(HttpHeader.ETAG));
+    assertFalse(validate("ESMedia(1)/$value", HttpMethod.GET, HttpHeader.IF_NONE_MATCH, "\"ESMedia1\"",
+        new ODataResponse()));
+    assertFalse(validate("ESAllPrim(1)", HttpMethod.PATCH, HttpHeader.IF_MATCH, "\"ESAllPrim1\"",
+        new ODataResponse()));
+  }
+
+  @Test
+  public void preconditionFailed() throws Exception {
+    try {
+      validate("ESAllPrim(1)", HttpMethod.GET, HttpHeader.IF_MATCH, "\"ESAllPrim2\"", new ODataResponse());
+      fail("Expected a PreconditionException");
+    } catch (final PreconditionException e) {
+      assertEquals(PreconditionException.MessageKeys.FAILED, e.getMessageKey());
+    }
+    try {
+      validate("ESAllPrim(1)", HttpMethod.DELETE, HttpHeader.IF_MATCH, "\"ESAllPrim2\"", new ODataResponse());
+      fail("Expected a PreconditionException");
+    } catch (final PreconditionException e) {
+      assertEquals(PreconditionException.MessageKeys.FAILED, e.getMessageKey());
+    }
+  }
+
+  private boolean validate(final String uri, final HttpMethod method, final String header, final String value,
+      final ODataResponse response) throws Exception {
+    final int index = uri.indexOf('?');
+    final ODataRequest request = new ODataRequest();
+    request.setMethod(method);
+    request.addHeader(header, value);
+    return new ProvidedETagValidator(provider,
+        new Parser(edm, odata).parseUri(index < 0 ? uri : uri.substring(0, index),
+            index < 0 ? null : uri.substring(index + 1), null, null))
+        .validate(request, response);
+  }
+}
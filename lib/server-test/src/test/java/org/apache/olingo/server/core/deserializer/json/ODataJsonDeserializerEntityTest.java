@@ -42,6 +42,7 @@ import org.apache.olingo.commons.api.data.ComplexValue;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.Link;
 import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.Valuable;
 import org.apache.olingo.commons.api.data.ValueType;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
@@ -124,6 +125,31 @@ public class ODataJsonDeserializerEntityTest extends AbstractODataDeserializerTe
     assertNotNull(entity.getProperty("PropertyGuid").getValue());
     assertNotNull(entity.getProperty("PropertyTimeOfDay").getValue());
   }
+
+  @Test
+  public void unboxedPrimitives() throws Exception {
+    final String entityString = "{\"PropertyInt16\":1,"
+        + "\"PropertyBoolean\":false,"
+        + "\"PropertyInt32\":-2147483648,"
+        + "\"PropertyInt64\":-9223372036854775808,"
+        + "\"PropertyDouble\":-1.79E19}";
+    final Entity entity = deserialize(entityString, "ETAllPrim");
+
+    assertEquals(Valuable.PrimitiveStorage.OBJECT, entity.getProperty("PropertyInt16").getPrimitiveStorage());
+    assertEquals(Valuable.PrimitiveStorage.BOOLEAN, entity.getProperty("PropertyBoolean").getPrimitiveStorage());
+    assertFalse(entity.getProperty("PropertyBoolean").getBoolean());
+    assertEquals(Valuable.PrimitiveStorage.INT, entity.getProperty("PropertyInt32").getPrimitiveStorage());
+    assertEquals(Integer.MIN_VALUE, entity.getProperty("PropertyInt32").getInt());
+    assertEquals(Valuable.PrimitiveStorage.LONG, entity.getProperty("PropertyInt64").getPrimitiveStorage());
+    assertEquals(Long.MIN_VALUE, entity.getProperty("PropertyInt64").getLong());
+    assertEquals(Valuable.PrimitiveStorage.DOUBLE, entity.getProperty("PropertyDouble").getPrimitiveStorage());
+    assertEquals(-1.79E19, entity.getProperty("PropertyDouble").getDouble(), 0);
+
+    assertEquals(Integer.valueOf(Integer.MIN_VALUE), entity.getProperty("PropertyInt32").getValue());
+    assertEquals(Long.valueOf(Long.MIN_VALUE), entity.getProperty("PropertyInt64").getValue());
+    assertEquals(Double.valueOf(-1.79E19), entity.getProperty("PropertyDouble").getValue());
+    assertEquals(Boolean.FALSE, entity.getProperty("PropertyBoolean").getValue());
+  }
   
   @Test
   public void derivedEntityETTwoPrim() throws Exception {
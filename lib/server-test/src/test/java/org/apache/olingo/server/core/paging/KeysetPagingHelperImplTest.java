@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.paging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.ValueType;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.paging.KeysetPagingHelper;
+import org.apache.olingo.server.api.paging.SeekPosition;
+import org.apache.olingo.server.api.paging.SkipTokenException;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+import org.apache.olingo.server.api.uri.queryoption.SkipTokenOption;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.core.uri.queryoption.SkipTokenOptionImpl;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+public class KeysetPagingHelperImplTest {
+
+  private static final OData odata = OData.newInstance();
+  private static final Edm edm = odata.createServiceMetadata(
+      new EdmTechProvider(), Collections.<EdmxReference> emptyList()).getEdm();
+  private static final EdmEntityType entityType = edm.getEntityContainer().getEntitySet("ESAllPrim").getEntityType();
+  private static final byte[] SECRET = "secret".getBytes();
+
+  private final KeysetPagingHelper helper = odata.createKeysetPagingHelper(SECRET);
+
+  @Test
+  public void roundTrip() throws Exception {
+    final OrderByOption orderBy = getOrderBy("PropertyString%20desc");
+    final String token = helper.createSkipToken(entityType, orderBy, createEntity(3, "abc"), 5);
+    assertTrue(token.matches("[A-Za-z0-9_.-]+"));
+
+    final SeekPosition position = helper.parseSkipToken(entityType, orderBy, createSkipToken(token));
+    assertEquals(5, position.getPageSize());
+    assertEquals(2, position.size());
+    assertEquals("PropertyString", position.getPropertyPath(0));
+    assertEquals("abc", position.getValue(0));
+    assertTrue(position.isDescending(0));
+    assertEquals("PropertyInt16", position.getPropertyPath(1));
+    assertEquals(Short.valueOf((short) 3), position.getValue(1));
+    assertFalse(position.isDescending(1));
+
+    assertTrue(position.isAfter(createEntity(1, "abb")));
+    assertFalse(position.isAfter(createEntity(1, "abd")));
+    assertTrue(position.isAfter(createEntity(4, "abc")));
+    assertFalse(position.isAfter(createEntity(3, "abc")));
+    assertTrue(position.isAfter(createEntity(1, null)));
+  }
+
+  @Test
+  public void nullValue() throws Exception {
+    final OrderByOption orderBy = getOrderBy("PropertyString");
+    final SeekPosition position = helper.parseSkipToken(entityType, orderBy,
+        createSkipToken(helper.createSkipToken(entityType, orderBy, createEntity(7, null), 10)));
+    assertNull(position.getValue(0));
+    assertTrue(position.isAfter(createEntity(1, "")));
+    assertTrue(position.isAfter(createEntity(8, null)));
+    assertFalse(position.isAfter(createEntity(6, null)));
+  }
+
+  @Test
+  public void noSkipToken() throws Exception {
+    assertNull(helper.parseSkipToken(entityType, null, null));
+  }
+
+  @Test
+  public void invalidSkipTokens() throws Exception {
+    final OrderByOption orderBy = getOrderBy("PropertyString");
+    final String token = helper.createSkipToken(entityType, orderBy, createEntity(1, "a"), 10);
+
+    expectInvalid(helper, null, token);
+    expectInvalid(helper, getOrderBy("PropertyString%20desc"), token);
+    expectInvalid(odata.createKeysetPagingHelper("other".getBytes()), orderBy, token);
+    expectInvalid(helper, orderBy, "A" + token);
+    expectInvalid(helper, orderBy, token.substring(0, token.indexOf('.')));
+    expectInvalid(helper, orderBy, "1*10");
+  }
+
+  @Test
+  public void unsupportedOrderBy() throws Exception {
+    try {
+      helper.createSkipToken(entityType, getOrderBy("length(PropertyString)"), createEntity(1, "a"), 10);
+      fail("Expected a SkipTokenException");
+    } catch (final SkipTokenException e) {
+      assertEquals(SkipTokenException.MessageKeys.UNSUPPORTED_ORDER_BY, e.getMessageKey());
+    }
+  }
+
+  @Test
+  public void nextLink() {
+    assertEquals("http://host/svc/ESAllPrim?%24skiptoken=a.b",
+        helper.createNextLink("http://host/svc/ESAllPrim", "a.b").toString());
+    assertEquals("http://host/svc/ESAllPrim?$orderby=PropertyString&$top=5&%24skiptoken=a.b",
+        helper.createNextLink("http://host/svc/ESAllPrim?$orderby=PropertyString&%24skiptoken=x.y&$top=5",
+            "a.b").toString());
+    assertEquals("http://host/svc/ESAllPrim?$top=5&%24skiptoken=1%2A10",
+        helper.createNextLink("http://host/svc/ESAllPrim?$skiptoken=0*10&$top=5&", "1*10").toString());
+    // Option names are matched like the URI parser does: percent-decoded and case-sensitive.
+    assertEquals("http://host/svc/ESAllPrim?%24SKIPTOKEN=x&%24SkipToken=y&%24skiptoken=a.b",
+        helper.createNextLink("http://host/svc/ESAllPrim?%24SKIPTOKEN=x&%24SkipToken=y&%24%73kiptoken=z",
+            "a.b").toString());
+  }
+
+  private void expectInvalid(final KeysetPagingHelper helper, final OrderByOption orderBy, final String token) {
+    try {
+      helper.parseSkipToken(entityType, orderBy, createSkipToken(token));
+      fail("Expected a SkipTokenException for " + token);
+    } catch (final SkipTokenException e) {
+      assertEquals(SkipTokenException.MessageKeys.INVALID_SKIP_TOKEN, e.getMessageKey());
+    }
+  }
+
+  private static OrderByOption getOrderBy(final String orderBy) throws Exception {
+    return new Parser(edm, odata).parseUri("ESAllPrim", "$orderby=" + orderBy, null, null).getOrderByOption();
+  }
+
+  private static SkipTokenOption createSkipToken(final String value) {
+    return new SkipTokenOptionImpl().setValue(value);
+  }
+
+  private static Entity createEntity(final int key, final String value) {
+    return new Entity()
+        .addProperty(new Property(null, "PropertyInt16", ValueType.PRIMITIVE, (short) key))
+        .addProperty(new Property(null, "PropertyString", ValueType.PRIMITIVE, value));
+  }
+}
@@ -728,4 +728,10 @@ public class JsonDeltaSerializerTest {
       
      } 
   
+
+  @Test
+  public void streamedDelta() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESDelta");
+    StreamedDeltaCheck.check(ser, metadata, edmEntitySet, data.readAll(edmEntitySet).getEntities().subList(0, 2));
+  }
 }
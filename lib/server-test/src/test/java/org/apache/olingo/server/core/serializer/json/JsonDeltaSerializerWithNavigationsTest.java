@@ -1250,4 +1250,10 @@ public class JsonDeltaSerializerWithNavigationsTest {
        Assert.assertNotNull(jsonString);
        Assert.assertEquals(expectedResult, jsonString);
      }
+
+  @Test
+  public void streamedDelta() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESDelta");
+    StreamedDeltaCheck.check(ser, metadata, edmEntitySet, data.readAll(edmEntitySet).getEntities().subList(0, 2));
+  }
 }
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.json;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.data.ContextURL;
+import org.apache.olingo.commons.api.data.ContextURL.Suffix;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityIterator;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.ValueType;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.edm.EdmNavigationProperty;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.serializer.EntityCollectionSerializerOptions;
+import org.apache.olingo.server.api.serializer.EntitySerializerOptions;
+import org.apache.olingo.server.api.serializer.ExpandLoader;
+import org.apache.olingo.server.api.serializer.ODataSerializer;
+import org.apache.olingo.server.api.uri.queryoption.ExpandItem;
+import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
+import org.apache.olingo.server.core.uri.UriInfoImpl;
+import org.apache.olingo.server.core.uri.UriResourceNavigationPropertyImpl;
+import org.apache.olingo.server.core.uri.UriResourcePrimitivePropertyImpl;
+import org.apache.olingo.server.core.uri.queryoption.ExpandItemImpl;
+import org.apache.olingo.server.core.uri.queryoption.ExpandOptionImpl;
+import org.apache.olingo.server.core.uri.queryoption.SelectItemImpl;
+import org.apache.olingo.server.core.uri.queryoption.SelectOptionImpl;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+public class ODataJsonSerializerExpandLoaderTest {
+  private static final OData odata = OData.newInstance();
+  private static final ServiceMetadata metadata = odata.createServiceMetadata(
+      new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+  private static final EdmEntitySet edmEntitySet =
+      metadata.getEdm().getEntityContainer().getEntitySet("ESTwoPrim");
+  private final ODataSerializer serializer = new ODataJsonSerializer(ContentType.JSON);
+
+  @Test
+  public void entityCollectionInChunks() throws Exception {
+    final EntityCollection entitySet = new EntityCollection();
+    entitySet.getEntities().addAll(Arrays.asList(
+        createTwoPrim(1, "First"), createTwoPrim(2, "Second"), createTwoPrim(3, "Third")));
+    final List<Integer> chunkSizes = new ArrayList<Integer>();
+
+    final ExpandLoader loader = new ExpandLoader() {
+      @Override
+      public List<EntityIterator> load(final EdmNavigationProperty navigationProperty, final ExpandItem expandItem,
+          final List<Entity> parents) {
+        assertEquals("NavPropertyETAllPrimMany", navigationProperty.getName());
+        chunkSizes.add(parents.size());
+        final List<EntityIterator> result = new ArrayList<EntityIterator>();
+        for (final Entity parent : parents) {
+          final short key = (Short) parent.getProperty("PropertyInt16").getValue();
+          result.add(key == 2 ? null : iterate(createAllPrim(key * 10), createAllPrim(key * 10 + 1)));
+        }
+        return result;
+      }
+    };
+
+    final String result = IOUtils.toString(serializer.entityCollection(metadata, edmEntitySet.getEntityType(),
+        entitySet,
+        EntityCollectionSerializerOptions.with()
+            .contextURL(ContextURL.with().entitySet(edmEntitySet).build())
+            .expand(expand("NavPropertyETAllPrimMany"))
+            .expandLoader(loader)
+            .expandChunkSize(2)
+            .build()).getContent());
+
+    assertEquals(Arrays.asList(2, 1), chunkSizes);
+    assertEquals("{\"@odata.context\":\"$metadata#ESTwoPrim\",\"value\":["
+        + "{\"PropertyInt16\":1,\"PropertyString\":\"First\","
+        + "\"NavPropertyETAllPrimMany\":[{\"PropertyInt16\":10},{\"PropertyInt16\":11}]},"
+        + "{\"PropertyInt16\":2,\"PropertyString\":\"Second\",\"NavPropertyETAllPrimMany\":[]},"
+        + "{\"PropertyInt16\":3,\"PropertyString\":\"Third\","
+        + "\"NavPropertyETAllPrimMany\":[{\"PropertyInt16\":30},{\"PropertyInt16\":31}]}]}",
+        result);
+  }
+
+  @Test
+  public void entityWithSingleNavigation() throws Exception {
+    final ExpandLoader loader = new ExpandLoader() {
+      @Override
+      public List<EntityIterator> load(final EdmNavigationProperty navigationProperty, final ExpandItem expandItem,
+          final List<Entity> parents) {
+        assertEquals(1, parents.size());
+        return Collections.singletonList(iterate(createAllPrim(42)));
+      }
+    };
+
+    final String result = IOUtils.toString(serializer.entity(metadata, edmEntitySet.getEntityType(),
+        createTwoPrim(4, "Fourth"),
+        EntitySerializerOptions.with()
+            .contextURL(ContextURL.with().entitySet(edmEntitySet).suffix(Suffix.ENTITY).build())
+            .expand(expand("NavPropertyETAllPrimOne"))
+            .expandLoader(loader)
+            .build()).getContent());
+
+    assertEquals("{\"@odata.context\":\"$metadata#ESTwoPrim/$entity\","
+        + "\"PropertyInt16\":4,\"PropertyString\":\"Fourth\","
+        + "\"NavPropertyETAllPrimOne\":{\"PropertyInt16\":42}}",
+        result);
+  }
+
+  @Test
+  public void loaderOnlyUsedForItsCall() throws Exception {
+    final List<Integer> calls = new ArrayList<Integer>();
+    final ExpandLoader loader = new ExpandLoader() {
+      @Override
+      public List<EntityIterator> load(final EdmNavigationProperty navigationProperty, final ExpandItem expandItem,
+          final List<Entity> parents) {
+        calls.add(parents.size());
+        return Collections.singletonList(iterate(createAllPrim(42)));
+      }
+    };
+    final ContextURL contextURL = ContextURL.with().entitySet(edmEntitySet).suffix(Suffix.ENTITY).build();
+    serializer.entity(metadata, edmEntitySet.getEntityType(), createTwoPrim(5, "Fifth"),
+        EntitySerializerOptions.with().contextURL(contextURL).expand(expand("NavPropertyETAllPrimOne"))
+            .expandLoader(loader).build());
+
+    final String result = IOUtils.toString(serializer.entity(metadata, edmEntitySet.getEntityType(),
+        createTwoPrim(6, "Sixth"),
+        EntitySerializerOptions.with().contextURL(contextURL).expand(expand("NavPropertyETAllPrimOne")).build())
+        .getContent());
+
+    assertEquals(Collections.singletonList(1), calls);
+    assertEquals("{\"@odata.context\":\"$metadata#ESTwoPrim/$entity\","
+        + "\"PropertyInt16\":6,\"PropertyString\":\"Sixth\","
+        + "\"NavPropertyETAllPrimOne\":null}",
+        result);
+  }
+
+  private static ExpandOption expand(final String navigationPropertyName) {
+    final EdmNavigationProperty navigationProperty =
+        edmEntitySet.getEntityType().getNavigationProperty(navigationPropertyName);
+    final SelectOptionImpl select = new SelectOptionImpl().setSelectItems(Collections.singletonList(
+        new SelectItemImpl().setResourcePath(new UriInfoImpl().addResourcePart(new UriResourcePrimitivePropertyImpl(
+            navigationProperty.getType().getStructuralProperty("PropertyInt16"))))));
+    return new ExpandOptionImpl().addExpandItem(new ExpandItemImpl()
+        .setResourcePath(new UriInfoImpl().addResourcePart(
+            new UriResourceNavigationPropertyImpl(navigationProperty)))
+        .setSystemQueryOption(select));
+  }
+
+  private static Entity createTwoPrim(final int key, final String value) {
+    return new Entity()
+        .addProperty(new Property(null, "PropertyInt16", ValueType.PRIMITIVE, (short) key))
+        .addProperty(new Property(null, "PropertyString", ValueType.PRIMITIVE, value));
+  }
+
+  private static Entity createAllPrim(final int key) {
+    return new Entity().addProperty(new Property(null, "PropertyInt16", ValueType.PRIMITIVE, (short) key));
+  }
+
+  private static EntityIterator iterate(final Entity... entities) {
+    final Iterator<Entity> iterator = Arrays.asList(entities).iterator();
+    return new EntityIterator() {
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public Entity next() {
+        return iterator.next();
+      }
+    };
+  }
+}
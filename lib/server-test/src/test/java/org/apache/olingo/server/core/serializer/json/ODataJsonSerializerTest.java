@@ -20,6 +20,7 @@ package org.apache.olingo.server.core.serializer.json;
 
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -28,14 +29,23 @@ import java.nio.channels.WritableByteChannel;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.apache.olingo.commons.api.constants.Constantsv01;
+import org.apache.olingo.commons.api.data.ColumnVector;
+import org.apache.olingo.commons.api.data.ColumnarEntityCollection;
 import org.apache.olingo.commons.api.data.ComplexValue;
 import org.apache.olingo.commons.api.data.ContextURL;
 import org.apache.olingo.commons.api.data.ContextURL.Suffix;
@@ -183,6 +193,24 @@ public class ODataJsonSerializerTest {
 	  Assert.assertEquals(expectedResult, resultString);
   }
   
+  @Test
+  public void entityBinaryFromStream() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
+    final Entity entity = data.readAll(edmEntitySet).getEntities().get(0);
+    final byte[] binary = new byte[5000];
+    for (int i = 0; i < binary.length; i++) {
+      binary[i] = (byte) i;
+    }
+    entity.getProperty("PropertyBinary").setValue(ValueType.PRIMITIVE, new ByteArrayInputStream(binary));
+    final String resultString = IOUtils.toString(serializer.entity(metadata, edmEntitySet.getEntityType(), entity,
+        EntitySerializerOptions.with()
+            .contextURL(ContextURL.with().entitySet(edmEntitySet).suffix(Suffix.ENTITY).build())
+            .build()).getContent());
+    Assert.assertTrue(resultString.contains("\"PropertyBinary\":\""
+        + Base64.getEncoder().encodeToString(binary)
+        + "\","));
+  }
+
   @Test
   public void entitySimpleMetadataFull() throws Exception {
     final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
@@ -1300,6 +1328,41 @@ public class ODataJsonSerializerTest {
     Assert.assertEquals(expected, resultString);
   }  
 
+  @Test
+  public void columnarEntitySet() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
+    final BitSet nulls = new BitSet();
+    nulls.set(1);
+    final ColumnarEntityCollection columns = new ColumnarEntityCollection(3)
+        .addColumn(new ColumnVector.IntVector("PropertyInt16", new int[] { 1, 2, 3 }, null))
+        .addColumn(new ColumnVector.DictionaryVector("PropertyString",
+            new String[] { "First", "Sec\"ond" }, new int[] { 1, -1, 0 }))
+        .addColumn(new ColumnVector.BooleanVector("PropertyBoolean", new boolean[] { true, false, false }, nulls))
+        .addColumn(new ColumnVector.IntVector("PropertyInt32", new int[] { Integer.MAX_VALUE, 0, -5 }, nulls))
+        .addColumn(new ColumnVector.LongVector("PropertyInt64", new long[] { Long.MIN_VALUE, 7L, 42L }, null))
+        .addColumn(new ColumnVector.DoubleVector("PropertyDouble",
+            new double[] { 1.5, Double.POSITIVE_INFINITY, -0.25E-10 }, nulls));
+    final EntityCollection entities = new EntityCollection();
+    for (final Entity entity : columns) {
+      entities.getEntities().add(entity);
+    }
+    final EntityCollectionSerializerOptions options = EntityCollectionSerializerOptions.with()
+        .contextURL(ContextURL.with().entitySet(edmEntitySet).build()).build();
+
+    for (final ODataSerializer current : Arrays.asList(serializer, serializerNoMetadata,
+        serializerIEEECompatible, serializerFullMetadata)) {
+      final String expected = IOUtils.toString(current.entityCollection(metadata, edmEntitySet.getEntityType(),
+          entities, options).getContent());
+      Assert.assertEquals(expected, IOUtils.toString(current.entityCollection(metadata,
+          edmEntitySet.getEntityType(), columns, options).getContent()));
+    }
+    Assert.assertTrue(IOUtils.toString(serializer.entityCollection(metadata, edmEntitySet.getEntityType(),
+        columns, options).getContent()).contains(
+            "{\"PropertyInt16\":2,\"PropertyString\":null,\"PropertyBoolean\":null,"
+            + "\"PropertyByte\":null,\"PropertySByte\":null,\"PropertyInt32\":null,"
+            + "\"PropertyInt64\":7,\"PropertySingle\":null,\"PropertyDouble\":null,"));
+  }
+
   @Test
   public void selectComplexTwice() throws Exception {
     final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESFourKeyAlias");
@@ -2906,4 +2969,38 @@ public class ODataJsonSerializerTest {
             + "\"PropertyComp\":{\"PropertyInt16\":333,\"PropertyString\":\"TEST123\"}}}";
     Assert.assertEquals(expectedResult, resultString);
   }
+
+  @Test
+  public void sharedBetweenThreads() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
+    // many entities, so that the threads really write at the same time
+    final EntityCollection entitySet = new EntityCollection();
+    for (int i = 0; i < 200; i++) {
+      entitySet.getEntities().addAll(data.readAll(edmEntitySet).getEntities());
+    }
+    final EntityCollectionSerializerOptions options = EntityCollectionSerializerOptions.with()
+        .contextURL(ContextURL.with().entitySet(edmEntitySet).build())
+        .build();
+    final String expectedResult = IOUtils.toString(serializerFullMetadata.entityCollection(
+        metadata, edmEntitySet.getEntityType(), entitySet, options).getContent());
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<String>> results = new ArrayList<Future<String>>();
+      for (int i = 0; i < 40; i++) {
+        results.add(executor.submit(new Callable<String>() {
+          @Override
+          public String call() throws Exception {
+            return IOUtils.toString(serializerFullMetadata.entityCollection(
+                metadata, edmEntitySet.getEntityType(), entitySet, options).getContent());
+          }
+        }));
+      }
+      for (final Future<String> result : results) {
+        Assert.assertEquals(expectedResult, result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
 }
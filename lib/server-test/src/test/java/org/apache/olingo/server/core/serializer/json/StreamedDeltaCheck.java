@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.data.ContextURL;
+import org.apache.olingo.commons.api.data.DeletedEntity;
+import org.apache.olingo.commons.api.data.DeletedEntity.Reason;
+import org.apache.olingo.commons.api.data.Delta;
+import org.apache.olingo.commons.api.data.DeltaIterator;
+import org.apache.olingo.commons.api.data.DeltaLink;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.serializer.EdmDeltaSerializer;
+import org.apache.olingo.server.api.serializer.EntityCollectionSerializerOptions;
+
+/**
+ * Checks that a delta serializer streams a {@link DeltaIterator} exactly like the equivalent {@link Delta}.
+ */
+final class StreamedDeltaCheck {
+
+  private StreamedDeltaCheck() {}
+
+  static void check(final EdmDeltaSerializer serializer, final ServiceMetadata metadata,
+      final EdmEntitySet edmEntitySet, final List<Entity> entities) throws Exception {
+    final DeletedEntity deletedEntity = new DeletedEntity();
+    deletedEntity.setId(new URI("ESDelta(100)"));
+    deletedEntity.setReason(Reason.deleted);
+    final DeltaLink link = new DeltaLink();
+    link.setRelationship("NavPropertyETAllPrimOne");
+    link.setSource(new URI("ESDelta(100)"));
+    link.setTarget(new URI("ESAllPrim(0)"));
+    final URI deltaLink = new URI("ESDelta?$deltatoken=42");
+
+    final Delta delta = new Delta();
+    delta.getEntities().addAll(entities);
+    delta.getDeletedEntities().add(deletedEntity);
+    delta.getAddedLinks().add(link);
+    delta.getDeletedLinks().add(link);
+    delta.setDeltaLink(deltaLink);
+
+    final Iterator<Entity> entityIterator = entities.iterator();
+    final DeltaIterator deltaIterator = new DeltaIterator() {
+      @Override
+      public boolean hasNext() {
+        return entityIterator.hasNext();
+      }
+
+      @Override
+      public Entity next() {
+        return entityIterator.next();
+      }
+
+      @Override
+      public Iterator<DeletedEntity> getDeletedEntities() {
+        return Collections.singletonList(deletedEntity).iterator();
+      }
+
+      @Override
+      public Iterator<DeltaLink> getAddedLinks() {
+        return Collections.singletonList(link).iterator();
+      }
+
+      @Override
+      public Iterator<DeltaLink> getDeletedLinks() {
+        // The delta link is determined while iterating.
+        setDeltaLink(deltaLink);
+        return Collections.singletonList(link).iterator();
+      }
+    };
+
+    final EntityCollectionSerializerOptions options = EntityCollectionSerializerOptions.with()
+        .contextURL(ContextURL.with().entitySet(edmEntitySet).build())
+        .build();
+    final String expectedResult = IOUtils.toString(
+        serializer.entityCollection(metadata, edmEntitySet.getEntityType(), delta, options).getContent(),
+        StandardCharsets.UTF_8);
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    serializer.entityCollectionStreamed(metadata, edmEntitySet.getEntityType(), deltaIterator, options)
+        .getODataContent().write(output);
+    final String jsonString = new String(output.toByteArray(), StandardCharsets.UTF_8);
+    assertEquals(expectedResult, jsonString);
+    assertTrue(jsonString.endsWith("\"ESDelta?$deltatoken=42\"}"));
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.ValueType;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmEntityContainer;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.api.uri.UriHelper;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+public class KeyPredicateWriterTest {
+
+  private static final OData odata = OData.newInstance();
+  private static final Edm edm = odata.createServiceMetadata(
+      new EdmTechProvider(), Collections.<EdmxReference> emptyList()).getEdm();
+  private static final EdmEntityContainer container = edm.getEntityContainer();
+  private static final UriHelper helper = odata.createUriHelper();
+  private final DataProvider data = new DataProvider(odata, edm);
+
+  @Test
+  public void sameAsUriHelper() throws Exception {
+    final KeyPredicateWriter.Cache cache = new KeyPredicateWriter.Cache();
+    final StringBuilder buffer = new StringBuilder();
+    for (final String name : new String[] { "ESAllPrim", "ESAllKey", "ESTwoKeyNav", "ESFourKeyAlias",
+        "ESMixPrimCollComp", "ESKeyNav" }) {
+      final EdmEntitySet entitySet = container.getEntitySet(name);
+      final KeyPredicateWriter writer = cache.get(entitySet.getEntityType());
+      assertSame(writer, cache.get(entitySet.getEntityType()));
+      for (final Entity entity : data.readAll(entitySet)) {
+        buffer.setLength(0);
+        writer.append(entity, buffer);
+        assertEquals(helper.buildKeyPredicate(entitySet.getEntityType(), entity), buffer.toString());
+      }
+    }
+  }
+
+  @Test(expected = SerializerException.class)
+  public void wrongValue() throws Exception {
+    final EdmEntitySet entitySet = container.getEntitySet("ESAllPrim");
+    final Entity entity = data.readAll(entitySet).getEntities().get(0);
+    entity.getProperty("PropertyInt16").setValue(ValueType.PRIMITIVE, "wrong");
+    new KeyPredicateWriter.Cache().get(entitySet.getEntityType()).append(entity, new StringBuilder());
+  }
+
+  @Test(expected = SerializerException.class)
+  public void missingKey() throws Exception {
+    final EdmEntitySet entitySet = container.getEntitySet("ESAllPrim");
+    final Entity entity = data.readAll(entitySet).getEntities().get(0);
+    entity.getProperties().remove(0);
+    new KeyPredicateWriter.Cache().get(entitySet.getEntityType()).append(entity, new StringBuilder());
+  }
+}
@@ -24,11 +24,14 @@ import java.net.URI;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Date;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.Constants;
+import org.apache.olingo.commons.api.data.ColumnVector;
+import org.apache.olingo.commons.api.data.ColumnarEntityCollection;
 import org.apache.olingo.commons.api.data.ComplexValue;
 import org.apache.olingo.commons.api.data.ContextURL;
 import org.apache.olingo.commons.api.data.ContextURL.Suffix;
@@ -464,6 +467,37 @@ public class ODataXmlSerializerTest {
     }
   }
 
+  @Test
+  public void columnarEntitySet() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
+    final BitSet nulls = new BitSet();
+    nulls.set(1);
+    final ColumnarEntityCollection columns = new ColumnarEntityCollection(3)
+        .addColumn(new ColumnVector.IntVector("PropertyInt16", new int[] { 1, 2, 3 }, null))
+        .addColumn(new ColumnVector.DictionaryVector("PropertyString",
+            new String[] { "First", "Sec<ond" }, new int[] { 1, -1, 0 }))
+        .addColumn(new ColumnVector.BooleanVector("PropertyBoolean", new boolean[] { true, false, false }, nulls))
+        .addColumn(new ColumnVector.IntVector("PropertyInt32", new int[] { Integer.MAX_VALUE, 0, -5 }, nulls))
+        .addColumn(new ColumnVector.LongVector("PropertyInt64", new long[] { Long.MIN_VALUE, 7L, 42L }, null))
+        .addColumn(new ColumnVector.DoubleVector("PropertyDouble",
+            new double[] { 1.5, Double.POSITIVE_INFINITY, -0.25E-10 }, nulls));
+    final EntityCollection entities = new EntityCollection();
+    for (final Entity entity : columns) {
+      entities.getEntities().add(entity);
+    }
+    final EntityCollectionSerializerOptions options = EntityCollectionSerializerOptions.with()
+        .contextURL(ContextURL.with().entitySet(edmEntitySet).build()).build();
+
+    final String updated = "<a:updated>[^<]*</a:updated>";
+    final String expected = IOUtils.toString(serializer.entityCollection(metadata, edmEntitySet.getEntityType(),
+        entities, options).getContent()).replaceAll(updated, "");
+    final String result = IOUtils.toString(serializer.entityCollection(metadata, edmEntitySet.getEntityType(),
+        columns, options).getContent()).replaceAll(updated, "");
+    Assert.assertEquals(expected, result);
+    Assert.assertTrue(result.contains("<d:PropertyString>Sec&lt;ond</d:PropertyString>"));
+    Assert.assertTrue(result.contains("<d:PropertyInt64 m:type=\"Int64\">7</d:PropertyInt64>"));
+  }
+
   @Test
   public void entitySetCompAllPrim() throws Exception {
     final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESCompAllPrim");